@@ -1,9 +1,18 @@
 -- Drop existing tables if they exist (for clean setup)
 BEGIN
    FOR c IN (SELECT table_name FROM user_tables WHERE table_name IN (
-      'TRAVEL_HISTORY', 'PASSENGERS', 'FLIGHTS', 'USERS', 'ROUTES'
+      'PASSENGER_TRAVEL_STATS', 'TRAVEL_HISTORY_ARCHIVE', 'TRAVEL_HISTORY', 'PASSENGER_TOMBSTONES', 'FLIGHT_OPS_COUNTERS', 'FLIGHT_SHOPPING_STOCK', 'PASSENGERS', 'FLIGHT_TOMBSTONES', 'SCHEDULE_IMPORTS', 'SEAT_HOLDS', 'FLIGHTS', 'USERS', 'ROUTES'
    )) LOOP
       EXECUTE IMMEDIATE 'DROP TABLE ' || c.table_name || ' CASCADE CONSTRAINTS';
    END LOOP;
 END;
+/
+
+BEGIN
+   FOR s IN (SELECT sequence_name FROM user_sequences WHERE sequence_name IN (
+      'PASSENGERS_SEQ', 'TRAVEL_HISTORY_SEQ'
+   )) LOOP
+      EXECUTE IMMEDIATE 'DROP SEQUENCE ' || s.sequence_name;
+   END LOOP;
+END;
 /
\ No newline at end of file
@@ -17,4 +17,38 @@ CREATE TABLE flights (
 );
 
 CREATE INDEX idx_flights_date ON flights(flight_date);
-CREATE INDEX idx_flights_route ON flights(route);
\ No newline at end of file
+CREATE INDEX idx_flights_route ON flights(route);
+CREATE INDEX idx_flights_updated ON flights(updated_at, flight_id);  -- change feed keyset
+
+-- Deleted flights, kept for the /flights/changes feed
+CREATE TABLE flight_tombstones (
+    flight_id           NUMBER PRIMARY KEY,
+    deleted_at          TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_flight_tombstones_deleted ON flight_tombstones(deleted_at, flight_id);
+
+-- Checkpoints of bulk schedule imports (POST /flights/import)
+CREATE TABLE schedule_imports (
+    import_id           VARCHAR2(64) PRIMARY KEY,
+    status              VARCHAR2(20) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED', 'FAILED')),
+    last_committed_line NUMBER DEFAULT 0 NOT NULL,
+    imported_flights    NUMBER DEFAULT 0 NOT NULL,
+    imported_routes     NUMBER DEFAULT 0 NOT NULL,
+    failed_rows         NUMBER DEFAULT 0 NOT NULL,
+    created_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP
+);
+
+-- Journal of open seat holds (POST /flights/{id}/seats/holds): one row per hold,
+-- deleted when the hold is released, expires or is turned into a seat assignment
+CREATE TABLE seat_holds (
+    hold_id             VARCHAR2(36) PRIMARY KEY,
+    flight_id           NUMBER NOT NULL REFERENCES flights(flight_id) ON DELETE CASCADE,
+    seats               VARCHAR2(400) NOT NULL,
+    expires_at          TIMESTAMP NOT NULL,
+    created_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP   -- bumped when seats become assignments
+);
+
+CREATE INDEX idx_seat_holds_flight ON seat_holds(flight_id, expires_at);
\ No newline at end of file
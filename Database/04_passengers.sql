@@ -1,6 +1,10 @@
 -- PASSENGERS TABLE
+-- Pooled by the application (50 IDs per NEXTVAL); the column default covers plain SQL inserts.
+-- Starts above the explicit IDs of the seed passengers.
+CREATE SEQUENCE passengers_seq START WITH 101 INCREMENT BY 50;
+
 CREATE TABLE passengers (
-    passenger_id        NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    passenger_id        NUMBER DEFAULT passengers_seq.NEXTVAL PRIMARY KEY,
     flight_id           NUMBER NOT NULL,
     name                VARCHAR2(100) NOT NULL,
     phone_number        VARCHAR2(20),
@@ -20,6 +24,7 @@ CREATE TABLE passengers (
     infant              CHAR(1) DEFAULT 'N' CHECK (infant IN ('Y', 'N')),
     created_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
     updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    version             NUMBER(19) DEFAULT 0 NOT NULL,  -- optimistic locking (service management)
     
     CONSTRAINT fk_passengers_flight
         FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE
@@ -27,4 +32,42 @@ CREATE TABLE passengers (
 
 CREATE INDEX idx_passengers_flight ON passengers(flight_id);
 CREATE INDEX idx_passengers_name ON passengers(name);
-CREATE INDEX idx_passengers_checkin ON passengers(checked_in);
\ No newline at end of file
+CREATE INDEX idx_passengers_checkin ON passengers(checked_in);
+CREATE INDEX idx_passengers_updated ON passengers(updated_at, passenger_id);  -- change feed keyset
+
+-- Deleted passengers, kept for the /passengers/changes feed
+CREATE TABLE passenger_tombstones (
+    passenger_id        NUMBER PRIMARY KEY,
+    deleted_at          TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_passenger_tombstones_deleted ON passenger_tombstones(deleted_at, passenger_id);
+
+-- Per-flight operations counters (GET /flights/{id}/ops-summary), maintained in the same
+-- transaction as every passenger write. Each counter is split over a few stripe rows so
+-- concurrent transactions on one flight rarely wait on the same row lock; the value of a
+-- counter is the sum of its stripes. Counter names: PASSENGERS, CHECKED_IN, SPECIAL_NEEDS,
+-- WHEELCHAIR, INFANT, EXTRA_BAGGAGE_KG, SHOPPING_ORDERS, MEAL:<meal type>, SERVICE:<service>
+CREATE TABLE flight_ops_counters (
+    flight_id           NUMBER NOT NULL REFERENCES flights(flight_id) ON DELETE CASCADE,
+    counter_name        VARCHAR2(60) NOT NULL,
+    stripe              NUMBER(2) NOT NULL,
+    counter_value       NUMBER DEFAULT 0 NOT NULL,
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    CONSTRAINT pk_flight_ops_counters PRIMARY KEY (flight_id, counter_name, stripe)
+) ORGANIZATION INDEX;
+
+-- Per-flight in-flight shopping stock, one row per item of the flight's Shopping service
+-- subtypes, created with the default stock on the item's first sale. Service management
+-- instances lease units in chunks (allocated never exceeds stock) and sell them from
+-- memory; sold is written behind every few seconds.
+CREATE TABLE flight_shopping_stock (
+    flight_id           NUMBER NOT NULL REFERENCES flights(flight_id) ON DELETE CASCADE,
+    item_name           VARCHAR2(100) NOT NULL,
+    stock               NUMBER(6) NOT NULL,
+    allocated           NUMBER(6) DEFAULT 0 NOT NULL,
+    sold                NUMBER(6) DEFAULT 0 NOT NULL,
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    CONSTRAINT pk_flight_shopping_stock PRIMARY KEY (flight_id, item_name),
+    CONSTRAINT chk_shopping_stock_allocated CHECK (allocated BETWEEN 0 AND stock)
+) ORGANIZATION INDEX;
\ No newline at end of file
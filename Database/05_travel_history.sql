@@ -1,6 +1,9 @@
 -- TRAVEL HISTORY TABLE
+-- Pooled by the application (50 IDs per NEXTVAL); the column default covers plain SQL inserts
+CREATE SEQUENCE travel_history_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE travel_history (
-    history_id          NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    history_id          NUMBER DEFAULT travel_history_seq.NEXTVAL PRIMARY KEY,
     passenger_id        NUMBER NOT NULL,
     flight_id           NUMBER NOT NULL,
     travel_date         DATE NOT NULL,
@@ -24,4 +27,58 @@ CREATE TABLE travel_history (
 CREATE INDEX idx_history_passenger ON travel_history(passenger_id);
 CREATE INDEX idx_history_flight ON travel_history(flight_id);
 CREATE INDEX idx_history_date ON travel_history(travel_date);
-CREATE INDEX idx_history_booking_ref ON travel_history(booking_reference);
\ No newline at end of file
+CREATE INDEX idx_history_booking_ref ON travel_history(booking_reference);
+CREATE INDEX idx_history_created ON travel_history(created_at);  -- stats change polling
+
+-- Archive tier of travel_history: Completed and Cancelled trips older than the archive horizon
+-- (app.archive.horizon-days) are moved here in chunked background batches, so per-passenger
+-- queries on the hot table only cover recent history. Same columns, plus the time of the move.
+-- Reads merge both tiers when the requested range reaches the archived dates.
+CREATE TABLE travel_history_archive (
+    history_id          NUMBER PRIMARY KEY,
+    passenger_id        NUMBER NOT NULL,
+    flight_id           NUMBER NOT NULL,
+    travel_date         DATE NOT NULL,
+    origin              VARCHAR2(10) NOT NULL,
+    destination         VARCHAR2(10) NOT NULL,
+    seat                VARCHAR2(10),
+    booking_reference   VARCHAR2(20) UNIQUE NOT NULL,
+    fare_class          VARCHAR2(30),
+    status              VARCHAR2(20),
+    distance_km         NUMBER,
+    duration_min        NUMBER,
+    notes               VARCHAR2(500),
+    created_at          TIMESTAMP,
+    archived_at         TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_history_archive_passenger
+        FOREIGN KEY (passenger_id) REFERENCES passengers(passenger_id) ON DELETE CASCADE,
+    CONSTRAINT fk_history_archive_flight
+        FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE
+) COMPRESS;
+
+CREATE INDEX idx_history_archive_passenger ON travel_history_archive(passenger_id);
+CREATE INDEX idx_history_archive_flight ON travel_history_archive(flight_id);
+CREATE INDEX idx_history_archive_date ON travel_history_archive(travel_date);
+
+-- Per-passenger travel statistics (GET /history/passenger/{id}/stats). Rebuilt from
+-- travel_history by a partitioned batch job and recomputed per passenger as their history
+-- changes. Distance, duration, years and routes count completed trips only.
+CREATE TABLE passenger_travel_stats (
+    passenger_id        NUMBER PRIMARY KEY,
+    total_trips         NUMBER DEFAULT 0 NOT NULL,
+    completed_trips     NUMBER DEFAULT 0 NOT NULL,
+    distance_km         NUMBER DEFAULT 0 NOT NULL,
+    duration_min        NUMBER DEFAULT 0 NOT NULL,
+    first_travel_date   DATE,
+    last_travel_date    DATE,
+    trips_by_status     CLOB CHECK (trips_by_status IS JSON),      -- {"Completed": 12, "Cancelled": 1}
+    trips_by_fare_class CLOB CHECK (trips_by_fare_class IS JSON),  -- {"Economy": 10, "Business": 3}
+    trips_by_year       CLOB CHECK (trips_by_year IS JSON),        -- {"2025": 7}
+    distance_by_year    CLOB CHECK (distance_by_year IS JSON),     -- {"2025": 41200}
+    trips_by_route      CLOB CHECK (trips_by_route IS JSON),       -- {"NYC-LON": 4}
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+
+    CONSTRAINT fk_travel_stats_passenger
+        FOREIGN KEY (passenger_id) REFERENCES passengers(passenger_id) ON DELETE CASCADE
+);
\ No newline at end of file
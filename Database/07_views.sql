@@ -71,7 +71,13 @@ SELECT
     th.duration_min,
     th.notes
 FROM 
-    travel_history th
+    (SELECT history_id, passenger_id, flight_id, travel_date, origin, destination, seat,
+            booking_reference, fare_class, status, distance_km, duration_min, notes
+     FROM travel_history
+     UNION ALL
+     SELECT history_id, passenger_id, flight_id, travel_date, origin, destination, seat,
+            booking_reference, fare_class, status, distance_km, duration_min, notes
+     FROM travel_history_archive) th
 JOIN 
     passengers p ON th.passenger_id = p.passenger_id
 JOIN 
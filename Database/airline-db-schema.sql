@@ -5,13 +5,22 @@
 -- Drop existing tables if they exist (for clean setup)
 BEGIN
    FOR c IN (SELECT table_name FROM user_tables WHERE table_name IN (
-      'TRAVEL_HISTORY', 'PASSENGERS', 'FLIGHTS', 'USERS'
+      'PASSENGER_TRAVEL_STATS', 'TRAVEL_HISTORY_ARCHIVE', 'TRAVEL_HISTORY', 'PASSENGER_TOMBSTONES', 'FLIGHT_OPS_COUNTERS', 'FLIGHT_SHOPPING_STOCK', 'PASSENGERS', 'FLIGHT_TOMBSTONES', 'SCHEDULE_IMPORTS', 'SEAT_HOLDS', 'FLIGHTS', 'USERS'
    )) LOOP
       EXECUTE IMMEDIATE 'DROP TABLE ' || c.table_name || ' CASCADE CONSTRAINTS';
    END LOOP;
 END;
 /
 
+BEGIN
+   FOR s IN (SELECT sequence_name FROM user_sequences WHERE sequence_name IN (
+      'PASSENGERS_SEQ', 'TRAVEL_HISTORY_SEQ'
+   )) LOOP
+      EXECUTE IMMEDIATE 'DROP SEQUENCE ' || s.sequence_name;
+   END LOOP;
+END;
+/
+
 -- =====================================================
 -- USERS TABLE - Authentication and Role Management
 -- =====================================================
@@ -55,12 +64,50 @@ CREATE TABLE flights (
 -- Create indexes for common queries
 CREATE INDEX idx_flights_date ON flights(flight_date);
 CREATE INDEX idx_flights_route ON flights(route);
+CREATE INDEX idx_flights_updated ON flights(updated_at, flight_id);  -- change feed keyset
+
+-- Deleted flights, kept for the /flights/changes feed
+CREATE TABLE flight_tombstones (
+    flight_id           NUMBER PRIMARY KEY,
+    deleted_at          TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_flight_tombstones_deleted ON flight_tombstones(deleted_at, flight_id);
+
+-- Checkpoints of bulk schedule imports (POST /flights/import)
+CREATE TABLE schedule_imports (
+    import_id           VARCHAR2(64) PRIMARY KEY,
+    status              VARCHAR2(20) NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED', 'FAILED')),
+    last_committed_line NUMBER DEFAULT 0 NOT NULL,
+    imported_flights    NUMBER DEFAULT 0 NOT NULL,
+    imported_routes     NUMBER DEFAULT 0 NOT NULL,
+    failed_rows         NUMBER DEFAULT 0 NOT NULL,
+    created_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP
+);
+
+-- Journal of open seat holds (POST /flights/{id}/seats/holds): one row per hold,
+-- deleted when the hold is released, expires or is turned into a seat assignment
+CREATE TABLE seat_holds (
+    hold_id             VARCHAR2(36) PRIMARY KEY,
+    flight_id           NUMBER NOT NULL REFERENCES flights(flight_id) ON DELETE CASCADE,
+    seats               VARCHAR2(400) NOT NULL,
+    expires_at          TIMESTAMP NOT NULL,
+    created_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP   -- bumped when seats become assignments
+);
+
+CREATE INDEX idx_seat_holds_flight ON seat_holds(flight_id, expires_at);
 
 -- =====================================================
 -- PASSENGERS TABLE
 -- =====================================================
+-- Pooled by the application (50 IDs per NEXTVAL); the column default covers plain SQL inserts.
+-- Starts above the explicit IDs of the seed passengers.
+CREATE SEQUENCE passengers_seq START WITH 101 INCREMENT BY 50;
+
 CREATE TABLE passengers (
-    passenger_id        NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    passenger_id        NUMBER DEFAULT passengers_seq.NEXTVAL PRIMARY KEY,
     flight_id           NUMBER NOT NULL,
     name                VARCHAR2(100) NOT NULL,
     phone_number        VARCHAR2(20),
@@ -80,6 +127,7 @@ CREATE TABLE passengers (
     infant              CHAR(1) DEFAULT 'N' CHECK (infant IN ('Y', 'N')),
     created_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
     updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    version             NUMBER(19) DEFAULT 0 NOT NULL,  -- optimistic locking (service management)
     
     CONSTRAINT fk_passengers_flight
         FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE
@@ -89,12 +137,53 @@ CREATE TABLE passengers (
 CREATE INDEX idx_passengers_flight ON passengers(flight_id);
 CREATE INDEX idx_passengers_name ON passengers(name);
 CREATE INDEX idx_passengers_checkin ON passengers(checked_in);
+CREATE INDEX idx_passengers_updated ON passengers(updated_at, passenger_id);  -- change feed keyset
+
+-- Deleted passengers, kept for the /passengers/changes feed
+CREATE TABLE passenger_tombstones (
+    passenger_id        NUMBER PRIMARY KEY,
+    deleted_at          TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_passenger_tombstones_deleted ON passenger_tombstones(deleted_at, passenger_id);
+
+-- Per-flight operations counters (GET /flights/{id}/ops-summary), maintained in the same
+-- transaction as every passenger write. Each counter is split over a few stripe rows so
+-- concurrent transactions on one flight rarely wait on the same row lock; the value of a
+-- counter is the sum of its stripes. Counter names: PASSENGERS, CHECKED_IN, SPECIAL_NEEDS,
+-- WHEELCHAIR, INFANT, EXTRA_BAGGAGE_KG, SHOPPING_ORDERS, MEAL:<meal type>, SERVICE:<service>
+CREATE TABLE flight_ops_counters (
+    flight_id           NUMBER NOT NULL REFERENCES flights(flight_id) ON DELETE CASCADE,
+    counter_name        VARCHAR2(60) NOT NULL,
+    stripe              NUMBER(2) NOT NULL,
+    counter_value       NUMBER DEFAULT 0 NOT NULL,
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    CONSTRAINT pk_flight_ops_counters PRIMARY KEY (flight_id, counter_name, stripe)
+) ORGANIZATION INDEX;
+
+-- Per-flight in-flight shopping stock, one row per item of the flight's Shopping service
+-- subtypes, created with the default stock on the item's first sale. Service management
+-- instances lease units in chunks (allocated never exceeds stock) and sell them from
+-- memory; sold is written behind every few seconds.
+CREATE TABLE flight_shopping_stock (
+    flight_id           NUMBER NOT NULL REFERENCES flights(flight_id) ON DELETE CASCADE,
+    item_name           VARCHAR2(100) NOT NULL,
+    stock               NUMBER(6) NOT NULL,
+    allocated           NUMBER(6) DEFAULT 0 NOT NULL,
+    sold                NUMBER(6) DEFAULT 0 NOT NULL,
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+    CONSTRAINT pk_flight_shopping_stock PRIMARY KEY (flight_id, item_name),
+    CONSTRAINT chk_shopping_stock_allocated CHECK (allocated BETWEEN 0 AND stock)
+) ORGANIZATION INDEX;
 
 -- =====================================================
 -- TRAVEL HISTORY TABLE
 -- =====================================================
+-- Pooled by the application (50 IDs per NEXTVAL); the column default covers plain SQL inserts
+CREATE SEQUENCE travel_history_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE travel_history (
-    history_id          NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    history_id          NUMBER DEFAULT travel_history_seq.NEXTVAL PRIMARY KEY,
     passenger_id        NUMBER NOT NULL,
     flight_id           NUMBER NOT NULL,
     travel_date         DATE NOT NULL,
@@ -120,6 +209,60 @@ CREATE INDEX idx_history_passenger ON travel_history(passenger_id);
 CREATE INDEX idx_history_flight ON travel_history(flight_id);
 CREATE INDEX idx_history_date ON travel_history(travel_date);
 CREATE INDEX idx_history_booking_ref ON travel_history(booking_reference);
+CREATE INDEX idx_history_created ON travel_history(created_at);  -- stats change polling
+
+-- Archive tier of travel_history: Completed and Cancelled trips older than the archive horizon
+-- (app.archive.horizon-days) are moved here in chunked background batches, so per-passenger
+-- queries on the hot table only cover recent history. Same columns, plus the time of the move.
+-- Reads merge both tiers when the requested range reaches the archived dates.
+CREATE TABLE travel_history_archive (
+    history_id          NUMBER PRIMARY KEY,
+    passenger_id        NUMBER NOT NULL,
+    flight_id           NUMBER NOT NULL,
+    travel_date         DATE NOT NULL,
+    origin              VARCHAR2(10) NOT NULL,
+    destination         VARCHAR2(10) NOT NULL,
+    seat                VARCHAR2(10),
+    booking_reference   VARCHAR2(20) UNIQUE NOT NULL,
+    fare_class          VARCHAR2(30),
+    status              VARCHAR2(20),
+    distance_km         NUMBER,
+    duration_min        NUMBER,
+    notes               VARCHAR2(500),
+    created_at          TIMESTAMP,
+    archived_at         TIMESTAMP DEFAULT SYSTIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_history_archive_passenger
+        FOREIGN KEY (passenger_id) REFERENCES passengers(passenger_id) ON DELETE CASCADE,
+    CONSTRAINT fk_history_archive_flight
+        FOREIGN KEY (flight_id) REFERENCES flights(flight_id) ON DELETE CASCADE
+) COMPRESS;
+
+CREATE INDEX idx_history_archive_passenger ON travel_history_archive(passenger_id);
+CREATE INDEX idx_history_archive_flight ON travel_history_archive(flight_id);
+CREATE INDEX idx_history_archive_date ON travel_history_archive(travel_date);
+
+-- Per-passenger travel statistics (GET /history/passenger/{id}/stats). Rebuilt from
+-- travel_history by a partitioned batch job and recomputed per passenger as their history
+-- changes. Distance, duration, years and routes count completed trips only.
+CREATE TABLE passenger_travel_stats (
+    passenger_id        NUMBER PRIMARY KEY,
+    total_trips         NUMBER DEFAULT 0 NOT NULL,
+    completed_trips     NUMBER DEFAULT 0 NOT NULL,
+    distance_km         NUMBER DEFAULT 0 NOT NULL,
+    duration_min        NUMBER DEFAULT 0 NOT NULL,
+    first_travel_date   DATE,
+    last_travel_date    DATE,
+    trips_by_status     CLOB CHECK (trips_by_status IS JSON),      -- {"Completed": 12, "Cancelled": 1}
+    trips_by_fare_class CLOB CHECK (trips_by_fare_class IS JSON),  -- {"Economy": 10, "Business": 3}
+    trips_by_year       CLOB CHECK (trips_by_year IS JSON),        -- {"2025": 7}
+    distance_by_year    CLOB CHECK (distance_by_year IS JSON),     -- {"2025": 41200}
+    trips_by_route      CLOB CHECK (trips_by_route IS JSON),       -- {"NYC-LON": 4}
+    updated_at          TIMESTAMP DEFAULT SYSTIMESTAMP,
+
+    CONSTRAINT fk_travel_stats_passenger
+        FOREIGN KEY (passenger_id) REFERENCES passengers(passenger_id) ON DELETE CASCADE
+);
 
 -- =====================================================
 -- ROUTES TABLE
@@ -245,61 +388,61 @@ INSERT INTO flights (
 
 -- Insert Passengers
 INSERT INTO passengers (
-    flight_id, name, phone_number, address, passport_number, date_of_birth,
+    passenger_id, flight_id, name, phone_number, address, passport_number, date_of_birth,
     origin, destination, services, meal_type, meal_name, extra_baggage,
     shopping_items, seat, checked_in, wheelchair, infant
 ) VALUES (
-    1, 'Alice Johnson', '123-456-7890', '123 Main St, New York, NY', 'A1234567', DATE '1990-04-15',
+    1, 1, 'Alice Johnson', '123-456-7890', '123 Main St, New York, NY', 'A1234567', DATE '1990-04-15',
     'NYC', 'LON', '["Meal", "Ancillary"]', 'Veg', 'Biryani', 10,
     '[]', '1', 'Y', 'N', 'N'
 );
 
 INSERT INTO passengers (
-    flight_id, name, phone_number, address, passport_number, date_of_birth,
+    passenger_id, flight_id, name, phone_number, address, passport_number, date_of_birth,
     origin, destination, services, meal_type, meal_name, extra_baggage,
     shopping_items, seat, checked_in, wheelchair, infant
 ) VALUES (
-    1, 'Bob Smith', '987-654-3210', '456 Elm St, Los Angeles, CA', NULL, NULL,
+    2, 1, 'Bob Smith', '987-654-3210', '456 Elm St, Los Angeles, CA', NULL, NULL,
     'NYC', 'LON', '["Shopping"]', NULL, NULL, 0,
     '["Magazine", "Perfume"]', '2', 'Y', 'Y', 'N'
 );
 
 INSERT INTO passengers (
-    flight_id, name, phone_number, address, passport_number, date_of_birth,
+    passenger_id, flight_id, name, phone_number, address, passport_number, date_of_birth,
     origin, destination, services, meal_type, meal_name, extra_baggage,
     shopping_items, seat, checked_in, wheelchair, infant
 ) VALUES (
-    1, 'Charlie Brown', '555-555-5555', '789 Oak St, Chicago, IL', 'B7654321', DATE '1985-11-05',
+    3, 1, 'Charlie Brown', '555-555-5555', '789 Oak St, Chicago, IL', 'B7654321', DATE '1985-11-05',
     'NYC', 'LON', '["Meal", "Shopping"]', 'Non-Veg', 'Burger', 0,
     '["Chocolates"]', '3', 'Y', 'N', 'Y'
 );
 
 INSERT INTO passengers (
-    flight_id, name, phone_number, address, passport_number, date_of_birth,
+    passenger_id, flight_id, name, phone_number, address, passport_number, date_of_birth,
     origin, destination, services, meal_type, meal_name, extra_baggage,
     shopping_items, seat, checked_in, wheelchair, infant
 ) VALUES (
-    2, 'Diana Prince', '111-222-3333', '321 Maple St, Paris, FR', 'P9998887', DATE '1992-07-20',
+    4, 2, 'Diana Prince', '111-222-3333', '321 Maple St, Paris, FR', 'P9998887', DATE '1992-07-20',
     'PAR', 'TOK', '["Meal"]', 'Veg', 'Salad', 0,
     '[]', '1', 'Y', 'N', 'N'
 );
 
 INSERT INTO passengers (
-    flight_id, name, phone_number, address, passport_number, date_of_birth,
+    passenger_id, flight_id, name, phone_number, address, passport_number, date_of_birth,
     origin, destination, services, meal_type, meal_name, extra_baggage,
     shopping_items, seat, checked_in, wheelchair, infant
 ) VALUES (
-    2, 'Ethan Hunt', '444-555-6666', '654 Pine St, Tokyo, JP', 'E5554443', DATE '1978-03-12',
+    5, 2, 'Ethan Hunt', '444-555-6666', '654 Pine St, Tokyo, JP', 'E5554443', DATE '1978-03-12',
     'PAR', 'TOK', '["Shopping"]', NULL, NULL, 0,
     '["Watch"]', '2', 'Y', 'N', 'N'
 );
 
 INSERT INTO passengers (
-    flight_id, name, phone_number, address, passport_number, date_of_birth,
+    passenger_id, flight_id, name, phone_number, address, passport_number, date_of_birth,
     origin, destination, services, meal_type, meal_name, extra_baggage,
     shopping_items, seat, checked_in, wheelchair, infant
 ) VALUES (
-    3, 'Fiona Glenanne', '777-888-9999', '987 Birch St, Sydney, AU', NULL, NULL,
+    6, 3, 'Fiona Glenanne', '777-888-9999', '987 Birch St, Sydney, AU', NULL, NULL,
     'LAX', 'SYD', '["Ancillary"]', NULL, NULL, 15,
     '[]', '5', 'Y', 'Y', 'Y'
 );
@@ -534,7 +677,13 @@ SELECT
     th.duration_min,
     th.notes
 FROM 
-    travel_history th
+    (SELECT history_id, passenger_id, flight_id, travel_date, origin, destination, seat,
+            booking_reference, fare_class, status, distance_km, duration_min, notes
+     FROM travel_history
+     UNION ALL
+     SELECT history_id, passenger_id, flight_id, travel_date, origin, destination, seat,
+            booking_reference, fare_class, status, distance_km, duration_min, notes
+     FROM travel_history_archive) th
 JOIN 
     passengers p ON th.passenger_id = p.passenger_id
 JOIN 
@@ -1,6 +1,7 @@
 package com.oracle.api_gateway.config;
 
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +33,12 @@ public class GatewayConfig {
                         .filters(f -> f.rewritePath("/flights/routes/(?<segment>.*)", "/routes/${segment}"))
                         .uri("lb://flights"))
 
+                // Seat map event stream - long-lived, so exempt from the global response timeout
+                .route("flights-seat-stream", r -> r
+                        .path("/flights/{flightId}/seats/stream")
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri("lb://flights"))
+
                 // Flights Service Routes
                 .route("flights-service", r -> r
                         .path("/flights/**")
@@ -1,15 +1,26 @@
 package com.oracle.flights.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.oracle.flights.dto.ChangeFeedDto;
+import com.oracle.flights.dto.FlightChangeDto;
+import com.oracle.flights.dto.FlightSearchResultDto;
 import com.oracle.flights.dto.SeatAvailabilityDto;
 import com.oracle.flights.entity.Flight;
 import com.oracle.flights.exception.FlightNotFoundException;
+import com.oracle.flights.repository.ResourceVersion;
+import com.oracle.flights.service.FlightChangeFeedService;
 import com.oracle.flights.service.FlightService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,11 +30,18 @@ import java.util.List;
 @RequestMapping("/flights")
 public class FlightController {
     
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    
     private final FlightService flightService;
+    private final FlightChangeFeedService changeFeedService;
+    private final long settleMillis;
     
     @Autowired
-    public FlightController(FlightService flightService) {
+    public FlightController(FlightService flightService, FlightChangeFeedService changeFeedService,
+                            @Value("${app.versions.settle-ms:2000}") long settleMillis) {
         this.flightService = flightService;
+        this.changeFeedService = changeFeedService;
+        this.settleMillis = settleMillis;
     }
     
     /**
@@ -31,18 +49,63 @@ public class FlightController {
      * @return list of all flights
      */
     @GetMapping
-    public ResponseEntity<List<Flight>> getAllFlights() {
+    public ResponseEntity<List<Flight>> getAllFlights(WebRequest request) {
+        if (isNotModified(flightService.getFlightsVersion(), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<Flight> flights = flightService.getAllFlights();
         return ResponseEntity.ok(flights);
     }
     
+    /**
+     * GET /flights/search - Search flights by route, date range, free seats and services
+     * @param origin origin airport code (optional, e.g., "NYC")
+     * @param destination destination airport code (optional, e.g., "LON")
+     * @param from first flight date in yyyy-MM-dd format
+     * @param to last flight date in yyyy-MM-dd format (defaults to from)
+     * @param minSeats minimum number of available seats
+     * @param services services every flight must offer (e.g., "Meal,Shopping")
+     * @return list of matching flights ordered by date
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<FlightSearchResultDto>> searchFlights(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "1") int minSeats,
+            @RequestParam(required = false) List<String> services) {
+        List<FlightSearchResultDto> flights = flightService.searchFlights(origin, destination, from, to, minSeats, services);
+        return ResponseEntity.ok(flights);
+    }
+    
+    /**
+     * GET /flights/changes - Get flights created, updated or deleted since a feed position
+     * @param since nextSince from the previous page, or an ISO timestamp (optional, defaults to the beginning)
+     * @param limit maximum number of changes to return (1-1000)
+     * @return one page of changes with the position to continue from
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeedDto<FlightChangeDto>> getFlightChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, limit));
+    }
+    
     /**
      * GET /flights/{id} - Get flight by ID
      * @param id the flight ID
      * @return the flight if found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Flight> getFlightById(@PathVariable Long id) {
+    public ResponseEntity<Flight> getFlightById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = flightService.getFlightVersion(id);
+        if (version.isEmpty()) {
+            throw new FlightNotFoundException(id);
+        }
+        if (isNotModified(version, request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         Flight flight = flightService.getFlightById(id)
                 .orElseThrow(() -> new FlightNotFoundException(id));
         return ResponseEntity.ok(flight);
@@ -73,6 +136,19 @@ public class FlightController {
         return ResponseEntity.ok(updatedFlight);
     }
     
+    /**
+     * PATCH /flights/{id} - Partially update a flight with an RFC 7396 JSON merge patch
+     * @param id the flight ID
+     * @param patch the merge patch (application/merge-patch+json); a null member clears that field
+     * @return the updated flight
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Flight> patchFlight(@PathVariable Long id, @RequestBody JsonNode patch) {
+        Flight updatedFlight = flightService.patchFlight(id, patch)
+                .orElseThrow(() -> new FlightNotFoundException(id));
+        return ResponseEntity.ok(updatedFlight);
+    }
+    
     /**
      * DELETE /flights/{id} - Delete a flight
      * @param id the flight ID
@@ -93,7 +169,10 @@ public class FlightController {
      * @return list of flights for the specified route
      */
     @GetMapping("/route/{route}")
-    public ResponseEntity<List<Flight>> getFlightsByRoute(@PathVariable String route) {
+    public ResponseEntity<List<Flight>> getFlightsByRoute(@PathVariable String route, WebRequest request) {
+        if (isNotModified(flightService.getFlightsVersionByRoute(route), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<Flight> flights = flightService.getFlightsByRoute(route);
         return ResponseEntity.ok(flights);
     }
@@ -104,7 +183,10 @@ public class FlightController {
      * @return list of flights for the specified date
      */
     @GetMapping("/date/{date}")
-    public ResponseEntity<List<Flight>> getFlightsByDate(@PathVariable String date) {
+    public ResponseEntity<List<Flight>> getFlightsByDate(@PathVariable String date, WebRequest request) {
+        if (isNotModified(flightService.getFlightsVersionByDate(date), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<Flight> flights = flightService.getFlightsByDate(date);
         return ResponseEntity.ok(flights);
     }
@@ -115,18 +197,45 @@ public class FlightController {
      * @return seat availability information
      */
     @GetMapping("/{flightId}/seats")
-    public ResponseEntity<SeatAvailabilityDto> getFlightSeatAvailability(@PathVariable Long flightId) {
+    public ResponseEntity<SeatAvailabilityDto> getFlightSeatAvailability(@PathVariable Long flightId,
+                                                                         WebRequest request) {
+        ResourceVersion version = flightService.getSeatAvailabilityVersion(flightId);
+        if (version.isEmpty()) {
+            throw new FlightNotFoundException(flightId);
+        }
+        if (isNotModified(version, request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         SeatAvailabilityDto seatAvailability = flightService.getFlightSeatAvailability(flightId)
                 .orElseThrow(() -> new FlightNotFoundException(flightId));
         return ResponseEntity.ok(seatAvailability);
     }
     
+    /**
+     * GET /flights/{flightId}/seats/stream - Stream seat map changes as server-sent events.
+     * Sends a "snapshot" event with the full seat map, then a "seats" event with the
+     * changed seats whenever one is booked or released. Reconnecting clients that send
+     * Last-Event-ID receive only the events they missed while they are still buffered.
+     * @param flightId the flight ID
+     * @param lastEventId the id of the last event the client received
+     * @return the event stream
+     */
+    @GetMapping(value = "/{flightId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(@PathVariable Long flightId,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return flightService.streamSeatMap(flightId, lastEventId)
+                .orElseThrow(() -> new FlightNotFoundException(flightId));
+    }
+    
     /**
      * GET /flights/available - Get flights with available seats
      * @return list of flights that have available seats
      */
     @GetMapping("/available")
-    public ResponseEntity<List<Flight>> getFlightsWithAvailableSeats() {
+    public ResponseEntity<List<Flight>> getFlightsWithAvailableSeats(WebRequest request) {
+        if (isNotModified(flightService.getFlightsVersion(), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<Flight> flights = flightService.getFlightsWithAvailableSeats();
         return ResponseEntity.ok(flights);
     }
@@ -137,7 +246,11 @@ public class FlightController {
      * @return list of flights for the route with available seats
      */
     @GetMapping("/route/{route}/available")
-    public ResponseEntity<List<Flight>> getFlightsByRouteWithAvailableSeats(@PathVariable String route) {
+    public ResponseEntity<List<Flight>> getFlightsByRouteWithAvailableSeats(@PathVariable String route,
+                                                                            WebRequest request) {
+        if (isNotModified(flightService.getFlightsVersionByRoute(route), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<Flight> flights = flightService.getFlightsByRouteWithAvailableSeats(route);
         return ResponseEntity.ok(flights);
     }
@@ -148,8 +261,28 @@ public class FlightController {
      * @return list of flights for the date with available seats
      */
     @GetMapping("/date/{date}/available")
-    public ResponseEntity<List<Flight>> getFlightsByDateWithAvailableSeats(@PathVariable String date) {
+    public ResponseEntity<List<Flight>> getFlightsByDateWithAvailableSeats(@PathVariable String date,
+                                                                           WebRequest request) {
+        if (isNotModified(flightService.getFlightsVersionByDate(date), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<Flight> flights = flightService.getFlightsByDateWithAvailableSeats(date);
         return ResponseEntity.ok(flights);
     }
+    
+    /**
+     * Apply the ETag of a version fingerprint to the response and check it against the
+     * request's If-None-Match header. There is no Last-Modified, since a deleted flight
+     * only shows in the count and If-Modified-Since would miss it.
+     * Lists filtered to a subset reuse the fingerprint of the whole set, which
+     * changes whenever any member of the subset does. Until the fingerprint has settled
+     * no tag is sent, as an update still committing could leave it unchanged.
+     * @param version the version of the requested data
+     * @param request the current request
+     * @return true if the client's copy is current and the body can be skipped
+     */
+    private boolean isNotModified(ResourceVersion version, WebRequest request) {
+        return !version.isEmpty() && version.isSettled(LocalDateTime.now().minusNanos(settleMillis * 1_000_000))
+                && request.checkNotModified(version.getETag());
+    }
 }
@@ -0,0 +1,33 @@
+package com.oracle.flights.controller;
+
+import com.oracle.flights.dto.FlightOpsSummaryDto;
+import com.oracle.flights.service.FlightOpsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for the crew dashboard's per-flight operations counts
+ */
+@RestController
+@RequestMapping("/flights/{flightId}")
+public class FlightOpsController {
+
+    private final FlightOpsService flightOpsService;
+
+    @Autowired
+    public FlightOpsController(FlightOpsService flightOpsService) {
+        this.flightOpsService = flightOpsService;
+    }
+
+    /**
+     * GET /flights/{flightId}/ops-summary - Get a flight's passenger, check-in, special needs,
+     * baggage, shopping, meal and service counts
+     * @param flightId the flight ID
+     * @return the counts; 404 if the flight does not exist
+     */
+    @GetMapping("/ops-summary")
+    public ResponseEntity<FlightOpsSummaryDto> getOpsSummary(@PathVariable Long flightId) {
+        return ResponseEntity.ok(flightOpsService.getOpsSummary(flightId));
+    }
+}
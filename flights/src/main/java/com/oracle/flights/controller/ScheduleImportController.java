@@ -0,0 +1,52 @@
+package com.oracle.flights.controller;
+
+import com.oracle.flights.dto.ScheduleImportReportDto;
+import com.oracle.flights.service.ScheduleImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.Reader;
+
+/**
+ * REST Controller for bulk schedule imports
+ */
+@RestController
+@RequestMapping("/flights/import")
+public class ScheduleImportController {
+    
+    static final String TEXT_CSV = "text/csv";
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    
+    private final ScheduleImportService scheduleImportService;
+    
+    @Autowired
+    public ScheduleImportController(ScheduleImportService scheduleImportService) {
+        this.scheduleImportService = scheduleImportService;
+    }
+    
+    /**
+     * POST /flights/import - Import flights and new routes from a CSV or NDJSON body
+     * @param contentType text/csv (header row required) or application/x-ndjson
+     * @param importId ID to resume an earlier import of the same file (optional, generated if absent)
+     * @param chunkSize number of lines committed per transaction (1-1000)
+     * @param body the streamed request body
+     * @return the import report; 500 with the partial report if a chunk could not be written
+     */
+    @PostMapping(consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public ResponseEntity<ScheduleImportReportDto> importSchedule(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(required = false) String importId,
+            @RequestParam(defaultValue = "500") int chunkSize,
+            Reader body) {
+        ScheduleImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+                ? ScheduleImportService.Format.CSV
+                : ScheduleImportService.Format.NDJSON;
+        ScheduleImportReportDto report = scheduleImportService.importSchedule(body, format, importId, chunkSize);
+        HttpStatus status = "FAILED".equals(report.getStatus()) ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK;
+        return ResponseEntity.status(status).body(report);
+    }
+}
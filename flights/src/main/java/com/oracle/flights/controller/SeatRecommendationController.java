@@ -0,0 +1,73 @@
+package com.oracle.flights.controller;
+
+import com.oracle.flights.dto.SeatHoldDto;
+import com.oracle.flights.dto.SeatHoldRequestDto;
+import com.oracle.flights.dto.SeatRecommendationDto;
+import com.oracle.flights.exception.SeatNotAvailableException;
+import com.oracle.flights.service.SeatRecommendationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for seat recommendations and seat holds
+ */
+@RestController
+@RequestMapping("/flights/{flightId}/seats")
+public class SeatRecommendationController {
+    
+    private final SeatRecommendationService seatRecommendationService;
+    
+    @Autowired
+    public SeatRecommendationController(SeatRecommendationService seatRecommendationService) {
+        this.seatRecommendationService = seatRecommendationService;
+    }
+    
+    /**
+     * GET /flights/{flightId}/seats/recommendation - Recommend blocks of adjacent free seats
+     * @param flightId the flight ID
+     * @param count number of seats that should sit together
+     * @param prefer window, aisle or any
+     * @param nearAccessible whether to prefer rows close to a wheelchair-accessible row
+     * @return up to five options, best first
+     */
+    @GetMapping("/recommendation")
+    public ResponseEntity<SeatRecommendationDto> recommendSeats(
+            @PathVariable Long flightId,
+            @RequestParam(defaultValue = "1") int count,
+            @RequestParam(defaultValue = "any") String prefer,
+            @RequestParam(defaultValue = "false") boolean nearAccessible) {
+        return ResponseEntity.ok(seatRecommendationService.recommend(flightId, count, prefer, nearAccessible));
+    }
+    
+    /**
+     * POST /flights/{flightId}/seats/holds - Hold the best block of adjacent free seats
+     * @param flightId the flight ID
+     * @param request block size, preferences and hold time
+     * @return the hold; 409 if no row has room for the block
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<SeatHoldDto> holdSeats(@PathVariable Long flightId,
+                                                 @Valid @RequestBody SeatHoldRequestDto request) {
+        SeatHoldDto hold = seatRecommendationService.hold(flightId, request.getCount(), request.getPreference(),
+                        Boolean.TRUE.equals(request.getNearAccessible()), request.getTtlSeconds())
+                .orElseThrow(() -> new SeatNotAvailableException(
+                        "No " + request.getCount() + " adjacent free seats on flight " + flightId));
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+    
+    /**
+     * DELETE /flights/{flightId}/seats/holds/{holdId} - Release a seat hold
+     * @param flightId the flight ID
+     * @param holdId the hold ID
+     * @return 204 if released, 404 if the hold does not exist or has expired
+     */
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable Long flightId, @PathVariable String holdId) {
+        return seatRecommendationService.releaseHold(flightId, holdId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.oracle.flights.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.FlightTombstone;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a single entry of the flight change feed: either the current state
+ * of a created or updated flight, or a tombstone for a deleted one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FlightChangeDto {
+
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    private String type;
+    private Long flightId;
+    private LocalDateTime changedAt;
+    private Flight flight;
+
+    public FlightChangeDto() {}
+
+    public FlightChangeDto(String type, Long flightId, LocalDateTime changedAt, Flight flight) {
+        this.type = type;
+        this.flightId = flightId;
+        this.changedAt = changedAt;
+        this.flight = flight;
+    }
+
+    public static FlightChangeDto upsert(Flight flight) {
+        return new FlightChangeDto(UPSERT, flight.getFlightId(), flight.getUpdatedAt(), flight);
+    }
+
+    public static FlightChangeDto delete(FlightTombstone tombstone) {
+        return new FlightChangeDto(DELETE, tombstone.getFlightId(), tombstone.getDeletedAt(), null);
+    }
+
+    // Getters and setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public Flight getFlight() {
+        return flight;
+    }
+
+    public void setFlight(Flight flight) {
+        this.flight = flight;
+    }
+}
@@ -0,0 +1,149 @@
+package com.oracle.flights.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO for the crew dashboard's per-flight operations counts, read from the
+ * precomputed counters rather than counted from the passengers
+ */
+public class FlightOpsSummaryDto {
+    
+    private Long flightId;
+    private Long passengers;
+    private Long checkedIn;
+    private Long notCheckedIn;
+    private Long specialNeeds;
+    private Long wheelchair;
+    private Long infant;
+    private Long extraBaggageKg;
+    private Long shoppingOrders;
+    private Long shoppingItems;
+    private Long meals;
+    private Map<String, Long> mealsByType;
+    private Map<String, Long> services;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastUpdated;
+    
+    public FlightOpsSummaryDto() {}
+    
+    public FlightOpsSummaryDto(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    // Getters and setters
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public Long getPassengers() {
+        return passengers;
+    }
+    
+    public void setPassengers(Long passengers) {
+        this.passengers = passengers;
+    }
+    
+    public Long getCheckedIn() {
+        return checkedIn;
+    }
+    
+    public void setCheckedIn(Long checkedIn) {
+        this.checkedIn = checkedIn;
+    }
+    
+    public Long getNotCheckedIn() {
+        return notCheckedIn;
+    }
+    
+    public void setNotCheckedIn(Long notCheckedIn) {
+        this.notCheckedIn = notCheckedIn;
+    }
+    
+    public Long getSpecialNeeds() {
+        return specialNeeds;
+    }
+    
+    public void setSpecialNeeds(Long specialNeeds) {
+        this.specialNeeds = specialNeeds;
+    }
+    
+    public Long getWheelchair() {
+        return wheelchair;
+    }
+    
+    public void setWheelchair(Long wheelchair) {
+        this.wheelchair = wheelchair;
+    }
+    
+    public Long getInfant() {
+        return infant;
+    }
+    
+    public void setInfant(Long infant) {
+        this.infant = infant;
+    }
+    
+    public Long getExtraBaggageKg() {
+        return extraBaggageKg;
+    }
+    
+    public void setExtraBaggageKg(Long extraBaggageKg) {
+        this.extraBaggageKg = extraBaggageKg;
+    }
+    
+    public Long getShoppingOrders() {
+        return shoppingOrders;
+    }
+    
+    public void setShoppingOrders(Long shoppingOrders) {
+        this.shoppingOrders = shoppingOrders;
+    }
+    
+    public Long getShoppingItems() {
+        return shoppingItems;
+    }
+    
+    public void setShoppingItems(Long shoppingItems) {
+        this.shoppingItems = shoppingItems;
+    }
+    
+    public Long getMeals() {
+        return meals;
+    }
+    
+    public void setMeals(Long meals) {
+        this.meals = meals;
+    }
+    
+    public Map<String, Long> getMealsByType() {
+        return mealsByType;
+    }
+    
+    public void setMealsByType(Map<String, Long> mealsByType) {
+        this.mealsByType = mealsByType;
+    }
+    
+    public Map<String, Long> getServices() {
+        return services;
+    }
+    
+    public void setServices(Map<String, Long> services) {
+        this.services = services;
+    }
+    
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+    
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+}
@@ -0,0 +1,145 @@
+package com.oracle.flights.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Patchable state of a flight, the document a JSON merge patch is applied to
+ */
+public class FlightPatchDto {
+    
+    @NotNull
+    @Size(max = 50)
+    private String flightName;
+    
+    @NotNull
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate flightDate;
+    
+    @NotNull
+    @Size(max = 20)
+    private String route;
+    
+    @NotNull
+    @Size(max = 20)
+    private String departureTime;
+    
+    @NotNull
+    @Size(max = 20)
+    private String arrivalTime;
+    
+    @Size(max = 50)
+    private String aircraftType;
+    
+    @NotNull
+    @Positive
+    private Integer totalSeats;
+    
+    @NotNull
+    @PositiveOrZero
+    private Integer availableSeats;
+    
+    private List<String> services;
+    
+    private ServiceSubtypesDto serviceSubtypes;
+    
+    private List<SeatDto> seatMap;
+    
+    // Default constructor
+    public FlightPatchDto() {}
+    
+    // Getters and setters
+    public String getFlightName() {
+        return flightName;
+    }
+    
+    public void setFlightName(String flightName) {
+        this.flightName = flightName;
+    }
+    
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+    
+    public void setFlightDate(LocalDate flightDate) {
+        this.flightDate = flightDate;
+    }
+    
+    public String getRoute() {
+        return route;
+    }
+    
+    public void setRoute(String route) {
+        this.route = route;
+    }
+    
+    public String getDepartureTime() {
+        return departureTime;
+    }
+    
+    public void setDepartureTime(String departureTime) {
+        this.departureTime = departureTime;
+    }
+    
+    public String getArrivalTime() {
+        return arrivalTime;
+    }
+    
+    public void setArrivalTime(String arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+    
+    public String getAircraftType() {
+        return aircraftType;
+    }
+    
+    public void setAircraftType(String aircraftType) {
+        this.aircraftType = aircraftType;
+    }
+    
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+    
+    public void setTotalSeats(Integer totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+    
+    public Integer getAvailableSeats() {
+        return availableSeats;
+    }
+    
+    public void setAvailableSeats(Integer availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+    
+    public List<String> getServices() {
+        return services;
+    }
+    
+    public void setServices(List<String> services) {
+        this.services = services;
+    }
+    
+    public ServiceSubtypesDto getServiceSubtypes() {
+        return serviceSubtypes;
+    }
+    
+    public void setServiceSubtypes(ServiceSubtypesDto serviceSubtypes) {
+        this.serviceSubtypes = serviceSubtypes;
+    }
+    
+    public List<SeatDto> getSeatMap() {
+        return seatMap;
+    }
+    
+    public void setSeatMap(List<SeatDto> seatMap) {
+        this.seatMap = seatMap;
+    }
+}
@@ -0,0 +1,96 @@
+package com.oracle.flights.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Compact, immutable flight record returned by the flight search endpoint.
+ * Carries everything the search results page needs but none of the JSON
+ * columns (seat map, service subtypes).
+ */
+public class FlightSearchResultDto {
+
+    private final Long flightId;
+    private final String flightName;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private final LocalDate flightDate;
+
+    private final String route;
+    private final String departureTime;
+    private final String arrivalTime;
+    private final String aircraftType;
+    private final Integer totalSeats;
+    private final Integer availableSeats;
+    private final List<String> services;
+
+    public FlightSearchResultDto(Long flightId, String flightName, LocalDate flightDate, String route,
+                                 String departureTime, String arrivalTime, String aircraftType,
+                                 Integer totalSeats, Integer availableSeats, List<String> services) {
+        this.flightId = flightId;
+        this.flightName = flightName;
+        this.flightDate = flightDate;
+        this.route = route;
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.aircraftType = aircraftType;
+        this.totalSeats = totalSeats;
+        this.availableSeats = availableSeats;
+        this.services = services == null ? List.of() : List.copyOf(services);
+    }
+
+    // Getters
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getFlightName() {
+        return flightName;
+    }
+
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getDepartureTime() {
+        return departureTime;
+    }
+
+    public String getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public String getAircraftType() {
+        return aircraftType;
+    }
+
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+
+    public Integer getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public List<String> getServices() {
+        return services;
+    }
+
+    @Override
+    public String toString() {
+        return "FlightSearchResultDto{" +
+                "flightId=" + flightId +
+                ", flightName='" + flightName + '\'' +
+                ", flightDate=" + flightDate +
+                ", route='" + route + '\'' +
+                ", availableSeats=" + availableSeats +
+                ", services=" + services +
+                '}';
+    }
+}
@@ -0,0 +1,139 @@
+package com.oracle.flights.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * DTO for the outcome of a bulk schedule import.
+ * Counts cover every run of the import; errors list the rows rejected by this run.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ScheduleImportReportDto {
+
+    private String importId;
+    private String status;
+    private long resumedAfterLine;
+    private long lastCommittedLine;
+    private long importedFlights;
+    private long importedRoutes;
+    private long failedRows;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private String message;
+
+    public ScheduleImportReportDto() {}
+
+    // Getters and setters
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getResumedAfterLine() {
+        return resumedAfterLine;
+    }
+
+    public void setResumedAfterLine(long resumedAfterLine) {
+        this.resumedAfterLine = resumedAfterLine;
+    }
+
+    public long getLastCommittedLine() {
+        return lastCommittedLine;
+    }
+
+    public void setLastCommittedLine(long lastCommittedLine) {
+        this.lastCommittedLine = lastCommittedLine;
+    }
+
+    public long getImportedFlights() {
+        return importedFlights;
+    }
+
+    public void setImportedFlights(long importedFlights) {
+        this.importedFlights = importedFlights;
+    }
+
+    public long getImportedRoutes() {
+        return importedRoutes;
+    }
+
+    public void setImportedRoutes(long importedRoutes) {
+        this.importedRoutes = importedRoutes;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(long failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * A rejected input row and why it was rejected
+     */
+    public static class RowError {
+
+        private long line;
+        private String error;
+
+        public RowError() {}
+
+        public RowError(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.oracle.flights.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one row of a bulk schedule import: a flight and, optionally, the
+ * details of its route. The route is created when its code is not known yet.
+ *
+ * CSV files name these fields in the header row and separate services with "|";
+ * NDJSON lines use the field names as keys and a JSON array for services.
+ */
+public class ScheduleImportRowDto {
+
+    private String flightName;
+    private String flightDate;
+    private String route;
+    private String departureTime;
+    private String arrivalTime;
+    private String aircraftType;
+    private Integer totalSeats;
+    private Integer availableSeats;
+    private List<String> services;
+
+    private String departureCity;
+    private String departureAirport;
+    private String arrivalCity;
+    private String arrivalAirport;
+    private Integer distanceKm;
+    private Integer estimatedDuration;
+
+    public ScheduleImportRowDto() {}
+
+    /**
+     * @return true if the row carries any route details
+     */
+    public boolean hasRouteDetails() {
+        return departureCity != null || departureAirport != null || arrivalCity != null || arrivalAirport != null;
+    }
+
+    // Getters and setters
+    public String getFlightName() {
+        return flightName;
+    }
+
+    public void setFlightName(String flightName) {
+        this.flightName = flightName;
+    }
+
+    public String getFlightDate() {
+        return flightDate;
+    }
+
+    public void setFlightDate(String flightDate) {
+        this.flightDate = flightDate;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
+    public String getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(String departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public String getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setArrivalTime(String arrivalTime) {
+        this.arrivalTime = arrivalTime;
+    }
+
+    public String getAircraftType() {
+        return aircraftType;
+    }
+
+    public void setAircraftType(String aircraftType) {
+        this.aircraftType = aircraftType;
+    }
+
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(Integer totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public Integer getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(Integer availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+
+    public List<String> getServices() {
+        return services;
+    }
+
+    public void setServices(List<String> services) {
+        this.services = services;
+    }
+
+    public String getDepartureCity() {
+        return departureCity;
+    }
+
+    public void setDepartureCity(String departureCity) {
+        this.departureCity = departureCity;
+    }
+
+    public String getDepartureAirport() {
+        return departureAirport;
+    }
+
+    public void setDepartureAirport(String departureAirport) {
+        this.departureAirport = departureAirport;
+    }
+
+    public String getArrivalCity() {
+        return arrivalCity;
+    }
+
+    public void setArrivalCity(String arrivalCity) {
+        this.arrivalCity = arrivalCity;
+    }
+
+    public String getArrivalAirport() {
+        return arrivalAirport;
+    }
+
+    public void setArrivalAirport(String arrivalAirport) {
+        this.arrivalAirport = arrivalAirport;
+    }
+
+    public Integer getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Integer distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public Integer getEstimatedDuration() {
+        return estimatedDuration;
+    }
+
+    public void setEstimatedDuration(Integer estimatedDuration) {
+        this.estimatedDuration = estimatedDuration;
+    }
+}
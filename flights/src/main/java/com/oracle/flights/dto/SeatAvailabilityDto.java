@@ -14,6 +14,10 @@ public class SeatAvailabilityDto {
     private Integer totalSeats;
     private Integer availableSeats;
     private List<SeatDto> seatMap;
+    // Free seats held for a passenger who has not decided yet
+    private List<Integer> heldSeats = List.of();
+    // Seats assigned to passengers, which the seat map does not always mark as booked
+    private List<Integer> assignedSeats = List.of();
     
     public SeatAvailabilityDto() {}
     
@@ -85,4 +89,20 @@ public class SeatAvailabilityDto {
     public void setSeatMap(List<SeatDto> seatMap) {
         this.seatMap = seatMap;
     }
+    
+    public List<Integer> getHeldSeats() {
+        return heldSeats;
+    }
+    
+    public void setHeldSeats(List<Integer> heldSeats) {
+        this.heldSeats = heldSeats;
+    }
+    
+    public List<Integer> getAssignedSeats() {
+        return assignedSeats;
+    }
+    
+    public void setAssignedSeats(List<Integer> assignedSeats) {
+        this.assignedSeats = assignedSeats;
+    }
 }
@@ -0,0 +1,88 @@
+package com.oracle.flights.dto;
+
+import java.util.List;
+
+/**
+ * A block of adjacent free seats in one row, as offered by the seat recommendation
+ */
+public class SeatBlockDto {
+    
+    private List<Integer> seats;
+    private Integer row;
+    private Boolean window;
+    private Boolean aisle;
+    private Boolean acrossAisle;
+    private Integer rowsFromAccessibleRow;
+    
+    public SeatBlockDto() {}
+    
+    public SeatBlockDto(List<Integer> seats, Integer row, Boolean window, Boolean aisle,
+                        Boolean acrossAisle, Integer rowsFromAccessibleRow) {
+        this.seats = seats;
+        this.row = row;
+        this.window = window;
+        this.aisle = aisle;
+        this.acrossAisle = acrossAisle;
+        this.rowsFromAccessibleRow = rowsFromAccessibleRow;
+    }
+    
+    // Getters and setters
+    public List<Integer> getSeats() {
+        return seats;
+    }
+    
+    public void setSeats(List<Integer> seats) {
+        this.seats = seats;
+    }
+    
+    public Integer getRow() {
+        return row;
+    }
+    
+    public void setRow(Integer row) {
+        this.row = row;
+    }
+    
+    public Boolean getWindow() {
+        return window;
+    }
+    
+    public void setWindow(Boolean window) {
+        this.window = window;
+    }
+    
+    public Boolean getAisle() {
+        return aisle;
+    }
+    
+    public void setAisle(Boolean aisle) {
+        this.aisle = aisle;
+    }
+    
+    public Boolean getAcrossAisle() {
+        return acrossAisle;
+    }
+    
+    public void setAcrossAisle(Boolean acrossAisle) {
+        this.acrossAisle = acrossAisle;
+    }
+    
+    public Integer getRowsFromAccessibleRow() {
+        return rowsFromAccessibleRow;
+    }
+    
+    public void setRowsFromAccessibleRow(Integer rowsFromAccessibleRow) {
+        this.rowsFromAccessibleRow = rowsFromAccessibleRow;
+    }
+    
+    @Override
+    public String toString() {
+        return "SeatBlockDto{" +
+                "seats=" + seats +
+                ", row=" + row +
+                ", window=" + window +
+                ", aisle=" + aisle +
+                ", acrossAisle=" + acrossAisle +
+                '}';
+    }
+}
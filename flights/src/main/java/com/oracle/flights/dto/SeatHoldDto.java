@@ -0,0 +1,61 @@
+package com.oracle.flights.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for a short-lived hold on a block of seats
+ */
+public class SeatHoldDto {
+    
+    private String holdId;
+    private Long flightId;
+    private List<Integer> seats;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime expiresAt;
+    
+    public SeatHoldDto() {}
+    
+    public SeatHoldDto(String holdId, Long flightId, List<Integer> seats, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.flightId = flightId;
+        this.seats = seats;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters and setters
+    public String getHoldId() {
+        return holdId;
+    }
+    
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+    
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public List<Integer> getSeats() {
+        return seats;
+    }
+    
+    public void setSeats(List<Integer> seats) {
+        this.seats = seats;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.oracle.flights.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for holding the best block of adjacent free seats on a flight
+ */
+public class SeatHoldRequestDto {
+    
+    @NotNull(message = "Seat count is required")
+    @Min(value = 1, message = "Seat count must be at least 1")
+    @Max(value = 64, message = "Seat count must not exceed 64")
+    private Integer count;
+    
+    // window, aisle or any (default)
+    private String preference;
+    
+    private Boolean nearAccessible;
+    
+    @Min(value = 1, message = "Hold time must be at least 1 second")
+    @Max(value = 900, message = "Hold time must not exceed 900 seconds")
+    private Integer ttlSeconds;
+    
+    public SeatHoldRequestDto() {}
+    
+    public SeatHoldRequestDto(Integer count, String preference, Boolean nearAccessible, Integer ttlSeconds) {
+        this.count = count;
+        this.preference = preference;
+        this.nearAccessible = nearAccessible;
+        this.ttlSeconds = ttlSeconds;
+    }
+    
+    // Getters and setters
+    public Integer getCount() {
+        return count;
+    }
+    
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+    
+    public String getPreference() {
+        return preference;
+    }
+    
+    public void setPreference(String preference) {
+        this.preference = preference;
+    }
+    
+    public Boolean getNearAccessible() {
+        return nearAccessible;
+    }
+    
+    public void setNearAccessible(Boolean nearAccessible) {
+        this.nearAccessible = nearAccessible;
+    }
+    
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+    
+    public void setTtlSeconds(Integer ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
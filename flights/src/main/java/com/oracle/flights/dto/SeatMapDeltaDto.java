@@ -0,0 +1,77 @@
+package com.oracle.flights.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * DTO for a seat map change pushed on the seat stream.
+ * Each change carries the seat's new booking state, and held and released
+ * seats are listed by their new hold state, so applying a delta more than
+ * once is harmless. Fields that did not change are left out.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SeatMapDeltaDto {
+
+    private Long flightId;
+    private Integer availableSeats;
+    private List<SeatDto> changes;
+    // Seats now held, and seats no longer held, as listed in the snapshot's heldSeats
+    private List<Integer> heldSeats;
+    private List<Integer> releasedSeats;
+
+    public SeatMapDeltaDto() {}
+
+    public SeatMapDeltaDto(Long flightId, Integer availableSeats, List<SeatDto> changes) {
+        this.flightId = flightId;
+        this.availableSeats = availableSeats;
+        this.changes = changes;
+    }
+
+    public SeatMapDeltaDto(Long flightId, List<Integer> heldSeats, List<Integer> releasedSeats) {
+        this.flightId = flightId;
+        this.heldSeats = heldSeats;
+        this.releasedSeats = releasedSeats;
+    }
+
+    // Getters and setters
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+
+    public Integer getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(Integer availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+
+    public List<SeatDto> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<SeatDto> changes) {
+        this.changes = changes;
+    }
+
+    public List<Integer> getHeldSeats() {
+        return heldSeats;
+    }
+
+    public void setHeldSeats(List<Integer> heldSeats) {
+        this.heldSeats = heldSeats;
+    }
+
+    public List<Integer> getReleasedSeats() {
+        return releasedSeats;
+    }
+
+    public void setReleasedSeats(List<Integer> releasedSeats) {
+        this.releasedSeats = releasedSeats;
+    }
+}
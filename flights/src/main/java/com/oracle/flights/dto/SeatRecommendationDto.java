@@ -0,0 +1,67 @@
+package com.oracle.flights.dto;
+
+import java.util.List;
+
+/**
+ * DTO for seat recommendation response: the best blocks of adjacent free seats, best first
+ */
+public class SeatRecommendationDto {
+    
+    private Long flightId;
+    private String layout;
+    private Integer count;
+    private Integer freeSeats;
+    private List<SeatBlockDto> options;
+    
+    public SeatRecommendationDto() {}
+    
+    public SeatRecommendationDto(Long flightId, String layout, Integer count, Integer freeSeats,
+                                 List<SeatBlockDto> options) {
+        this.flightId = flightId;
+        this.layout = layout;
+        this.count = count;
+        this.freeSeats = freeSeats;
+        this.options = options;
+    }
+    
+    // Getters and setters
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public String getLayout() {
+        return layout;
+    }
+    
+    public void setLayout(String layout) {
+        this.layout = layout;
+    }
+    
+    public Integer getCount() {
+        return count;
+    }
+    
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+    
+    public Integer getFreeSeats() {
+        return freeSeats;
+    }
+    
+    public void setFreeSeats(Integer freeSeats) {
+        this.freeSeats = freeSeats;
+    }
+    
+    public List<SeatBlockDto> getOptions() {
+        return options;
+    }
+    
+    public void setOptions(List<SeatBlockDto> options) {
+        this.options = options;
+    }
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -17,9 +18,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 /**
- * Flight entity representing the flights table
+ * Flight entity representing the flights table.
+ *
+ * Updated dynamically: an UPDATE lists only the columns that changed, so a seat
+ * count change does not rewrite the services, service subtypes and seat map CLOBs.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "flights")
 public class Flight {
     
@@ -0,0 +1,53 @@
+package com.oracle.flights.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted flight, kept so change feed clients learn about deletes
+ */
+@Entity
+@Table(name = "flight_tombstones")
+public class FlightTombstone {
+
+    @Id
+    @Column(name = "flight_id")
+    private Long flightId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public FlightTombstone() {}
+
+    public FlightTombstone(Long flightId, LocalDateTime deletedAt) {
+        this.flightId = flightId;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and Setters
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "FlightTombstone{" +
+                "flightId=" + flightId +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.oracle.flights.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a passenger's seat assignment. Passengers are owned by the
+ * passengers service, which turns seat holds into these assignments.
+ */
+@Entity
+@Immutable
+@Table(name = "passengers")
+public class PassengerSeat {
+
+    @Id
+    @Column(name = "passenger_id")
+    private Long passengerId;
+
+    @Column(name = "flight_id", nullable = false)
+    private Long flightId;
+
+    @Column(name = "seat", length = 10)
+    private String seat;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PassengerSeat() {}
+
+    public PassengerSeat(Long passengerId, Long flightId, String seat, LocalDateTime updatedAt) {
+        this.passengerId = passengerId;
+        this.flightId = flightId;
+        this.seat = seat;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getSeat() {
+        return seat;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,139 @@
+package com.oracle.flights.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of a bulk schedule import. Updated in the same transaction as each
+ * chunk it records, so a restarted import continues after the last committed line.
+ */
+@Entity
+@Table(name = "schedule_imports")
+public class ScheduleImport {
+
+    @Id
+    @Column(name = "import_id", length = 64)
+    private String importId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private ImportStatus status = ImportStatus.IN_PROGRESS;
+
+    @Column(name = "last_committed_line", nullable = false)
+    private long lastCommittedLine;
+
+    @Column(name = "imported_flights", nullable = false)
+    private long importedFlights;
+
+    @Column(name = "imported_routes", nullable = false)
+    private long importedRoutes;
+
+    @Column(name = "failed_rows", nullable = false)
+    private long failedRows;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ScheduleImport() {}
+
+    public ScheduleImport(String importId) {
+        this.importId = importId;
+    }
+
+    /**
+     * Record a committed chunk
+     * @param lastLine last input line covered by the chunk
+     * @param flights flights inserted
+     * @param routes routes inserted
+     * @param failed rows rejected by validation
+     */
+    public void recordChunk(long lastLine, int flights, int routes, int failed) {
+        this.lastCommittedLine = lastLine;
+        this.importedFlights += flights;
+        this.importedRoutes += routes;
+        this.failedRows += failed;
+    }
+
+    // Getters and Setters
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public ImportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ImportStatus status) {
+        this.status = status;
+    }
+
+    public long getLastCommittedLine() {
+        return lastCommittedLine;
+    }
+
+    public void setLastCommittedLine(long lastCommittedLine) {
+        this.lastCommittedLine = lastCommittedLine;
+    }
+
+    public long getImportedFlights() {
+        return importedFlights;
+    }
+
+    public void setImportedFlights(long importedFlights) {
+        this.importedFlights = importedFlights;
+    }
+
+    public long getImportedRoutes() {
+        return importedRoutes;
+    }
+
+    public void setImportedRoutes(long importedRoutes) {
+        this.importedRoutes = importedRoutes;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(long failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleImport{" +
+                "importId='" + importId + '\'' +
+                ", status=" + status +
+                ", lastCommittedLine=" + lastCommittedLine +
+                ", importedFlights=" + importedFlights +
+                ", importedRoutes=" + importedRoutes +
+                ", failedRows=" + failedRows +
+                '}';
+    }
+
+    // Enum for import status
+    public enum ImportStatus {
+        IN_PROGRESS, COMPLETED, FAILED
+    }
+}
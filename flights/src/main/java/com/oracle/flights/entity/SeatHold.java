@@ -0,0 +1,120 @@
+package com.oracle.flights.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Journal entry of an open seat hold, kept so holds survive a restart. The row
+ * loses the seats that become seat assignments and is deleted when the hold is
+ * released, expires or has no seats left.
+ */
+@Entity
+@Table(name = "seat_holds")
+public class SeatHold {
+
+    @Id
+    @Column(name = "hold_id", length = 36)
+    private String holdId;
+
+    @Column(name = "flight_id", nullable = false)
+    private Long flightId;
+
+    // Comma-separated seat numbers, e.g. "12,13,14"
+    @Column(name = "seats", nullable = false, length = 400)
+    private String seats;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Bumped by the passengers service when part of the hold becomes a seat assignment
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public SeatHold() {}
+
+    public SeatHold(String holdId, Long flightId, int[] seatNumbers, LocalDateTime expiresAt, LocalDateTime createdAt) {
+        this.holdId = holdId;
+        this.flightId = flightId;
+        this.seats = Arrays.stream(seatNumbers).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        this.expiresAt = expiresAt;
+        this.createdAt = createdAt;
+        this.updatedAt = createdAt;
+    }
+
+    /**
+     * @return the held seat numbers
+     * @throws NumberFormatException if the stored seat list is malformed
+     */
+    public int[] getSeatNumbers() {
+        if (seats == null || seats.isBlank()) {
+            return new int[0];
+        }
+        return Arrays.stream(seats.split(",")).mapToInt(seat -> Integer.parseInt(seat.trim())).toArray();
+    }
+
+    // Getters and Setters
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+
+    public String getSeats() {
+        return seats;
+    }
+
+    public void setSeats(String seats) {
+        this.seats = seats;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatHold{" +
+                "holdId='" + holdId + '\'' +
+                ", flightId=" + flightId +
+                ", seats='" + seats + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
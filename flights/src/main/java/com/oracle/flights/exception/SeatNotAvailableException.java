@@ -0,0 +1,15 @@
+package com.oracle.flights.exception;
+
+/**
+ * Exception thrown when no block of free seats can be found or held
+ */
+public class SeatNotAvailableException extends RuntimeException {
+    
+    public SeatNotAvailableException(String message) {
+        super(message);
+    }
+    
+    public SeatNotAvailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
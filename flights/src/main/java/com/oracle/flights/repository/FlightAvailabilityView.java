@@ -0,0 +1,30 @@
+package com.oracle.flights.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Narrow projection of the flights table used to build the in-memory
+ * availability index without reading the seat map or service subtypes CLOBs
+ */
+public interface FlightAvailabilityView {
+
+    Long getFlightId();
+
+    String getFlightName();
+
+    LocalDate getFlightDate();
+
+    String getRoute();
+
+    String getDepartureTime();
+
+    String getArrivalTime();
+
+    String getAircraftType();
+
+    Integer getTotalSeats();
+
+    Integer getAvailableSeats();
+
+    String getServicesJson();
+}
@@ -0,0 +1,26 @@
+package com.oracle.flights.repository;
+
+import com.oracle.flights.entity.FlightOpsCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for the per-flight operations counters
+ */
+@Repository
+public interface FlightOpsCounterRepository extends JpaRepository<FlightOpsCounter, FlightOpsCounter.Key> {
+
+    /**
+     * Sum the stripes of every counter of a flight. Reads only the flight's counter
+     * rows (a primary key range), never its passengers.
+     * @param flightId the flight ID
+     * @return one total per counter
+     */
+    @Query("SELECT c.counterName AS counterName, SUM(c.counterValue) AS total, MAX(c.updatedAt) AS lastUpdated " +
+           "FROM FlightOpsCounter c WHERE c.flightId = :flightId GROUP BY c.counterName")
+    List<OpsCounterTotalView> findTotalsByFlightId(@Param("flightId") Long flightId);
+}
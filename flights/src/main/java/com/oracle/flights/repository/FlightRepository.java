@@ -1,12 +1,14 @@
 package com.oracle.flights.repository;
 
 import com.oracle.flights.entity.Flight;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -82,4 +84,92 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
      */
     @Query("SELECT f FROM Flight f WHERE f.flightDate = :flightDate ORDER BY f.departureTime")
     List<Flight> findByFlightDateOrderByDepartureTime(@Param("flightDate") LocalDate flightDate);
+
+    /**
+     * Find flights on a route within a date range with at least the given number of free seats
+     * @param route the route
+     * @param fromDate first flight date (inclusive)
+     * @param toDate last flight date (inclusive)
+     * @param minSeats minimum number of available seats
+     * @return list of matching flights ordered by date
+     */
+    @Query("SELECT f FROM Flight f WHERE f.route = :route AND f.flightDate BETWEEN :fromDate AND :toDate " +
+           "AND f.availableSeats >= :minSeats ORDER BY f.flightDate, f.flightId")
+    List<Flight> findAvailableByRouteAndDateRange(@Param("route") String route,
+                                                  @Param("fromDate") LocalDate fromDate,
+                                                  @Param("toDate") LocalDate toDate,
+                                                  @Param("minSeats") Integer minSeats);
+
+    /**
+     * Find flights on every route within a date range with at least the given number of free seats
+     * @param fromDate first flight date (inclusive)
+     * @param toDate last flight date (inclusive)
+     * @param minSeats minimum number of available seats
+     * @return list of matching flights ordered by date
+     */
+    @Query("SELECT f FROM Flight f WHERE f.flightDate BETWEEN :fromDate AND :toDate " +
+           "AND f.availableSeats >= :minSeats ORDER BY f.flightDate, f.flightId")
+    List<Flight> findAvailableByDateRange(@Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate,
+                                          @Param("minSeats") Integer minSeats);
+
+    /**
+     * Load the availability columns of every flight, skipping the seat map and subtypes CLOBs
+     * @return list of flight availability projections
+     */
+    @Query("SELECT f.flightId AS flightId, f.flightName AS flightName, f.flightDate AS flightDate, " +
+           "f.route AS route, f.departureTime AS departureTime, f.arrivalTime AS arrivalTime, " +
+           "f.aircraftType AS aircraftType, f.totalSeats AS totalSeats, " +
+           "f.availableSeats AS availableSeats, f.servicesJson AS servicesJson FROM Flight f")
+    List<FlightAvailabilityView> findAllAvailabilityViews();
+
+    /**
+     * Load the version fingerprint of all flights
+     * @return count and newest update time
+     */
+    @Query("SELECT new com.oracle.flights.repository.ResourceVersion(COUNT(f), MAX(f.updatedAt)) FROM Flight f")
+    ResourceVersion findVersion();
+
+    /**
+     * Load the version fingerprint of a single flight
+     * @param flightId the flight ID
+     * @return count (0 if the flight does not exist) and update time
+     */
+    @Query("SELECT new com.oracle.flights.repository.ResourceVersion(COUNT(f), MAX(f.updatedAt)) " +
+           "FROM Flight f WHERE f.flightId = :flightId")
+    ResourceVersion findVersionById(@Param("flightId") Long flightId);
+
+    /**
+     * Load the version fingerprint of the flights on a route
+     * @param route the route
+     * @return count and newest update time
+     */
+    @Query("SELECT new com.oracle.flights.repository.ResourceVersion(COUNT(f), MAX(f.updatedAt)) " +
+           "FROM Flight f WHERE f.route = :route")
+    ResourceVersion findVersionByRoute(@Param("route") String route);
+
+    /**
+     * Load the version fingerprint of the flights on a date
+     * @param flightDate the flight date
+     * @return count and newest update time
+     */
+    @Query("SELECT new com.oracle.flights.repository.ResourceVersion(COUNT(f), MAX(f.updatedAt)) " +
+           "FROM Flight f WHERE f.flightDate = :flightDate")
+    ResourceVersion findVersionByFlightDate(@Param("flightDate") LocalDate flightDate);
+
+    /**
+     * Find flights changed after a (updatedAt, flightId) keyset position
+     * @param since update time of the last change already seen
+     * @param afterId flight ID of the last change already seen at that time
+     * @param until newest update time to include
+     * @param page page size (offset must be 0)
+     * @return flights ordered by update time, then flight ID
+     */
+    @Query("SELECT f FROM Flight f WHERE (f.updatedAt > :since " +
+           "OR (f.updatedAt = :since AND f.flightId > :afterId)) AND f.updatedAt <= :until " +
+           "ORDER BY f.updatedAt, f.flightId")
+    List<Flight> findChangedAfter(@Param("since") LocalDateTime since,
+                                  @Param("afterId") Long afterId,
+                                  @Param("until") LocalDateTime until,
+                                  Pageable page);
 }
@@ -0,0 +1,34 @@
+package com.oracle.flights.repository;
+
+import com.oracle.flights.entity.FlightTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for FlightTombstone entity
+ */
+@Repository
+public interface FlightTombstoneRepository extends JpaRepository<FlightTombstone, Long> {
+
+    /**
+     * Find deletes after a (deletedAt, flightId) keyset position
+     * @param since deletion time of the last delete already seen
+     * @param afterId flight ID of the last delete already seen at that time
+     * @param until newest deletion time to include
+     * @param page page size (offset must be 0)
+     * @return deletes ordered by deletion time, then flight ID
+     */
+    @Query("SELECT t FROM FlightTombstone t WHERE (t.deletedAt > :since " +
+           "OR (t.deletedAt = :since AND t.flightId > :afterId)) AND t.deletedAt <= :until " +
+           "ORDER BY t.deletedAt, t.flightId")
+    List<FlightTombstone> findDeletedAfter(@Param("since") LocalDateTime since,
+                                           @Param("afterId") Long afterId,
+                                           @Param("until") LocalDateTime until,
+                                           Pageable page);
+}
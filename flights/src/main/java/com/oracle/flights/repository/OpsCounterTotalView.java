@@ -0,0 +1,15 @@
+package com.oracle.flights.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One operations counter of a flight, summed over its stripes
+ */
+public interface OpsCounterTotalView {
+
+    String getCounterName();
+
+    Long getTotal();
+
+    LocalDateTime getLastUpdated();
+}
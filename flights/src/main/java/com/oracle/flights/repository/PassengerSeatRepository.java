@@ -0,0 +1,33 @@
+package com.oracle.flights.repository;
+
+import com.oracle.flights.entity.PassengerSeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for the passengers' seat assignments
+ */
+@Repository
+public interface PassengerSeatRepository extends JpaRepository<PassengerSeat, Long> {
+
+    /**
+     * Find the seats assigned to a flight's passengers
+     * @param flightId the flight ID
+     * @return the assigned seats, as stored
+     */
+    @Query("SELECT p.seat FROM PassengerSeat p WHERE p.flightId = :flightId AND p.seat IS NOT NULL")
+    List<String> findAssignedSeats(@Param("flightId") Long flightId);
+
+    /**
+     * Load the version fingerprint of a flight's seat assignments
+     * @param flightId the flight ID
+     * @return number of seated passengers and newest update time
+     */
+    @Query("SELECT new com.oracle.flights.repository.ResourceVersion(COUNT(p), MAX(p.updatedAt)) " +
+           "FROM PassengerSeat p WHERE p.flightId = :flightId AND p.seat IS NOT NULL")
+    ResourceVersion findVersionByFlightId(@Param("flightId") Long flightId);
+}
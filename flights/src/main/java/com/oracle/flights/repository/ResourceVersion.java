@@ -0,0 +1,85 @@
+package com.oracle.flights.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Version fingerprint of a flight or a set of flights: the row count plus the
+ * newest update timestamp. Loaded with a single aggregate query so conditional
+ * GETs can be answered without fetching the rows themselves.
+ *
+ * Any delete lowers the count, so the fingerprint of a set also covers every subset of
+ * it. An update moves the newest timestamp, unless it commits after a newer one is
+ * already visible. Flights carry no row version to catch that case, so a fingerprint
+ * is only trusted once it has settled: its newest timestamp is old enough that every
+ * write stamped before it has committed.
+ */
+public class ResourceVersion {
+
+    private final long count;
+    private final LocalDateTime lastUpdated;
+
+    public ResourceVersion(Long count, LocalDateTime lastUpdated) {
+        this.count = count == null ? 0 : count;
+        this.lastUpdated = lastUpdated;
+    }
+
+    /**
+     * @param cutoff the newest timestamp whose writes are taken to have committed
+     * @return true if nothing was written after the cutoff
+     */
+    public boolean isSettled(LocalDateTime cutoff) {
+        return lastUpdated == null || lastUpdated.isBefore(cutoff);
+    }
+
+    /**
+     * @return true if no rows matched
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return strong entity tag for the matched rows
+     */
+    public String getETag() {
+        long updated = lastUpdated == null ? 0 : toEpochMilli(lastUpdated);
+        return "\"" + Long.toString(count, 36) + "-" + Long.toString(updated, 36) + "\"";
+    }
+
+    /**
+     * Combine with the fingerprint of rows the resource is also built from
+     * @param other the other fingerprint, or null for none
+     * @return the summed count with the newer update time
+     */
+    public ResourceVersion plus(ResourceVersion other) {
+        if (other == null || other.isEmpty()) {
+            return this;
+        }
+        LocalDateTime newest = lastUpdated;
+        if (newest == null || (other.lastUpdated != null && other.lastUpdated.isAfter(newest))) {
+            newest = other.lastUpdated;
+        }
+        return new ResourceVersion(count + other.count, newest);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    private static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceVersion{" +
+                "count=" + count +
+                ", lastUpdated=" + lastUpdated +
+                '}';
+    }
+}
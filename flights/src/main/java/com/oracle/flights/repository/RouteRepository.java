@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -82,4 +83,12 @@ public interface RouteRepository extends JpaRepository<Route, Long> {
      * @return true if exists, false otherwise
      */
     boolean existsByRouteCode(String routeCode);
+    
+    /**
+     * Find which of the given route codes already exist
+     * @param routeCodes the route codes to look up
+     * @return the route codes that exist
+     */
+    @Query("SELECT r.routeCode FROM Route r WHERE r.routeCode IN :routeCodes")
+    List<String> findExistingRouteCodes(@Param("routeCodes") Collection<String> routeCodes);
 }
@@ -0,0 +1,88 @@
+package com.oracle.flights.repository;
+
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.Route;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch writer for bulk schedule imports.
+ *
+ * Bypasses the persistence context so a chunk of several hundred rows goes to the
+ * database as one batched statement instead of one INSERT round trip per entity.
+ * Callers own the transaction and any follow-up work the JPA path would do
+ * (timestamps are set here, indexes and caches must be refreshed by the caller).
+ */
+@Repository
+public class ScheduleBatchRepository {
+
+    private static final String INSERT_FLIGHT =
+            "INSERT INTO flights (flight_name, flight_date, route, departure_time, arrival_time, aircraft_type, " +
+            "total_seats, available_seats, services, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ROUTE =
+            "INSERT INTO routes (route_code, departure_city, departure_airport, arrival_city, arrival_airport, " +
+            "distance_km, estimated_duration, status, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ScheduleBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert flights in one JDBC batch
+     * @param flights the flights to insert (IDs are generated by the database)
+     * @param now creation and update time to record
+     */
+    public void insertFlights(List<Flight> flights, LocalDateTime now) {
+        if (flights.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_FLIGHT, flights, flights.size(), (ps, flight) -> {
+            ps.setString(1, flight.getFlightName());
+            ps.setObject(2, flight.getFlightDate());
+            ps.setString(3, flight.getRoute());
+            ps.setString(4, flight.getDepartureTime());
+            ps.setString(5, flight.getArrivalTime());
+            ps.setString(6, flight.getAircraftType());
+            ps.setInt(7, flight.getTotalSeats());
+            ps.setInt(8, flight.getAvailableSeats());
+            ps.setString(9, flight.getServicesJson());
+            ps.setTimestamp(10, timestamp);
+            ps.setTimestamp(11, timestamp);
+        });
+    }
+
+    /**
+     * Insert routes in one JDBC batch
+     * @param routes the routes to insert (IDs are generated by the database)
+     * @param now creation and update time to record
+     */
+    public void insertRoutes(List<Route> routes, LocalDateTime now) {
+        if (routes.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_ROUTE, routes, routes.size(), (ps, route) -> {
+            ps.setString(1, route.getRouteCode());
+            ps.setString(2, route.getDepartureCity());
+            ps.setString(3, route.getDepartureAirport());
+            ps.setString(4, route.getArrivalCity());
+            ps.setString(5, route.getArrivalAirport());
+            ps.setObject(6, route.getDistanceKm(), Types.INTEGER);
+            ps.setObject(7, route.getEstimatedDuration(), Types.INTEGER);
+            ps.setString(8, route.getStatus().name());
+            ps.setTimestamp(9, timestamp);
+            ps.setTimestamp(10, timestamp);
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.oracle.flights.repository;
+
+import com.oracle.flights.entity.ScheduleImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for ScheduleImport checkpoints
+ */
+@Repository
+public interface ScheduleImportRepository extends JpaRepository<ScheduleImport, String> {
+}
@@ -0,0 +1,70 @@
+package com.oracle.flights.repository;
+
+import com.oracle.flights.entity.SeatHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for the seat hold journal
+ */
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, String> {
+
+    /**
+     * Find holds that have not expired yet
+     * @param now the current time
+     * @return the open holds
+     */
+    List<SeatHold> findByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * Find a flight's holds that have not expired yet
+     * @param flightId the flight ID
+     * @param now the current time
+     * @return the flight's open holds
+     */
+    List<SeatHold> findByFlightIdAndExpiresAtAfter(Long flightId, LocalDateTime now);
+
+    /**
+     * Load the version fingerprint of a flight's holds
+     * @param flightId the flight ID
+     * @return number of holds and newest update time
+     */
+    @Query("SELECT new com.oracle.flights.repository.ResourceVersion(COUNT(h), MAX(h.updatedAt)) " +
+           "FROM SeatHold h WHERE h.flightId = :flightId")
+    ResourceVersion findVersionByFlightId(@Param("flightId") Long flightId);
+
+    /**
+     * Find every journaled hold of a flight, expired or not
+     * @param flightId the flight ID
+     * @return the flight's holds
+     */
+    List<SeatHold> findByFlightId(Long flightId);
+
+    /**
+     * Delete holds that have expired
+     * @param now the current time
+     * @return the number of deleted holds
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SeatHold h WHERE h.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Delete every hold of a flight
+     * @param flightId the flight ID
+     * @return the number of deleted holds
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SeatHold h WHERE h.flightId = :flightId")
+    int deleteByFlightId(@Param("flightId") Long flightId);
+}
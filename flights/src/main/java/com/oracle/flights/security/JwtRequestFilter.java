@@ -42,6 +42,14 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                 // Invalid token format, ignore and continue
                 username = null;
             }
+        } else if (isSeatStream(request) && request.getParameter("access_token") != null) {
+            // EventSource cannot send headers, so the seat stream also accepts the token as a query parameter
+            token = request.getParameter("access_token");
+            try {
+                username = jwtUtil.extractUsername(token);
+            } catch (Exception e) {
+                username = null;
+            }
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -62,4 +70,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean isSeatStream(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && request.getRequestURI().endsWith("/seats/stream");
+    }
 }
@@ -0,0 +1,59 @@
+package com.oracle.flights.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position in a change feed: the change time and ID of the last change
+ * a client has seen. Written as "timestamp,id" (e.g., "2025-08-20T10:15:30.123456,42");
+ * a bare ISO timestamp is also accepted and means "everything from that moment on".
+ */
+public final class ChangeCursor {
+
+    static final ChangeCursor START = new ChangeCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final LocalDateTime changedAt;
+    private final long id;
+
+    public ChangeCursor(LocalDateTime changedAt, long id) {
+        this.changedAt = changedAt;
+        this.id = id;
+    }
+
+    /**
+     * Parse the since parameter of a change feed request
+     * @param since "timestamp,id", a bare ISO timestamp, or null/blank for the start of the feed
+     * @return the cursor
+     * @throws IllegalArgumentException if the value cannot be parsed
+     */
+    public static ChangeCursor parse(String since) {
+        if (since == null || since.isBlank()) {
+            return START;
+        }
+        String value = since.trim();
+        int comma = value.lastIndexOf(',');
+        try {
+            if (comma < 0) {
+                return new ChangeCursor(LocalDateTime.parse(value), 0L);
+            }
+            return new ChangeCursor(LocalDateTime.parse(value.substring(0, comma)),
+                    Long.parseLong(value.substring(comma + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid since value: " + since
+                    + " (expected an ISO timestamp or the nextSince of a previous page)");
+        }
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return changedAt + "," + id;
+    }
+}
@@ -0,0 +1,278 @@
+package com.oracle.flights.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flights.dto.FlightSearchResultDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.repository.FlightAvailabilityView;
+import com.oracle.flights.repository.FlightRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory availability index backing the flight search endpoint.
+ *
+ * Flights are grouped by route into slices whose entries are sorted by flight
+ * date, so a date range lookup is a binary search followed by a scan of only the
+ * matching days. Slices are immutable and replaced wholesale on every write, which
+ * keeps reads lock-free; writes are rare compared to searches and are serialized.
+ * The index is rebuilt from the database at startup and kept current from the
+ * flight write paths once their transaction commits.
+ */
+@Component
+public class FlightAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightAvailabilityIndex.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final RouteSlice EMPTY_SLICE = new RouteSlice(new Entry[0]);
+
+    private final FlightRepository flightRepository;
+    private final Map<String, RouteSlice> slicesByRoute = new ConcurrentHashMap<>();
+    private final Map<Long, String> routeByFlightId = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Autowired
+    public FlightAvailabilityIndex(FlightRepository flightRepository) {
+        this.flightRepository = flightRepository;
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        List<FlightAvailabilityView> views = flightRepository.findAllAvailabilityViews();
+
+        Map<String, List<Entry>> grouped = new HashMap<>();
+        for (FlightAvailabilityView view : views) {
+            Entry entry = new Entry(new FlightSearchResultDto(
+                    view.getFlightId(), view.getFlightName(), view.getFlightDate(), view.getRoute(),
+                    view.getDepartureTime(), view.getArrivalTime(), view.getAircraftType(),
+                    view.getTotalSeats(), view.getAvailableSeats(), parseServices(view.getServicesJson())));
+            grouped.computeIfAbsent(entry.route(), route -> new ArrayList<>()).add(entry);
+        }
+
+        slicesByRoute.clear();
+        routeByFlightId.clear();
+        grouped.forEach((route, entries) -> {
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.sort(sorted, RouteSlice::compare);
+            slicesByRoute.put(route, new RouteSlice(sorted));
+            entries.forEach(entry -> routeByFlightId.put(entry.flightId(), route));
+        });
+        ready = true;
+
+        logger.info("Flight availability index built with {} flights on {} routes in {} ms",
+                views.size(), slicesByRoute.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return true once the index has been loaded and can serve searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Search flights on a route within a date range
+     * @param route the route (e.g., "NYC-LON"), or null to search every route
+     * @param fromDate first flight date (inclusive)
+     * @param toDate last flight date (inclusive)
+     * @param minSeats minimum number of available seats
+     * @param requiredServices services every result must offer (case-insensitive)
+     * @return matching flights ordered by date
+     */
+    public List<FlightSearchResultDto> search(String route, LocalDate fromDate, LocalDate toDate,
+                                              int minSeats, Collection<String> requiredServices) {
+        Set<String> serviceKeys = normalize(requiredServices);
+        long fromDay = fromDate.toEpochDay();
+        long toDay = toDate.toEpochDay();
+
+        List<FlightSearchResultDto> results = new ArrayList<>();
+        if (route != null) {
+            slicesByRoute.getOrDefault(route, EMPTY_SLICE).collect(fromDay, toDay, minSeats, serviceKeys, results);
+            return results;
+        }
+
+        for (RouteSlice slice : slicesByRoute.values()) {
+            slice.collect(fromDay, toDay, minSeats, serviceKeys, results);
+        }
+        results.sort((a, b) -> {
+            int byDate = a.getFlightDate().compareTo(b.getFlightDate());
+            return byDate != 0 ? byDate : a.getFlightId().compareTo(b.getFlightId());
+        });
+        return results;
+    }
+
+    /**
+     * Record a created or updated flight once the surrounding transaction commits
+     * @param flight the saved flight
+     */
+    public void onFlightSaved(Flight flight) {
+        Entry entry = new Entry(new FlightSearchResultDto(
+                flight.getFlightId(), flight.getFlightName(), flight.getFlightDate(), flight.getRoute(),
+                flight.getDepartureTime(), flight.getArrivalTime(), flight.getAircraftType(),
+                flight.getTotalSeats(), flight.getAvailableSeats(), flight.getServices()));
+        TransactionHooks.afterCommit(() -> upsert(entry));
+    }
+
+    /**
+     * Remove a deleted flight once the surrounding transaction commits
+     * @param flightId the flight ID
+     */
+    public void onFlightDeleted(Long flightId) {
+        TransactionHooks.afterCommit(() -> remove(flightId));
+    }
+
+    synchronized void upsert(Entry entry) {
+        String previousRoute = routeByFlightId.put(entry.flightId(), entry.route());
+        if (previousRoute != null && !previousRoute.equals(entry.route())) {
+            replaceSlice(previousRoute, slicesByRoute.getOrDefault(previousRoute, EMPTY_SLICE).without(entry.flightId()));
+        }
+        replaceSlice(entry.route(), slicesByRoute.getOrDefault(entry.route(), EMPTY_SLICE).with(entry));
+    }
+
+    synchronized void remove(Long flightId) {
+        String route = routeByFlightId.remove(flightId);
+        if (route != null) {
+            replaceSlice(route, slicesByRoute.getOrDefault(route, EMPTY_SLICE).without(flightId));
+        }
+    }
+
+    private void replaceSlice(String route, RouteSlice slice) {
+        if (slice.entries.length == 0) {
+            slicesByRoute.remove(route);
+        } else {
+            slicesByRoute.put(route, slice);
+        }
+    }
+
+    private static Set<String> normalize(Collection<String> services) {
+        if (services == null || services.isEmpty()) {
+            return Set.of();
+        }
+        return services.stream()
+                .filter(service -> service != null && !service.isBlank())
+                .map(service -> service.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static List<String> parseServices(String servicesJson) {
+        if (servicesJson == null || servicesJson.trim().isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(servicesJson, new TypeReference<List<String>>() {});
+        } catch (JsonProcessingException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Index entry: the result DTO plus the precomputed keys the scan filters on
+     */
+    static final class Entry {
+        final long epochDay;
+        final int availableSeats;
+        final Set<String> serviceKeys;
+        final FlightSearchResultDto flight;
+
+        Entry(FlightSearchResultDto flight) {
+            this.flight = flight;
+            this.epochDay = flight.getFlightDate().toEpochDay();
+            this.availableSeats = flight.getAvailableSeats() == null ? 0 : flight.getAvailableSeats();
+            this.serviceKeys = normalize(flight.getServices());
+        }
+
+        Long flightId() {
+            return flight.getFlightId();
+        }
+
+        String route() {
+            return flight.getRoute();
+        }
+    }
+
+    /**
+     * Immutable, date-sorted array of the flights on one route
+     */
+    static final class RouteSlice {
+        private final Entry[] entries;
+
+        RouteSlice(Entry[] entries) {
+            this.entries = entries;
+        }
+
+        static int compare(Entry a, Entry b) {
+            int byDay = Long.compare(a.epochDay, b.epochDay);
+            return byDay != 0 ? byDay : a.flightId().compareTo(b.flightId());
+        }
+
+        void collect(long fromDay, long toDay, int minSeats, Set<String> serviceKeys,
+                     List<FlightSearchResultDto> results) {
+            for (int i = firstOnOrAfter(fromDay); i < entries.length && entries[i].epochDay <= toDay; i++) {
+                Entry entry = entries[i];
+                if (entry.availableSeats >= minSeats && entry.serviceKeys.containsAll(serviceKeys)) {
+                    results.add(entry.flight);
+                }
+            }
+        }
+
+        private int firstOnOrAfter(long day) {
+            int low = 0;
+            int high = entries.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (entries[mid].epochDay < day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        RouteSlice with(Entry entry) {
+            RouteSlice base = without(entry.flightId());
+            Entry[] copy = new Entry[base.entries.length + 1];
+            int insertAt = 0;
+            while (insertAt < base.entries.length && compare(base.entries[insertAt], entry) < 0) {
+                insertAt++;
+            }
+            System.arraycopy(base.entries, 0, copy, 0, insertAt);
+            copy[insertAt] = entry;
+            System.arraycopy(base.entries, insertAt, copy, insertAt + 1, base.entries.length - insertAt);
+            return new RouteSlice(copy);
+        }
+
+        RouteSlice without(Long flightId) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].flightId().equals(flightId)) {
+                    Entry[] copy = new Entry[entries.length - 1];
+                    System.arraycopy(entries, 0, copy, 0, i);
+                    System.arraycopy(entries, i + 1, copy, i, entries.length - i - 1);
+                    return new RouteSlice(copy);
+                }
+            }
+            return this;
+        }
+    }
+}
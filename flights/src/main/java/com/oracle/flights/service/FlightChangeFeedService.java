@@ -0,0 +1,78 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.ChangeFeedDto;
+import com.oracle.flights.dto.FlightChangeDto;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.FlightTombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service for the flight change feed.
+ *
+ * Updates and deletes are read as two keyset-paginated streams ordered by
+ * (change time, flight ID) and merged into a single page. Changes newer than the
+ * settle window are held back so a transaction that commits late with an older
+ * timestamp is not skipped by a client that has already moved past it.
+ */
+@Service
+@Transactional(readOnly = true)
+public class FlightChangeFeedService {
+
+    static final int MAX_LIMIT = 1000;
+    private static final Comparator<FlightChangeDto> CHANGE_ORDER =
+            Comparator.comparing(FlightChangeDto::getChangedAt).thenComparing(FlightChangeDto::getFlightId);
+
+    private final FlightRepository flightRepository;
+    private final FlightTombstoneRepository tombstoneRepository;
+    private final long settleMillis;
+
+    @Autowired
+    public FlightChangeFeedService(FlightRepository flightRepository,
+                                   FlightTombstoneRepository tombstoneRepository,
+                                   @Value("${app.changes.settle-ms:2000}") long settleMillis) {
+        this.flightRepository = flightRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * Get flights created, updated or deleted after a feed position
+     * @param since the nextSince of the previous page, an ISO timestamp, or null for everything
+     * @param limit maximum number of changes to return
+     * @return one page of changes in (change time, flight ID) order
+     */
+    public ChangeFeedDto<FlightChangeDto> getChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        ChangeCursor cursor = ChangeCursor.parse(since);
+        LocalDateTime until = LocalDateTime.now().minusNanos(settleMillis * 1_000_000);
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<FlightChangeDto> changes = new ArrayList<>();
+        flightRepository.findChangedAfter(cursor.getChangedAt(), cursor.getId(), until, page)
+                .forEach(flight -> changes.add(FlightChangeDto.upsert(flight)));
+        tombstoneRepository.findDeletedAfter(cursor.getChangedAt(), cursor.getId(), until, page)
+                .forEach(tombstone -> changes.add(FlightChangeDto.delete(tombstone)));
+        changes.sort(CHANGE_ORDER);
+
+        boolean hasMore = changes.size() > limit;
+        List<FlightChangeDto> pageChanges = hasMore ? changes.subList(0, limit) : changes;
+        ChangeCursor next = cursor;
+        if (!pageChanges.isEmpty()) {
+            FlightChangeDto last = pageChanges.get(pageChanges.size() - 1);
+            next = new ChangeCursor(last.getChangedAt(), last.getFlightId());
+        }
+        return new ChangeFeedDto<>(List.copyOf(pageChanges), next.toString(), hasMore);
+    }
+}
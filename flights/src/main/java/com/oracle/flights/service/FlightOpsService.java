@@ -0,0 +1,95 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.FlightOpsSummaryDto;
+import com.oracle.flights.exception.FlightNotFoundException;
+import com.oracle.flights.repository.FlightOpsCounterRepository;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.OpsCounterTotalView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service layer for the per-flight operations summary.
+ *
+ * The summary is read from flight_ops_counters, which the passengers and service
+ * management services keep up to date in the same transaction as every passenger
+ * write, so answering it costs one primary key range read of a few dozen counter
+ * rows however many passengers the flight has.
+ */
+@Service
+@Transactional(readOnly = true)
+public class FlightOpsService {
+
+    static final String PASSENGERS = "PASSENGERS";
+    static final String CHECKED_IN = "CHECKED_IN";
+    static final String SPECIAL_NEEDS = "SPECIAL_NEEDS";
+    static final String WHEELCHAIR = "WHEELCHAIR";
+    static final String INFANT = "INFANT";
+    static final String EXTRA_BAGGAGE_KG = "EXTRA_BAGGAGE_KG";
+    static final String SHOPPING_ORDERS = "SHOPPING_ORDERS";
+    static final String SHOPPING_ITEMS = "SHOPPING_ITEMS";
+    static final String MEAL_PREFIX = "MEAL:";
+    static final String SERVICE_PREFIX = "SERVICE:";
+
+    private final FlightRepository flightRepository;
+    private final FlightOpsCounterRepository counterRepository;
+
+    @Autowired
+    public FlightOpsService(FlightRepository flightRepository, FlightOpsCounterRepository counterRepository) {
+        this.flightRepository = flightRepository;
+        this.counterRepository = counterRepository;
+    }
+
+    /**
+     * Get the operations summary of a flight
+     * @param flightId the flight ID
+     * @return passenger, check-in, special needs, baggage, shopping, meal and service counts
+     * @throws FlightNotFoundException if the flight does not exist
+     */
+    public FlightOpsSummaryDto getOpsSummary(Long flightId) {
+        if (!flightRepository.existsById(flightId)) {
+            throw new FlightNotFoundException(flightId);
+        }
+
+        Map<String, Long> counters = new TreeMap<>();
+        LocalDateTime lastUpdated = null;
+        for (OpsCounterTotalView total : counterRepository.findTotalsByFlightId(flightId)) {
+            counters.put(total.getCounterName(), total.getTotal() != null ? total.getTotal() : 0L);
+            if (total.getLastUpdated() != null && (lastUpdated == null || total.getLastUpdated().isAfter(lastUpdated))) {
+                lastUpdated = total.getLastUpdated();
+            }
+        }
+
+        FlightOpsSummaryDto summary = new FlightOpsSummaryDto(flightId);
+        summary.setPassengers(counters.getOrDefault(PASSENGERS, 0L));
+        summary.setCheckedIn(counters.getOrDefault(CHECKED_IN, 0L));
+        summary.setNotCheckedIn(summary.getPassengers() - summary.getCheckedIn());
+        summary.setSpecialNeeds(counters.getOrDefault(SPECIAL_NEEDS, 0L));
+        summary.setWheelchair(counters.getOrDefault(WHEELCHAIR, 0L));
+        summary.setInfant(counters.getOrDefault(INFANT, 0L));
+        summary.setExtraBaggageKg(counters.getOrDefault(EXTRA_BAGGAGE_KG, 0L));
+        summary.setShoppingOrders(counters.getOrDefault(SHOPPING_ORDERS, 0L));
+        summary.setShoppingItems(counters.getOrDefault(SHOPPING_ITEMS, 0L));
+        summary.setMealsByType(withPrefix(counters, MEAL_PREFIX));
+        summary.setMeals(summary.getMealsByType().values().stream().mapToLong(Long::longValue).sum());
+        summary.setServices(withPrefix(counters, SERVICE_PREFIX));
+        summary.setLastUpdated(lastUpdated);
+        return summary;
+    }
+
+    // Counters named prefix + key, keyed without the prefix; counters that dropped back to zero are left out
+    private static Map<String, Long> withPrefix(Map<String, Long> counters, String prefix) {
+        Map<String, Long> matching = new TreeMap<>();
+        counters.forEach((name, value) -> {
+            if (name.startsWith(prefix) && value > 0) {
+                matching.put(name.substring(prefix.length()), value);
+            }
+        });
+        return matching;
+    }
+}
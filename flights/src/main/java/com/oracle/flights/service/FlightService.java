@@ -1,17 +1,30 @@
 package com.oracle.flights.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.oracle.flights.dto.FlightPatchDto;
+import com.oracle.flights.dto.FlightSearchResultDto;
 import com.oracle.flights.dto.SeatAvailabilityDto;
 import com.oracle.flights.dto.SeatDto;
 import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.FlightTombstone;
+import com.oracle.flights.exception.FlightNotFoundException;
 import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.FlightTombstoneRepository;
+import com.oracle.flights.repository.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for Flight operations
@@ -21,11 +34,26 @@ import java.util.Optional;
 public class FlightService {
     
     private final FlightRepository flightRepository;
+    private final FlightAvailabilityIndex availabilityIndex;
+    private final SeatMapStreamService seatMapStreamService;
+    private final FlightTombstoneRepository tombstoneRepository;
+    private final JsonMergePatcher mergePatcher;
+    private final SeatRecommendationService seatRecommendationService;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int MAX_SEARCH_RANGE_DAYS = 366;
     
     @Autowired
-    public FlightService(FlightRepository flightRepository) {
+    public FlightService(FlightRepository flightRepository, FlightAvailabilityIndex availabilityIndex,
+                         SeatMapStreamService seatMapStreamService,
+                         FlightTombstoneRepository tombstoneRepository,
+                         JsonMergePatcher mergePatcher,
+                         SeatRecommendationService seatRecommendationService) {
         this.flightRepository = flightRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.seatMapStreamService = seatMapStreamService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.mergePatcher = mergePatcher;
+        this.seatRecommendationService = seatRecommendationService;
     }
     
     /**
@@ -57,7 +85,10 @@ public class FlightService {
         if (flight.getAvailableSeats() > flight.getTotalSeats()) {
             flight.setAvailableSeats(flight.getTotalSeats());
         }
-        return flightRepository.save(flight);
+        Flight savedFlight = flightRepository.save(flight);
+        availabilityIndex.onFlightSaved(savedFlight);
+        seatRecommendationService.onFlightSaved(savedFlight);
+        return savedFlight;
     }
     
     /**
@@ -69,6 +100,9 @@ public class FlightService {
     public Optional<Flight> updateFlight(Long flightId, Flight flightDetails) {
         return flightRepository.findById(flightId)
                 .map(existingFlight -> {
+                    boolean seatMapChanged = !Objects.equals(existingFlight.getSeatMapJson(), flightDetails.getSeatMapJson());
+                    List<SeatDto> previousSeatMap = seatMapChanged ? existingFlight.getSeatMap() : List.of();
+                    
                     existingFlight.setFlightName(flightDetails.getFlightName());
                     existingFlight.setFlightDate(flightDetails.getFlightDate());
                     existingFlight.setRoute(flightDetails.getRoute());
@@ -86,7 +120,97 @@ public class FlightService {
                         existingFlight.setAvailableSeats(existingFlight.getTotalSeats());
                     }
                     
-                    return flightRepository.save(existingFlight);
+                    Flight savedFlight = flightRepository.save(existingFlight);
+                    availabilityIndex.onFlightSaved(savedFlight);
+                    seatRecommendationService.onFlightSaved(savedFlight);
+                    if (seatMapChanged) {
+                        seatMapStreamService.onSeatsChanged(savedFlight.getFlightId(), savedFlight.getAvailableSeats(),
+                                SeatMapStreamService.diff(previousSeatMap, savedFlight.getSeatMap()));
+                    }
+                    return savedFlight;
+                });
+    }
+    
+    /**
+     * Apply an RFC 7396 JSON merge patch to a flight. Only the fields the patch
+     * actually changes are copied to the entity, and since flights are updated
+     * dynamically only their columns are written; the services, service subtypes
+     * and seat map CLOBs are left alone unless the patch replaces them.
+     * @param flightId the flight ID
+     * @param patch the merge patch; a null member clears that field
+     * @return the updated flight, or empty if it does not exist
+     * @throws IllegalArgumentException if the patch is invalid or removes a required field
+     */
+    public Optional<Flight> patchFlight(Long flightId, JsonNode patch) {
+        return flightRepository.findById(flightId)
+                .map(existingFlight -> {
+                    JsonMergePatcher.Result<FlightPatchDto> result =
+                            mergePatcher.apply(toPatchDto(existingFlight), patch, FlightPatchDto.class);
+                    if (result.getChangedFields().isEmpty()) {
+                        return existingFlight;
+                    }
+                    FlightPatchDto patched = result.getValue();
+                    List<SeatDto> previousSeatMap = result.changed("seatMap") ? existingFlight.getSeatMap() : List.of();
+                    
+                    if (result.changed("flightName")) {
+                        existingFlight.setFlightName(patched.getFlightName());
+                    }
+                    if (result.changed("flightDate")) {
+                        existingFlight.setFlightDate(patched.getFlightDate());
+                    }
+                    if (result.changed("route")) {
+                        existingFlight.setRoute(patched.getRoute());
+                    }
+                    if (result.changed("departureTime")) {
+                        existingFlight.setDepartureTime(patched.getDepartureTime());
+                    }
+                    if (result.changed("arrivalTime")) {
+                        existingFlight.setArrivalTime(patched.getArrivalTime());
+                    }
+                    if (result.changed("aircraftType")) {
+                        existingFlight.setAircraftType(patched.getAircraftType());
+                    }
+                    if (result.changed("totalSeats")) {
+                        existingFlight.setTotalSeats(patched.getTotalSeats());
+                    }
+                    if (result.changed("availableSeats")) {
+                        existingFlight.setAvailableSeats(patched.getAvailableSeats());
+                    }
+                    if (result.changed("services")) {
+                        if (patched.getServices() == null) {
+                            existingFlight.setServicesJson(null);
+                        } else {
+                            existingFlight.setServices(patched.getServices());
+                        }
+                    }
+                    if (result.changed("serviceSubtypes")) {
+                        if (patched.getServiceSubtypes() == null) {
+                            existingFlight.setServiceSubtypesJson(null);
+                        } else {
+                            existingFlight.setServiceSubtypes(patched.getServiceSubtypes());
+                        }
+                    }
+                    if (result.changed("seatMap")) {
+                        if (patched.getSeatMap() == null) {
+                            existingFlight.setSeatMapJson(null);
+                        } else {
+                            existingFlight.setSeatMap(patched.getSeatMap());
+                        }
+                    }
+                    
+                    // Ensure available seats doesn't exceed total seats
+                    if (existingFlight.getAvailableSeats() > existingFlight.getTotalSeats()) {
+                        existingFlight.setAvailableSeats(existingFlight.getTotalSeats());
+                    }
+                    
+                    Flight savedFlight = flightRepository.save(existingFlight);
+                    availabilityIndex.onFlightSaved(savedFlight);
+                    seatRecommendationService.onFlightSaved(savedFlight);
+                    if (result.changed("seatMap")) {
+                        seatMapStreamService.onSeatsChanged(savedFlight.getFlightId(), savedFlight.getAvailableSeats(),
+                                SeatMapStreamService.diff(previousSeatMap, savedFlight.getSeatMap()));
+                    }
+                    return savedFlight;
                 });
     }
     
@@ -98,6 +222,9 @@ public class FlightService {
     public boolean deleteFlight(Long flightId) {
         if (flightRepository.existsById(flightId)) {
             flightRepository.deleteById(flightId);
+            tombstoneRepository.save(new FlightTombstone(flightId, LocalDateTime.now()));
+            availabilityIndex.onFlightDeleted(flightId);
+            seatRecommendationService.onFlightDeleted(flightId);
             return true;
         }
         return false;
@@ -134,7 +261,7 @@ public class FlightService {
         return flightRepository.findById(flightId)
                 .map(flight -> {
                     List<SeatDto> seatMap = flight.getSeatMap();
-                    return new SeatAvailabilityDto(
+                    SeatAvailabilityDto availability = new SeatAvailabilityDto(
                             flight.getFlightId(),
                             flight.getFlightName(),
                             flight.getRoute(),
@@ -143,9 +270,28 @@ public class FlightService {
                             flight.getAvailableSeats(),
                             seatMap
                     );
+                    availability.setHeldSeats(seatRecommendationService.getHeldSeats(flightId));
+                    availability.setAssignedSeats(seatRecommendationService.getAssignedSeats(flightId));
+                    return availability;
                 });
     }
     
+    /**
+     * Open a seat map change stream for a flight
+     * @param flightId the flight ID
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, if any
+     * @return the emitter if the flight exists
+     */
+    @Transactional(readOnly = true)
+    public Optional<SseEmitter> streamSeatMap(Long flightId, String lastEventId) {
+        if (!flightRepository.existsById(flightId)) {
+            return Optional.empty();
+        }
+        return Optional.of(seatMapStreamService.subscribe(flightId, lastEventId,
+                () -> getFlightSeatAvailability(flightId)
+                        .orElseThrow(() -> new FlightNotFoundException(flightId))));
+    }
+    
     /**
      * Get flights with available seats
      * @return list of flights that have available seats
@@ -175,4 +321,134 @@ public class FlightService {
         LocalDate flightDate = LocalDate.parse(date, DATE_FORMATTER);
         return flightRepository.findByFlightDateWithAvailableSeats(flightDate);
     }
+    
+    /**
+     * Get the version fingerprint of all flights
+     * @return count and newest update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getFlightsVersion() {
+        return flightRepository.findVersion();
+    }
+    
+    /**
+     * Get the version fingerprint of a flight
+     * @param flightId the flight ID
+     * @return the version, empty if the flight does not exist
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getFlightVersion(Long flightId) {
+        return flightRepository.findVersionById(flightId);
+    }
+    
+    /**
+     * Get the version fingerprint of a flight's seat availability: the flight itself
+     * plus its seat holds and its passengers' seat assignments, which change without
+     * touching the flight row
+     * @param flightId the flight ID
+     * @return the combined version; empty if the flight does not exist
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getSeatAvailabilityVersion(Long flightId) {
+        ResourceVersion flightVersion = flightRepository.findVersionById(flightId);
+        if (flightVersion.isEmpty()) {
+            return flightVersion;
+        }
+        return flightVersion.plus(seatRecommendationService.getHoldsVersion(flightId))
+                .plus(seatRecommendationService.getAssignmentsVersion(flightId));
+    }
+    
+    /**
+     * Get the version fingerprint of the flights on a route
+     * @param route the route (e.g., "NYC-LON")
+     * @return count and newest update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getFlightsVersionByRoute(String route) {
+        return flightRepository.findVersionByRoute(route);
+    }
+    
+    /**
+     * Get the version fingerprint of the flights on a date
+     * @param date the flight date in yyyy-MM-dd format
+     * @return count and newest update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getFlightsVersionByDate(String date) {
+        LocalDate flightDate = LocalDate.parse(date, DATE_FORMATTER);
+        return flightRepository.findVersionByFlightDate(flightDate);
+    }
+    
+    /**
+     * Search flights by route, date range, free seats and offered services.
+     * Served from the in-memory availability index; falls back to SQL until
+     * the index has finished loading.
+     * @param origin origin airport code (optional, requires destination)
+     * @param destination destination airport code (optional, requires origin)
+     * @param from first flight date in yyyy-MM-dd format
+     * @param to last flight date in yyyy-MM-dd format (defaults to from)
+     * @param minSeats minimum number of available seats
+     * @param services services every flight must offer
+     * @return matching flights ordered by date
+     */
+    @Transactional(readOnly = true)
+    public List<FlightSearchResultDto> searchFlights(String origin, String destination, String from, String to,
+                                                     int minSeats, List<String> services) {
+        if ((origin == null) != (destination == null)) {
+            throw new IllegalArgumentException("Origin and destination must be provided together");
+        }
+        if (minSeats < 0) {
+            throw new IllegalArgumentException("minSeats must not be negative");
+        }
+        LocalDate fromDate = LocalDate.parse(from, DATE_FORMATTER);
+        LocalDate toDate = to == null ? fromDate : LocalDate.parse(to, DATE_FORMATTER);
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("Search end date must not be before start date");
+        }
+        if (fromDate.plusDays(MAX_SEARCH_RANGE_DAYS).isBefore(toDate)) {
+            throw new IllegalArgumentException("Search range must not exceed " + MAX_SEARCH_RANGE_DAYS + " days");
+        }
+        String route = origin == null ? null : origin.trim().toUpperCase(Locale.ROOT) + "-" + destination.trim().toUpperCase(Locale.ROOT);
+        
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.search(route, fromDate, toDate, minSeats, services);
+        }
+        
+        Set<String> required = services == null ? Set.of() : services.stream()
+                .filter(service -> service != null && !service.isBlank())
+                .map(service -> service.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        List<Flight> candidates = route == null
+                ? flightRepository.findAvailableByDateRange(fromDate, toDate, minSeats)
+                : flightRepository.findAvailableByRouteAndDateRange(route, fromDate, toDate, minSeats);
+        return candidates.stream()
+                .filter(flight -> flight.getServices().stream()
+                        .map(service -> service.toLowerCase(Locale.ROOT))
+                        .collect(Collectors.toSet())
+                        .containsAll(required))
+                .map(flight -> new FlightSearchResultDto(
+                        flight.getFlightId(), flight.getFlightName(), flight.getFlightDate(), flight.getRoute(),
+                        flight.getDepartureTime(), flight.getArrivalTime(), flight.getAircraftType(),
+                        flight.getTotalSeats(), flight.getAvailableSeats(), flight.getServices()))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Current patchable state of a flight
+     */
+    private static FlightPatchDto toPatchDto(Flight flight) {
+        FlightPatchDto dto = new FlightPatchDto();
+        dto.setFlightName(flight.getFlightName());
+        dto.setFlightDate(flight.getFlightDate());
+        dto.setRoute(flight.getRoute());
+        dto.setDepartureTime(flight.getDepartureTime());
+        dto.setArrivalTime(flight.getArrivalTime());
+        dto.setAircraftType(flight.getAircraftType());
+        dto.setTotalSeats(flight.getTotalSeats());
+        dto.setAvailableSeats(flight.getAvailableSeats());
+        dto.setServices(flight.getServicesJson() == null ? null : flight.getServices());
+        dto.setServiceSubtypes(flight.getServiceSubtypesJson() == null ? null : flight.getServiceSubtypes());
+        dto.setSeatMap(flight.getSeatMapJson() == null ? null : flight.getSeatMap());
+        return dto;
+    }
 }
@@ -0,0 +1,174 @@
+package com.oracle.flights.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: a ring of buckets, one per tick, each holding the timeouts
+ * whose deadline falls on that tick modulo the ring size. Scheduling and
+ * cancelling are O(1) list operations, and advancing the wheel only visits the
+ * buckets of the ticks that passed, so the cost of a tick does not grow with the
+ * number of pending timeouts. Timeouts further away than one revolution simply
+ * stay in their bucket until their tick comes round.
+ *
+ * Deadlines are rounded up to the next tick, so a timeout fires at most one tick
+ * late and never early. Thread-safe; every operation holds the wheel's monitor.
+ *
+ * @param <T> the payload handed back when a timeout expires
+ */
+final class HashedTimingWheel<T> {
+
+    /**
+     * A scheduled timeout; cancel it through the wheel
+     */
+    static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineTick;
+        private Timeout<T> previous;
+        private Timeout<T> next;
+        private Bucket<T> bucket;
+
+        private Timeout(T payload, long deadlineTick) {
+            this.payload = payload;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T payload() {
+            return payload;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final Bucket<T>[] buckets;
+    private final int mask;
+    // First tick whose bucket has not been processed yet
+    private long nextTick;
+    private int size;
+
+    /**
+     * @param start the instant tick 0 starts at
+     * @param tick the tick duration
+     * @param ticksPerWheel number of buckets, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(Instant start, Duration tick, int ticksPerWheel) {
+        if (tick.toMillis() < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 ms");
+        }
+        if (ticksPerWheel < 1 || ticksPerWheel > 1 << 20) {
+            throw new IllegalArgumentException("Ticks per wheel must be between 1 and " + (1 << 20));
+        }
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.startMillis = start.toEpochMilli();
+        this.tickMillis = tick.toMillis();
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        this.mask = wheelSize - 1;
+    }
+
+    /**
+     * Schedule a timeout
+     * @param payload handed back when the timeout expires
+     * @param deadline when it expires; a deadline in the past expires on the next advance
+     * @return the timeout, for cancelling
+     */
+    synchronized Timeout<T> schedule(T payload, Instant deadline) {
+        long elapsed = deadline.toEpochMilli() - startMillis;
+        long deadlineTick = Math.max(nextTick, Math.floorDiv(elapsed + tickMillis - 1, tickMillis));
+        Timeout<T> timeout = new Timeout<>(payload, deadlineTick);
+        buckets[(int) (deadlineTick & mask)].add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancel a timeout that has not expired yet
+     * @param timeout the timeout; null or already expired/cancelled timeouts are ignored
+     * @return true if the timeout was pending
+     */
+    synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Expire every timeout whose deadline has passed
+     * @param now the current time
+     * @return the payloads of the expired timeouts
+     */
+    synchronized List<T> advance(Instant now) {
+        long currentTick = Math.floorDiv(now.toEpochMilli() - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        if (currentTick < nextTick) {
+            return expired;
+        }
+        // After a long pause one revolution covers every bucket
+        long ticks = Math.min(currentTick - nextTick + 1, buckets.length);
+        for (long i = 0; i < ticks; i++) {
+            Bucket<T> bucket = buckets[(int) ((nextTick + i) & mask)];
+            Timeout<T> timeout = bucket.head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineTick <= currentTick) {
+                    bucket.remove(timeout);
+                    size--;
+                    expired.add(timeout.payload);
+                }
+                timeout = next;
+            }
+        }
+        nextTick = currentTick + 1;
+        return expired;
+    }
+
+    /**
+     * @return number of pending timeouts
+     */
+    synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,137 @@
+package com.oracle.flights.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applies RFC 7396 JSON merge patches to DTOs.
+ *
+ * The current state is written as a JSON document, the patch is merged into it
+ * (null removes a member, objects merge recursively, everything else replaces) and
+ * the result is read back and validated. The result names the top-level fields whose
+ * value actually changed, so callers copy only those to the entity and untouched JSON
+ * columns are never re-serialized.
+ */
+@Component
+public class JsonMergePatcher {
+
+    // Unknown members are rejected instead of silently ignored; null fields are left
+    // out of the current state so that removing an absent member is not a change
+    private static final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final Validator validator;
+
+    @Autowired
+    public JsonMergePatcher(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Outcome of a merge patch: the patched value and the fields it changed
+     */
+    public static final class Result<T> {
+        private final T value;
+        private final Set<String> changedFields;
+
+        Result(T value, Set<String> changedFields) {
+            this.value = value;
+            this.changedFields = changedFields;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public Set<String> getChangedFields() {
+            return changedFields;
+        }
+
+        public boolean changed(String field) {
+            return changedFields.contains(field);
+        }
+    }
+
+    /**
+     * Apply a merge patch to a DTO
+     * @param current the current state
+     * @param patch the merge patch document; must be a JSON object
+     * @param type the DTO type
+     * @return the patched and validated DTO with the names of the changed fields
+     * @throws IllegalArgumentException if the patch is not an object, names an unknown
+     *         field, has a value of the wrong type, or yields an invalid DTO
+     */
+    public <T> Result<T> apply(T current, JsonNode patch, Class<T> type) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        JsonNode before = objectMapper.valueToTree(current);
+        JsonNode after = merge(before.deepCopy(), patch);
+        T value;
+        try {
+            value = objectMapper.treeToValue(after, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        Set<String> changed = new LinkedHashSet<>();
+        Iterator<String> fields = patch.fieldNames();
+        while (fields.hasNext()) {
+            String field = fields.next();
+            if (!before.path(field).equals(after.path(field))) {
+                changed.add(field);
+            }
+        }
+        return new Result<>(value, changed);
+    }
+
+    /**
+     * Merge a patch into a target document as specified by RFC 7396
+     * @param target the document to patch; modified in place when it is an object
+     * @param patch the merge patch
+     * @return the patched document
+     */
+    static JsonNode merge(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject() ? (ObjectNode) target : objectMapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> members = patch.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            if (member.getValue().isNull()) {
+                result.remove(member.getKey());
+            } else {
+                result.set(member.getKey(), merge(result.get(member.getKey()), member.getValue()));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,437 @@
+package com.oracle.flights.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flights.dto.ScheduleImportReportDto;
+import com.oracle.flights.dto.ScheduleImportReportDto.RowError;
+import com.oracle.flights.dto.ScheduleImportRowDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.Route;
+import com.oracle.flights.entity.ScheduleImport;
+import com.oracle.flights.entity.ScheduleImport.ImportStatus;
+import com.oracle.flights.repository.RouteRepository;
+import com.oracle.flights.repository.ScheduleBatchRepository;
+import com.oracle.flights.repository.ScheduleImportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for bulk schedule imports.
+ *
+ * The request body is read line by line and never held in memory as a whole.
+ * Lines are validated and grouped into chunks; each chunk is written in its own
+ * transaction with JDBC batch inserts, together with the import's checkpoint.
+ * Route codes are deduplicated with one IN lookup per chunk instead of one
+ * existsByRouteCode call per row. Re-sending the same file with the same import ID
+ * skips the lines that were already committed.
+ */
+@Service
+public class ScheduleImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleImportService.class);
+    // Unknown NDJSON fields are ignored, like unknown CSV columns
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // Keeps the per-chunk route lookup within Oracle's 1000-element IN list limit
+    static final int MAX_CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int MAX_IMPORT_ID_LENGTH = 64;
+    private static final List<String> REQUIRED_COLUMNS = List.of("flightName", "flightDate", "route",
+            "departureTime", "arrivalTime", "totalSeats", "availableSeats");
+
+    /**
+     * Supported input formats
+     */
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private final RouteRepository routeRepository;
+    private final ScheduleImportRepository importRepository;
+    private final ScheduleBatchRepository batchRepository;
+    private final FlightAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> runningImports = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ScheduleImportService(RouteRepository routeRepository, ScheduleImportRepository importRepository,
+                                 ScheduleBatchRepository batchRepository, FlightAvailabilityIndex availabilityIndex,
+                                 PlatformTransactionManager transactionManager) {
+        this.routeRepository = routeRepository;
+        this.importRepository = importRepository;
+        this.batchRepository = batchRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import flights, and the routes they introduce, from a CSV or NDJSON stream
+     * @param body the request body
+     * @param format the body format
+     * @param importId client-chosen import ID to resume, or null to start a new import
+     * @param chunkSize number of lines per transaction
+     * @return the import report
+     * @throws IllegalArgumentException if the parameters or the CSV header are invalid,
+     *         or the import is already running
+     */
+    public ScheduleImportReportDto importSchedule(Reader body, Format format, String importId, int chunkSize) {
+        if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+        }
+        String id = importId == null || importId.isBlank() ? UUID.randomUUID().toString() : importId.trim();
+        if (id.length() > MAX_IMPORT_ID_LENGTH) {
+            throw new IllegalArgumentException("importId must not exceed " + MAX_IMPORT_ID_LENGTH + " characters");
+        }
+        if (!runningImports.add(id)) {
+            throw new IllegalArgumentException("Import " + id + " is already running");
+        }
+        try {
+            return run(body, format, id, chunkSize);
+        } finally {
+            runningImports.remove(id);
+        }
+    }
+
+    private ScheduleImportReportDto run(Reader body, Format format, String importId, int chunkSize) {
+        ScheduleImport checkpoint = importRepository.findById(importId)
+                .orElseGet(() -> importRepository.save(new ScheduleImport(importId)));
+        long resumeAfter = checkpoint.getLastCommittedLine();
+        if (checkpoint.getStatus() == ImportStatus.COMPLETED) {
+            return report(checkpoint, resumeAfter, List.of(), false, "Import already completed");
+        }
+
+        long flightsBefore = checkpoint.getImportedFlights();
+        List<RowError> errors = new ArrayList<>();
+        boolean errorsTruncated = false;
+        String failure = null;
+        long lineNumber = 0;
+        try (BufferedReader reader = new BufferedReader(body)) {
+            List<String> header = null;
+            Chunk chunk = new Chunk();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1);
+                }
+                if (format == Format.CSV && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                if (lineNumber <= resumeAfter) {
+                    continue;
+                }
+
+                chunk.lastLine = lineNumber;
+                chunk.lines++;
+                if (!line.isBlank()) {
+                    try {
+                        ScheduleImportRowDto row = format == Format.CSV ? parseCsvRow(header, line) : parseJsonRow(line);
+                        chunk.add(toFlight(row), toRoute(row));
+                    } catch (IllegalArgumentException e) {
+                        chunk.rejected++;
+                        if (errors.size() < MAX_REPORTED_ERRORS) {
+                            errors.add(new RowError(lineNumber, e.getMessage()));
+                        } else {
+                            errorsTruncated = true;
+                        }
+                    }
+                }
+
+                if (chunk.lines >= chunkSize) {
+                    checkpoint = writeChunk(checkpoint, chunk);
+                    chunk = new Chunk();
+                }
+            }
+            if (chunk.lines > 0) {
+                checkpoint = writeChunk(checkpoint, chunk);
+            }
+            checkpoint.setStatus(ImportStatus.COMPLETED);
+            checkpoint = importRepository.save(checkpoint);
+        } catch (IOException | DataAccessException | TransactionException e) {
+            logger.warn("Schedule import {} failed after line {}", importId, lineNumber, e);
+            failure = "Import stopped at line " + lineNumber + ": " + e.getMessage()
+                    + ". Resend the same file with importId=" + importId + " to resume.";
+            checkpoint = markFailed(importId);
+        } finally {
+            if (checkpoint.getImportedFlights() > flightsBefore) {
+                availabilityIndex.rebuild();
+            }
+        }
+        return report(checkpoint, resumeAfter, errors, errorsTruncated, failure);
+    }
+
+    /**
+     * Write one chunk and advance the checkpoint in a single transaction
+     */
+    private ScheduleImport writeChunk(ScheduleImport checkpoint, Chunk chunk) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Route> newRoutes = newRoutes(chunk.routesByCode);
+            batchRepository.insertRoutes(newRoutes, now);
+            batchRepository.insertFlights(chunk.flights, now);
+            checkpoint.recordChunk(chunk.lastLine, chunk.flights.size(), newRoutes.size(), chunk.rejected);
+            return importRepository.save(checkpoint);
+        });
+    }
+
+    private List<Route> newRoutes(Map<String, Route> routesByCode) {
+        if (routesByCode.isEmpty()) {
+            return List.of();
+        }
+        Set<String> existing = new HashSet<>(routeRepository.findExistingRouteCodes(routesByCode.keySet()));
+        List<Route> routes = new ArrayList<>();
+        routesByCode.forEach((code, route) -> {
+            if (!existing.contains(code)) {
+                routes.add(route);
+            }
+        });
+        return routes;
+    }
+
+    private ScheduleImport markFailed(String importId) {
+        // The failed chunk rolled back, so reload the last committed checkpoint
+        ScheduleImport checkpoint = importRepository.findById(importId).orElseGet(() -> new ScheduleImport(importId));
+        checkpoint.setStatus(ImportStatus.FAILED);
+        try {
+            return importRepository.save(checkpoint);
+        } catch (DataAccessException e) {
+            logger.warn("Could not mark schedule import {} as failed", importId, e);
+            return checkpoint;
+        }
+    }
+
+    private ScheduleImportReportDto report(ScheduleImport checkpoint, long resumedAfter, List<RowError> errors,
+                                           boolean errorsTruncated, String message) {
+        ScheduleImportReportDto report = new ScheduleImportReportDto();
+        report.setImportId(checkpoint.getImportId());
+        report.setStatus(checkpoint.getStatus().name());
+        report.setResumedAfterLine(resumedAfter);
+        report.setLastCommittedLine(checkpoint.getLastCommittedLine());
+        report.setImportedFlights(checkpoint.getImportedFlights());
+        report.setImportedRoutes(checkpoint.getImportedRoutes());
+        report.setFailedRows(checkpoint.getFailedRows());
+        report.setErrors(errors);
+        report.setErrorsTruncated(errorsTruncated);
+        report.setMessage(message);
+        return report;
+    }
+
+    // Parsing
+
+    private List<String> parseHeader(String line) {
+        List<String> header = splitCsvLine(line).stream().map(String::trim).toList();
+        for (String column : REQUIRED_COLUMNS) {
+            if (!header.contains(column)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + column);
+            }
+        }
+        return header;
+    }
+
+    private ScheduleImportRowDto parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, ScheduleImportRowDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private ScheduleImportRowDto parseCsvRow(List<String> header, String line) {
+        List<String> values = splitCsvLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + values.size());
+        }
+        ScheduleImportRowDto row = new ScheduleImportRowDto();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).trim();
+            if (!value.isEmpty()) {
+                setCsvField(row, header.get(i), value);
+            }
+        }
+        return row;
+    }
+
+    private void setCsvField(ScheduleImportRowDto row, String column, String value) {
+        switch (column) {
+            case "flightName" -> row.setFlightName(value);
+            case "flightDate" -> row.setFlightDate(value);
+            case "route" -> row.setRoute(value);
+            case "departureTime" -> row.setDepartureTime(value);
+            case "arrivalTime" -> row.setArrivalTime(value);
+            case "aircraftType" -> row.setAircraftType(value);
+            case "totalSeats" -> row.setTotalSeats(parseInt(column, value));
+            case "availableSeats" -> row.setAvailableSeats(parseInt(column, value));
+            case "services" -> row.setServices(Arrays.stream(value.split("\\|")).map(String::trim)
+                    .filter(service -> !service.isEmpty()).toList());
+            case "departureCity" -> row.setDepartureCity(value);
+            case "departureAirport" -> row.setDepartureAirport(value);
+            case "arrivalCity" -> row.setArrivalCity(value);
+            case "arrivalAirport" -> row.setArrivalAirport(value);
+            case "distanceKm" -> row.setDistanceKm(parseInt(column, value));
+            case "estimatedDuration" -> row.setEstimatedDuration(parseInt(column, value));
+            default -> { } // Unknown columns are ignored
+        }
+    }
+
+    /**
+     * Split one CSV line into fields. Fields may be quoted; "" inside a quoted
+     * field is a literal quote. Quoted fields cannot span lines.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Validation
+
+    private Flight toFlight(ScheduleImportRowDto row) {
+        Flight flight = new Flight();
+        flight.setFlightName(required(row.getFlightName(), "flightName", 50));
+        flight.setFlightDate(parseDate(required(row.getFlightDate(), "flightDate", 10)));
+        flight.setRoute(required(row.getRoute(), "route", 20));
+        flight.setDepartureTime(required(row.getDepartureTime(), "departureTime", 20));
+        flight.setArrivalTime(required(row.getArrivalTime(), "arrivalTime", 20));
+        flight.setAircraftType(optional(row.getAircraftType(), "aircraftType", 50));
+
+        Integer totalSeats = row.getTotalSeats();
+        Integer availableSeats = row.getAvailableSeats();
+        if (totalSeats == null || totalSeats <= 0) {
+            throw new IllegalArgumentException("totalSeats must be a positive number");
+        }
+        if (availableSeats == null || availableSeats < 0) {
+            throw new IllegalArgumentException("availableSeats must be zero or more");
+        }
+        // Same rule as createFlight: available seats never exceed total seats
+        flight.setTotalSeats(totalSeats);
+        flight.setAvailableSeats(Math.min(availableSeats, totalSeats));
+        if (row.getServices() != null) {
+            flight.setServices(row.getServices());
+        }
+        return flight;
+    }
+
+    private Route toRoute(ScheduleImportRowDto row) {
+        if (!row.hasRouteDetails()) {
+            return null;
+        }
+        Route route = new Route(row.getRoute().trim(),
+                required(row.getDepartureCity(), "departureCity", 50),
+                required(row.getDepartureAirport(), "departureAirport", 10),
+                required(row.getArrivalCity(), "arrivalCity", 50),
+                required(row.getArrivalAirport(), "arrivalAirport", 10));
+        if (row.getDistanceKm() != null && row.getDistanceKm() < 0) {
+            throw new IllegalArgumentException("distanceKm must be zero or more");
+        }
+        if (row.getEstimatedDuration() != null && row.getEstimatedDuration() < 0) {
+            throw new IllegalArgumentException("estimatedDuration must be zero or more");
+        }
+        route.setDistanceKm(row.getDistanceKm());
+        route.setEstimatedDuration(row.getEstimatedDuration());
+        return route;
+    }
+
+    private static String required(String value, String field, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return optional(value, field, maxLength);
+    }
+
+    private static String optional(String value, String field, int maxLength) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() > maxLength) {
+            throw new IllegalArgumentException(field + " must not exceed " + maxLength + " characters");
+        }
+        return trimmed;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value, DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("flightDate must be in yyyy-MM-dd format");
+        }
+    }
+
+    private static Integer parseInt(String field, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a whole number");
+        }
+    }
+
+    /**
+     * Rows of one chunk waiting to be written
+     */
+    private static final class Chunk {
+        private final List<Flight> flights = new ArrayList<>();
+        private final Map<String, Route> routesByCode = new LinkedHashMap<>();
+        private long lastLine;
+        private int lines;
+        private int rejected;
+
+        void add(Flight flight, Route route) {
+            flights.add(flight);
+            if (route != null) {
+                routesByCode.putIfAbsent(route.getRouteCode(), route);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.oracle.flights.service;
+
+import java.util.Locale;
+
+/**
+ * Cabin layout of an aircraft type: seats per row, where the aisles are and
+ * which rows are wheelchair accessible.
+ *
+ * Seat numbers in the seat map run row by row from the front: seat n sits in
+ * row (n - 1) / seatsPerRow and column (n - 1) % seatsPerRow, column 0 being the
+ * left window. Every row fits in one 64-bit word, bit c standing for column c.
+ */
+public final class SeatLayout {
+
+    // 3-4-3 twin aisle, accessible rows at the front and by the mid-cabin doors
+    static final SeatLayout WIDE_BODY = new SeatLayout("3-4-3", new int[]{3, 4, 3}, true);
+    // 3-3 single aisle, accessible row at the front
+    static final SeatLayout NARROW_BODY = new SeatLayout("3-3", new int[]{3, 3}, false);
+    // 2-2 regional, accessible row at the front
+    static final SeatLayout REGIONAL = new SeatLayout("2-2", new int[]{2, 2}, false);
+
+    private final String name;
+    private final int seatsPerRow;
+    private final long rowMask;
+    private final long windowMask;
+    private final long aisleMask;
+    // Bit c set when columns c and c + 1 are in the same section (no aisle between them)
+    private final long joinedMask;
+    private final boolean midCabinAccessible;
+
+    SeatLayout(String name, int[] sections, boolean midCabinAccessible) {
+        this.name = name;
+        int width = 0;
+        long aisle = 0;
+        long joined = 0;
+        for (int s = 0; s < sections.length; s++) {
+            int first = width;
+            width += sections[s];
+            for (int c = first; c < width - 1; c++) {
+                joined |= 1L << c;
+            }
+            if (s > 0) {
+                aisle |= 1L << first;
+            }
+            if (s < sections.length - 1) {
+                aisle |= 1L << (width - 1);
+            }
+        }
+        if (width < 1 || width > Long.SIZE) {
+            throw new IllegalArgumentException("A row must have between 1 and 64 seats");
+        }
+        this.seatsPerRow = width;
+        this.rowMask = width == Long.SIZE ? -1L : (1L << width) - 1;
+        this.windowMask = 1L | (1L << (width - 1));
+        this.aisleMask = aisle;
+        this.joinedMask = joined;
+        this.midCabinAccessible = midCabinAccessible;
+    }
+
+    /**
+     * Look up the layout of an aircraft type
+     * @param aircraftType the aircraft type, e.g. "Boeing 747"; unknown or missing types get a 3-3 cabin
+     * @return the layout
+     */
+    public static SeatLayout forAircraft(String aircraftType) {
+        String type = aircraftType == null ? "" : aircraftType.toUpperCase(Locale.ROOT);
+        if (type.contains("747") || type.contains("777") || type.contains("787") || type.contains("A380")
+                || type.contains("A350") || type.contains("A330")) {
+            return WIDE_BODY;
+        }
+        if (type.contains("EMBRAER") || type.contains("ATR") || type.contains("CRJ")) {
+            return REGIONAL;
+        }
+        return NARROW_BODY;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    /**
+     * @return bits of every column in a row
+     */
+    long rowMask() {
+        return rowMask;
+    }
+
+    long windowMask() {
+        return windowMask;
+    }
+
+    long aisleMask() {
+        return aisleMask;
+    }
+
+    /**
+     * Start columns of every block of count adjacent seats that does not cross an aisle
+     * @param count the block size
+     * @return bit c set when columns c .. c + count - 1 form such a block
+     */
+    long blockStarts(int count) {
+        if (count > seatsPerRow) {
+            return 0;
+        }
+        long starts = rowMask;
+        for (int k = 0; k < count - 1; k++) {
+            starts &= joinedMask >>> k;
+        }
+        return starts;
+    }
+
+    /**
+     * Start columns of every block of count adjacent seats, aisles allowed in between
+     * @param count the block size
+     * @return bit c set when columns c .. c + count - 1 are all in the row
+     */
+    long rowStarts(int count) {
+        return count > seatsPerRow ? 0 : rowMask >>> (count - 1);
+    }
+
+    /**
+     * Distance from a row to the nearest wheelchair-accessible row
+     * @param row the row
+     * @param rows the number of rows on the flight
+     * @return the distance in rows
+     */
+    int distanceToAccessibleRow(int row, int rows) {
+        return midCabinAccessible ? Math.min(row, Math.abs(row - rows / 2)) : row;
+    }
+
+    /**
+     * @param seat the seat number (1-based)
+     * @return the row of the seat
+     */
+    int rowOf(int seat) {
+        return (seat - 1) / seatsPerRow;
+    }
+
+    /**
+     * @param seat the seat number (1-based)
+     * @return the column of the seat
+     */
+    int columnOf(int seat) {
+        return (seat - 1) % seatsPerRow;
+    }
+
+    /**
+     * @param row the row
+     * @param column the column
+     * @return the seat number (1-based)
+     */
+    int seatAt(int row, int column) {
+        return row * seatsPerRow + column + 1;
+    }
+}
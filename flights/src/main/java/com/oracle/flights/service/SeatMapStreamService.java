@@ -0,0 +1,411 @@
+package com.oracle.flights.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flights.dto.SeatAvailabilityDto;
+import com.oracle.flights.dto.SeatDto;
+import com.oracle.flights.dto.SeatMapDeltaDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Server-sent event fan-out for seat map changes.
+ *
+ * Each flight with listeners gets one broadcaster that numbers events, keeps a
+ * short replay buffer for Last-Event-ID resume and serializes every event once
+ * for all of its subscribers. Subscribers are fed through their own bounded
+ * queue drained on a shared dispatch pool, so one slow client never delays the
+ * others; a client whose queue overflows is disconnected and can resume.
+ */
+@Component
+public class SeatMapStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatMapStreamService.class);
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String DELTA_EVENT = "seats";
+
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final int replayBufferSize;
+    private final int subscriberQueueSize;
+    private final long idleBroadcasterMs;
+    private final Map<Long, Broadcaster> broadcasters = new ConcurrentHashMap<>();
+    private final ExecutorService dispatchPool;
+    private final ScheduledExecutorService scheduler;
+
+    @Autowired
+    public SeatMapStreamService(ObjectMapper objectMapper,
+                                @Value("${app.seat-stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                                @Value("${app.seat-stream.heartbeat-seconds:15}") long heartbeatSeconds,
+                                @Value("${app.seat-stream.replay-buffer-size:256}") int replayBufferSize,
+                                @Value("${app.seat-stream.subscriber-queue-size:64}") int subscriberQueueSize,
+                                @Value("${app.seat-stream.dispatch-threads:4}") int dispatchThreads) {
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.replayBufferSize = replayBufferSize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.idleBroadcasterMs = TimeUnit.SECONDS.toMillis(heartbeatSeconds) * 8;
+        this.dispatchPool = Executors.newFixedThreadPool(dispatchThreads, daemonThreads("seat-stream-dispatch-"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("seat-stream-heartbeat-"));
+        this.scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Open a seat map stream for a flight.
+     * A client resuming with a Last-Event-ID still covered by the replay buffer
+     * receives only the missed deltas; everyone else starts with a snapshot.
+     * @param flightId the flight ID
+     * @param lastEventId the Last-Event-ID header sent by a reconnecting client, if any
+     * @param snapshot loads the current seat map
+     * @return the emitter to hand back to Spring MVC
+     */
+    public SseEmitter subscribe(Long flightId, String lastEventId, Supplier<SeatAvailabilityDto> snapshot) {
+        SseEmitter emitter = newEmitter();
+        Subscriber subscriber = new Subscriber(emitter, subscriberQueueSize);
+        AtomicBoolean resumed = new AtomicBoolean();
+        AtomicInteger snapshotSeq = new AtomicInteger();
+
+        Broadcaster broadcaster = broadcasters.compute(flightId, (id, existing) -> {
+            Broadcaster target = existing != null ? existing : new Broadcaster(flightId);
+            resumed.set(target.register(subscriber, lastEventId, snapshotSeq));
+            return target;
+        });
+
+        emitter.onCompletion(() -> broadcaster.unregister(subscriber));
+        emitter.onTimeout(() -> broadcaster.unregister(subscriber));
+        emitter.onError(error -> broadcaster.unregister(subscriber));
+
+        if (!resumed.get()) {
+            // The subscriber is held, so deltas published while the snapshot loads wait
+            // behind it; they carry absolute seat states, so re-applying them is harmless.
+            StreamEvent event = broadcaster.serialize(snapshotSeq.get(), SNAPSHOT_EVENT, snapshot.get());
+            if (event == null || !subscriber.queue.offerFirst(event)) {
+                broadcaster.drop(subscriber);
+                return emitter;
+            }
+        }
+        subscriber.release(dispatchPool, broadcaster);
+        return emitter;
+    }
+
+    /**
+     * Publish seat changes for a flight once the surrounding transaction commits
+     * @param flightId the flight ID
+     * @param availableSeats the flight's available seat count after the change
+     * @param changes seats whose booking state changed
+     */
+    public void onSeatsChanged(Long flightId, Integer availableSeats, List<SeatDto> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        SeatMapDeltaDto delta = new SeatMapDeltaDto(flightId, availableSeats, List.copyOf(changes));
+        TransactionHooks.afterCommit(() -> {
+            Broadcaster broadcaster = broadcasters.get(flightId);
+            if (broadcaster != null) {
+                broadcaster.publish(delta);
+            }
+        });
+    }
+
+    /**
+     * Publish seats placed in or taken out of a hold once the surrounding transaction commits
+     * @param flightId the flight ID
+     * @param held seats now held
+     * @param released seats no longer held
+     */
+    public void onHoldsChanged(Long flightId, List<Integer> held, List<Integer> released) {
+        if (held.isEmpty() && released.isEmpty()) {
+            return;
+        }
+        SeatMapDeltaDto delta = new SeatMapDeltaDto(flightId, List.copyOf(held), List.copyOf(released));
+        TransactionHooks.afterCommit(() -> {
+            Broadcaster broadcaster = broadcasters.get(flightId);
+            if (broadcaster != null) {
+                broadcaster.publish(delta);
+            }
+        });
+    }
+
+    /**
+     * Compute the seats whose booking state differs between two seat maps
+     * @param before the seat map before the change
+     * @param after the seat map after the change
+     * @return changed seats with their new state
+     */
+    public static List<SeatDto> diff(List<SeatDto> before, List<SeatDto> after) {
+        Map<Integer, Boolean> previous = new HashMap<>();
+        for (SeatDto seat : before) {
+            if (seat.getNumber() != null) {
+                previous.put(seat.getNumber(), Boolean.TRUE.equals(seat.getIsBooked()));
+            }
+        }
+        List<SeatDto> changes = new ArrayList<>();
+        for (SeatDto seat : after) {
+            if (seat.getNumber() == null) {
+                continue;
+            }
+            boolean booked = Boolean.TRUE.equals(seat.getIsBooked());
+            Boolean wasBooked = previous.get(seat.getNumber());
+            if (wasBooked == null || wasBooked != booked) {
+                changes.add(new SeatDto(seat.getNumber(), booked));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @param flightId the flight ID
+     * @return number of open streams for the flight
+     */
+    public int subscriberCount(Long flightId) {
+        return Optional.ofNullable(broadcasters.get(flightId)).map(b -> b.subscribers.size()).orElse(0);
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        broadcasters.values().forEach(Broadcaster::completeAll);
+        broadcasters.clear();
+        dispatchPool.shutdownNow();
+    }
+
+    private void heartbeat() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Long flightId : broadcasters.keySet()) {
+                broadcasters.computeIfPresent(flightId, (id, broadcaster) -> broadcaster.isIdle(now) ? null : broadcaster);
+            }
+            // Comments keep idle connections open through proxies and surface dead clients
+            StreamEvent keepAlive = StreamEvent.comment("keep-alive");
+            for (Broadcaster broadcaster : broadcasters.values()) {
+                for (Subscriber subscriber : broadcaster.subscribers) {
+                    broadcaster.deliver(subscriber, keepAlive);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Seat stream heartbeat failed", e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One serialized event, shared by every subscriber it is delivered to
+     */
+    static final class StreamEvent {
+        final String id;
+        final String name;
+        final String data;
+        final String comment;
+
+        private StreamEvent(String id, String name, String data, String comment) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+            this.comment = comment;
+        }
+
+        static StreamEvent comment(String comment) {
+            return new StreamEvent(null, null, null, comment);
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (comment != null) {
+                return SseEmitter.event().comment(comment);
+            }
+            return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * Per-flight event sequencer and fan-out point
+     */
+    final class Broadcaster {
+        private final Long flightId;
+        // Random epoch so ids from before a restart are never mistaken for current ones
+        private final long epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        private final ArrayDeque<StreamEvent> replay = new ArrayDeque<>();
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private int sequence;
+        private volatile long lastActive = System.currentTimeMillis();
+
+        Broadcaster(Long flightId) {
+            this.flightId = flightId;
+        }
+
+        /**
+         * Add a subscriber, replaying missed deltas when the resume point is still buffered
+         * @return true if the subscriber was resumed, false if it needs a snapshot
+         */
+        synchronized boolean register(Subscriber subscriber, String lastEventId, AtomicInteger snapshotSeq) {
+            lastActive = System.currentTimeMillis();
+            subscribers.add(subscriber);
+            snapshotSeq.set(sequence);
+
+            Integer lastSeen = parseSequence(lastEventId);
+            int oldestBuffered = replay.isEmpty() ? sequence + 1 : parseSequence(replay.peekFirst().id);
+            if (lastSeen == null || lastSeen > sequence || lastSeen + 1 < oldestBuffered) {
+                return false;
+            }
+            for (StreamEvent event : replay) {
+                if (parseSequence(event.id) > lastSeen && !subscriber.queue.offerLast(event)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        synchronized void publish(SeatMapDeltaDto delta) {
+            lastActive = System.currentTimeMillis();
+            StreamEvent event = serialize(++sequence, DELTA_EVENT, delta);
+            if (event == null) {
+                return;
+            }
+            replay.addLast(event);
+            while (replay.size() > replayBufferSize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                deliver(subscriber, event);
+            }
+        }
+
+        StreamEvent serialize(int seq, String name, Object payload) {
+            try {
+                return new StreamEvent(epoch + "-" + seq, name, objectMapper.writeValueAsString(payload), null);
+            } catch (JsonProcessingException e) {
+                logger.error("Failed to serialize seat stream event for flight {}", flightId, e);
+                return null;
+            }
+        }
+
+        void deliver(Subscriber subscriber, StreamEvent event) {
+            if (subscriber.queue.offerLast(event)) {
+                subscriber.scheduleDrain(dispatchPool, this);
+            } else {
+                logger.warn("Dropping slow seat stream subscriber for flight {}", flightId);
+                drop(subscriber);
+            }
+        }
+
+        void drop(Subscriber subscriber) {
+            unregister(subscriber);
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+        }
+
+        void unregister(Subscriber subscriber) {
+            if (subscribers.remove(subscriber)) {
+                lastActive = System.currentTimeMillis();
+            }
+        }
+
+        boolean isIdle(long now) {
+            return subscribers.isEmpty() && now - lastActive > idleBroadcasterMs;
+        }
+
+        void completeAll() {
+            subscribers.forEach(subscriber -> subscriber.emitter.complete());
+            subscribers.clear();
+        }
+
+        private Integer parseSequence(String eventId) {
+            if (eventId == null) {
+                return null;
+            }
+            int dash = eventId.indexOf('-');
+            try {
+                if (dash < 0 || Long.parseLong(eventId.substring(0, dash)) != epoch) {
+                    return null;
+                }
+                return Integer.parseInt(eventId.substring(dash + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * An open stream with its own bounded outbound queue. Events are queued but not
+     * sent until the subscriber is released, which happens once its snapshot or
+     * replayed deltas are at the head of the queue.
+     */
+    static final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingDeque<StreamEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean held = true;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingDeque<>(capacity);
+        }
+
+        void release(ExecutorService pool, Broadcaster broadcaster) {
+            held = false;
+            scheduleDrain(pool, broadcaster);
+        }
+
+        void scheduleDrain(ExecutorService pool, Broadcaster broadcaster) {
+            if (!held && draining.compareAndSet(false, true)) {
+                pool.execute(() -> drain(pool, broadcaster));
+            }
+        }
+
+        private void drain(ExecutorService pool, Broadcaster broadcaster) {
+            try {
+                StreamEvent event;
+                while ((event = queue.pollFirst()) != null) {
+                    emitter.send(event.toSse());
+                }
+            } catch (IOException | IllegalStateException e) {
+                broadcaster.unregister(this);
+                queue.clear();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty()) {
+                scheduleDrain(pool, broadcaster);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.SeatDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Occupancy bitmap of one flight: one word per row, bit c set when the seat in
+ * column c is booked or held. Finding count adjacent free seats in a row is a
+ * handful of shifts and ANDs on the row's free bits, followed by a trailing-zero
+ * scan of the block starts that survive, instead of walking the seat map.
+ *
+ * Not thread-safe; SeatRecommendationService guards each instance with its own lock.
+ */
+final class SeatOccupancy {
+
+    /**
+     * Seat position preference of a recommendation
+     */
+    enum Preference {
+        WINDOW, AISLE, ANY;
+
+        static Preference parse(String value) {
+            if (value == null || value.isBlank()) {
+                return ANY;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid preference: " + value + " (expected window, aisle or any)");
+            }
+        }
+    }
+
+    /**
+     * A candidate block: row, first column and block size, with its ranking key
+     */
+    record Block(int row, int column, int count, boolean window, boolean aisle, boolean acrossAisle,
+                 int accessibleDistance, long rank) {
+    }
+
+    private final SeatLayout layout;
+    private final int totalSeats;
+    private final int rows;
+    private final long[] existing;
+    private final long[] booked;
+    private final long[] held;
+
+    SeatOccupancy(SeatLayout layout, int totalSeats) {
+        this.layout = layout;
+        this.totalSeats = totalSeats;
+        this.rows = (totalSeats + layout.getSeatsPerRow() - 1) / layout.getSeatsPerRow();
+        this.existing = new long[rows];
+        this.booked = new long[rows];
+        this.held = new long[rows];
+        for (int row = 0; row < rows; row++) {
+            int seatsInRow = Math.min(layout.getSeatsPerRow(), totalSeats - row * layout.getSeatsPerRow());
+            existing[row] = seatsInRow == Long.SIZE ? -1L : (1L << seatsInRow) - 1;
+        }
+    }
+
+    SeatLayout layout() {
+        return layout;
+    }
+
+    int totalSeats() {
+        return totalSeats;
+    }
+
+    /**
+     * Replace the booked seats with those of a seat map plus the seats assigned to
+     * passengers, which are not always booked in the seat map; held seats are kept
+     * @param seatMap the flight's seat map
+     * @param assigned seat numbers assigned to passengers
+     */
+    void loadBooked(List<SeatDto> seatMap, int[] assigned) {
+        Arrays.fill(booked, 0L);
+        for (SeatDto seat : seatMap) {
+            if (Boolean.TRUE.equals(seat.getIsBooked()) && seat.getNumber() != null) {
+                set(booked, seat.getNumber(), true);
+            }
+        }
+        book(assigned);
+    }
+
+    /**
+     * Mark seats as booked, e.g. held seats that became seat assignments
+     * @param seats seat numbers
+     */
+    void book(int[] seats) {
+        for (int seat : seats) {
+            set(booked, seat, true);
+        }
+    }
+
+    /**
+     * @return the number of seats neither booked nor held
+     */
+    int freeSeats() {
+        int free = 0;
+        for (int row = 0; row < rows; row++) {
+            free += Long.bitCount(free(row));
+        }
+        return free;
+    }
+
+    /**
+     * @param seats seat numbers
+     * @return true if every seat exists and is neither booked nor held
+     */
+    boolean isFree(int[] seats) {
+        for (int seat : seats) {
+            if (seat < 1 || seat > totalSeats) {
+                return false;
+            }
+            if ((free(layout.rowOf(seat)) & (1L << layout.columnOf(seat))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void hold(int[] seats) {
+        for (int seat : seats) {
+            set(held, seat, true);
+        }
+    }
+
+    void release(int[] seats) {
+        for (int seat : seats) {
+            set(held, seat, false);
+        }
+    }
+
+    /**
+     * Find the best blocks of count adjacent free seats in one row. Blocks within one
+     * cabin section are preferred; blocks across an aisle are only offered when no
+     * section has room. Blocks are ranked by the seat preference, then by distance to
+     * a wheelchair-accessible row (if asked for) or from the front, then by column.
+     * @param count the block size
+     * @param preference window, aisle or any
+     * @param nearAccessible whether to rank rows by distance to an accessible row
+     * @param limit maximum number of blocks to return
+     * @return the best blocks, best first
+     */
+    List<Block> find(int count, Preference preference, boolean nearAccessible, int limit) {
+        List<Block> best = collect(count, layout.blockStarts(count), false, preference, nearAccessible, limit);
+        if (best.isEmpty()) {
+            best = collect(count, layout.rowStarts(count), true, preference, nearAccessible, limit);
+        }
+        return best;
+    }
+
+    private List<Block> collect(int count, long allowedStarts, boolean acrossAisle, Preference preference,
+                                boolean nearAccessible, int limit) {
+        List<Block> best = new ArrayList<>(limit + 1);
+        if (allowedStarts == 0) {
+            return best;
+        }
+        for (int row = 0; row < rows; row++) {
+            long free = free(row);
+            // Bit c survives when columns c .. c + count - 1 are all free
+            long runs = free;
+            for (int k = 1; k < count && runs != 0; k++) {
+                runs &= free >>> k;
+            }
+            long starts = runs & allowedStarts;
+            while (starts != 0) {
+                int column = Long.numberOfTrailingZeros(starts);
+                starts &= starts - 1;
+                Block block = rank(row, column, count, acrossAisle, preference, nearAccessible);
+                insert(best, block, limit);
+            }
+        }
+        return best;
+    }
+
+    private Block rank(int row, int column, int count, boolean acrossAisle, Preference preference,
+                       boolean nearAccessible) {
+        long mask = (count == Long.SIZE ? -1L : (1L << count) - 1) << column;
+        boolean window = (mask & layout.windowMask()) != 0;
+        boolean aisle = (mask & layout.aisleMask()) != 0;
+        boolean preferred = preference == Preference.ANY
+                || (preference == Preference.WINDOW && window)
+                || (preference == Preference.AISLE && aisle);
+        int accessibleDistance = layout.distanceToAccessibleRow(row, rows);
+        long rank = ((preferred ? 0L : 1L) << 40)
+                | ((long) (nearAccessible ? accessibleDistance : row) << 20)
+                | ((long) row << 8)
+                | column;
+        return new Block(row, column, count, window, aisle, acrossAisle, accessibleDistance, rank);
+    }
+
+    private static void insert(List<Block> best, Block block, int limit) {
+        int index = best.size();
+        while (index > 0 && best.get(index - 1).rank() > block.rank()) {
+            index--;
+        }
+        if (index < limit) {
+            best.add(index, block);
+            if (best.size() > limit) {
+                best.remove(limit);
+            }
+        }
+    }
+
+    /**
+     * @param block a block
+     * @return the seat numbers of the block
+     */
+    int[] seatsOf(Block block) {
+        int[] seats = new int[block.count()];
+        for (int i = 0; i < seats.length; i++) {
+            seats[i] = layout.seatAt(block.row(), block.column() + i);
+        }
+        return seats;
+    }
+
+    private long free(int row) {
+        return existing[row] & ~(booked[row] | held[row]);
+    }
+
+    private void set(long[] bits, int seat, boolean value) {
+        if (seat < 1 || seat > totalSeats) {
+            return;
+        }
+        long bit = 1L << layout.columnOf(seat);
+        int row = layout.rowOf(seat);
+        bits[row] = value ? bits[row] | bit : bits[row] & ~bit;
+    }
+}
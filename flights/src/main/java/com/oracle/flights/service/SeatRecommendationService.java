@@ -0,0 +1,564 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.SeatBlockDto;
+import com.oracle.flights.dto.SeatDto;
+import com.oracle.flights.dto.SeatHoldDto;
+import com.oracle.flights.dto.SeatRecommendationDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.SeatHold;
+import com.oracle.flights.exception.FlightNotFoundException;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.PassengerSeatRepository;
+import com.oracle.flights.repository.ResourceVersion;
+import com.oracle.flights.repository.SeatHoldRepository;
+import com.oracle.flights.service.SeatOccupancy.Block;
+import com.oracle.flights.service.SeatOccupancy.Preference;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Recommends blocks of adjacent free seats and places time-bounded holds on them.
+ *
+ * Each flight's seats are kept as a SeatOccupancy bitmap, loaded from the seat map
+ * and the passengers' seat assignments on first use, refreshed after the flight
+ * write paths commit and reloaded from the database once it is older than the
+ * refresh interval (both are shared with other services). Every flight has its own lock, so kiosks working on different
+ * flights never wait on each other, and a recommendation and the hold placed on it
+ * happen under one lock, so two kiosks can never be handed the same seats.
+ *
+ * Every hold is written to the seat_holds journal before it is handed out, which
+ * is how the passengers service sees held seats and turns a hold into a seat
+ * assignment, and how holds are restored after a restart. Seats taken out of a hold
+ * that way are booked again from the assignments whenever the hold is released or
+ * expires, and each hold is cut down to its journaled seats on reload. Expiry runs on one
+ * hashed timing wheel advanced by a single thread, rather than a scheduled task
+ * per hold, so holds are released within one tick of their deadline. Seats entering
+ * and leaving holds are published on the seat stream, whose snapshot lists held seats.
+ */
+@Service
+public class SeatRecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatRecommendationService.class);
+    static final int MAX_OPTIONS = 5;
+    static final int MAX_HOLD_SECONDS = 900;
+    // One revolution covers the longest hold at the default one second tick
+    private static final int TICKS_PER_WHEEL = 1024;
+
+    private final FlightRepository flightRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final PassengerSeatRepository passengerSeatRepository;
+    private final SeatMapStreamService seatMapStreamService;
+    private final Clock clock;
+    private final Duration holdTtl;
+    private final Duration refreshInterval;
+    private final Duration tick;
+    private final HashedTimingWheel<Hold> wheel;
+    private final Map<Long, FlightSeats> seatsByFlightId = new ConcurrentHashMap<>();
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public SeatRecommendationService(FlightRepository flightRepository, SeatHoldRepository seatHoldRepository,
+                                     PassengerSeatRepository passengerSeatRepository,
+                                     SeatMapStreamService seatMapStreamService,
+                                     @Value("${app.seats.hold-ttl-seconds:120}") long holdTtlSeconds,
+                                     @Value("${app.seats.refresh-seconds:30}") long refreshSeconds,
+                                     @Value("${app.seats.hold-tick-ms:1000}") long tickMillis) {
+        this(flightRepository, seatHoldRepository, passengerSeatRepository, seatMapStreamService,
+                Clock.systemDefaultZone(), Duration.ofSeconds(holdTtlSeconds), Duration.ofSeconds(refreshSeconds),
+                Duration.ofMillis(tickMillis));
+    }
+
+    SeatRecommendationService(FlightRepository flightRepository, SeatHoldRepository seatHoldRepository,
+                              PassengerSeatRepository passengerSeatRepository,
+                              SeatMapStreamService seatMapStreamService, Clock clock,
+                              Duration holdTtl, Duration refreshInterval, Duration tick) {
+        this.flightRepository = flightRepository;
+        this.seatHoldRepository = seatHoldRepository;
+        this.passengerSeatRepository = passengerSeatRepository;
+        this.seatMapStreamService = seatMapStreamService;
+        this.clock = clock;
+        this.holdTtl = holdTtl;
+        this.refreshInterval = refreshInterval;
+        this.tick = tick;
+        this.wheel = new HashedTimingWheel<>(clock.instant(), tick, TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Restore the journaled holds, then start advancing the timing wheel
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        restoreHolds();
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "seat-hold-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::expireHolds, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Recommend the best blocks of adjacent free seats in one row
+     * @param flightId the flight ID
+     * @param count the number of seats
+     * @param preference window, aisle or any (null means any)
+     * @param nearAccessible whether to prefer rows close to a wheelchair-accessible row
+     * @return up to five options, best first; none if no row has room
+     * @throws FlightNotFoundException if the flight does not exist
+     * @throws IllegalArgumentException if the count or preference is invalid
+     */
+    public SeatRecommendationDto recommend(Long flightId, int count, String preference, boolean nearAccessible) {
+        Preference parsed = Preference.parse(preference);
+        FlightSeats seats = seatsOf(flightId);
+        synchronized (seats) {
+            SeatOccupancy occupancy = seats.occupancy;
+            validateCount(count, occupancy.layout());
+            List<SeatBlockDto> options = occupancy.find(count, parsed, nearAccessible, MAX_OPTIONS).stream()
+                    .map(block -> toDto(occupancy, block))
+                    .toList();
+            return new SeatRecommendationDto(flightId, occupancy.layout().getName(), count,
+                    occupancy.freeSeats(), options);
+        }
+    }
+
+    /**
+     * Find the best block of adjacent free seats and hold it. The hold is journaled
+     * before it is returned, so it is visible to other services straight away.
+     * @param flightId the flight ID
+     * @param count the number of seats
+     * @param preference window, aisle or any (null means any)
+     * @param nearAccessible whether to prefer rows close to a wheelchair-accessible row
+     * @param ttlSeconds how long to hold the seats, or null for the configured default
+     * @return the hold, or empty if no row has room
+     * @throws FlightNotFoundException if the flight does not exist
+     * @throws IllegalArgumentException if the count, preference or hold time is invalid
+     */
+    public Optional<SeatHoldDto> hold(Long flightId, int count, String preference, boolean nearAccessible,
+                                      Integer ttlSeconds) {
+        Preference parsed = Preference.parse(preference);
+        Duration ttl = ttlSeconds == null ? holdTtl : Duration.ofSeconds(ttlSeconds);
+        if (ttl.getSeconds() < 1 || ttl.getSeconds() > MAX_HOLD_SECONDS) {
+            throw new IllegalArgumentException("Hold time must be between 1 and " + MAX_HOLD_SECONDS + " seconds");
+        }
+        FlightSeats seats = seatsOf(flightId);
+        synchronized (seats) {
+            SeatOccupancy occupancy = seats.occupancy;
+            validateCount(count, occupancy.layout());
+            List<Block> best = occupancy.find(count, parsed, nearAccessible, 1);
+            if (best.isEmpty()) {
+                return Optional.empty();
+            }
+            Instant now = clock.instant();
+            Hold hold = new Hold(UUID.randomUUID().toString(), flightId, occupancy.seatsOf(best.get(0)), now.plus(ttl));
+            occupancy.hold(hold.seats);
+            seats.holds.put(hold.holdId, hold);
+            try {
+                seatHoldRepository.save(new SeatHold(hold.holdId, flightId, hold.seats,
+                        toLocal(hold.expiresAt), toLocal(now)));
+            } catch (RuntimeException e) {
+                seats.holds.remove(hold.holdId);
+                occupancy.release(hold.seats);
+                throw e;
+            }
+            hold.journaledAt = clock.instant();
+            hold.timeout = wheel.schedule(hold, hold.expiresAt);
+            seatMapStreamService.onHoldsChanged(flightId, seatList(hold.seats), List.of());
+            return Optional.of(toDto(hold));
+        }
+    }
+
+    /**
+     * Release a hold before it expires
+     * @param flightId the flight ID
+     * @param holdId the hold ID
+     * @return true if the hold was released, false if it does not exist or has expired
+     */
+    public boolean releaseHold(Long flightId, String holdId) {
+        FlightSeats seats = seatsByFlightId.get(flightId);
+        if (seats == null) {
+            return false;
+        }
+        int[] assigned = assignedSeats(flightId);
+        Hold hold;
+        synchronized (seats) {
+            hold = seats.holds.remove(holdId);
+            if (hold == null) {
+                return false;
+            }
+            seats.release(hold, assigned);
+            wheel.cancel(hold.timeout);
+        }
+        seatHoldRepository.deleteById(holdId);
+        seatMapStreamService.onHoldsChanged(flightId, List.of(), seatList(hold.seats));
+        return true;
+    }
+
+    /**
+     * Seats of a flight held by any instance, as recorded in the journal
+     * @param flightId the flight ID
+     * @return the held seat numbers in ascending order
+     */
+    public List<Integer> getHeldSeats(Long flightId) {
+        return seatHoldRepository.findByFlightIdAndExpiresAtAfter(flightId, toLocal(clock.instant())).stream()
+                .flatMapToInt(hold -> Arrays.stream(hold.getSeatNumbers()))
+                .sorted()
+                .boxed()
+                .toList();
+    }
+
+    /**
+     * Seats assigned to a flight's passengers, booked in the seat map or not
+     * @param flightId the flight ID
+     * @return the assigned seat numbers in ascending order
+     */
+    public List<Integer> getAssignedSeats(Long flightId) {
+        return Arrays.stream(assignedSeats(flightId)).sorted().boxed().toList();
+    }
+
+    /**
+     * @param flightId the flight ID
+     * @return version fingerprint of the flight's journaled holds
+     */
+    public ResourceVersion getHoldsVersion(Long flightId) {
+        return seatHoldRepository.findVersionByFlightId(flightId);
+    }
+
+    /**
+     * @param flightId the flight ID
+     * @return version fingerprint of the seats assigned to the flight's passengers
+     */
+    public ResourceVersion getAssignmentsVersion(Long flightId) {
+        return passengerSeatRepository.findVersionByFlightId(flightId);
+    }
+
+    /**
+     * Release every hold whose deadline has passed. Runs on the expiry thread once per tick.
+     * The assignments are read once the deadline has passed, when the passengers service
+     * no longer takes seats out of the hold, so none of them is released as free.
+     * @return the number of holds released
+     */
+    int expireHolds() {
+        try {
+            List<Hold> expired = wheel.advance(clock.instant());
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            Map<Long, List<Hold>> byFlight = expired.stream().collect(Collectors.groupingBy(hold -> hold.flightId));
+            Map<Long, List<Integer>> released = new LinkedHashMap<>();
+            for (Map.Entry<Long, List<Hold>> entry : byFlight.entrySet()) {
+                FlightSeats seats = seatsByFlightId.get(entry.getKey());
+                if (seats == null) {
+                    continue;
+                }
+                int[] assigned = assignedSeats(entry.getKey());
+                synchronized (seats) {
+                    for (Hold hold : entry.getValue()) {
+                        if (seats.holds.remove(hold.holdId, hold)) {
+                            seats.release(hold, assigned);
+                            released.computeIfAbsent(hold.flightId, id -> new ArrayList<>())
+                                    .addAll(seatList(hold.seats));
+                        }
+                    }
+                }
+            }
+            seatHoldRepository.deleteAllByIdInBatch(expired.stream().map(hold -> hold.holdId).toList());
+            released.forEach((flightId, seatNumbers) ->
+                    seatMapStreamService.onHoldsChanged(flightId, List.of(), seatNumbers));
+            return expired.size();
+        } catch (RuntimeException e) {
+            logger.error("Seat hold expiry failed", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Load the journaled holds that have not expired yet and schedule their expiry.
+     * Holds on seats that have been booked in the meantime are dropped.
+     * @return the number of holds restored
+     */
+    int restoreHolds() {
+        LocalDateTime now = toLocal(clock.instant());
+        int expired = seatHoldRepository.deleteExpired(now);
+        Map<Long, List<SeatHold>> journaled = seatHoldRepository.findByExpiresAtAfter(now).stream()
+                .collect(Collectors.groupingBy(SeatHold::getFlightId));
+        List<String> dropped = new ArrayList<>();
+        int restored = 0;
+        for (Map.Entry<Long, List<SeatHold>> entry : journaled.entrySet()) {
+            FlightSeats seats;
+            try {
+                seats = seatsOf(entry.getKey());
+            } catch (FlightNotFoundException e) {
+                entry.getValue().forEach(row -> dropped.add(row.getHoldId()));
+                continue;
+            }
+            synchronized (seats) {
+                for (SeatHold row : entry.getValue()) {
+                    int[] heldSeats = row.getSeatNumbers();
+                    if (seats.holds.containsKey(row.getHoldId())) {
+                        continue;
+                    }
+                    if (!seats.occupancy.isFree(heldSeats)) {
+                        dropped.add(row.getHoldId());
+                        continue;
+                    }
+                    Instant expiresAt = row.getExpiresAt().atZone(clock.getZone()).toInstant();
+                    Hold hold = new Hold(row.getHoldId(), row.getFlightId(), heldSeats, expiresAt);
+                    seats.occupancy.hold(heldSeats);
+                    seats.holds.put(hold.holdId, hold);
+                    hold.journaledAt = clock.instant();
+                    hold.timeout = wheel.schedule(hold, expiresAt);
+                    restored++;
+                }
+            }
+        }
+        if (!dropped.isEmpty()) {
+            seatHoldRepository.deleteAllByIdInBatch(dropped);
+        }
+        logger.info("Restored {} seat holds ({} expired, {} no longer valid)", restored, expired, dropped.size());
+        return restored;
+    }
+
+    /**
+     * @return number of holds waiting to expire
+     */
+    int pendingHolds() {
+        return wheel.size();
+    }
+
+    /**
+     * Reload a flight's seats once the surrounding transaction commits. Flights that
+     * have not been asked for yet are left to load on first use.
+     * @param flight the saved flight
+     */
+    public void onFlightSaved(Flight flight) {
+        Long flightId = flight.getFlightId();
+        String aircraftType = flight.getAircraftType();
+        int totalSeats = flight.getTotalSeats() == null ? 0 : flight.getTotalSeats();
+        List<SeatDto> seatMap = flight.getSeatMap();
+        TransactionHooks.afterCommit(() -> {
+            FlightSeats seats = seatsByFlightId.get(flightId);
+            if (seats != null) {
+                forget(seats.reload(aircraftType, totalSeats, seatMap, null, clock.instant(), null, null));
+            }
+        });
+    }
+
+    /**
+     * Drop a deleted flight's holds with the flight, and forget its seats once the
+     * surrounding transaction commits
+     * @param flightId the flight ID
+     */
+    public void onFlightDeleted(Long flightId) {
+        seatHoldRepository.deleteByFlightId(flightId);
+        TransactionHooks.afterCommit(() -> {
+            FlightSeats seats = seatsByFlightId.remove(flightId);
+            if (seats != null) {
+                synchronized (seats) {
+                    seats.holds.values().forEach(hold -> wheel.cancel(hold.timeout));
+                    seats.holds.clear();
+                }
+            }
+        });
+    }
+
+    private FlightSeats seatsOf(Long flightId) {
+        Instant now = clock.instant();
+        FlightSeats seats = seatsByFlightId.get(flightId);
+        if (seats != null && !seats.isStale(now, refreshInterval)) {
+            return seats;
+        }
+        Flight flight = flightRepository.findById(flightId).orElse(null);
+        if (flight == null) {
+            seatsByFlightId.remove(flightId);
+            throw new FlightNotFoundException(flightId);
+        }
+        int totalSeats = flight.getTotalSeats() == null ? 0 : flight.getTotalSeats();
+        if (seats != null) {
+            // Read the journal first, so a seat leaving a hold in between is still held
+            Map<String, int[]> journaled = seatHoldRepository.findByFlightId(flightId).stream()
+                    .collect(Collectors.toMap(SeatHold::getHoldId, SeatHold::getSeatNumbers));
+            int[] assigned = assignedSeats(flightId);
+            forget(seats.reload(flight.getAircraftType(), totalSeats, flight.getSeatMap(), assigned, now,
+                    journaled, now));
+            return seats;
+        }
+        FlightSeats loaded = new FlightSeats();
+        loaded.reload(flight.getAircraftType(), totalSeats, flight.getSeatMap(), assignedSeats(flightId), now,
+                null, null);
+        FlightSeats existing = seatsByFlightId.putIfAbsent(flightId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Seats assigned to a flight's passengers; seats that are not plain numbers cannot
+     * be in the seat map and are skipped
+     */
+    private int[] assignedSeats(Long flightId) {
+        List<String> assigned = passengerSeatRepository.findAssignedSeats(flightId);
+        if (assigned == null) {
+            return new int[0];
+        }
+        return assigned.stream()
+                .map(String::trim)
+                .filter(seat -> !seat.isEmpty() && seat.chars().allMatch(Character::isDigit) && seat.length() < 10)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    /**
+     * Cancel the expiry of holds dropped on reload, remove them from the journal and
+     * publish their seats as released
+     */
+    private void forget(Collection<Hold> dropped) {
+        if (dropped.isEmpty()) {
+            return;
+        }
+        dropped.forEach(hold -> wheel.cancel(hold.timeout));
+        seatHoldRepository.deleteAllByIdInBatch(dropped.stream().map(hold -> hold.holdId).toList());
+        dropped.stream()
+                .collect(Collectors.groupingBy(hold -> hold.flightId, LinkedHashMap::new,
+                        Collectors.flatMapping(hold -> seatList(hold.seats).stream(), Collectors.toList())))
+                .forEach((flightId, seatNumbers) ->
+                        seatMapStreamService.onHoldsChanged(flightId, List.of(), seatNumbers));
+    }
+
+    private LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, clock.getZone());
+    }
+
+    private static List<Integer> seatList(int[] seats) {
+        return Arrays.stream(seats).boxed().toList();
+    }
+
+    private SeatHoldDto toDto(Hold hold) {
+        return new SeatHoldDto(hold.holdId, hold.flightId, seatList(hold.seats),
+                toLocal(hold.expiresAt));
+    }
+
+    private static void validateCount(int count, SeatLayout layout) {
+        if (count < 1 || count > layout.getSeatsPerRow()) {
+            throw new IllegalArgumentException("Seat count must be between 1 and " + layout.getSeatsPerRow()
+                    + " for a " + layout.getName() + " cabin");
+        }
+    }
+
+    private static SeatBlockDto toDto(SeatOccupancy occupancy, Block block) {
+        return new SeatBlockDto(Arrays.stream(occupancy.seatsOf(block)).boxed().toList(), block.row() + 1,
+                block.window(), block.aisle(), block.acrossAisle(), block.accessibleDistance());
+    }
+
+    /**
+     * Seats held until the given instant; the seats, timeout and journal time are set under the flight's lock
+     */
+    private static final class Hold {
+        private final String holdId;
+        private final Long flightId;
+        private int[] seats;
+        private final Instant expiresAt;
+        private Instant journaledAt;
+        private HashedTimingWheel.Timeout<Hold> timeout;
+
+        Hold(String holdId, Long flightId, int[] seats, Instant expiresAt) {
+            this.holdId = holdId;
+            this.flightId = flightId;
+            this.seats = seats;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Occupancy and holds of one flight; every access synchronizes on the instance
+     */
+    private static final class FlightSeats {
+        private SeatOccupancy occupancy;
+        private int[] assigned = new int[0];
+        private Instant loadedAt;
+        private final Map<String, Hold> holds = new LinkedHashMap<>();
+
+        synchronized boolean isStale(Instant now, Duration refreshInterval) {
+            return loadedAt.plus(refreshInterval).isBefore(now);
+        }
+
+        /**
+         * Release a hold's seats, keeping those that have been assigned since booked
+         * @param assigned the seats assigned to the flight's passengers
+         */
+        synchronized void release(Hold hold, int[] assigned) {
+            occupancy.release(hold.seats);
+            occupancy.book(assigned);
+            this.assigned = assigned;
+        }
+
+        /**
+         * Rebuild the occupancy from a seat map and the assigned seats and re-apply the
+         * holds, cut down to the seats still in their journal row
+         * @param assigned the seats assigned to passengers, or null to keep the last ones loaded
+         * @param journaled seats of the journaled holds by hold ID, or null to keep every hold as it is
+         * @param journalReadAt when the journal was read; holds journaled later are kept
+         * @return the holds that were dropped
+         */
+        synchronized List<Hold> reload(String aircraftType, int totalSeats, List<SeatDto> seatMap, int[] assigned,
+                                       Instant now, Map<String, int[]> journaled, Instant journalReadAt) {
+            if (assigned != null) {
+                this.assigned = assigned;
+            }
+            SeatOccupancy reloaded = new SeatOccupancy(SeatLayout.forAircraft(aircraftType), totalSeats);
+            reloaded.loadBooked(seatMap, this.assigned);
+            List<Hold> dropped = new ArrayList<>();
+            Iterator<Hold> iterator = holds.values().iterator();
+            while (iterator.hasNext()) {
+                Hold hold = iterator.next();
+                if (journaled != null && journaled.containsKey(hold.holdId)) {
+                    // Seats the passengers service turned into assignments have left the row
+                    hold.seats = journaled.get(hold.holdId);
+                }
+                boolean fits = Arrays.stream(hold.seats).allMatch(seat -> seat <= totalSeats);
+                boolean gone = journaled != null && hold.journaledAt.isBefore(journalReadAt)
+                        && (!journaled.containsKey(hold.holdId) || hold.seats.length == 0);
+                if (fits && !gone) {
+                    reloaded.hold(hold.seats);
+                } else {
+                    dropped.add(hold);
+                    iterator.remove();
+                }
+            }
+            occupancy = reloaded;
+            loadedAt = now;
+            return dropped;
+        }
+    }
+}
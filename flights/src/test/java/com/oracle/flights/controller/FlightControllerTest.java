@@ -5,21 +5,27 @@ import com.oracle.flights.dto.SeatAvailabilityDto;
 import com.oracle.flights.dto.SeatDto;
 import com.oracle.flights.entity.Flight;
 import com.oracle.flights.exception.FlightNotFoundException;
+import com.oracle.flights.repository.ResourceVersion;
+import com.oracle.flights.service.FlightChangeFeedService;
 import com.oracle.flights.service.FlightService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -33,11 +39,15 @@ class FlightControllerTest {
     @MockBean
     private FlightService flightService;
     
+    @MockBean
+    private FlightChangeFeedService changeFeedService;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
     private Flight testFlight;
     private SeatAvailabilityDto testSeatAvailability;
+    private ResourceVersion testVersion;
     
     @BeforeEach
     void setUp() {
@@ -62,6 +72,14 @@ class FlightControllerTest {
         testSeatAvailability = new SeatAvailabilityDto(
                 1L, "Flight 101", "NYC-LON", "2025-08-20", 20, 17, seatMap
         );
+        
+        testVersion = new ResourceVersion(1L, LocalDateTime.of(2025, 8, 1, 10, 0));
+        when(flightService.getFlightsVersion()).thenReturn(testVersion);
+        when(flightService.getFlightVersion(1L)).thenReturn(testVersion);
+        when(flightService.getFlightVersion(999L)).thenReturn(new ResourceVersion(0L, null));
+        when(flightService.getSeatAvailabilityVersion(1L)).thenReturn(testVersion);
+        when(flightService.getFlightsVersionByRoute("NYC-LON")).thenReturn(testVersion);
+        when(flightService.getFlightsVersionByDate("2025-08-20")).thenReturn(testVersion);
     }
     
     @Test
@@ -157,4 +175,31 @@ class FlightControllerTest {
                 .andExpect(jsonPath("$.availableSeats").value(17))
                 .andExpect(jsonPath("$.seatMap").isArray());
     }
+    
+    @Test
+    void getFlightById_ShouldSetETagOnly() throws Exception {
+        when(flightService.getFlightById(1L)).thenReturn(Optional.of(testFlight));
+        
+        mockMvc.perform(get("/flights/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, testVersion.getETag()))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+    }
+    
+    @Test
+    void getFlightById_ShouldReturn304_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/flights/1").header(HttpHeaders.IF_NONE_MATCH, testVersion.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        verify(flightService, never()).getFlightById(1L);
+    }
+    
+    @Test
+    void getAllFlights_ShouldReturn304_WhenETagMatches() throws Exception {
+        mockMvc.perform(get("/flights").header(HttpHeaders.IF_NONE_MATCH, testVersion.getETag()))
+                .andExpect(status().isNotModified());
+        
+        verify(flightService, never()).getAllFlights();
+    }
 }
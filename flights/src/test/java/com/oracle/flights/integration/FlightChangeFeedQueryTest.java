@@ -0,0 +1,91 @@
+package com.oracle.flights.integration;
+
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.FlightTombstone;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.FlightTombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the keyset queries behind the flight change feed.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class FlightChangeFeedQueryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 8, 20, 10, 0);
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(2100, 1, 1, 0, 0);
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private FlightTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void findChangedAfter_ShouldWalkFlightsByUpdateTimeThenId() {
+        for (int i = 0; i < 5; i++) {
+            flightRepository.save(new Flight("Flight " + i, LocalDate.of(2025, 8, 20), "NYC-LON",
+                    "08:00 AM", "04:00 PM", "Boeing 747", 20, 10));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        LocalDateTime since = LocalDateTime.of(1970, 1, 1, 0, 0);
+        long afterId = 0;
+        List<Long> seen = new ArrayList<>();
+        List<Flight> page;
+        do {
+            page = flightRepository.findChangedAfter(since, afterId, FAR_FUTURE, PageRequest.of(0, 2));
+            for (Flight flight : page) {
+                seen.add(flight.getFlightId());
+                since = flight.getUpdatedAt();
+                afterId = flight.getFlightId();
+            }
+        } while (!page.isEmpty());
+
+        assertEquals(5, seen.size());
+        assertEquals(5, seen.stream().distinct().count());
+        assertTrue(flightRepository.findChangedAfter(since, afterId, FAR_FUTURE, PageRequest.of(0, 2)).isEmpty());
+    }
+
+    @Test
+    void findChangedAfter_ShouldHoldBackChangesNewerThanUntil() {
+        flightRepository.save(new Flight("Flight 101", LocalDate.of(2025, 8, 20), "NYC-LON",
+                "08:00 AM", "04:00 PM", "Boeing 747", 20, 10));
+        entityManager.flush();
+
+        assertTrue(flightRepository.findChangedAfter(T0, 0L, LocalDateTime.now().minusHours(1),
+                PageRequest.of(0, 10)).isEmpty());
+        assertEquals(1, flightRepository.findChangedAfter(T0, 0L, FAR_FUTURE, PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void findDeletedAfter_ShouldBreakTimestampTiesById() {
+        tombstoneRepository.save(new FlightTombstone(7L, T0));
+        tombstoneRepository.save(new FlightTombstone(3L, T0));
+        tombstoneRepository.save(new FlightTombstone(9L, T0.plusSeconds(1)));
+        entityManager.flush();
+
+        List<FlightTombstone> first = tombstoneRepository.findDeletedAfter(T0.minusSeconds(1), 0L, FAR_FUTURE, PageRequest.of(0, 2));
+        assertEquals(List.of(3L, 7L), first.stream().map(FlightTombstone::getFlightId).toList());
+
+        List<FlightTombstone> rest = tombstoneRepository.findDeletedAfter(T0, 7L, FAR_FUTURE, PageRequest.of(0, 2));
+        assertEquals(List.of(9L), rest.stream().map(FlightTombstone::getFlightId).toList());
+    }
+}
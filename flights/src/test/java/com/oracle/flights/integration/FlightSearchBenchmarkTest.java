@@ -0,0 +1,93 @@
+package com.oracle.flights.integration;
+
+import com.oracle.flights.dto.FlightSearchResultDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.service.FlightAvailabilityIndex;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the in-memory availability index with the equivalent SQL query on H2.
+ * Both sides must return the same flights; timings are logged for comparison.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class FlightSearchBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightSearchBenchmarkTest.class);
+    private static final String[] ROUTES = {
+            "NYC-LON", "PAR-TOK", "LAX-SYD", "DXB-SIN", "FRA-JFK", "BOM-LHR", "SFO-NRT", "CDG-DXB"
+    };
+    private static final LocalDate SEASON_START = LocalDate.of(2025, 1, 1);
+    private static final int DAYS = 365;
+    private static final int QUERIES = 500;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void indexSearch_ShouldMatchSqlSearch() {
+        Random random = new Random(42);
+        List<Flight> flights = new ArrayList<>();
+        for (String route : ROUTES) {
+            for (int day = 0; day < DAYS; day++) {
+                Flight flight = new Flight("Flight " + route + "-" + day, SEASON_START.plusDays(day), route,
+                        "08:00 AM", "04:00 PM", "Boeing 747", 300, random.nextInt(301));
+                flight.setServicesJson(random.nextBoolean() ? "[\"Ancillary\", \"Meal\", \"Shopping\"]" : "[\"Ancillary\"]");
+                flight.setSeatMapJson("[{\"number\": 1, \"isBooked\": false}]");
+                flights.add(flight);
+            }
+        }
+        flightRepository.saveAll(flights);
+        entityManager.flush();
+        entityManager.clear();
+
+        FlightAvailabilityIndex index = new FlightAvailabilityIndex(flightRepository);
+        index.rebuild();
+
+        long sqlNanos = 0;
+        long indexNanos = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String route = ROUTES[random.nextInt(ROUTES.length)];
+            LocalDate from = SEASON_START.plusDays(random.nextInt(DAYS - 30));
+            LocalDate to = from.plusDays(random.nextInt(30));
+            int minSeats = random.nextInt(200);
+
+            long start = System.nanoTime();
+            List<Long> sqlIds = flightRepository.findAvailableByRouteAndDateRange(route, from, to, minSeats).stream()
+                    .filter(flight -> flight.getServices().contains("Meal"))
+                    .map(Flight::getFlightId)
+                    .collect(Collectors.toList());
+            sqlNanos += System.nanoTime() - start;
+            entityManager.clear();
+
+            start = System.nanoTime();
+            List<Long> indexIds = index.search(route, from, to, minSeats, List.of("Meal")).stream()
+                    .map(FlightSearchResultDto::getFlightId)
+                    .collect(Collectors.toList());
+            indexNanos += System.nanoTime() - start;
+
+            assertEquals(sqlIds, indexIds);
+        }
+
+        logger.info("Flight search over {} flights, {} queries: SQL {} us/query, index {} us/query",
+                flights.size(), QUERIES, sqlNanos / QUERIES / 1_000, indexNanos / QUERIES / 1_000);
+    }
+}
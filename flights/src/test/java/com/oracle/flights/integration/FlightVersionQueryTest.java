@@ -0,0 +1,82 @@
+package com.oracle.flights.integration;
+
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.ResourceVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the version fingerprint queries change whenever the data behind a response does.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class FlightVersionQueryTest {
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Flight first;
+
+    @BeforeEach
+    void setUp() {
+        first = flightRepository.save(new Flight("Flight 101", LocalDate.of(2025, 8, 20), "NYC-LON",
+                "08:00 AM", "04:00 PM", "Boeing 747", 20, 17));
+        flightRepository.save(new Flight("Flight 202", LocalDate.of(2025, 8, 21), "NYC-LON",
+                "09:00 AM", "05:00 PM", "Airbus A320", 20, 5));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findVersionById_ShouldBeEmpty_WhenFlightNotExists() {
+        assertTrue(flightRepository.findVersionById(999L).isEmpty());
+        assertFalse(flightRepository.findVersionById(first.getFlightId()).isEmpty());
+    }
+
+    @Test
+    void findVersionByRoute_ShouldCountFlightsOnRoute() {
+        ResourceVersion version = flightRepository.findVersionByRoute("NYC-LON");
+
+        assertEquals(2, version.getCount());
+        assertNotNull(version.getLastUpdated());
+        assertTrue(flightRepository.findVersionByRoute("PAR-TOK").isEmpty());
+        assertEquals(1, flightRepository.findVersionByFlightDate(LocalDate.of(2025, 8, 20)).getCount());
+    }
+
+    @Test
+    void findVersion_ShouldChange_WhenFlightUpdated() throws InterruptedException {
+        String before = flightRepository.findVersionById(first.getFlightId()).getETag();
+        String allBefore = flightRepository.findVersion().getETag();
+        Thread.sleep(5);
+
+        Flight flight = flightRepository.findById(first.getFlightId()).orElseThrow();
+        flight.setAvailableSeats(16);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNotEquals(before, flightRepository.findVersionById(first.getFlightId()).getETag());
+        assertNotEquals(allBefore, flightRepository.findVersion().getETag());
+    }
+
+    @Test
+    void findVersion_ShouldChange_WhenFlightDeleted() {
+        String before = flightRepository.findVersion().getETag();
+
+        flightRepository.deleteById(first.getFlightId());
+        entityManager.flush();
+
+        assertNotEquals(before, flightRepository.findVersion().getETag());
+    }
+}
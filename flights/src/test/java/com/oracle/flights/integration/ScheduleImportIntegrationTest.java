@@ -0,0 +1,174 @@
+package com.oracle.flights.integration;
+
+import com.oracle.flights.dto.ScheduleImportReportDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.Route;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.RouteRepository;
+import com.oracle.flights.repository.ScheduleBatchRepository;
+import com.oracle.flights.repository.ScheduleImportRepository;
+import com.oracle.flights.service.FlightAvailabilityIndex;
+import com.oracle.flights.service.ScheduleImportService;
+import com.oracle.flights.service.ScheduleImportService.Format;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs bulk schedule imports against the test database. Not transactional, so
+ * every chunk really commits on its own as it does in production.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Import({ScheduleImportService.class, ScheduleBatchRepository.class, FlightAvailabilityIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduleImportIntegrationTest {
+
+    private static final String CSV_HEADER = "flightName,flightDate,route,departureTime,arrivalTime,aircraftType,"
+            + "totalSeats,availableSeats,services,departureCity,departureAirport,arrivalCity,arrivalAirport";
+
+    @Autowired
+    private ScheduleImportService importService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private ScheduleImportRepository importRepository;
+
+    @Autowired
+    private FlightAvailabilityIndex availabilityIndex;
+
+    @AfterEach
+    void tearDown() {
+        flightRepository.deleteAll();
+        routeRepository.deleteAll();
+        importRepository.deleteAll();
+    }
+
+    @Test
+    void importCsv_ShouldInsertFlights_DedupeRoutes_AndReportBadRows() {
+        routeRepository.save(new Route("NYC-LON", "New York", "JFK", "London", "LHR"));
+        String csv = String.join("\n",
+                CSV_HEADER,
+                "Flight 101,2026-05-01,NYC-LON,08:00 AM,04:00 PM,Boeing 747,20,20,Meal|Shopping,New York,JFK,London,LHR",
+                "Flight 102,2026-05-01,NYC-PAR,09:00 AM,05:00 PM,Airbus A320,20,25,,New York,JFK,Paris,CDG",
+                "Flight 103,2026-05-02,NYC-PAR,09:00 AM,05:00 PM,Airbus A320,20,10,,New York,JFK,Paris,CDG",
+                "Flight 104,05/02/2026,NYC-PAR,09:00 AM,05:00 PM,Airbus A320,20,10,,,,,",
+                "",
+                "\"Flight 105, late\",2026-05-03,NYC-PAR,11:00 PM,07:00 AM,Airbus A320,0,0,,,,,",
+                "Flight 106,2026-05-03,NYC-PAR,11:00 PM,07:00 AM,Airbus A320,20,5,,,,,");
+
+        ScheduleImportReportDto report = importService.importSchedule(new StringReader(csv), Format.CSV, "season-1", 2);
+
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(4, report.getImportedFlights());
+        assertEquals(1, report.getImportedRoutes());
+        assertEquals(2, report.getFailedRows());
+        assertEquals(List.of(5L, 7L), report.getErrors().stream().map(ScheduleImportReportDto.RowError::getLine).toList());
+        assertTrue(report.getErrors().get(0).getError().contains("flightDate"));
+        assertTrue(report.getErrors().get(1).getError().contains("totalSeats"));
+        assertEquals(8, report.getLastCommittedLine());
+
+        assertEquals(2, routeRepository.count());
+        assertEquals("Paris", routeRepository.findByRouteCode("NYC-PAR").orElseThrow().getArrivalCity());
+        Flight clamped = flightRepository.findByRouteOrderByDepartureTime("NYC-PAR").stream()
+                .filter(flight -> flight.getFlightName().equals("Flight 102")).findFirst().orElseThrow();
+        assertEquals(20, clamped.getAvailableSeats());
+        assertNotNull(clamped.getUpdatedAt());
+        assertEquals(1, availabilityIndex.search("NYC-LON", LocalDate.of(2026, 5, 1), LocalDate.of(2026, 5, 1),
+                1, List.of("Meal")).size());
+    }
+
+    @Test
+    void importNdjson_ShouldResumeAfterLastCommittedChunk() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            ndjson.append("{\"flightName\":\"Flight ").append(i).append("\",\"flightDate\":\"2026-06-01\",")
+                    .append("\"route\":\"LON-PAR\",\"departureTime\":\"08:00 AM\",\"arrivalTime\":\"09:00 AM\",")
+                    .append("\"totalSeats\":20,\"availableSeats\":20,\"services\":[\"Meal\"]}\n");
+        }
+
+        ScheduleImportReportDto failed = importService.importSchedule(
+                new FailingReader(ndjson.toString(), 7), Format.NDJSON, "season-2", 3);
+
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals(6, failed.getLastCommittedLine());
+        assertEquals(6, flightRepository.count());
+        assertNotNull(failed.getMessage());
+
+        ScheduleImportReportDto resumed = importService.importSchedule(
+                new StringReader(ndjson.toString()), Format.NDJSON, "season-2", 3);
+
+        assertEquals("COMPLETED", resumed.getStatus());
+        assertEquals(6, resumed.getResumedAfterLine());
+        assertEquals(10, resumed.getImportedFlights());
+        assertEquals(10, flightRepository.count());
+
+        ScheduleImportReportDto repeated = importService.importSchedule(
+                new StringReader(ndjson.toString()), Format.NDJSON, "season-2", 3);
+
+        assertEquals("COMPLETED", repeated.getStatus());
+        assertEquals(10, flightRepository.count());
+    }
+
+    @Test
+    void importSchedule_ShouldRejectBadRequests() {
+        assertThrows(IllegalArgumentException.class, () ->
+                importService.importSchedule(new StringReader("flightName,route\n"), Format.CSV, null, 100));
+        assertThrows(IllegalArgumentException.class, () ->
+                importService.importSchedule(new StringReader(""), Format.NDJSON, null, 0));
+        assertThrows(IllegalArgumentException.class, () ->
+                importService.importSchedule(new StringReader(""), Format.NDJSON, null, 1001));
+    }
+
+    /**
+     * Reader whose source breaks off with an IOException once the given number of lines has been read
+     */
+    private static final class FailingReader extends Reader {
+        private final StringReader delegate;
+        private int remainingLines;
+
+        FailingReader(String content, int lines) {
+            this.delegate = new StringReader(content);
+            this.remainingLines = lines;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (remainingLines == 0) {
+                throw new IOException("connection reset");
+            }
+            int c = delegate.read();
+            if (c == -1) {
+                return -1;
+            }
+            buffer[offset] = (char) c;
+            if (c == '\n') {
+                remainingLines--;
+            }
+            return 1;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.oracle.flights.integration;
+
+import com.oracle.flights.dto.SeatDto;
+import com.oracle.flights.dto.SeatHoldDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.SeatHold;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.PassengerSeatRepository;
+import com.oracle.flights.repository.ResourceVersion;
+import com.oracle.flights.repository.SeatHoldRepository;
+import com.oracle.flights.service.SeatMapStreamService;
+import com.oracle.flights.service.SeatRecommendationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Writes seat holds to the journal on the test database and restores them in a
+ * fresh service instance, as happens after a restart. Not transactional, so every
+ * journal write really commits.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatHoldJournalIntegrationTest {
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Autowired
+    private PassengerSeatRepository passengerSeatRepository;
+
+    @AfterEach
+    void tearDown() {
+        seatHoldRepository.deleteAll();
+        flightRepository.deleteAll();
+    }
+
+    @Test
+    void holds_ShouldBeJournaled_AndSurviveARestart() {
+        Flight flight = new Flight("Flight 101", LocalDate.of(2026, 5, 1), "NYC-LON",
+                "08:00 AM", "04:00 PM", "Airbus A320", 12, 12);
+        flight.setSeatMap(IntStream.rangeClosed(1, 12).mapToObj(seat -> new SeatDto(seat, false)).toList());
+        Long flightId = flightRepository.save(flight).getFlightId();
+
+        SeatRecommendationService before = newService();
+        SeatHoldDto family = before.hold(flightId, 3, "window", false, 300).orElseThrow();
+        SeatHoldDto single = before.hold(flightId, 1, null, false, 300).orElseThrow();
+        before.releaseHold(flightId, single.getHoldId());
+        seatHoldRepository.save(new SeatHold("stale", flightId, new int[]{12}, LocalDateTime.now().minusMinutes(1),
+                LocalDateTime.now().minusMinutes(3)));
+        before.shutdown();
+
+        assertEquals(family.getSeats(), before.getHeldSeats(flightId));
+        assertEquals(2, seatHoldRepository.count());
+
+        SeatRecommendationService after = newService();
+        after.start();
+        try {
+            assertEquals(1, seatHoldRepository.count());
+            assertEquals(9, after.recommend(flightId, 1, null, false).getFreeSeats());
+            SeatHoldDto next = after.hold(flightId, 3, "window", false, 300).orElseThrow();
+            assertTrue(next.getSeats().stream().noneMatch(family.getSeats()::contains));
+            assertTrue(after.releaseHold(flightId, family.getHoldId()));
+            List<SeatHold> journaled = seatHoldRepository.findByFlightId(flightId);
+            assertEquals(List.of(next.getHoldId()), journaled.stream().map(SeatHold::getHoldId).toList());
+
+            // Taking a seat out of the hold changes the version, though no hold was added or removed
+            ResourceVersion version = seatHoldRepository.findVersionByFlightId(flightId);
+            SeatHold row = journaled.get(0);
+            row.setSeats(String.valueOf(next.getSeats().get(0)));
+            row.setUpdatedAt(row.getUpdatedAt().plusSeconds(1));
+            seatHoldRepository.save(row);
+            assertNotEquals(version.getETag(), seatHoldRepository.findVersionByFlightId(flightId).getETag());
+        } finally {
+            after.shutdown();
+        }
+    }
+
+    private SeatRecommendationService newService() {
+        return new SeatRecommendationService(flightRepository, seatHoldRepository, passengerSeatRepository,
+                mock(SeatMapStreamService.class), 120, 30, 1000);
+    }
+}
@@ -0,0 +1,98 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.FlightSearchResultDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FlightAvailabilityIndexTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private FlightAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(flightRepository.findAllAvailabilityViews()).thenReturn(List.of());
+        index = new FlightAvailabilityIndex(flightRepository);
+        index.rebuild();
+
+        index.onFlightSaved(flight(3L, "NYC-LON", LocalDate.of(2025, 8, 22), 5, "[\"Meal\"]"));
+        index.onFlightSaved(flight(1L, "NYC-LON", LocalDate.of(2025, 8, 20), 17, "[\"Ancillary\", \"Meal\", \"Shopping\"]"));
+        index.onFlightSaved(flight(2L, "NYC-LON", LocalDate.of(2025, 8, 21), 0, "[\"Meal\"]"));
+        index.onFlightSaved(flight(4L, "PAR-TOK", LocalDate.of(2025, 8, 21), 28, "[\"Shopping\"]"));
+    }
+
+    @Test
+    void rebuild_ShouldMarkIndexReady() {
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void search_ShouldReturnFlightsInDateOrder() {
+        List<FlightSearchResultDto> results = index.search("NYC-LON",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31), 0, List.of());
+
+        assertEquals(List.of(1L, 2L, 3L), ids(results));
+    }
+
+    @Test
+    void search_ShouldApplyDateRangeSeatsAndServices() {
+        assertEquals(List.of(3L), ids(index.search("NYC-LON",
+                LocalDate.of(2025, 8, 21), LocalDate.of(2025, 8, 22), 1, List.of())));
+        assertEquals(List.of(1L), ids(index.search("NYC-LON",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31), 10, List.of())));
+        assertEquals(List.of(1L), ids(index.search("NYC-LON",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31), 1, List.of("meal", "SHOPPING"))));
+    }
+
+    @Test
+    void search_WithoutRoute_ShouldSearchEveryRoute() {
+        List<FlightSearchResultDto> results = index.search(null,
+                LocalDate.of(2025, 8, 21), LocalDate.of(2025, 8, 21), 0, List.of());
+
+        assertEquals(List.of(2L, 4L), ids(results));
+    }
+
+    @Test
+    void onFlightSaved_ShouldMoveFlightBetweenRoutes() {
+        index.onFlightSaved(flight(1L, "PAR-TOK", LocalDate.of(2025, 8, 20), 17, "[\"Meal\"]"));
+
+        assertEquals(List.of(2L, 3L), ids(index.search("NYC-LON",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31), 0, List.of())));
+        assertEquals(List.of(1L, 4L), ids(index.search("PAR-TOK",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31), 0, List.of())));
+    }
+
+    @Test
+    void onFlightDeleted_ShouldRemoveFlight() {
+        index.onFlightDeleted(3L);
+
+        assertEquals(List.of(1L, 2L), ids(index.search("NYC-LON",
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31), 0, List.of())));
+    }
+
+    private static Flight flight(Long id, String route, LocalDate date, int availableSeats, String servicesJson) {
+        Flight flight = new Flight("Flight " + id, date, route, "08:00 AM", "04:00 PM", "Boeing 747", 30, availableSeats);
+        flight.setFlightId(id);
+        flight.setServicesJson(servicesJson);
+        return flight;
+    }
+
+    private static List<Long> ids(List<FlightSearchResultDto> results) {
+        return results.stream().map(FlightSearchResultDto::getFlightId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,98 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.ChangeFeedDto;
+import com.oracle.flights.dto.FlightChangeDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.FlightTombstone;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.FlightTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightChangeFeedServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 8, 20, 10, 0);
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private FlightTombstoneRepository tombstoneRepository;
+
+    private FlightChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new FlightChangeFeedService(flightRepository, tombstoneRepository, 0);
+    }
+
+    @Test
+    void getChanges_ShouldMergeUpdatesAndDeletesInOrder() {
+        when(flightRepository.findChangedAfter(any(), anyLong(), any(), any()))
+                .thenReturn(List.of(flight(1L, T0), flight(3L, T0.plusSeconds(2))));
+        when(tombstoneRepository.findDeletedAfter(any(), anyLong(), any(), any()))
+                .thenReturn(List.of(new FlightTombstone(2L, T0.plusSeconds(1))));
+
+        ChangeFeedDto<FlightChangeDto> page = changeFeedService.getChanges(null, 10);
+
+        assertEquals(List.of(1L, 2L, 3L), page.getChanges().stream().map(FlightChangeDto::getFlightId).toList());
+        assertEquals(FlightChangeDto.DELETE, page.getChanges().get(1).getType());
+        assertNull(page.getChanges().get(1).getFlight());
+        assertFalse(page.isHasMore());
+        assertEquals(T0.plusSeconds(2) + ",3", page.getNextSince());
+    }
+
+    @Test
+    void getChanges_ShouldStopAtLimit_AndContinueFromLastChange() {
+        when(flightRepository.findChangedAfter(any(), anyLong(), any(), any()))
+                .thenReturn(List.of(flight(1L, T0), flight(2L, T0)));
+        when(tombstoneRepository.findDeletedAfter(any(), anyLong(), any(), any()))
+                .thenReturn(List.of(new FlightTombstone(5L, T0.plusSeconds(1))));
+
+        ChangeFeedDto<FlightChangeDto> page = changeFeedService.getChanges(T0.minusDays(1).toString(), 2);
+
+        assertEquals(2, page.getChanges().size());
+        assertTrue(page.isHasMore());
+        assertEquals(T0 + ",2", page.getNextSince());
+        verify(flightRepository).findChangedAfter(eq(T0.minusDays(1)), eq(0L), any(), argThat(p -> p.getPageSize() == 3));
+    }
+
+    @Test
+    void getChanges_ShouldKeepCursor_WhenNothingChanged() {
+        String since = T0 + ",7";
+
+        ChangeFeedDto<FlightChangeDto> page = changeFeedService.getChanges(since, 10);
+
+        assertTrue(page.getChanges().isEmpty());
+        assertEquals(since, page.getNextSince());
+        verify(flightRepository).findChangedAfter(eq(T0), eq(7L), any(), any());
+    }
+
+    @Test
+    void getChanges_ShouldRejectBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges("yesterday", 10));
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(T0 + ",x", 10));
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(null, 1001));
+    }
+
+    private Flight flight(Long id, LocalDateTime updatedAt) {
+        Flight flight = new Flight("Flight " + id, LocalDate.of(2025, 8, 20), "NYC-LON",
+                "08:00 AM", "04:00 PM", "Boeing 747", 20, 10);
+        flight.setFlightId(id);
+        flight.setUpdatedAt(updatedAt);
+        return flight;
+    }
+}
@@ -0,0 +1,106 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.FlightOpsSummaryDto;
+import com.oracle.flights.exception.FlightNotFoundException;
+import com.oracle.flights.repository.FlightOpsCounterRepository;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.OpsCounterTotalView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightOpsServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 5, 1, 7, 30);
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private FlightOpsCounterRepository counterRepository;
+
+    @InjectMocks
+    private FlightOpsService flightOpsService;
+
+    @Test
+    void getOpsSummary_ShouldMapCountersToTheSummary() {
+        when(flightRepository.existsById(1L)).thenReturn(true);
+        when(counterRepository.findTotalsByFlightId(1L)).thenReturn(List.of(
+                total("PASSENGERS", 180L, T0),
+                total("CHECKED_IN", 120L, T0.plusMinutes(5)),
+                total("SPECIAL_NEEDS", 4L, T0),
+                total("WHEELCHAIR", 3L, T0),
+                total("INFANT", 1L, T0),
+                total("EXTRA_BAGGAGE_KG", 450L, T0),
+                total("SHOPPING_ORDERS", 12L, T0),
+                total("SHOPPING_ITEMS", 19L, T0),
+                total("MEAL:Veg", 40L, T0),
+                total("MEAL:Non-Veg", 60L, T0),
+                total("MEAL:Kosher", 0L, T0),
+                total("SERVICE:Meal", 100L, T0),
+                total("SERVICE:Shopping", 12L, T0)));
+
+        FlightOpsSummaryDto summary = flightOpsService.getOpsSummary(1L);
+
+        assertEquals(180L, summary.getPassengers());
+        assertEquals(120L, summary.getCheckedIn());
+        assertEquals(60L, summary.getNotCheckedIn());
+        assertEquals(4L, summary.getSpecialNeeds());
+        assertEquals(450L, summary.getExtraBaggageKg());
+        assertEquals(12L, summary.getShoppingOrders());
+        assertEquals(100L, summary.getMeals());
+        assertEquals(Map.of("Veg", 40L, "Non-Veg", 60L), summary.getMealsByType());
+        assertEquals(Map.of("Meal", 100L, "Shopping", 12L), summary.getServices());
+        assertEquals(T0.plusMinutes(5), summary.getLastUpdated());
+    }
+
+    @Test
+    void getOpsSummary_WithoutCounters_ShouldReturnZeros() {
+        when(flightRepository.existsById(2L)).thenReturn(true);
+        when(counterRepository.findTotalsByFlightId(2L)).thenReturn(List.of());
+
+        FlightOpsSummaryDto summary = flightOpsService.getOpsSummary(2L);
+
+        assertEquals(0L, summary.getPassengers());
+        assertEquals(0L, summary.getNotCheckedIn());
+        assertTrue(summary.getMealsByType().isEmpty());
+        assertNull(summary.getLastUpdated());
+    }
+
+    @Test
+    void getOpsSummary_WhenFlightDoesNotExist_ShouldThrow() {
+        when(flightRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(FlightNotFoundException.class, () -> flightOpsService.getOpsSummary(99L));
+        verifyNoInteractions(counterRepository);
+    }
+
+    private static OpsCounterTotalView total(String counterName, Long total, LocalDateTime lastUpdated) {
+        return new OpsCounterTotalView() {
+            @Override
+            public String getCounterName() {
+                return counterName;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdated() {
+                return lastUpdated;
+            }
+        };
+    }
+}
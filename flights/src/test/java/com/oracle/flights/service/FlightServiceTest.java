@@ -1,13 +1,20 @@
 package com.oracle.flights.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flights.dto.FlightSearchResultDto;
 import com.oracle.flights.dto.SeatAvailabilityDto;
+import com.oracle.flights.dto.SeatDto;
 import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.FlightTombstone;
 import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.FlightTombstoneRepository;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
@@ -25,6 +32,22 @@ class FlightServiceTest {
     @Mock
     private FlightRepository flightRepository;
     
+    @Mock
+    private FlightAvailabilityIndex availabilityIndex;
+    
+    @Mock
+    private SeatMapStreamService seatMapStreamService;
+    
+    @Mock
+    private FlightTombstoneRepository tombstoneRepository;
+    
+    @Mock
+    private SeatRecommendationService seatRecommendationService;
+    
+    @Spy
+    private JsonMergePatcher mergePatcher =
+            new JsonMergePatcher(Validation.buildDefaultValidatorFactory().getValidator());
+    
     @InjectMocks
     private FlightService flightService;
     
@@ -142,6 +165,7 @@ class FlightServiceTest {
         
         assertTrue(result);
         verify(flightRepository).deleteById(1L);
+        verify(tombstoneRepository).save(any(FlightTombstone.class));
     }
     
     @Test
@@ -152,5 +176,127 @@ class FlightServiceTest {
         
         assertFalse(result);
         verify(flightRepository, never()).deleteById(999L);
+        verify(tombstoneRepository, never()).save(any());
+    }
+    
+    @Test
+    void createFlight_ShouldUpdateAvailabilityIndex() {
+        when(flightRepository.save(any(Flight.class))).thenReturn(testFlight);
+        
+        flightService.createFlight(testFlight);
+        
+        verify(availabilityIndex).onFlightSaved(testFlight);
+    }
+    
+    @Test
+    void searchFlights_ShouldUseIndex_WhenReady() {
+        FlightSearchResultDto result = new FlightSearchResultDto(1L, "Flight 101", LocalDate.of(2025, 8, 20),
+                "NYC-LON", "08:00 AM", "04:00 PM", "Boeing 747", 20, 17, List.of("Meal"));
+        when(availabilityIndex.isReady()).thenReturn(true);
+        when(availabilityIndex.search(eq("NYC-LON"), eq(LocalDate.of(2025, 8, 1)), eq(LocalDate.of(2025, 8, 31)),
+                eq(2), eq(List.of("Meal")))).thenReturn(List.of(result));
+        
+        List<FlightSearchResultDto> results = flightService.searchFlights("nyc", "lon", "2025-08-01", "2025-08-31", 2, List.of("Meal"));
+        
+        assertEquals(1, results.size());
+        verify(flightRepository, never()).findAvailableByRouteAndDateRange(any(), any(), any(), any());
+    }
+    
+    @Test
+    void searchFlights_ShouldFallBackToQuery_WhenIndexNotReady() {
+        testFlight.setServicesJson("[\"Ancillary\", \"Meal\"]");
+        when(availabilityIndex.isReady()).thenReturn(false);
+        when(flightRepository.findAvailableByRouteAndDateRange("NYC-LON", LocalDate.of(2025, 8, 20),
+                LocalDate.of(2025, 8, 20), 1)).thenReturn(List.of(testFlight));
+        
+        List<FlightSearchResultDto> withMeal = flightService.searchFlights("NYC", "LON", "2025-08-20", null, 1, List.of("meal"));
+        List<FlightSearchResultDto> withShopping = flightService.searchFlights("NYC", "LON", "2025-08-20", null, 1, List.of("Shopping"));
+        
+        assertEquals(1, withMeal.size());
+        assertEquals(1L, withMeal.get(0).getFlightId());
+        assertTrue(withShopping.isEmpty());
+    }
+    
+    @Test
+    void searchFlights_WithoutRoute_ShouldFallBackToQuery_WhenIndexNotReady() {
+        when(availabilityIndex.isReady()).thenReturn(false);
+        when(flightRepository.findAvailableByDateRange(LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31), 1))
+                .thenReturn(List.of(testFlight));
+        
+        List<FlightSearchResultDto> results = flightService.searchFlights(null, null, "2025-08-01", "2025-08-31", 1, null);
+        
+        assertEquals(1, results.size());
+        assertEquals(1L, results.get(0).getFlightId());
+        verify(availabilityIndex, never()).search(any(), any(), any(), anyInt(), any());
+    }
+    
+    @Test
+    void searchFlights_ShouldRejectInvertedDateRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> flightService.searchFlights("NYC", "LON", "2025-08-20", "2025-08-01", 1, null));
+    }
+    
+    @Test
+    void updateFlight_ShouldPublishChangedSeats_WhenSeatMapChanges() {
+        Flight details = new Flight("Flight 101", LocalDate.of(2025, 8, 20), "NYC-LON",
+                "08:00 AM", "04:00 PM", "Boeing 747", 20, 16);
+        details.setSeatMapJson("[{\"number\": 1, \"isBooked\": true}, {\"number\": 2, \"isBooked\": true}]");
+        when(flightRepository.findById(1L)).thenReturn(Optional.of(testFlight));
+        when(flightRepository.save(any(Flight.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        flightService.updateFlight(1L, details);
+        
+        verify(seatMapStreamService).onSeatsChanged(eq(1L), eq(16), argThat((List<SeatDto> changes) ->
+                changes.size() == 1 && changes.get(0).getNumber() == 1 && changes.get(0).getIsBooked()));
+    }
+    
+    @Test
+    void streamSeatMap_ShouldReturnEmpty_WhenFlightNotExists() {
+        when(flightRepository.existsById(999L)).thenReturn(false);
+        
+        assertTrue(flightService.streamSeatMap(999L, null).isEmpty());
+        verifyNoInteractions(seatMapStreamService);
+    }
+    
+    @Test
+    void patchFlight_ShouldOnlyTouchPatchedFields_AndKeepStoredJsonVerbatim() throws Exception {
+        testFlight.setServicesJson("[\"Meal\",  \"Shopping\"]");
+        String seatMapJson = testFlight.getSeatMapJson();
+        when(flightRepository.findById(1L)).thenReturn(Optional.of(testFlight));
+        when(flightRepository.save(testFlight)).thenReturn(testFlight);
+        
+        Optional<Flight> result = flightService.patchFlight(1L, new ObjectMapper().readTree(
+                "{\"availableSeats\":5,\"services\":[\"Meal\",\"Shopping\"],\"serviceSubtypes\":{\"Meal\":[\"Veg\"]}}"));
+        
+        assertTrue(result.isPresent());
+        assertEquals(5, testFlight.getAvailableSeats());
+        assertEquals(List.of("Veg"), testFlight.getServiceSubtypes().getMeal());
+        assertEquals("[\"Meal\",  \"Shopping\"]", testFlight.getServicesJson());
+        assertEquals(seatMapJson, testFlight.getSeatMapJson());
+        assertEquals("Flight 101", testFlight.getFlightName());
+        verify(availabilityIndex).onFlightSaved(testFlight);
+        verifyNoInteractions(seatMapStreamService);
+    }
+    
+    @Test
+    void patchFlight_ShouldPublishSeatMapChanges_AndRejectRemovingRequiredFields() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        when(flightRepository.findById(1L)).thenReturn(Optional.of(testFlight));
+        when(flightRepository.save(testFlight)).thenReturn(testFlight);
+        
+        flightService.patchFlight(1L, objectMapper.readTree(
+                "{\"seatMap\":[{\"number\":1,\"isBooked\":true},{\"number\":2,\"isBooked\":true}],\"availableSeats\":50}"));
+        
+        assertEquals(20, testFlight.getAvailableSeats());
+        assertTrue(testFlight.getSeatMap().get(0).getIsBooked());
+        verify(seatMapStreamService).onSeatsChanged(eq(1L), eq(20), anyList());
+        
+        assertThrows(IllegalArgumentException.class, () ->
+                flightService.patchFlight(1L, objectMapper.readTree("{\"flightName\":null}")));
+        assertThrows(IllegalArgumentException.class, () ->
+                flightService.patchFlight(1L, objectMapper.readTree("{\"totalSeats\":0}")));
+        assertThrows(IllegalArgumentException.class, () ->
+                flightService.patchFlight(1L, objectMapper.readTree("{\"flightId\":7}")));
+        verify(flightRepository, times(1)).save(testFlight);
     }
 }
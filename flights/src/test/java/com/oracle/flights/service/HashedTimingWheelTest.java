@@ -0,0 +1,82 @@
+package com.oracle.flights.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private static final Instant START = Instant.parse("2025-08-20T08:00:00Z");
+
+    @Test
+    void advance_ShouldExpireTimeoutsInTheirTick_NeverEarly() {
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(START, Duration.ofSeconds(1), 64);
+        Random random = new Random(42);
+        int timeouts = 200_000;
+        long[] deadlines = new long[timeouts];
+        for (int i = 0; i < timeouts; i++) {
+            // Up to 15 minutes out, so most timeouts wrap the 64 second wheel several times
+            deadlines[i] = random.nextInt(900_000);
+            wheel.schedule(i, START.plusMillis(deadlines[i]));
+        }
+        assertEquals(timeouts, wheel.size());
+
+        Set<Integer> expired = new HashSet<>();
+        for (long second = 0; second <= 900; second++) {
+            Instant now = START.plusSeconds(second);
+            for (Integer id : wheel.advance(now)) {
+                assertTrue(deadlines[id] <= second * 1000, "Timeout " + id + " expired early");
+                assertTrue(deadlines[id] > (second - 1) * 1000, "Timeout " + id + " expired late");
+                assertTrue(expired.add(id));
+            }
+        }
+        assertEquals(timeouts, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancel_ShouldRemoveTimeout_AndIgnoreExpiredOnes() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(START, Duration.ofSeconds(1), 8);
+        HashedTimingWheel.Timeout<String> first = wheel.schedule("first", START.plusSeconds(3));
+        HashedTimingWheel.Timeout<String> second = wheel.schedule("second", START.plusSeconds(3));
+        HashedTimingWheel.Timeout<String> third = wheel.schedule("third", START.plusSeconds(3));
+
+        assertTrue(wheel.cancel(second));
+        assertFalse(wheel.cancel(second));
+        assertEquals(List.of("first", "third"), wheel.advance(START.plusSeconds(3)));
+        assertFalse(wheel.cancel(first));
+        assertFalse(wheel.cancel(third));
+        assertFalse(wheel.cancel(null));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldCatchUpAfterALongPause_AndExpirePastDeadlinesNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(START, Duration.ofMillis(100), 16);
+        List<String> scheduled = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            scheduled.add("t" + i);
+            wheel.schedule("t" + i, START.plusMillis(i * 150L));
+        }
+        wheel.schedule("later", START.plusSeconds(60));
+
+        // Paused for 20 seconds: one pass over the wheel expires everything due
+        List<String> expired = wheel.advance(START.plusSeconds(20));
+        assertEquals(scheduled.size(), expired.size());
+        assertTrue(expired.containsAll(scheduled));
+        assertEquals(1, wheel.size());
+
+        wheel.schedule("overdue", START.plusSeconds(5));
+        assertEquals(List.of(), wheel.advance(START.plusSeconds(20)));
+        assertEquals(List.of("overdue"), wheel.advance(START.plusMillis(20_100)));
+        assertEquals(List.of("later"), wheel.advance(START.plusSeconds(60)));
+    }
+}
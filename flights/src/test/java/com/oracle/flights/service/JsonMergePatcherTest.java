@@ -0,0 +1,101 @@
+package com.oracle.flights.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flights.dto.FlightPatchDto;
+import com.oracle.flights.dto.SeatDto;
+import com.oracle.flights.dto.ServiceSubtypesDto;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonMergePatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ValidatorFactory validatorFactory;
+    private JsonMergePatcher patcher;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        patcher = new JsonMergePatcher(validatorFactory.getValidator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void merge_ShouldFollowRfc7396Examples() throws Exception {
+        assertMerged("{\"a\":\"c\"}", "{\"a\":\"b\"}", "{\"a\":\"c\"}");
+        assertMerged("{\"a\":\"b\",\"b\":\"c\"}", "{\"a\":\"b\"}", "{\"b\":\"c\"}");
+        assertMerged("{}", "{\"a\":\"b\"}", "{\"a\":null}");
+        assertMerged("{\"a\":[\"b\"]}", "{\"a\":[{\"b\":\"c\"}]}", "{\"a\":[\"b\"]}");
+        assertMerged("{\"a\":{\"b\":\"d\"}}", "{\"a\":{\"b\":\"c\"}}", "{\"a\":{\"b\":\"d\",\"c\":null}}");
+        assertMerged("[\"c\"]", "[\"a\",\"b\"]", "[\"c\"]");
+        assertMerged("{\"a\":{\"bb\":{}}}", "{}", "{\"a\":{\"bb\":{\"ccc\":null}}}");
+    }
+
+    @Test
+    void apply_ShouldMergeSubtypesAndReportOnlyFieldsWhoseValueChanged() throws Exception {
+        FlightPatchDto current = flight();
+        ServiceSubtypesDto subtypes = new ServiceSubtypesDto();
+        subtypes.setMeal(List.of("Veg"));
+        subtypes.setShopping(List.of("Perfume"));
+        current.setServiceSubtypes(subtypes);
+
+        JsonMergePatcher.Result<FlightPatchDto> result = patcher.apply(current, objectMapper.readTree(
+                "{\"availableSeats\":14,\"services\":[\"Meal\"],\"aircraftType\":null," +
+                        "\"serviceSubtypes\":{\"Meal\":[\"Veg\",\"Non-Veg\"]}}"),
+                FlightPatchDto.class);
+
+        assertEquals(Set.of("availableSeats", "serviceSubtypes"), result.getChangedFields());
+        assertEquals(14, result.getValue().getAvailableSeats());
+        assertEquals(List.of("Veg", "Non-Veg"), result.getValue().getServiceSubtypes().getMeal());
+        // Objects merge member by member, so the other subtypes are kept
+        assertEquals(List.of("Perfume"), result.getValue().getServiceSubtypes().getShopping());
+        assertEquals(2, result.getValue().getSeatMap().size());
+    }
+
+    @Test
+    void apply_ShouldRejectInvalidPatches() {
+        FlightPatchDto current = flight();
+        assertThrows(IllegalArgumentException.class, () ->
+                patcher.apply(current, objectMapper.readTree("[]"), FlightPatchDto.class));
+        assertThrows(IllegalArgumentException.class, () ->
+                patcher.apply(current, objectMapper.readTree("{\"flightId\":7}"), FlightPatchDto.class));
+        assertThrows(IllegalArgumentException.class, () ->
+                patcher.apply(current, objectMapper.readTree("{\"totalSeats\":\"many\"}"), FlightPatchDto.class));
+        IllegalArgumentException removed = assertThrows(IllegalArgumentException.class, () ->
+                patcher.apply(current, objectMapper.readTree("{\"route\":null}"), FlightPatchDto.class));
+        assertTrue(removed.getMessage().startsWith("route: "));
+    }
+
+    private static FlightPatchDto flight() {
+        FlightPatchDto flight = new FlightPatchDto();
+        flight.setFlightName("Flight 101");
+        flight.setFlightDate(LocalDate.of(2025, 8, 20));
+        flight.setRoute("NYC-LON");
+        flight.setDepartureTime("08:00 AM");
+        flight.setArrivalTime("04:00 PM");
+        flight.setTotalSeats(20);
+        flight.setAvailableSeats(18);
+        flight.setServices(List.of("Meal"));
+        flight.setSeatMap(List.of(new SeatDto(1, true), new SeatDto(2, false)));
+        return flight;
+    }
+
+    private void assertMerged(String expected, String target, String patch) throws Exception {
+        JsonNode merged = JsonMergePatcher.merge(objectMapper.readTree(target), objectMapper.readTree(patch));
+        assertEquals(objectMapper.readTree(expected), merged);
+    }
+}
@@ -0,0 +1,190 @@
+package com.oracle.flights.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.flights.dto.SeatDto;
+import com.oracle.flights.dto.SeatMapDeltaDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapStreamServiceTest {
+
+    private SeatMapStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new SeatMapStreamService(new ObjectMapper(), 60_000, 15, 4, 2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void diff_ShouldReturnOnlyChangedSeats() {
+        List<SeatDto> before = List.of(new SeatDto(1, false), new SeatDto(2, true), new SeatDto(3, false));
+        List<SeatDto> after = List.of(new SeatDto(1, true), new SeatDto(2, true), new SeatDto(3, false), new SeatDto(4, false));
+
+        List<SeatDto> changes = SeatMapStreamService.diff(before, after);
+
+        assertEquals(2, changes.size());
+        assertEquals(1, changes.get(0).getNumber());
+        assertTrue(changes.get(0).getIsBooked());
+        assertEquals(4, changes.get(1).getNumber());
+        assertFalse(changes.get(1).getIsBooked());
+    }
+
+    @Test
+    void subscribe_ShouldRegisterSubscriberPerFlight() {
+        streamService.subscribe(1L, null, () -> null);
+        streamService.subscribe(1L, null, () -> null);
+
+        assertEquals(2, streamService.subscriberCount(1L));
+        assertEquals(0, streamService.subscriberCount(2L));
+    }
+
+    @Test
+    void register_ShouldReplayMissedDeltas_WhenResumePointIsBuffered() {
+        SeatMapStreamService.Broadcaster broadcaster = streamService.new Broadcaster(1L);
+        broadcaster.publish(delta(1));
+        SeatMapStreamService.StreamEvent first = broadcaster.serialize(1, SeatMapStreamService.DELTA_EVENT, delta(1));
+        broadcaster.publish(delta(2));
+        broadcaster.publish(delta(3));
+
+        SeatMapStreamService.Subscriber subscriber = new SeatMapStreamService.Subscriber(new SseEmitter(), 10);
+        assertTrue(broadcaster.register(subscriber, first.id, new AtomicInteger()));
+
+        assertEquals(2, subscriber.queue.size());
+        assertTrue(subscriber.queue.peekLast().id.endsWith("-3"));
+    }
+
+    @Test
+    void register_ShouldRequireSnapshot_WhenResumePointIsUnknownOrEvicted() {
+        SeatMapStreamService.Broadcaster broadcaster = streamService.new Broadcaster(1L);
+        for (int seat = 1; seat <= 6; seat++) {
+            broadcaster.publish(delta(seat));
+        }
+        String evicted = broadcaster.serialize(1, SeatMapStreamService.DELTA_EVENT, delta(1)).id;
+
+        AtomicInteger snapshotSeq = new AtomicInteger();
+        assertFalse(broadcaster.register(new SeatMapStreamService.Subscriber(new SseEmitter(), 10), evicted, snapshotSeq));
+        assertEquals(6, snapshotSeq.get());
+        assertFalse(broadcaster.register(new SeatMapStreamService.Subscriber(new SseEmitter(), 10), "42-1", snapshotSeq));
+    }
+
+    @Test
+    void onHoldsChanged_ShouldPublishHeldAndReleasedSeats() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        SeatMapStreamService recording = recordingService(sent);
+        try {
+            recording.subscribe(1L, null, () -> null);
+            recording.onHoldsChanged(1L, List.of(4, 5), List.of());
+            recording.onHoldsChanged(1L, List.of(), List.of(4, 5));
+            recording.onHoldsChanged(1L, List.of(), List.of());
+
+            awaitSent(sent, 3);
+            assertEquals(3, sent.size());
+            assertTrue(sent.get(1).contains("event:" + SeatMapStreamService.DELTA_EVENT));
+            assertTrue(sent.get(1).contains("{\"flightId\":1,\"heldSeats\":[4,5],\"releasedSeats\":[]}"));
+            assertTrue(sent.get(2).contains("{\"flightId\":1,\"heldSeats\":[],\"releasedSeats\":[4,5]}"));
+        } finally {
+            recording.shutdown();
+        }
+    }
+
+    @Test
+    void deliver_ShouldDropSubscriber_WhenQueueIsFull() {
+        SeatMapStreamService.Broadcaster broadcaster = streamService.new Broadcaster(1L);
+        SeatMapStreamService.Subscriber slow = new SeatMapStreamService.Subscriber(new SseEmitter(), 1);
+        broadcaster.register(slow, null, new AtomicInteger());
+        slow.queue.offerLast(SeatMapStreamService.StreamEvent.comment("pending"));
+
+        broadcaster.publish(delta(1));
+
+        assertTrue(slow.queue.isEmpty());
+        assertTrue(broadcaster.isIdle(Long.MAX_VALUE));
+    }
+
+    @Test
+    void subscribe_ShouldSendTheSnapshotBeforeDeltasPublishedWhileItLoads() throws Exception {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        SeatMapStreamService recording = recordingService(sent);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<SseEmitter> subscribed = client.submit(() -> recording.subscribe(1L, null, () -> {
+                loading.countDown();
+                await(loaded);
+                return null;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            recording.onSeatsChanged(1L, 9, List.of(new SeatDto(1, true)));
+            Thread.sleep(100);
+            assertTrue(sent.isEmpty());
+
+            loaded.countDown();
+            subscribed.get(5, TimeUnit.SECONDS);
+            awaitSent(sent, 2);
+            assertEquals(2, sent.size());
+            assertTrue(sent.get(0).contains("event:" + SeatMapStreamService.SNAPSHOT_EVENT));
+            assertTrue(sent.get(0).contains("-0\n"));
+            assertTrue(sent.get(1).contains("event:" + SeatMapStreamService.DELTA_EVENT));
+            assertTrue(sent.get(1).contains("-1\n"));
+        } finally {
+            loaded.countDown();
+            client.shutdownNow();
+            recording.shutdown();
+        }
+    }
+
+    // Records each event as its SSE wire text
+    private static SeatMapStreamService recordingService(List<String> sent) {
+        return new SeatMapStreamService(new ObjectMapper(), 60_000, 15, 4, 8, 1) {
+            @Override
+            SseEmitter newEmitter() {
+                return new SseEmitter() {
+                    @Override
+                    public void send(SseEventBuilder builder) {
+                        sent.add(builder.build().stream().map(part -> part.getData().toString())
+                                .collect(Collectors.joining()));
+                    }
+                };
+            }
+        };
+    }
+
+    private static void awaitSent(List<String> sent, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SeatMapDeltaDto delta(int seat) {
+        return new SeatMapDeltaDto(1L, 10, List.of(new SeatDto(seat, true)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.SeatDto;
+import com.oracle.flights.service.SeatOccupancy.Block;
+import com.oracle.flights.service.SeatOccupancy.Preference;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the bitmap scan of SeatOccupancy with a seat-by-seat scan of the seat map.
+ * Both sides must find the same blocks; timings are logged for comparison.
+ */
+class SeatRecommendationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatRecommendationBenchmarkTest.class);
+    private static final int TOTAL_SEATS = 550;
+    private static final int FLIGHTS = 200;
+    private static final int ROUNDS = 20;
+
+    @Test
+    void bitmapScan_ShouldMatchSeatMapScan() {
+        Random random = new Random(42);
+        SeatLayout layout = SeatLayout.forAircraft("Airbus A380");
+        List<SeatOccupancy> occupancies = new ArrayList<>();
+        List<boolean[]> bookedSeats = new ArrayList<>();
+        for (int f = 0; f < FLIGHTS; f++) {
+            // Load factors from 50% to 99%, so late flights only have scattered single seats
+            double loadFactor = 0.5 + 0.49 * f / FLIGHTS;
+            boolean[] booked = new boolean[TOTAL_SEATS + 1];
+            List<SeatDto> seatMap = new ArrayList<>(TOTAL_SEATS);
+            for (int seat = 1; seat <= TOTAL_SEATS; seat++) {
+                booked[seat] = random.nextDouble() < loadFactor;
+                seatMap.add(new SeatDto(seat, booked[seat]));
+            }
+            SeatOccupancy occupancy = new SeatOccupancy(layout, TOTAL_SEATS);
+            occupancy.loadBooked(seatMap, new int[0]);
+            occupancies.add(occupancy);
+            bookedSeats.add(booked);
+        }
+
+        long bitmapNanos = 0;
+        long scanNanos = 0;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int f = 0; f < FLIGHTS; f++) {
+                int count = 1 + (round + f) % 4;
+
+                long start = System.nanoTime();
+                List<Block> blocks = occupancies.get(f).find(count, Preference.ANY, false,
+                        SeatRecommendationService.MAX_OPTIONS);
+                bitmapNanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<int[]> expected = scanSeatMap(layout, bookedSeats.get(f), count);
+                scanNanos += System.nanoTime() - start;
+
+                assertEquals(expected.size(), blocks.size());
+                for (int i = 0; i < blocks.size(); i++) {
+                    int[] seats = occupancies.get(f).seatsOf(blocks.get(i));
+                    assertEquals(Arrays.toString(expected.get(i)), Arrays.toString(seats));
+                    checksum += seats[0];
+                }
+            }
+        }
+
+        logger.info("Seat recommendation over {} flights x {} rounds: bitmap scan {} ms, seat map scan {} ms (checksum {})",
+                FLIGHTS, ROUNDS, bitmapNanos / 1_000_000, scanNanos / 1_000_000, checksum);
+    }
+
+    /**
+     * Front-to-back scan of every seat, the way a kiosk would pick seats from the seat map:
+     * the first blocks of count free seats within one section, or across an aisle if none
+     */
+    private static List<int[]> scanSeatMap(SeatLayout layout, boolean[] booked, int count) {
+        List<int[]> blocks = scanSeatMap(layout, booked, count, false);
+        return blocks.isEmpty() ? scanSeatMap(layout, booked, count, true) : blocks;
+    }
+
+    private static List<int[]> scanSeatMap(SeatLayout layout, boolean[] booked, int count, boolean acrossAisle) {
+        int seatsPerRow = layout.getSeatsPerRow();
+        List<int[]> blocks = new ArrayList<>();
+        for (int first = 1; first + count - 1 <= TOTAL_SEATS; first++) {
+            int column = (first - 1) % seatsPerRow;
+            if (column + count > seatsPerRow) {
+                continue;
+            }
+            boolean fits = true;
+            for (int i = 0; i < count && fits; i++) {
+                int seat = first + i;
+                fits = !booked[seat]
+                        && (acrossAisle || i == 0 || !isAisleBoundary(layout, column + i));
+            }
+            if (fits) {
+                int[] seats = new int[count];
+                for (int i = 0; i < count; i++) {
+                    seats[i] = first + i;
+                }
+                blocks.add(seats);
+                if (blocks.size() == SeatRecommendationService.MAX_OPTIONS) {
+                    return blocks;
+                }
+            }
+        }
+        return blocks;
+    }
+
+    // True when an aisle runs between column - 1 and column
+    private static boolean isAisleBoundary(SeatLayout layout, int column) {
+        long aisles = layout.aisleMask();
+        return (aisles & (1L << column)) != 0 && (aisles & (1L << (column - 1))) != 0;
+    }
+}
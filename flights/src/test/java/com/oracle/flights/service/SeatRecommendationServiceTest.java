@@ -0,0 +1,378 @@
+package com.oracle.flights.service;
+
+import com.oracle.flights.dto.SeatBlockDto;
+import com.oracle.flights.dto.SeatDto;
+import com.oracle.flights.dto.SeatHoldDto;
+import com.oracle.flights.dto.SeatRecommendationDto;
+import com.oracle.flights.entity.Flight;
+import com.oracle.flights.entity.SeatHold;
+import com.oracle.flights.exception.FlightNotFoundException;
+import com.oracle.flights.repository.FlightRepository;
+import com.oracle.flights.repository.PassengerSeatRepository;
+import com.oracle.flights.repository.SeatHoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatRecommendationServiceTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    @Mock
+    private PassengerSeatRepository passengerSeatRepository;
+
+    @Mock
+    private SeatMapStreamService seatMapStreamService;
+
+    private MutableClock clock;
+    private SeatRecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-08-20T08:00:00Z"));
+        service = new SeatRecommendationService(flightRepository, seatHoldRepository, passengerSeatRepository,
+                seatMapStreamService, clock, Duration.ofSeconds(120), Duration.ofMinutes(5), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void seatLayout_ShouldMapAircraftTypes_AndKeepBlocksInsideSections() {
+        assertEquals("3-4-3", SeatLayout.forAircraft("Boeing 747").getName());
+        assertEquals("3-4-3", SeatLayout.forAircraft("Airbus A380").getName());
+        assertEquals("2-2", SeatLayout.forAircraft("Embraer E175").getName());
+        assertEquals("3-3", SeatLayout.forAircraft(null).getName());
+
+        SeatLayout wideBody = SeatLayout.forAircraft("Boeing 777");
+        // Pairs start at columns 0, 1 (left), 3, 4, 5 (middle) and 7, 8 (right)
+        assertEquals(0b01_1011_1011L, wideBody.blockStarts(2));
+        // Only the middle section holds four
+        assertEquals(1L << 3, wideBody.blockStarts(4));
+        assertEquals(0b111_1111L, wideBody.rowStarts(4));
+        assertEquals(0, wideBody.blockStarts(11));
+    }
+
+    @Test
+    void recommend_ShouldReturnAdjacentSeatsInOneRow_SkippingBookedSeats() {
+        // 3-3 cabin, 4 rows; seat 2 booked splits the left section of row 1
+        givenFlight(1L, "Airbus A320", 24, 2, 5);
+
+        SeatRecommendationDto result = service.recommend(1L, 3, null, false);
+
+        assertEquals("3-3", result.getLayout());
+        assertEquals(22, result.getFreeSeats());
+        SeatBlockDto best = result.getOptions().get(0);
+        assertEquals(List.of(7, 8, 9), best.getSeats());
+        assertEquals(2, best.getRow());
+        assertFalse(best.getAcrossAisle());
+        assertTrue(result.getOptions().size() <= SeatRecommendationService.MAX_OPTIONS);
+    }
+
+    @Test
+    void recommend_ShouldHonourWindowAndAislePreference() {
+        givenFlight(1L, "Airbus A320", 24, 1);
+
+        SeatBlockDto window = service.recommend(1L, 2, "window", false).getOptions().get(0);
+        assertEquals(List.of(5, 6), window.getSeats());
+        assertTrue(window.getWindow());
+
+        SeatBlockDto aisle = service.recommend(1L, 1, "AISLE", false).getOptions().get(0);
+        assertEquals(List.of(3), aisle.getSeats());
+        assertTrue(aisle.getAisle());
+
+        assertThrows(IllegalArgumentException.class, () -> service.recommend(1L, 2, "middle", false));
+        assertThrows(IllegalArgumentException.class, () -> service.recommend(1L, 7, null, false));
+        assertThrows(IllegalArgumentException.class, () -> service.recommend(1L, 0, null, false));
+    }
+
+    @Test
+    void recommend_ShouldPreferRowsNearAccessibleRows_AndFallBackAcrossTheAisle() {
+        // 3-4-3 cabin with 20 rows, accessible at row 1 and mid-cabin (row 11); rows 1-2 fully booked
+        givenFlight(1L, "Boeing 747", 200, IntStream.rangeClosed(1, 20).toArray());
+
+        SeatBlockDto front = service.recommend(1L, 4, null, false).getOptions().get(0);
+        assertEquals(3, front.getRow());
+
+        SeatBlockDto nearAccessible = service.recommend(1L, 4, null, true).getOptions().get(0);
+        assertEquals(11, nearAccessible.getRow());
+        assertEquals(0, nearAccessible.getRowsFromAccessibleRow());
+
+        // Five seats never fit in one section of a 3-3 row, so the block has to span the aisle
+        givenFlight(2L, "Airbus A320", 6);
+        SeatBlockDto across = service.recommend(2L, 5, null, false).getOptions().get(0);
+        assertEquals(List.of(1, 2, 3, 4, 5), across.getSeats());
+        assertTrue(across.getAcrossAisle());
+    }
+
+    @Test
+    void hold_ShouldHideHeldSeats_UntilReleasedOrExpired() {
+        givenFlight(1L, "Airbus A320", 6);
+
+        SeatHoldDto first = service.hold(1L, 3, null, false, null).orElseThrow();
+        SeatHoldDto second = service.hold(1L, 3, null, false, 30).orElseThrow();
+        assertEquals(List.of(1, 2, 3), first.getSeats());
+        assertEquals(List.of(4, 5, 6), second.getSeats());
+        assertEquals(clock.instant().plusSeconds(120).atZone(ZoneOffset.UTC).toLocalDateTime(), first.getExpiresAt());
+        assertTrue(service.hold(1L, 1, null, false, null).isEmpty());
+        assertEquals(0, service.recommend(1L, 1, null, false).getFreeSeats());
+
+        assertTrue(service.releaseHold(1L, first.getHoldId()));
+        assertFalse(service.releaseHold(1L, first.getHoldId()));
+        assertEquals(3, service.recommend(1L, 1, null, false).getFreeSeats());
+
+        verify(seatHoldRepository).deleteById(first.getHoldId());
+        verify(seatHoldRepository, times(2)).save(any(SeatHold.class));
+        verify(seatMapStreamService).onHoldsChanged(1L, List.of(1, 2, 3), List.of());
+        verify(seatMapStreamService).onHoldsChanged(1L, List.of(4, 5, 6), List.of());
+        verify(seatMapStreamService).onHoldsChanged(1L, List.of(), List.of(1, 2, 3));
+
+        // Holds stay until the wheel reaches the tick of their deadline
+        clock.advance(Duration.ofSeconds(29));
+        assertEquals(0, service.expireHolds());
+        clock.advance(Duration.ofSeconds(2));
+        assertEquals(1, service.expireHolds());
+        assertEquals(6, service.recommend(1L, 1, null, false).getFreeSeats());
+        assertEquals(0, service.pendingHolds());
+        assertFalse(service.releaseHold(1L, second.getHoldId()));
+        verify(seatHoldRepository).deleteAllByIdInBatch(List.of(second.getHoldId()));
+        verify(seatMapStreamService).onHoldsChanged(1L, List.of(), List.of(4, 5, 6));
+
+        assertThrows(IllegalArgumentException.class, () -> service.hold(1L, 1, null, false, 901));
+    }
+
+    @Test
+    void onFlightSaved_ShouldReloadBookedSeats_AndKeepHolds() {
+        givenFlight(1L, "Airbus A320", 12);
+        SeatHoldDto hold = service.hold(1L, 3, null, false, null).orElseThrow();
+
+        Flight updated = flight(1L, "Airbus A320", 12, 7, 8);
+        service.onFlightSaved(updated);
+
+        SeatRecommendationDto result = service.recommend(1L, 3, null, false);
+        assertEquals(7, result.getFreeSeats());
+        assertEquals(List.of(4, 5, 6), result.getOptions().get(0).getSeats());
+        assertTrue(service.releaseHold(1L, hold.getHoldId()));
+
+        service.onFlightDeleted(1L);
+        when(flightRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(FlightNotFoundException.class, () -> service.recommend(1L, 1, null, false));
+    }
+
+    @Test
+    void hold_ShouldNotHandOutSeats_WhenTheJournalWriteFails() {
+        givenFlight(1L, "Airbus A320", 6);
+        when(seatHoldRepository.save(any(SeatHold.class))).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> service.hold(1L, 3, null, false, null));
+
+        assertEquals(6, service.recommend(1L, 1, null, false).getFreeSeats());
+        assertEquals(0, service.pendingHolds());
+    }
+
+    @Test
+    void restoreHolds_ShouldReapplyJournaledHolds_AndDropInvalidOnes() {
+        givenFlight(1L, "Airbus A320", 12, 7);
+        LocalDateTime now = LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+        SeatHold valid = new SeatHold("valid", 1L, new int[]{1, 2, 3}, now.plusSeconds(60), now);
+        SeatHold booked = new SeatHold("booked", 1L, new int[]{7, 8}, now.plusSeconds(60), now);
+        SeatHold deletedFlight = new SeatHold("gone", 2L, new int[]{1}, now.plusSeconds(60), now);
+        when(seatHoldRepository.deleteExpired(now)).thenReturn(4);
+        when(seatHoldRepository.findByExpiresAtAfter(now)).thenReturn(List.of(valid, booked, deletedFlight));
+        when(flightRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertEquals(1, service.restoreHolds());
+
+        assertEquals(8, service.recommend(1L, 1, null, false).getFreeSeats());
+        verify(seatHoldRepository).deleteAllByIdInBatch(List.of("booked", "gone"));
+        clock.advance(Duration.ofSeconds(60));
+        assertEquals(1, service.expireHolds());
+        assertEquals(11, service.recommend(1L, 1, null, false).getFreeSeats());
+    }
+
+    @Test
+    void recommend_ShouldDropHoldsGoneFromTheJournal_OnRefresh() {
+        givenFlight(1L, "Airbus A320", 6);
+        SeatHoldDto hold = service.hold(1L, 2, null, false, 600).orElseThrow();
+        assertEquals(4, service.recommend(1L, 1, null, false).getFreeSeats());
+
+        // The passengers service turned the hold into a seat assignment
+        when(seatHoldRepository.findByFlightId(1L)).thenReturn(List.of());
+        clock.advance(Duration.ofMinutes(6));
+
+        assertEquals(6, service.recommend(1L, 1, null, false).getFreeSeats());
+        assertFalse(service.releaseHold(1L, hold.getHoldId()));
+        assertEquals(0, service.pendingHolds());
+        verify(seatMapStreamService).onHoldsChanged(1L, List.of(), hold.getSeats());
+    }
+
+    @Test
+    void expireHolds_ShouldKeepSeatsTurnedIntoAssignments_Booked() {
+        givenFlight(1L, "Airbus A320", 6);
+        SeatHoldDto hold = service.hold(1L, 2, null, false, 600).orElseThrow();
+        assertEquals(List.of(1, 2), hold.getSeats());
+
+        // The passengers service assigned seat 1 from the hold, without booking it in the seat map
+        LocalDateTime now = LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+        when(seatHoldRepository.findByFlightId(1L)).thenReturn(List.of(
+                new SeatHold(hold.getHoldId(), 1L, new int[]{2}, hold.getExpiresAt(), now)));
+        when(passengerSeatRepository.findAssignedSeats(1L)).thenReturn(List.of("1", "12A"));
+        clock.advance(Duration.ofMinutes(6));
+        assertEquals(4, service.recommend(1L, 1, null, false).getFreeSeats());
+        assertEquals(List.of(1), service.getAssignedSeats(1L));
+
+        // The rest of the hold expires; only seat 2 is free again
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(1, service.expireHolds());
+        SeatRecommendationDto result = service.recommend(1L, 1, null, false);
+        assertEquals(5, result.getFreeSeats());
+        assertTrue(result.getOptions().stream().noneMatch(option -> option.getSeats().contains(1)));
+    }
+
+    @Test
+    void releaseHold_ShouldKeepSeatsAssignedSinceTheLastReload_Booked() {
+        givenFlight(1L, "Airbus A320", 6);
+        SeatHoldDto hold = service.hold(1L, 3, null, false, 600).orElseThrow();
+
+        when(passengerSeatRepository.findAssignedSeats(1L)).thenReturn(List.of("2"));
+        assertTrue(service.releaseHold(1L, hold.getHoldId()));
+
+        SeatRecommendationDto result = service.recommend(1L, 1, null, false);
+        assertEquals(5, result.getFreeSeats());
+        assertTrue(result.getOptions().stream().noneMatch(option -> option.getSeats().contains(2)));
+    }
+
+    @Test
+    void hold_ShouldNeverHandOutTheSameSeatTwice_UnderConcurrentKiosks() throws Exception {
+        // 3-4-3 cabin with 60 rows: 600 seats for 32 kiosks holding families of 1 to 4
+        int totalSeats = 600;
+        givenFlight(1L, "Boeing 777", totalSeats);
+        int kiosks = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(kiosks);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<SeatHoldDto> holds = new ConcurrentLinkedQueue<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int k = 0; k < kiosks; k++) {
+                int kiosk = k;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < 200; attempt++) {
+                        int count = 1 + (kiosk + attempt) % 4;
+                        String preference = attempt % 3 == 0 ? "window" : attempt % 3 == 1 ? "aisle" : "any";
+                        Optional<SeatHoldDto> hold = service.hold(1L, count, preference, kiosk % 2 == 0, 600);
+                        if (hold.isEmpty()) {
+                            continue;
+                        }
+                        holds.add(hold.get());
+                        // Some kiosks time out and hand their seats back
+                        if (attempt % 7 == 0 && service.releaseHold(1L, hold.get().getHoldId())) {
+                            holds.remove(hold.get());
+                        }
+                        service.recommend(1L, count, preference, false);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Set<Integer> heldSeats = new HashSet<>();
+        SeatLayout layout = SeatLayout.forAircraft("Boeing 777");
+        for (SeatHoldDto hold : holds) {
+            List<Integer> seats = hold.getSeats();
+            for (int i = 0; i < seats.size(); i++) {
+                assertTrue(heldSeats.add(seats.get(i)), "Seat " + seats.get(i) + " was held twice");
+                if (i > 0) {
+                    assertEquals(seats.get(i - 1) + 1, seats.get(i));
+                    assertEquals(layout.rowOf(seats.get(0)), layout.rowOf(seats.get(i)));
+                }
+            }
+        }
+        assertEquals(totalSeats - heldSeats.size(), service.recommend(1L, 1, null, false).getFreeSeats());
+    }
+
+    private void givenFlight(Long flightId, String aircraftType, int totalSeats, int... bookedSeats) {
+        Flight flight = flight(flightId, aircraftType, totalSeats, bookedSeats);
+        lenient().when(flightRepository.findById(flightId)).thenReturn(Optional.of(flight));
+    }
+
+    private static Flight flight(Long flightId, String aircraftType, int totalSeats, int... bookedSeats) {
+        Set<Integer> booked = IntStream.of(bookedSeats).boxed().collect(Collectors.toSet());
+        Flight flight = new Flight();
+        flight.setFlightId(flightId);
+        flight.setAircraftType(aircraftType);
+        flight.setTotalSeats(totalSeats);
+        flight.setAvailableSeats(totalSeats - booked.size());
+        flight.setSeatMap(IntStream.rangeClosed(1, totalSeats)
+                .mapToObj(seat -> new SeatDto(seat, booked.contains(seat)))
+                .toList());
+        return flight;
+    }
+
+    /**
+     * Clock the test can move forward
+     */
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
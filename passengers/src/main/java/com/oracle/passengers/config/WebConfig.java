@@ -0,0 +1,30 @@
+package com.oracle.passengers.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Web configuration for async request handling.
+ *
+ * Manifest exports are streamed from an async request, which the servlet container
+ * would otherwise time out after 30 seconds, part way through a large export.
+ * spring.mvc.async.request-timeout still takes precedence.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final Duration asyncTimeout;
+
+    public WebConfig(@Value("${spring.mvc.async.request-timeout:10m}") Duration asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+    }
+}
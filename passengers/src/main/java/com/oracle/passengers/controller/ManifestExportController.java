@@ -0,0 +1,78 @@
+package com.oracle.passengers.controller;
+
+import com.oracle.passengers.service.ManifestExportService;
+import com.oracle.passengers.service.ManifestExportService.Format;
+import com.oracle.passengers.service.ManifestExportService.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * REST Controller for streamed passenger manifest exports
+ */
+@RestController
+@RequestMapping("/passengers/manifest")
+public class ManifestExportController {
+    
+    static final String TEXT_CSV = "text/csv";
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    
+    private final ManifestExportService manifestExportService;
+    
+    @Autowired
+    public ManifestExportController(ManifestExportService manifestExportService) {
+        this.manifestExportService = manifestExportService;
+    }
+    
+    /**
+     * GET /passengers/manifest - Stream the manifest of one flight, all flights of a date, or a route
+     * @param flightId the flight ID (optional)
+     * @param date the flight date, yyyy-MM-dd (optional)
+     * @param route the route code, e.g. NYC-LON (optional; at least one of flightId, date and route is required)
+     * @param format csv (default) or ndjson
+     * @param includeJson whether to add the services and shopping items columns
+     * @param acceptEncoding the response is gzip-compressed when the client accepts gzip
+     * @return the manifest, written row by row as it is read
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportManifest(
+            @RequestParam(required = false) Long flightId,
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) String route,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean includeJson,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Format outputFormat = Format.parse(format);
+        LocalDate flightDate = date == null || date.isBlank() ? null : LocalDate.parse(date.trim());
+        Selection selection = Selection.of(flightId, flightDate, route);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                manifestExportService.exportManifest(selection, outputFormat, includeJson, compressed);
+                compressed.finish();
+            } else {
+                manifestExportService.exportManifest(selection, outputFormat, includeJson, out);
+            }
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(
+                        (outputFormat == Format.CSV ? TEXT_CSV : APPLICATION_NDJSON) + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(selection.fileName(outputFormat)).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -1,12 +1,17 @@
 package com.oracle.passengers.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.oracle.passengers.dto.*;
+import com.oracle.passengers.repository.ResourceVersion;
+import com.oracle.passengers.service.PassengerChangeFeedService;
 import com.oracle.passengers.service.PassengerService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,11 +22,15 @@ import java.util.List;
 @RequestMapping("/passengers")
 public class PassengerController {
     
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    
     private final PassengerService passengerService;
+    private final PassengerChangeFeedService changeFeedService;
     
     @Autowired
-    public PassengerController(PassengerService passengerService) {
+    public PassengerController(PassengerService passengerService, PassengerChangeFeedService changeFeedService) {
         this.passengerService = passengerService;
+        this.changeFeedService = changeFeedService;
     }
     
     /**
@@ -29,18 +38,37 @@ public class PassengerController {
      * @return list of all passengers
      */
     @GetMapping
-    public ResponseEntity<List<PassengerDto>> getAllPassengers() {
+    public ResponseEntity<List<PassengerDto>> getAllPassengers(WebRequest request) {
+        if (isNotModified(passengerService.getPassengersVersion(), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PassengerDto> passengers = passengerService.getAllPassengers();
         return ResponseEntity.ok(passengers);
     }
     
+    /**
+     * GET /passengers/changes - Get passengers created, updated or deleted since a feed position
+     * @param since nextSince from the previous page, or an ISO timestamp (optional, defaults to the beginning)
+     * @param limit maximum number of changes to return (1-1000)
+     * @return one page of changes with the position to continue from
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeedDto<PassengerChangeDto>> getPassengerChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(changeFeedService.getChanges(since, limit));
+    }
+    
     /**
      * GET /passengers/{id} - Get passenger by ID
      * @param id the passenger ID
      * @return passenger details
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PassengerDto> getPassengerById(@PathVariable Long id) {
+    public ResponseEntity<PassengerDto> getPassengerById(@PathVariable Long id, WebRequest request) {
+        if (isNotModified(passengerService.getPassengerVersion(id), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         PassengerDto passenger = passengerService.getPassengerById(id);
         return ResponseEntity.ok(passenger);
     }
@@ -56,6 +84,18 @@ public class PassengerController {
         return new ResponseEntity<>(createdPassenger, HttpStatus.CREATED);
     }
     
+    /**
+     * POST /passengers/bulk - Create several passengers at once (all or nothing)
+     * @param createDtos the passenger creation data (at most 1000)
+     * @return the created passengers, in request order
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<PassengerDto>> createPassengers(
+            @RequestBody List<@Valid PassengerCreateDto> createDtos) {
+        List<PassengerDto> createdPassengers = passengerService.createPassengers(createDtos);
+        return new ResponseEntity<>(createdPassengers, HttpStatus.CREATED);
+    }
+    
     /**
      * PUT /passengers/{id} - Update passenger information
      * @param id the passenger ID
@@ -70,6 +110,18 @@ public class PassengerController {
         return ResponseEntity.ok(updatedPassenger);
     }
     
+    /**
+     * PATCH /passengers/{id} - Partially update a passenger with an RFC 7396 JSON merge patch
+     * @param id the passenger ID
+     * @param patch the merge patch (application/merge-patch+json); a null member clears that field
+     * @return the updated passenger
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<PassengerDto> patchPassenger(@PathVariable Long id, @RequestBody JsonNode patch) {
+        PassengerDto updatedPassenger = passengerService.patchPassenger(id, patch);
+        return ResponseEntity.ok(updatedPassenger);
+    }
+    
     /**
      * DELETE /passengers/{id} - Delete a passenger
      * @param id the passenger ID
@@ -84,35 +136,63 @@ public class PassengerController {
     /**
      * GET /passengers/flight/{flightId} - Get all passengers for a flight
      * @param flightId the flight ID
-     * @param checkedIn optional filter for check-in status
-     * @param specialNeeds optional filter for special needs
-     * @param missingInfo optional filter for missing mandatory information
+     * @param filter optional filters (checkedIn, specialNeeds, missingInfo, hasSeat, mealType, services), combined with AND
      * @return list of passengers for the specified flight
      */
     @GetMapping("/flight/{flightId}")
     public ResponseEntity<List<PassengerDto>> getPassengersByFlight(
             @PathVariable Long flightId,
-            @RequestParam(required = false) Boolean checkedIn,
-            @RequestParam(required = false) Boolean specialNeeds,
-            @RequestParam(required = false) Boolean missingInfo) {
-        
-        List<PassengerDto> passengers;
+            PassengerFilterDto filter,
+            WebRequest request) {
         
-        if (Boolean.TRUE.equals(checkedIn)) {
-            passengers = passengerService.getCheckedInPassengers(flightId);
-        } else if (Boolean.FALSE.equals(checkedIn)) {
-            passengers = passengerService.getNotCheckedInPassengers(flightId);
-        } else if (Boolean.TRUE.equals(specialNeeds)) {
-            passengers = passengerService.getPassengersWithSpecialNeeds(flightId);
-        } else if (Boolean.TRUE.equals(missingInfo)) {
-            passengers = passengerService.getPassengersWithMissingInfo(flightId);
-        } else {
-            passengers = passengerService.getPassengersByFlightId(flightId);
+        if (isNotModified(passengerService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
         }
         
+        List<PassengerDto> passengers = filter.isEmpty()
+                ? passengerService.getPassengersByFlightId(flightId)
+                : passengerService.getPassengersByFlightId(flightId, filter);
         return ResponseEntity.ok(passengers);
     }
     
+    /**
+     * GET /passengers/flight/{flightId}/filter - Get one page of a flight's passengers
+     * @param flightId the flight ID
+     * @param filter optional filters (checkedIn, specialNeeds, missingInfo, hasSeat, mealType, services), combined with AND
+     * @param page zero-based page number
+     * @param size page size (1-200)
+     * @param sort property to sort by, optionally followed by ",asc" or ",desc" (e.g., "seat,desc")
+     * @param facets whether to also return the flight's counts per dashboard tab
+     * @return the page of passengers and, if requested, the facet counts
+     */
+    @GetMapping("/flight/{flightId}/filter")
+    public ResponseEntity<PassengerPageDto> getPassengerPage(
+            @PathVariable Long flightId,
+            PassengerFilterDto filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "false") boolean facets,
+            WebRequest request) {
+        
+        if (isNotModified(passengerService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        
+        return ResponseEntity.ok(passengerService.getPassengerPage(flightId, filter, page, size, sort, facets));
+    }
+    
+    /**
+     * POST /passengers/checkin/batch - Check in several passengers at once
+     * @param batchDto the passengers to check in and the failure mode
+     * @return one outcome per passenger; 409 Conflict if an all-or-nothing batch was rejected
+     */
+    @PostMapping("/checkin/batch")
+    public ResponseEntity<BatchCheckInResultDto> checkInPassengers(@Valid @RequestBody BatchCheckInDto batchDto) {
+        BatchCheckInResultDto result = passengerService.checkInPassengers(batchDto);
+        return new ResponseEntity<>(result, result.isApplied() ? HttpStatus.OK : HttpStatus.CONFLICT);
+    }
+    
     /**
      * POST /passengers/checkin/{passengerId} - Check in a passenger
      * @param passengerId the passenger ID
@@ -153,18 +233,59 @@ public class PassengerController {
      * @return list of passengers with matching names
      */
     @GetMapping("/search")
-    public ResponseEntity<List<PassengerDto>> searchPassengers(@RequestParam String name) {
+    public ResponseEntity<List<PassengerDto>> searchPassengers(@RequestParam String name, WebRequest request) {
+        if (isNotModified(passengerService.getPassengersVersionByName(name), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PassengerDto> passengers = passengerService.searchPassengersByName(name);
         return ResponseEntity.ok(passengers);
     }
     
+    /**
+     * GET /passengers/quick-search - Ranked search by name, passport or phone number
+     * @param q the search text; every word must match (prefixes, name substrings and name typos count)
+     * @param flightId only search the passengers of this flight (optional)
+     * @param fuzzy whether to tolerate typos in names
+     * @param page zero-based page number
+     * @param size page size (1-100)
+     * @return one page of matches, best first
+     */
+    @GetMapping("/quick-search")
+    public ResponseEntity<PassengerSearchResultDto> quickSearch(
+            @RequestParam String q,
+            @RequestParam(required = false) Long flightId,
+            @RequestParam(defaultValue = "true") boolean fuzzy,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(passengerService.quickSearch(q, flightId, fuzzy, page, size));
+    }
+    
+    /**
+     * GET /passengers/quick-search/suggest - Autocomplete passenger names
+     * @param prefix the text typed so far
+     * @param flightId only suggest passengers of this flight (optional)
+     * @param limit maximum number of suggestions (1-50)
+     * @return distinct passenger names, best first
+     */
+    @GetMapping("/quick-search/suggest")
+    public ResponseEntity<List<String>> suggestPassengerNames(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Long flightId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(passengerService.suggestPassengerNames(prefix, flightId, limit));
+    }
+    
     /**
      * GET /passengers/flight/{flightId}/checkedin - Get checked-in passengers for a flight
      * @param flightId the flight ID
      * @return list of checked-in passengers
      */
     @GetMapping("/flight/{flightId}/checkedin")
-    public ResponseEntity<List<PassengerDto>> getCheckedInPassengers(@PathVariable Long flightId) {
+    public ResponseEntity<List<PassengerDto>> getCheckedInPassengers(@PathVariable Long flightId,
+            WebRequest request) {
+        if (isNotModified(passengerService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PassengerDto> passengers = passengerService.getCheckedInPassengers(flightId);
         return ResponseEntity.ok(passengers);
     }
@@ -175,7 +296,11 @@ public class PassengerController {
      * @return list of passengers who haven't checked in
      */
     @GetMapping("/flight/{flightId}/not-checkedin")
-    public ResponseEntity<List<PassengerDto>> getNotCheckedInPassengers(@PathVariable Long flightId) {
+    public ResponseEntity<List<PassengerDto>> getNotCheckedInPassengers(@PathVariable Long flightId,
+            WebRequest request) {
+        if (isNotModified(passengerService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PassengerDto> passengers = passengerService.getNotCheckedInPassengers(flightId);
         return ResponseEntity.ok(passengers);
     }
@@ -186,7 +311,11 @@ public class PassengerController {
      * @return list of passengers with special needs
      */
     @GetMapping("/flight/{flightId}/special-needs")
-    public ResponseEntity<List<PassengerDto>> getPassengersWithSpecialNeeds(@PathVariable Long flightId) {
+    public ResponseEntity<List<PassengerDto>> getPassengersWithSpecialNeeds(@PathVariable Long flightId,
+            WebRequest request) {
+        if (isNotModified(passengerService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PassengerDto> passengers = passengerService.getPassengersWithSpecialNeeds(flightId);
         return ResponseEntity.ok(passengers);
     }
@@ -197,8 +326,26 @@ public class PassengerController {
      * @return list of passengers with missing information
      */
     @GetMapping("/flight/{flightId}/missing-info")
-    public ResponseEntity<List<PassengerDto>> getPassengersWithMissingInfo(@PathVariable Long flightId) {
+    public ResponseEntity<List<PassengerDto>> getPassengersWithMissingInfo(@PathVariable Long flightId,
+            WebRequest request) {
+        if (isNotModified(passengerService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PassengerDto> passengers = passengerService.getPassengersWithMissingInfo(flightId);
         return ResponseEntity.ok(passengers);
     }
+    
+    /**
+     * Apply the ETag of a version fingerprint to the response and check it against the
+     * request's If-None-Match header. Last-Modified is left out because deleting a
+     * passenger lowers the count without moving the newest update time.
+     * Filtered passenger lists reuse the fingerprint of the whole flight, which
+     * changes whenever any passenger in the filtered list does.
+     * @param version the version of the requested data
+     * @param request the current request
+     * @return true if the client's copy is current and the body can be skipped
+     */
+    private boolean isNotModified(ResourceVersion version, WebRequest request) {
+        return !version.isEmpty() && request.checkNotModified(version.getETag());
+    }
 }
@@ -0,0 +1,55 @@
+package com.oracle.passengers.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * DTO for checking in several passengers at once (families, tour groups, gate operations)
+ */
+public class BatchCheckInDto {
+    
+    /**
+     * How failures of individual passengers affect the rest of the batch
+     */
+    public enum Mode {
+        /** Check in nobody unless every passenger can be checked in */
+        ALL_OR_NOTHING,
+        /** Check in everybody who can be checked in and report the rest */
+        BEST_EFFORT
+    }
+    
+    @NotNull(message = "Mode is required")
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    
+    @NotEmpty(message = "At least one passenger is required")
+    private List<@Valid @NotNull BatchCheckInItemDto> passengers;
+    
+    // Default constructor
+    public BatchCheckInDto() {}
+    
+    // Constructor with all fields
+    public BatchCheckInDto(Mode mode, List<BatchCheckInItemDto> passengers) {
+        this.mode = mode;
+        this.passengers = passengers;
+    }
+    
+    // Getters and setters
+    public Mode getMode() {
+        return mode;
+    }
+    
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+    
+    public List<BatchCheckInItemDto> getPassengers() {
+        return passengers;
+    }
+    
+    public void setPassengers(List<BatchCheckInItemDto> passengers) {
+        this.passengers = passengers;
+    }
+}
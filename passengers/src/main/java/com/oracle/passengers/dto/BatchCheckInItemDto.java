@@ -0,0 +1,38 @@
+package com.oracle.passengers.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for one passenger of a batch check-in
+ */
+public class BatchCheckInItemDto extends CheckInDto {
+    
+    @NotNull(message = "Passenger ID is required")
+    private Long passengerId;
+    
+    // Default constructor
+    public BatchCheckInItemDto() {}
+    
+    // Constructor with passenger ID and seat
+    public BatchCheckInItemDto(Long passengerId, String seat) {
+        super(seat);
+        this.passengerId = passengerId;
+    }
+    
+    // Getters and setters
+    public Long getPassengerId() {
+        return passengerId;
+    }
+    
+    public void setPassengerId(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+    
+    @Override
+    public String toString() {
+        return "BatchCheckInItemDto{" +
+                "passengerId=" + passengerId +
+                ", " + super.toString() +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+package com.oracle.passengers.dto;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a batch check-in, with one outcome per requested passenger in request order
+ */
+public class BatchCheckInResultDto {
+    
+    /**
+     * Outcome of one passenger of a batch check-in
+     */
+    public enum Status {
+        CHECKED_IN,
+        NOT_FOUND,
+        ALREADY_CHECKED_IN,
+        SEAT_NOT_AVAILABLE,
+        DUPLICATE,
+        /** Could have been checked in, but the all-or-nothing batch was rejected */
+        NOT_APPLIED
+    }
+    
+    private BatchCheckInDto.Mode mode;
+    private boolean applied;
+    private int checkedIn;
+    private int failed;
+    private List<Outcome> outcomes;
+    
+    public BatchCheckInResultDto() {}
+    
+    public BatchCheckInResultDto(BatchCheckInDto.Mode mode, boolean applied, List<Outcome> outcomes) {
+        this.mode = mode;
+        this.applied = applied;
+        this.outcomes = outcomes;
+        this.checkedIn = (int) outcomes.stream().filter(o -> o.getStatus() == Status.CHECKED_IN).count();
+        this.failed = (int) outcomes.stream()
+                .filter(o -> o.getStatus() != Status.CHECKED_IN && o.getStatus() != Status.NOT_APPLIED).count();
+    }
+    
+    // Getters and setters
+    public BatchCheckInDto.Mode getMode() {
+        return mode;
+    }
+    
+    public void setMode(BatchCheckInDto.Mode mode) {
+        this.mode = mode;
+    }
+    
+    public boolean isApplied() {
+        return applied;
+    }
+    
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+    
+    public int getCheckedIn() {
+        return checkedIn;
+    }
+    
+    public void setCheckedIn(int checkedIn) {
+        this.checkedIn = checkedIn;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+    
+    public void setOutcomes(List<Outcome> outcomes) {
+        this.outcomes = outcomes;
+    }
+    
+    /**
+     * Outcome for a single passenger; passenger is only set when the passenger was checked in
+     */
+    public static class Outcome {
+        private Long passengerId;
+        private Status status;
+        private String message;
+        private PassengerDto passenger;
+        
+        public Outcome() {}
+        
+        public Outcome(Long passengerId, Status status, String message, PassengerDto passenger) {
+            this.passengerId = passengerId;
+            this.status = status;
+            this.message = message;
+            this.passenger = passenger;
+        }
+        
+        public Long getPassengerId() {
+            return passengerId;
+        }
+        
+        public void setPassengerId(Long passengerId) {
+            this.passengerId = passengerId;
+        }
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+        
+        public PassengerDto getPassenger() {
+            return passenger;
+        }
+        
+        public void setPassenger(PassengerDto passenger) {
+            this.passenger = passenger;
+        }
+    }
+}
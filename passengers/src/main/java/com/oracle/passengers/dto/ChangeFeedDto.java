@@ -0,0 +1,47 @@
+package com.oracle.passengers.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a change feed.
+ * Pass nextSince back as the since parameter to continue after the last change.
+ */
+public class ChangeFeedDto<T> {
+
+    private List<T> changes;
+    private String nextSince;
+    private boolean hasMore;
+
+    public ChangeFeedDto() {}
+
+    public ChangeFeedDto(List<T> changes, String nextSince, boolean hasMore) {
+        this.changes = changes;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and setters
+    public List<T> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<T> changes) {
+        this.changes = changes;
+    }
+
+    public String getNextSince() {
+        return nextSince;
+    }
+
+    public void setNextSince(String nextSince) {
+        this.nextSince = nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
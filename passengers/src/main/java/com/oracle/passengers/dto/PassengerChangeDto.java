@@ -0,0 +1,72 @@
+package com.oracle.passengers.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.oracle.passengers.entity.PassengerTombstone;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a single entry of the passenger change feed: either the current state
+ * of a created or updated passenger, or a tombstone for a deleted one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PassengerChangeDto {
+
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    private String type;
+    private Long passengerId;
+    private LocalDateTime changedAt;
+    private PassengerDto passenger;
+
+    public PassengerChangeDto() {}
+
+    public PassengerChangeDto(String type, Long passengerId, LocalDateTime changedAt, PassengerDto passenger) {
+        this.type = type;
+        this.passengerId = passengerId;
+        this.changedAt = changedAt;
+        this.passenger = passenger;
+    }
+
+    public static PassengerChangeDto upsert(PassengerDto passenger) {
+        return new PassengerChangeDto(UPSERT, passenger.getPassengerId(), passenger.getUpdatedAt(), passenger);
+    }
+
+    public static PassengerChangeDto delete(PassengerTombstone tombstone) {
+        return new PassengerChangeDto(DELETE, tombstone.getPassengerId(), tombstone.getDeletedAt(), null);
+    }
+
+    // Getters and setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public void setPassengerId(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public PassengerDto getPassenger() {
+        return passenger;
+    }
+
+    public void setPassenger(PassengerDto passenger) {
+        this.passenger = passenger;
+    }
+}
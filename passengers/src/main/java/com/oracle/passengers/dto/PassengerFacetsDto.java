@@ -0,0 +1,65 @@
+package com.oracle.passengers.dto;
+
+/**
+ * DTO for the passenger counts behind the tabs of a flight's passenger list
+ */
+public class PassengerFacetsDto {
+    
+    private long total;
+    private long checkedIn;
+    private long notCheckedIn;
+    private long specialNeeds;
+    private long missingInfo;
+    
+    public PassengerFacetsDto() {}
+    
+    // Used by the aggregate query; the sums are null for a flight without passengers
+    public PassengerFacetsDto(Long total, Long checkedIn, Long specialNeeds, Long missingInfo) {
+        this.total = total == null ? 0 : total;
+        this.checkedIn = checkedIn == null ? 0 : checkedIn;
+        this.notCheckedIn = this.total - this.checkedIn;
+        this.specialNeeds = specialNeeds == null ? 0 : specialNeeds;
+        this.missingInfo = missingInfo == null ? 0 : missingInfo;
+    }
+    
+    // Getters and setters
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public long getCheckedIn() {
+        return checkedIn;
+    }
+    
+    public void setCheckedIn(long checkedIn) {
+        this.checkedIn = checkedIn;
+    }
+    
+    public long getNotCheckedIn() {
+        return notCheckedIn;
+    }
+    
+    public void setNotCheckedIn(long notCheckedIn) {
+        this.notCheckedIn = notCheckedIn;
+    }
+    
+    public long getSpecialNeeds() {
+        return specialNeeds;
+    }
+    
+    public void setSpecialNeeds(long specialNeeds) {
+        this.specialNeeds = specialNeeds;
+    }
+    
+    public long getMissingInfo() {
+        return missingInfo;
+    }
+    
+    public void setMissingInfo(long missingInfo) {
+        this.missingInfo = missingInfo;
+    }
+}
@@ -0,0 +1,96 @@
+package com.oracle.passengers.dto;
+
+import java.util.List;
+
+/**
+ * DTO for the filters of a flight's passenger list; unset filters match every passenger
+ */
+public class PassengerFilterDto {
+    
+    private Boolean checkedIn;
+    
+    // Wheelchair or infant
+    private Boolean specialNeeds;
+    
+    // Passport number, address or date of birth missing
+    private Boolean missingInfo;
+    
+    private Boolean hasSeat;
+    
+    private String mealType;
+    
+    // Every listed service must be booked
+    private List<String> services;
+    
+    // Default constructor
+    public PassengerFilterDto() {}
+    
+    /**
+     * @return true if no filter is set
+     */
+    public boolean isEmpty() {
+        return checkedIn == null && specialNeeds == null && missingInfo == null && hasSeat == null
+                && (mealType == null || mealType.isBlank()) && (services == null || services.isEmpty());
+    }
+    
+    // Getters and setters
+    public Boolean getCheckedIn() {
+        return checkedIn;
+    }
+    
+    public void setCheckedIn(Boolean checkedIn) {
+        this.checkedIn = checkedIn;
+    }
+    
+    public Boolean getSpecialNeeds() {
+        return specialNeeds;
+    }
+    
+    public void setSpecialNeeds(Boolean specialNeeds) {
+        this.specialNeeds = specialNeeds;
+    }
+    
+    public Boolean getMissingInfo() {
+        return missingInfo;
+    }
+    
+    public void setMissingInfo(Boolean missingInfo) {
+        this.missingInfo = missingInfo;
+    }
+    
+    public Boolean getHasSeat() {
+        return hasSeat;
+    }
+    
+    public void setHasSeat(Boolean hasSeat) {
+        this.hasSeat = hasSeat;
+    }
+    
+    public String getMealType() {
+        return mealType;
+    }
+    
+    public void setMealType(String mealType) {
+        this.mealType = mealType;
+    }
+    
+    public List<String> getServices() {
+        return services;
+    }
+    
+    public void setServices(List<String> services) {
+        this.services = services;
+    }
+    
+    @Override
+    public String toString() {
+        return "PassengerFilterDto{" +
+                "checkedIn=" + checkedIn +
+                ", specialNeeds=" + specialNeeds +
+                ", missingInfo=" + missingInfo +
+                ", hasSeat=" + hasSeat +
+                ", mealType='" + mealType + '\'' +
+                ", services=" + services +
+                '}';
+    }
+}
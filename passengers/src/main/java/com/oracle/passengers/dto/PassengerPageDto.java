@@ -0,0 +1,80 @@
+package com.oracle.passengers.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a flight's passenger list, optionally with the flight's facet counts
+ */
+public class PassengerPageDto {
+    
+    private List<PassengerDto> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private PassengerFacetsDto facets;
+    
+    public PassengerPageDto() {}
+    
+    public PassengerPageDto(List<PassengerDto> content, int page, int size, long totalElements, int totalPages,
+                            PassengerFacetsDto facets) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+        this.facets = facets;
+    }
+    
+    // Getters and setters
+    public List<PassengerDto> getContent() {
+        return content;
+    }
+    
+    public void setContent(List<PassengerDto> content) {
+        this.content = content;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public long getTotalElements() {
+        return totalElements;
+    }
+    
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+    
+    public int getTotalPages() {
+        return totalPages;
+    }
+    
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+    
+    /**
+     * @return counts over all of the flight's passengers (ignoring the filters), or null if not requested
+     */
+    public PassengerFacetsDto getFacets() {
+        return facets;
+    }
+    
+    public void setFacets(PassengerFacetsDto facets) {
+        this.facets = facets;
+    }
+}
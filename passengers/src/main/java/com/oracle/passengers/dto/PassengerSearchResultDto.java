@@ -0,0 +1,140 @@
+package com.oracle.passengers.dto;
+
+import java.util.List;
+
+/**
+ * DTO for one page of ranked passenger search results
+ */
+public class PassengerSearchResultDto {
+    
+    private int page;
+    private int size;
+    private int total;
+    private boolean truncated;
+    private List<Hit> hits;
+    
+    public PassengerSearchResultDto() {}
+    
+    public PassengerSearchResultDto(int page, int size, int total, boolean truncated, List<Hit> hits) {
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.truncated = truncated;
+        this.hits = hits;
+    }
+    
+    // Getters and setters
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    /**
+     * @return true if a very common search term matched more passengers than were ranked, so total is a lower bound
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+    
+    public List<Hit> getHits() {
+        return hits;
+    }
+    
+    public void setHits(List<Hit> hits) {
+        this.hits = hits;
+    }
+    
+    /**
+     * A matching passenger and its relevance score (higher is better)
+     */
+    public static class Hit {
+        private Long passengerId;
+        private Long flightId;
+        private String name;
+        private String passportNumber;
+        private String phoneNumber;
+        private double score;
+        
+        public Hit() {}
+        
+        public Hit(Long passengerId, Long flightId, String name, String passportNumber, String phoneNumber, double score) {
+            this.passengerId = passengerId;
+            this.flightId = flightId;
+            this.name = name;
+            this.passportNumber = passportNumber;
+            this.phoneNumber = phoneNumber;
+            this.score = score;
+        }
+        
+        public Long getPassengerId() {
+            return passengerId;
+        }
+        
+        public void setPassengerId(Long passengerId) {
+            this.passengerId = passengerId;
+        }
+        
+        public Long getFlightId() {
+            return flightId;
+        }
+        
+        public void setFlightId(Long flightId) {
+            this.flightId = flightId;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public void setName(String name) {
+            this.name = name;
+        }
+        
+        public String getPassportNumber() {
+            return passportNumber;
+        }
+        
+        public void setPassportNumber(String passportNumber) {
+            this.passportNumber = passportNumber;
+        }
+        
+        public String getPhoneNumber() {
+            return phoneNumber;
+        }
+        
+        public void setPhoneNumber(String phoneNumber) {
+            this.phoneNumber = phoneNumber;
+        }
+        
+        public double getScore() {
+            return score;
+        }
+        
+        public void setScore(double score) {
+            this.score = score;
+        }
+    }
+}
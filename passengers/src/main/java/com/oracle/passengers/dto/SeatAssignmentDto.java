@@ -16,6 +16,10 @@ public class SeatAssignmentDto {
     @Size(max = 10, message = "Seat must not exceed 10 characters")
     private String seat;
     
+    // Seat hold placed through the flights service that covers the seat, if any
+    @Size(max = 36, message = "Hold ID must not exceed 36 characters")
+    private String holdId;
+    
     // Default constructor
     public SeatAssignmentDto() {}
     
@@ -42,11 +46,20 @@ public class SeatAssignmentDto {
         this.seat = seat;
     }
     
+    public String getHoldId() {
+        return holdId;
+    }
+    
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+    
     @Override
     public String toString() {
         return "SeatAssignmentDto{" +
                 "passengerId=" + passengerId +
                 ", seat='" + seat + '\'' +
+                ", holdId='" + holdId + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,74 @@
+package com.oracle.passengers.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Minimal, read-only Flight entity used to select passenger manifests by
+ * flight date or route. Flights are owned by the flights service.
+ */
+@Entity
+@Immutable
+@Table(name = "flights")
+public class Flight {
+
+    @Id
+    @Column(name = "flight_id")
+    private Long flightId;
+
+    @Column(name = "flight_name", nullable = false, length = 50)
+    private String flightName;
+
+    @Column(name = "flight_date", nullable = false)
+    private LocalDate flightDate;
+
+    @Column(name = "route", nullable = false, length = 20)
+    private String route;
+
+    @Column(name = "departure_time", nullable = false, length = 20)
+    private String departureTime;
+
+    // Constructors
+    public Flight() {}
+
+    public Flight(Long flightId, String flightName, LocalDate flightDate, String route, String departureTime) {
+        this.flightId = flightId;
+        this.flightName = flightName;
+        this.flightDate = flightDate;
+        this.route = route;
+        this.departureTime = departureTime;
+    }
+
+    // Getters
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getFlightName() {
+        return flightName;
+    }
+
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getDepartureTime() {
+        return departureTime;
+    }
+
+    @Override
+    public String toString() {
+        return "Flight{" +
+                "flightId=" + flightId +
+                ", flightName='" + flightName + '\'' +
+                ", flightDate=" + flightDate +
+                ", route='" + route + '\'' +
+                '}';
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -15,14 +16,24 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 /**
- * Passenger entity representing the passengers table
+ * Passenger entity representing the passengers table.
+ *
+ * Updated dynamically: an UPDATE lists only the columns that changed, so editing a
+ * phone number does not rewrite the services and shopping items CLOBs. Every update
+ * also bumps the version, which the service management service checks too, so
+ * neither service overwrites a change the other made since it read the passenger.
  */
 @Entity
+@DynamicUpdate
 @Table(name = "passengers")
 public class Passenger {
     
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts: one
+    // sequence call hands out 50 IDs, and rows need not be inserted one by one
+    // to learn their keys
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "passengers_seq")
+    @SequenceGenerator(name = "passengers_seq", sequenceName = "passengers_seq", allocationSize = 50)
     @Column(name = "passenger_id")
     private Long passengerId;
     
@@ -101,6 +112,10 @@ public class Passenger {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // Transient fields for JSON conversion
     @Transient
     private static final ObjectMapper objectMapper = new ObjectMapper();
@@ -276,6 +291,14 @@ public class Passenger {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 
     // JSON conversion methods for services
     public List<String> getServices() {
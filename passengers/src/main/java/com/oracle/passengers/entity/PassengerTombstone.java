@@ -0,0 +1,53 @@
+package com.oracle.passengers.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted passenger, kept so change feed clients learn about deletes
+ */
+@Entity
+@Table(name = "passenger_tombstones")
+public class PassengerTombstone {
+
+    @Id
+    @Column(name = "passenger_id")
+    private Long passengerId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public PassengerTombstone() {}
+
+    public PassengerTombstone(Long passengerId, LocalDateTime deletedAt) {
+        this.passengerId = passengerId;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and setters
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public void setPassengerId(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PassengerTombstone{" +
+                "passengerId=" + passengerId +
+                ", deletedAt=" + deletedAt +
+                '}';
+    }
+}
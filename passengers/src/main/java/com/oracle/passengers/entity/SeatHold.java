@@ -0,0 +1,99 @@
+package com.oracle.passengers.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Seat hold placed through the flights service (seat_holds journal). This service
+ * treats held seats as taken and, when a held seat is assigned, takes it out of
+ * the hold; the rest of the hold's lifecycle belongs to the flights service.
+ */
+@Entity
+@Table(name = "seat_holds")
+public class SeatHold {
+
+    @Id
+    @Column(name = "hold_id", length = 36)
+    private String holdId;
+
+    @Column(name = "flight_id", nullable = false)
+    private Long flightId;
+
+    // Comma-separated seat numbers, e.g. "12,13,14"
+    @Column(name = "seats", nullable = false, length = 400)
+    private String seats;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Bumped when a seat is taken out of the hold, so the flights service's seat version changes
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public SeatHold() {}
+
+    public SeatHold(String holdId, Long flightId, String seats, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.flightId = flightId;
+        this.seats = seats;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return the held seats
+     */
+    public List<String> getSeatList() {
+        if (seats == null || seats.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(seats.split(",")).map(String::trim).filter(seat -> !seat.isEmpty()).toList();
+    }
+
+    /**
+     * Take a seat out of the hold
+     * @param seat the seat
+     * @return true if no seats are left
+     */
+    public boolean removeSeat(String seat) {
+        List<String> remaining = new ArrayList<>(getSeatList());
+        remaining.remove(seat);
+        seats = String.join(",", remaining);
+        return remaining.isEmpty();
+    }
+
+    /**
+     * @param now the current time
+     * @return true if the hold has not expired yet
+     */
+    public boolean isActive(LocalDateTime now) {
+        return expiresAt != null && expiresAt.isAfter(now);
+    }
+
+    // Getters
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getSeats() {
+        return seats;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,105 @@
+package com.oracle.passengers.repository;
+
+import com.oracle.passengers.entity.FlightOpsCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes the striped per-flight operations counters.
+ *
+ * Counters are changed with an in-place UPDATE that adds a delta, never by reading
+ * and writing back a value, so writers only ever lock the one stripe row they add
+ * to and the result does not depend on what they read.
+ */
+@Repository
+public class FlightOpsCounterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Add a delta to one stripe of a counter
+     * @param flightId the flight ID
+     * @param counterName the counter name
+     * @param stripe the stripe
+     * @param delta the amount to add (may be negative)
+     * @return 1 if the stripe exists, 0 if it has to be created first
+     */
+    public int addToStripe(Long flightId, String counterName, int stripe, long delta) {
+        return entityManager.createQuery("UPDATE FlightOpsCounter c " +
+                        "SET c.counterValue = c.counterValue + :delta, c.updatedAt = :now " +
+                        "WHERE c.flightId = :flightId AND c.counterName = :counterName AND c.stripe = :stripe")
+                .setParameter("delta", delta)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("flightId", flightId)
+                .setParameter("counterName", counterName)
+                .setParameter("stripe", stripe)
+                .executeUpdate();
+    }
+
+    /**
+     * Insert the missing stripes of a counter, empty; fails with a constraint violation
+     * if a concurrent writer inserts one of them first
+     * @param flightId the flight ID
+     * @param counterName the counter name
+     * @param stripes the number of stripes every counter has
+     */
+    public void createStripes(Long flightId, String counterName, int stripes) {
+        Set<Integer> existing = new HashSet<>(entityManager.createQuery("SELECT c.stripe FROM FlightOpsCounter c " +
+                        "WHERE c.flightId = :flightId AND c.counterName = :counterName", Integer.class)
+                .setParameter("flightId", flightId)
+                .setParameter("counterName", counterName)
+                .getResultList());
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (!existing.contains(stripe)) {
+                entityManager.persist(new FlightOpsCounter(flightId, counterName, stripe, 0L));
+            }
+        }
+        entityManager.flush();
+    }
+
+    /**
+     * Count the stripes of each of a flight's counters
+     * @param flightId the flight ID
+     * @return number of stripes by counter name
+     */
+    public Map<String, Long> countStripes(Long flightId) {
+        Map<String, Long> stripes = new TreeMap<>();
+        entityManager.createQuery("SELECT c.counterName, COUNT(c) FROM FlightOpsCounter c " +
+                        "WHERE c.flightId = :flightId GROUP BY c.counterName", Object[].class)
+                .setParameter("flightId", flightId)
+                .getResultList()
+                .forEach(row -> stripes.put((String) row[0], ((Number) row[1]).longValue()));
+        return stripes;
+    }
+
+    /**
+     * Lock every stripe of a flight's counters, in primary key order
+     * @param flightId the flight ID
+     * @return the locked stripes
+     */
+    public List<FlightOpsCounter> lockByFlightId(Long flightId) {
+        return entityManager.createQuery("SELECT c FROM FlightOpsCounter c WHERE c.flightId = :flightId " +
+                        "ORDER BY c.counterName, c.stripe", FlightOpsCounter.class)
+                .setParameter("flightId", flightId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    /**
+     * @return the IDs of every flight, in order
+     */
+    public List<Long> findAllFlightIds() {
+        return entityManager.createQuery("SELECT f.flightId FROM Flight f ORDER BY f.flightId", Long.class)
+                .getResultList();
+    }
+}
@@ -0,0 +1,161 @@
+package com.oracle.passengers.repository;
+
+import java.time.LocalDate;
+
+/**
+ * One line of a passenger manifest: the passenger's scalar columns plus the
+ * flight they are booked on. The services and shopping items CLOBs are only
+ * loaded when the export asks for them and are null otherwise.
+ */
+public class ManifestRow {
+
+    private final Long passengerId;
+    private final Long flightId;
+    private final String flightName;
+    private final LocalDate flightDate;
+    private final String route;
+    private final String departureTime;
+    private final String name;
+    private final String seat;
+    private final String checkedIn;
+    private final String wheelchair;
+    private final String infant;
+    private final String passportNumber;
+    private final String phoneNumber;
+    private final String address;
+    private final LocalDate dateOfBirth;
+    private final String origin;
+    private final String destination;
+    private final String mealType;
+    private final String mealName;
+    private final Integer extraBaggage;
+    private final String servicesJson;
+    private final String shoppingItemsJson;
+
+    public ManifestRow(Long passengerId, Long flightId, String flightName, LocalDate flightDate, String route,
+                       String departureTime, String name, String seat, String checkedIn, String wheelchair,
+                       String infant, String passportNumber, String phoneNumber, String address,
+                       LocalDate dateOfBirth, String origin, String destination, String mealType,
+                       String mealName, Integer extraBaggage) {
+        this(passengerId, flightId, flightName, flightDate, route, departureTime, name, seat, checkedIn,
+                wheelchair, infant, passportNumber, phoneNumber, address, dateOfBirth, origin, destination,
+                mealType, mealName, extraBaggage, null, null);
+    }
+
+    public ManifestRow(Long passengerId, Long flightId, String flightName, LocalDate flightDate, String route,
+                       String departureTime, String name, String seat, String checkedIn, String wheelchair,
+                       String infant, String passportNumber, String phoneNumber, String address,
+                       LocalDate dateOfBirth, String origin, String destination, String mealType,
+                       String mealName, Integer extraBaggage, String servicesJson, String shoppingItemsJson) {
+        this.passengerId = passengerId;
+        this.flightId = flightId;
+        this.flightName = flightName;
+        this.flightDate = flightDate;
+        this.route = route;
+        this.departureTime = departureTime;
+        this.name = name;
+        this.seat = seat;
+        this.checkedIn = checkedIn;
+        this.wheelchair = wheelchair;
+        this.infant = infant;
+        this.passportNumber = passportNumber;
+        this.phoneNumber = phoneNumber;
+        this.address = address;
+        this.dateOfBirth = dateOfBirth;
+        this.origin = origin;
+        this.destination = destination;
+        this.mealType = mealType;
+        this.mealName = mealName;
+        this.extraBaggage = extraBaggage;
+        this.servicesJson = servicesJson;
+        this.shoppingItemsJson = shoppingItemsJson;
+    }
+
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getFlightName() {
+        return flightName;
+    }
+
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getDepartureTime() {
+        return departureTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSeat() {
+        return seat;
+    }
+
+    public boolean isCheckedIn() {
+        return "Y".equals(checkedIn);
+    }
+
+    public boolean needsWheelchair() {
+        return "Y".equals(wheelchair);
+    }
+
+    public boolean hasInfant() {
+        return "Y".equals(infant);
+    }
+
+    public String getPassportNumber() {
+        return passportNumber;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public String getMealType() {
+        return mealType;
+    }
+
+    public String getMealName() {
+        return mealName;
+    }
+
+    public Integer getExtraBaggage() {
+        return extraBaggage;
+    }
+
+    public String getServicesJson() {
+        return servicesJson;
+    }
+
+    public String getShoppingItemsJson() {
+        return shoppingItemsJson;
+    }
+}
@@ -0,0 +1,75 @@
+package com.oracle.passengers.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Forward-only reader for passenger manifest exports.
+ *
+ * Rows are selected as ManifestRow constructor results rather than entities, so
+ * nothing is added to the persistence context and memory stays flat however many
+ * passengers a day has. The JDBC fetch size controls how many rows each database
+ * round trip brings back. The services and shopping items CLOBs are only selected
+ * when asked for; each CLOB otherwise costs an extra LOB read per row on Oracle.
+ */
+@Repository
+public class PassengerManifestRepository {
+
+    private static final String SCALAR_COLUMNS = "p.passengerId, p.flightId, f.flightName, f.flightDate, f.route, " +
+            "f.departureTime, p.name, p.seat, p.checkedIn, p.wheelchair, p.infant, p.passportNumber, " +
+            "p.phoneNumber, p.address, p.dateOfBirth, p.origin, p.destination, p.mealType, p.mealName, " +
+            "p.extraBaggage";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.manifest.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * Stream the manifest rows of the passengers matching every given criterion,
+     * ordered by flight date, flight and passenger name
+     * @param flightId the flight ID (optional)
+     * @param flightDate the flight date (optional)
+     * @param route the route code (optional)
+     * @param includeJson whether to load the services and shopping items JSON
+     * @return the rows; must be consumed inside a transaction and closed
+     */
+    public Stream<ManifestRow> streamManifest(Long flightId, LocalDate flightDate, String route, boolean includeJson) {
+        StringBuilder jpql = new StringBuilder("SELECT new com.oracle.passengers.repository.ManifestRow(")
+                .append(SCALAR_COLUMNS)
+                .append(includeJson ? ", p.servicesJson, p.shoppingItemsJson" : "")
+                .append(") FROM Passenger p JOIN Flight f ON f.flightId = p.flightId WHERE 1 = 1");
+        if (flightId != null) {
+            jpql.append(" AND p.flightId = :flightId");
+        }
+        if (flightDate != null) {
+            jpql.append(" AND f.flightDate = :flightDate");
+        }
+        if (route != null) {
+            jpql.append(" AND f.route = :route");
+        }
+        jpql.append(" ORDER BY f.flightDate, f.flightId, p.name, p.passengerId");
+
+        TypedQuery<ManifestRow> query = entityManager.createQuery(jpql.toString(), ManifestRow.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (flightId != null) {
+            query.setParameter("flightId", flightId);
+        }
+        if (flightDate != null) {
+            query.setParameter("flightDate", flightDate);
+        }
+        if (route != null) {
+            query.setParameter("route", route);
+        }
+        return query.getResultStream();
+    }
+}
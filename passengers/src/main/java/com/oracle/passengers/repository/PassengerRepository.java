@@ -1,19 +1,28 @@
 package com.oracle.passengers.repository;
 
+import com.oracle.passengers.dto.PassengerFacetsDto;
 import com.oracle.passengers.entity.Passenger;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Passenger entity
  */
 @Repository
-public interface PassengerRepository extends JpaRepository<Passenger, Long> {
+public interface PassengerRepository extends JpaRepository<Passenger, Long>, JpaSpecificationExecutor<Passenger> {
     
     /**
      * Find passengers by flight ID
@@ -103,6 +112,17 @@ public interface PassengerRepository extends JpaRepository<Passenger, Long> {
     @Query("SELECT CASE WHEN COUNT(p) = 0 THEN true ELSE false END FROM Passenger p WHERE p.flightId = :flightId AND p.seat = :seat")
     boolean isSeatAvailable(@Param("flightId") Long flightId, @Param("seat") String seat);
     
+    /**
+     * Find occupied seats among a set of flights and seat numbers
+     * @param flightIds the flight IDs
+     * @param seats the seat numbers
+     * @return every (flight, seat) pair of the cross product that is taken
+     */
+    @Query("SELECT p.flightId AS flightId, p.seat AS seat FROM Passenger p " +
+           "WHERE p.flightId IN :flightIds AND p.seat IN :seats")
+    List<TakenSeatView> findTakenSeats(@Param("flightIds") Collection<Long> flightIds,
+                                       @Param("seats") Collection<String> seats);
+    
     /**
      * Count passengers for a specific flight
      * @param flightId the flight ID
@@ -142,4 +162,77 @@ public interface PassengerRepository extends JpaRepository<Passenger, Long> {
            "p.address IS NULL OR p.address = '' OR " +
            "p.dateOfBirth IS NULL)")
     List<Passenger> findPassengersWithMissingInfoByFlightId(@Param("flightId") Long flightId);
+    
+    /**
+     * Count a flight's passengers per dashboard tab in one aggregate query
+     * @param flightId the flight ID
+     * @return total, checked-in, special needs and missing information counts
+     */
+    @Query("SELECT new com.oracle.passengers.dto.PassengerFacetsDto(COUNT(p), " +
+           "SUM(CASE WHEN p.checkedIn = 'Y' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.wheelchair = 'Y' OR p.infant = 'Y' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.passportNumber IS NULL OR LENGTH(p.passportNumber) = 0 " +
+           "OR p.address IS NULL OR LENGTH(p.address) = 0 OR p.dateOfBirth IS NULL THEN 1 ELSE 0 END)) " +
+           "FROM Passenger p WHERE p.flightId = :flightId")
+    PassengerFacetsDto findFacetsByFlightId(@Param("flightId") Long flightId);
+    
+    /**
+     * Stream the searchable fields of every passenger, for building the search index
+     * @return the passengers' search views; must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.passengerId AS passengerId, p.flightId AS flightId, p.name AS name, " +
+           "p.passportNumber AS passportNumber, p.phoneNumber AS phoneNumber FROM Passenger p")
+    Stream<PassengerSearchView> streamAllSearchViews();
+    
+    /**
+     * Load the version fingerprint of all passengers
+     * @return count, summed row versions and newest update time
+     */
+    @Query("SELECT new com.oracle.passengers.repository.ResourceVersion(COUNT(p), SUM(p.version), MAX(p.updatedAt)) " +
+           "FROM Passenger p")
+    ResourceVersion findVersion();
+    
+    /**
+     * Load the version fingerprint of a single passenger
+     * @param passengerId the passenger ID
+     * @return count (0 if the passenger does not exist), row version and update time
+     */
+    @Query("SELECT new com.oracle.passengers.repository.ResourceVersion(COUNT(p), SUM(p.version), MAX(p.updatedAt)) " +
+           "FROM Passenger p WHERE p.passengerId = :passengerId")
+    ResourceVersion findVersionById(@Param("passengerId") Long passengerId);
+    
+    /**
+     * Load the version fingerprint of the passengers on a flight
+     * @param flightId the flight ID
+     * @return count, summed row versions and newest update time
+     */
+    @Query("SELECT new com.oracle.passengers.repository.ResourceVersion(COUNT(p), SUM(p.version), MAX(p.updatedAt)) " +
+           "FROM Passenger p WHERE p.flightId = :flightId")
+    ResourceVersion findVersionByFlightId(@Param("flightId") Long flightId);
+    
+    /**
+     * Load the version fingerprint of the passengers matching a name search
+     * @param name the name to search for
+     * @return count, summed row versions and newest update time
+     */
+    @Query("SELECT new com.oracle.passengers.repository.ResourceVersion(COUNT(p), SUM(p.version), MAX(p.updatedAt)) " +
+           "FROM Passenger p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    ResourceVersion findVersionByNameContainingIgnoreCase(@Param("name") String name);
+    
+    /**
+     * Find passengers changed after a (updatedAt, passengerId) keyset position
+     * @param since update time of the last change already seen
+     * @param afterId passenger ID of the last change already seen at that time
+     * @param until newest update time to include
+     * @param page page size (offset must be 0)
+     * @return passengers ordered by update time, then passenger ID
+     */
+    @Query("SELECT p FROM Passenger p WHERE (p.updatedAt > :since " +
+           "OR (p.updatedAt = :since AND p.passengerId > :afterId)) AND p.updatedAt <= :until " +
+           "ORDER BY p.updatedAt, p.passengerId")
+    List<Passenger> findChangedAfter(@Param("since") LocalDateTime since,
+                                     @Param("afterId") Long afterId,
+                                     @Param("until") LocalDateTime until,
+                                     Pageable page);
 }
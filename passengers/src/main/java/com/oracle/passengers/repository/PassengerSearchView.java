@@ -0,0 +1,18 @@
+package com.oracle.passengers.repository;
+
+/**
+ * Narrow projection of the passengers table used to build the in-memory
+ * search index without reading the services and shopping items CLOBs
+ */
+public interface PassengerSearchView {
+
+    Long getPassengerId();
+
+    Long getFlightId();
+
+    String getName();
+
+    String getPassportNumber();
+
+    String getPhoneNumber();
+}
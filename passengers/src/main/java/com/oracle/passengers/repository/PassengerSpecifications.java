@@ -0,0 +1,132 @@
+package com.oracle.passengers.repository;
+
+import com.oracle.passengers.dto.PassengerFilterDto;
+import com.oracle.passengers.entity.Passenger;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Composable query filters for passengers.
+ *
+ * Negated filters must not evaluate to SQL UNKNOWN, so blank checks compare
+ * LENGTH() instead of comparing with '' (which Oracle treats as NULL).
+ */
+public final class PassengerSpecifications {
+    
+    private PassengerSpecifications() {}
+    
+    /**
+     * Combine every set filter of a flight's passenger list
+     * @param flightId the flight ID
+     * @param filter the filters (unset ones are ignored)
+     * @return a specification matching the flight's passengers that pass every filter
+     */
+    public static Specification<Passenger> matching(Long flightId, PassengerFilterDto filter) {
+        Specification<Passenger> spec = onFlight(flightId);
+        if (filter.getCheckedIn() != null) {
+            spec = spec.and(checkedIn(filter.getCheckedIn()));
+        }
+        if (filter.getSpecialNeeds() != null) {
+            spec = spec.and(specialNeeds(filter.getSpecialNeeds()));
+        }
+        if (filter.getMissingInfo() != null) {
+            spec = spec.and(missingInfo(filter.getMissingInfo()));
+        }
+        if (filter.getHasSeat() != null) {
+            spec = spec.and(hasSeat(filter.getHasSeat()));
+        }
+        if (filter.getMealType() != null && !filter.getMealType().isBlank()) {
+            spec = spec.and(mealType(filter.getMealType()));
+        }
+        if (filter.getServices() != null) {
+            for (String service : filter.getServices()) {
+                if (service != null && !service.isBlank()) {
+                    spec = spec.and(hasService(service));
+                }
+            }
+        }
+        return spec;
+    }
+    
+    public static Specification<Passenger> onFlight(Long flightId) {
+        return (root, query, cb) -> cb.equal(root.get("flightId"), flightId);
+    }
+    
+    public static Specification<Passenger> checkedIn(boolean checkedIn) {
+        return (root, query, cb) -> cb.equal(root.get("checkedIn"), checkedIn ? "Y" : "N");
+    }
+    
+    public static Specification<Passenger> specialNeeds(boolean specialNeeds) {
+        return (root, query, cb) -> {
+            Predicate needs = cb.or(cb.equal(root.get("wheelchair"), "Y"), cb.equal(root.get("infant"), "Y"));
+            return specialNeeds ? needs : cb.not(needs);
+        };
+    }
+    
+    public static Specification<Passenger> missingInfo(boolean missingInfo) {
+        return (root, query, cb) -> {
+            Predicate missing = cb.or(
+                    blank(cb, root.get("passportNumber")),
+                    blank(cb, root.get("address")),
+                    cb.isNull(root.get("dateOfBirth")));
+            return missingInfo ? missing : cb.not(missing);
+        };
+    }
+    
+    public static Specification<Passenger> hasSeat(boolean hasSeat) {
+        return (root, query, cb) -> {
+            Predicate blank = blank(cb, root.get("seat"));
+            return hasSeat ? cb.not(blank) : blank;
+        };
+    }
+    
+    public static Specification<Passenger> mealType(String mealType) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("mealType")), mealType.trim().toLowerCase(Locale.ROOT));
+    }
+    
+    /**
+     * Match passengers whose services JSON array contains the service.
+     * LOWER() cannot be applied to the CLOB column, so the stored capitalized
+     * form ("Meal") and the all lower and upper case forms are matched instead.
+     */
+    public static Specification<Passenger> hasService(String service) {
+        String lower = service.trim().toLowerCase(Locale.ROOT);
+        Set<String> spellings = new LinkedHashSet<>(List.of(
+                Character.toUpperCase(lower.charAt(0)) + lower.substring(1), lower, lower.toUpperCase(Locale.ROOT)));
+        return (root, query, cb) -> cb.or(spellings.stream()
+                .map(spelling -> cb.like(root.get("servicesJson"), "%\"" + escapeLike(spelling) + "\"%", '\\'))
+                .toArray(Predicate[]::new));
+    }
+    
+    /**
+     * Order the results by a property with NULLs last on every database, then by
+     * passenger ID so pages are stable. Restricts nothing and leaves count queries unordered.
+     * Used instead of a Sort because Spring Data cannot apply null precedence to Criteria queries.
+     */
+    public static Specification<Passenger> orderedBy(String property, boolean descending) {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                Expression<Object> value = root.get(property);
+                Expression<Integer> nullsLast = cb.<Integer>selectCase().when(cb.isNull(value), 1).otherwise(0);
+                query.orderBy(cb.asc(nullsLast), descending ? cb.desc(value) : cb.asc(value),
+                        cb.asc(root.get("passengerId")));
+            }
+            return null;
+        };
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private static Predicate blank(CriteriaBuilder cb, Expression<String> column) {
+        return cb.or(cb.isNull(column), cb.equal(cb.length(column), 0));
+    }
+}
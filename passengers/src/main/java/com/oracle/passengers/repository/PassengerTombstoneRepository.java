@@ -0,0 +1,34 @@
+package com.oracle.passengers.repository;
+
+import com.oracle.passengers.entity.PassengerTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for PassengerTombstone entity
+ */
+@Repository
+public interface PassengerTombstoneRepository extends JpaRepository<PassengerTombstone, Long> {
+
+    /**
+     * Find deletes after a (deletedAt, passengerId) keyset position
+     * @param since deletion time of the last delete already seen
+     * @param afterId passenger ID of the last delete already seen at that time
+     * @param until newest deletion time to include
+     * @param page page size (offset must be 0)
+     * @return deletes ordered by deletion time, then passenger ID
+     */
+    @Query("SELECT t FROM PassengerTombstone t WHERE (t.deletedAt > :since " +
+           "OR (t.deletedAt = :since AND t.passengerId > :afterId)) AND t.deletedAt <= :until " +
+           "ORDER BY t.deletedAt, t.passengerId")
+    List<PassengerTombstone> findDeletedAfter(@Param("since") LocalDateTime since,
+                                              @Param("afterId") Long afterId,
+                                              @Param("until") LocalDateTime until,
+                                              Pageable page);
+}
@@ -0,0 +1,71 @@
+package com.oracle.passengers.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Version fingerprint of a passenger or a set of passengers: the row count, the sum of
+ * the row versions and the newest update timestamp. Loaded with a single aggregate
+ * query so conditional GETs can be answered without fetching the rows themselves.
+ *
+ * Every update bumps a row version and every delete lowers the count, so the
+ * fingerprint of a set also covers every subset of it. The timestamp alone would not
+ * do: an update that commits after a newer one is already visible leaves it unchanged.
+ */
+public class ResourceVersion {
+
+    private final long count;
+    private final long changes;
+    private final LocalDateTime lastUpdated;
+
+    public ResourceVersion(Long count, LocalDateTime lastUpdated) {
+        this(count, 0L, lastUpdated);
+    }
+
+    public ResourceVersion(Long count, Long changes, LocalDateTime lastUpdated) {
+        this.count = count == null ? 0 : count;
+        this.changes = changes == null ? 0 : changes;
+        this.lastUpdated = lastUpdated;
+    }
+
+    /**
+     * @return true if no rows matched
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return strong entity tag for the matched rows
+     */
+    public String getETag() {
+        long updated = lastUpdated == null ? 0 : toEpochMilli(lastUpdated);
+        return "\"" + Long.toString(count, 36) + "-" + Long.toString(changes, 36) + "-"
+                + Long.toString(updated, 36) + "\"";
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getChanges() {
+        return changes;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    private static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceVersion{" +
+                "count=" + count +
+                ", changes=" + changes +
+                ", lastUpdated=" + lastUpdated +
+                '}';
+    }
+}
@@ -0,0 +1,28 @@
+package com.oracle.passengers.repository;
+
+import com.oracle.passengers.entity.SeatHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for seat holds placed through the flights service
+ */
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, String> {
+
+    /**
+     * Find the holds of some flights that have not expired yet
+     * @param flightIds the flight IDs
+     * @param now the current time
+     * @return the open holds
+     */
+    @Query("SELECT h FROM SeatHold h WHERE h.flightId IN :flightIds AND h.expiresAt > :now")
+    List<SeatHold> findActiveByFlightIds(@Param("flightIds") Collection<Long> flightIds,
+                                         @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,11 @@
+package com.oracle.passengers.repository;
+
+/**
+ * Projection of an occupied seat, used to check a whole batch of seat requests at once
+ */
+public interface TakenSeatView {
+
+    Long getFlightId();
+
+    String getSeat();
+}
@@ -0,0 +1,240 @@
+package com.oracle.passengers.service;
+
+import com.oracle.passengers.entity.Passenger;
+import com.oracle.passengers.repository.FlightOpsCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps the flight_ops_counters rollup in step with passenger writes.
+ *
+ * Every passenger contributes to a fixed set of counters (see {@link #contributionOf}).
+ * Writers record a passenger's contribution before and after a change; the differences
+ * are summed per transaction and added to the counters just before the transaction
+ * commits, so the rollup commits or rolls back together with the passengers. All
+ * counters of one transaction go to the same randomly chosen stripe and are updated in
+ * (flight, counter) order, which keeps concurrent check-ins on a busy flight from
+ * queueing on one row and keeps writers from deadlocking each other.
+ */
+@Component
+public class FlightOpsCounters {
+
+    public static final String PASSENGERS = "PASSENGERS";
+    public static final String CHECKED_IN = "CHECKED_IN";
+    public static final String SPECIAL_NEEDS = "SPECIAL_NEEDS";
+    public static final String WHEELCHAIR = "WHEELCHAIR";
+    public static final String INFANT = "INFANT";
+    public static final String EXTRA_BAGGAGE_KG = "EXTRA_BAGGAGE_KG";
+    public static final String SHOPPING_ORDERS = "SHOPPING_ORDERS";
+    public static final String SHOPPING_ITEMS = "SHOPPING_ITEMS";
+    public static final String MEAL_PREFIX = "MEAL:";
+    public static final String SERVICE_PREFIX = "SERVICE:";
+
+    public static final int STRIPES = 8;
+    // Width of flight_ops_counters.counter_name; longer meal types or service names are not counted
+    private static final int MAX_COUNTER_NAME_LENGTH = 60;
+
+    private final FlightOpsCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+
+    @Autowired
+    public FlightOpsCounters(FlightOpsCounterRepository counterRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The counters a passenger adds to their flight
+     * @param passenger the passenger
+     * @return the passenger's flight and counter values
+     */
+    public static Contribution contributionOf(Passenger passenger) {
+        Map<String, Long> counters = new TreeMap<>();
+        counters.put(PASSENGERS, 1L);
+        if (passenger.isCheckedIn()) {
+            counters.put(CHECKED_IN, 1L);
+        }
+        if (passenger.needsWheelchair()) {
+            counters.put(WHEELCHAIR, 1L);
+        }
+        if (passenger.hasInfant()) {
+            counters.put(INFANT, 1L);
+        }
+        if (passenger.needsWheelchair() || passenger.hasInfant()) {
+            counters.put(SPECIAL_NEEDS, 1L);
+        }
+        if (passenger.getExtraBaggage() != null && passenger.getExtraBaggage() > 0) {
+            counters.put(EXTRA_BAGGAGE_KG, passenger.getExtraBaggage().longValue());
+        }
+        // A JSON null reads back as a null list
+        List<String> shoppingItems = passenger.getShoppingItems();
+        if (shoppingItems != null && !shoppingItems.isEmpty()) {
+            counters.put(SHOPPING_ORDERS, 1L);
+            counters.put(SHOPPING_ITEMS, (long) shoppingItems.size());
+        }
+        if (passenger.getMealType() != null && !passenger.getMealType().isBlank()) {
+            putFlag(counters, MEAL_PREFIX + passenger.getMealType().trim());
+        }
+        List<String> services = passenger.getServices();
+        if (services != null) {
+            for (String service : services) {
+                if (service != null && !service.isBlank()) {
+                    putFlag(counters, SERVICE_PREFIX + service.trim());
+                }
+            }
+        }
+        return new Contribution(passenger.getFlightId(), counters);
+    }
+
+    /**
+     * Sum the contributions of a flight's passengers
+     * @param passengers the passengers
+     * @return counter values by name
+     */
+    public static Map<String, Long> totalsOf(Collection<Passenger> passengers) {
+        Map<String, Long> totals = new TreeMap<>();
+        for (Passenger passenger : passengers) {
+            contributionOf(passenger).counters.forEach((name, value) -> totals.merge(name, value, Long::sum));
+        }
+        return totals;
+    }
+
+    /**
+     * Record that a passenger's contribution changed. The difference is added to the
+     * counters when the current transaction commits, or right away when there is no
+     * transaction.
+     * @param before the contribution before the change (null for a new passenger)
+     * @param after the contribution after the change (null for a deleted passenger)
+     */
+    public void record(Contribution before, Contribution after) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Long, Map<String, Long>> deltas = new TreeMap<>();
+            addDeltas(deltas, before, after);
+            transactionTemplate.executeWithoutResult(status -> apply(deltas));
+            return;
+        }
+        addDeltas(pendingDeltas(), before, after);
+    }
+
+    /**
+     * Add to one stripe of a counter, creating the counter's stripes if it does not
+     * exist yet
+     * @param flightId the flight ID
+     * @param counterName the counter name
+     * @param stripe the stripe
+     * @param delta the amount to add
+     */
+    void add(Long flightId, String counterName, int stripe, long delta) {
+        if (counterRepository.addToStripe(flightId, counterName, stripe, delta) > 0) {
+            return;
+        }
+        createStripes(flightId, counterName);
+        if (counterRepository.addToStripe(flightId, counterName, stripe, delta) == 0) {
+            throw new IllegalStateException("Counter " + counterName + " of flight " + flightId + " could not be created");
+        }
+    }
+
+    /**
+     * Create every stripe of a counter at once, so a counter that exists never gains a
+     * stripe later. They are created in their own short transaction so that a
+     * concurrent creator does not fail the caller's transaction.
+     * @param flightId the flight ID
+     * @param counterName the counter name
+     */
+    void createStripes(Long flightId, String counterName) {
+        try {
+            newTransactionTemplate.executeWithoutResult(
+                    status -> counterRepository.createStripes(flightId, counterName, STRIPES));
+        } catch (DataIntegrityViolationException e) {
+            // Created by a concurrent writer in the meantime
+        }
+    }
+
+    private void apply(Map<Long, Map<String, Long>> deltas) {
+        int stripe = ThreadLocalRandom.current().nextInt(STRIPES);
+        deltas.forEach((flightId, counters) -> counters.forEach((counterName, delta) -> {
+            if (delta != 0) {
+                add(flightId, counterName, stripe, delta);
+            }
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Map<String, Long>> pendingDeltas() {
+        Map<Long, Map<String, Long>> pending =
+                (Map<Long, Map<String, Long>>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<Long, Map<String, Long>> deltas = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, deltas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply(deltas);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(FlightOpsCounters.this);
+            }
+        });
+        return deltas;
+    }
+
+    private static void addDeltas(Map<Long, Map<String, Long>> deltas, Contribution before, Contribution after) {
+        if (before != null) {
+            Map<String, Long> flightDeltas = deltas.computeIfAbsent(before.flightId, id -> new TreeMap<>());
+            before.counters.forEach((name, value) -> flightDeltas.merge(name, -value, Long::sum));
+        }
+        if (after != null) {
+            Map<String, Long> flightDeltas = deltas.computeIfAbsent(after.flightId, id -> new TreeMap<>());
+            after.counters.forEach((name, value) -> flightDeltas.merge(name, value, Long::sum));
+        }
+    }
+
+    private static void putFlag(Map<String, Long> counters, String counterName) {
+        if (counterName.length() <= MAX_COUNTER_NAME_LENGTH) {
+            counters.put(counterName, 1L);
+        }
+    }
+
+    /**
+     * What one passenger adds to the counters of their flight
+     */
+    public static final class Contribution {
+
+        private final Long flightId;
+        private final Map<String, Long> counters;
+
+        Contribution(Long flightId, Map<String, Long> counters) {
+            this.flightId = flightId;
+            this.counters = Collections.unmodifiableMap(counters);
+        }
+
+        public Long getFlightId() {
+            return flightId;
+        }
+
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.oracle.passengers.service;
+
+import com.oracle.passengers.entity.FlightOpsCounter;
+import com.oracle.passengers.repository.FlightOpsCounterRepository;
+import com.oracle.passengers.repository.PassengerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically recounts every flight's operations counters from its passengers and
+ * repairs any drift, e.g. from passengers changed by hand in the database or by a
+ * service that predates the counters. The first run also fills in flights that have
+ * no counters yet.
+ *
+ * Each flight is reconciled in its own transaction that first locks the flight's
+ * counter stripes: writers that already added to them have committed by the time the
+ * passengers are read, and writers that have not wait and add their delta on top of
+ * the corrected value, so no change is counted twice or lost. Counters are always
+ * created with all their stripes, and the flight's counters are completed before the
+ * lock is taken, so no writer can add to a stripe the lock missed. Counters a writer
+ * creates after that are left to the next run.
+ */
+@Component
+public class FlightOpsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightOpsReconciler.class);
+
+    private final FlightOpsCounterRepository counterRepository;
+    private final PassengerRepository passengerRepository;
+    private final FlightOpsCounters opsCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public FlightOpsReconciler(FlightOpsCounterRepository counterRepository,
+                               PassengerRepository passengerRepository,
+                               FlightOpsCounters opsCounters,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.ops-counters.reconcile-interval-seconds:300}") long intervalSeconds) {
+        this.counterRepository = counterRepository;
+        this.passengerRepository = passengerRepository;
+        this.opsCounters = opsCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * Start reconciling at the configured interval (0 disables the job)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (intervalSeconds > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "flight-ops-reconciler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::reconcileAll, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Reconcile the counters of every flight. A flight that fails is logged and
+     * skipped; the next run tries it again.
+     * @return the number of counters that had drifted
+     */
+    public int reconcileAll() {
+        long start = System.nanoTime();
+        int flights = 0;
+        int corrected = 0;
+        for (Long flightId : counterRepository.findAllFlightIds()) {
+            try {
+                corrected += reconcile(flightId);
+                flights++;
+            } catch (DataAccessException | TransactionException e) {
+                logger.warn("Operations counters of flight {} could not be reconciled: {}", flightId, e.getMessage());
+            }
+        }
+        if (corrected > 0) {
+            logger.info("Reconciled operations counters of {} flights in {} ms, {} counters corrected",
+                    flights, (System.nanoTime() - start) / 1_000_000, corrected);
+        }
+        return corrected;
+    }
+
+    /**
+     * Recount one flight's counters and add any difference to stripe 0
+     * @param flightId the flight ID
+     * @return the number of counters that had drifted
+     */
+    public int reconcile(Long flightId) {
+        Map<String, Long> stripes = counterRepository.countStripes(flightId);
+        Set<String> missing = new TreeSet<>(
+                FlightOpsCounters.totalsOf(passengerRepository.findByFlightIdOrderByName(flightId)).keySet());
+        stripes.forEach((counterName, count) -> {
+            if (count < FlightOpsCounters.STRIPES) {
+                missing.add(counterName);
+            } else {
+                missing.remove(counterName);
+            }
+        });
+        missing.forEach(counterName -> opsCounters.createStripes(flightId, counterName));
+
+        Integer corrected = transactionTemplate.execute(status -> {
+            Map<String, Long> recorded = new TreeMap<>();
+            for (FlightOpsCounter stripe : counterRepository.lockByFlightId(flightId)) {
+                recorded.merge(stripe.getCounterName(), stripe.getCounterValue(), Long::sum);
+            }
+            Map<String, Long> actual = FlightOpsCounters.totalsOf(passengerRepository.findByFlightIdOrderByName(flightId));
+
+            int drifted = 0;
+            for (String counterName : recorded.keySet()) {
+                long drift = actual.getOrDefault(counterName, 0L) - recorded.getOrDefault(counterName, 0L);
+                if (drift != 0) {
+                    opsCounters.add(flightId, counterName, 0, drift);
+                    drifted++;
+                }
+            }
+            return drifted;
+        });
+        return corrected != null ? corrected : 0;
+    }
+}
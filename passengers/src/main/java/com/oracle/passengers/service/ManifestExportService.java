@@ -0,0 +1,302 @@
+package com.oracle.passengers.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.passengers.repository.ManifestRow;
+import com.oracle.passengers.repository.PassengerManifestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service for passenger manifest exports.
+ *
+ * Manifests are read with a forward-only query stream and every row is written to
+ * the output as soon as it is fetched, so memory use does not depend on the size of
+ * the manifest. No PassengerDto list is built and no row is kept after it is written.
+ */
+@Service
+public class ManifestExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManifestExportService.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    static final List<String> COLUMNS = List.of("passengerId", "flightId", "flightName", "flightDate", "route",
+            "departureTime", "name", "seat", "checkedIn", "wheelchair", "infant", "passportNumber", "phoneNumber",
+            "address", "dateOfBirth", "origin", "destination", "mealType", "mealName", "extraBaggage");
+    static final List<String> JSON_COLUMNS = List.of("services", "shoppingItems");
+
+    /**
+     * Supported output formats
+     */
+    public enum Format {
+        CSV("csv"), NDJSON("ndjson");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Parse the format parameter of an export request
+         * @param value "csv" or "ndjson" (case-insensitive)
+         * @return the format
+         * @throws IllegalArgumentException if the value is not a supported format
+         */
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value == null ? "" : value.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Invalid format: " + value + " (expected csv or ndjson)");
+        }
+    }
+
+    /**
+     * Which passengers to export: those on one flight, on all flights of a date,
+     * on all flights of a route, or any combination of these
+     */
+    public static final class Selection {
+        private final Long flightId;
+        private final LocalDate flightDate;
+        private final String route;
+
+        private Selection(Long flightId, LocalDate flightDate, String route) {
+            this.flightId = flightId;
+            this.flightDate = flightDate;
+            this.route = route;
+        }
+
+        /**
+         * @param flightId the flight ID (optional)
+         * @param flightDate the flight date (optional)
+         * @param route the route code (optional)
+         * @return the selection
+         * @throws IllegalArgumentException if no criterion is given
+         */
+        public static Selection of(Long flightId, LocalDate flightDate, String route) {
+            String routeCode = route == null || route.isBlank() ? null : route.trim();
+            if (flightId == null && flightDate == null && routeCode == null) {
+                throw new IllegalArgumentException("flightId, date or route is required");
+            }
+            return new Selection(flightId, flightDate, routeCode);
+        }
+
+        public Long getFlightId() {
+            return flightId;
+        }
+
+        public LocalDate getFlightDate() {
+            return flightDate;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        /**
+         * @param format the output format
+         * @return a download file name such as manifest-NYC-LON-2026-05-01.csv
+         */
+        public String fileName(Format format) {
+            StringBuilder name = new StringBuilder("manifest");
+            if (flightId != null) {
+                name.append("-flight-").append(flightId);
+            }
+            if (route != null) {
+                name.append('-').append(route.replaceAll("[^A-Za-z0-9-]", "_"));
+            }
+            if (flightDate != null) {
+                name.append('-').append(flightDate);
+            }
+            return name.append('.').append(format.getExtension()).toString();
+        }
+    }
+
+    private final PassengerManifestRepository manifestRepository;
+
+    @Autowired
+    public ManifestExportService(PassengerManifestRepository manifestRepository) {
+        this.manifestRepository = manifestRepository;
+    }
+
+    /**
+     * Write the manifest of the selected passengers to a stream, ordered by flight
+     * date, flight and passenger name. The stream is flushed but not closed.
+     * @param selection the passengers to export
+     * @param format CSV (with a header row) or NDJSON (one object per line)
+     * @param includeJson whether to add the services and shopping items columns
+     * @param out the stream to write UTF-8 text to
+     * @return the number of passengers written
+     * @throws IOException if writing to the stream fails, e.g. because the client went away
+     */
+    @Transactional(readOnly = true)
+    public long exportManifest(Selection selection, Format format, boolean includeJson, OutputStream out)
+            throws IOException {
+        long rows;
+        try (Stream<ManifestRow> manifest = manifestRepository.streamManifest(
+                selection.getFlightId(), selection.getFlightDate(), selection.getRoute(), includeJson)) {
+            rows = format == Format.CSV
+                    ? writeCsv(manifest.iterator(), includeJson, out)
+                    : writeNdjson(manifest.iterator(), includeJson, out);
+        }
+        logger.debug("Exported {} manifest rows for {}", rows, selection.fileName(format));
+        return rows;
+    }
+
+    private long writeCsv(Iterator<ManifestRow> rows, boolean includeJson, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNS));
+        if (includeJson) {
+            writer.write(',');
+            writer.write(String.join(",", JSON_COLUMNS));
+        }
+        writer.write("\r\n");
+
+        long count = 0;
+        while (rows.hasNext()) {
+            ManifestRow row = rows.next();
+            writeCsvField(writer, row.getPassengerId(), false);
+            writeCsvField(writer, row.getFlightId(), true);
+            writeCsvField(writer, row.getFlightName(), true);
+            writeCsvField(writer, row.getFlightDate(), true);
+            writeCsvField(writer, row.getRoute(), true);
+            writeCsvField(writer, row.getDepartureTime(), true);
+            writeCsvField(writer, row.getName(), true);
+            writeCsvField(writer, row.getSeat(), true);
+            writeCsvField(writer, row.isCheckedIn(), true);
+            writeCsvField(writer, row.needsWheelchair(), true);
+            writeCsvField(writer, row.hasInfant(), true);
+            writeCsvField(writer, row.getPassportNumber(), true);
+            writeCsvField(writer, row.getPhoneNumber(), true);
+            writeCsvField(writer, row.getAddress(), true);
+            writeCsvField(writer, row.getDateOfBirth(), true);
+            writeCsvField(writer, row.getOrigin(), true);
+            writeCsvField(writer, row.getDestination(), true);
+            writeCsvField(writer, row.getMealType(), true);
+            writeCsvField(writer, row.getMealName(), true);
+            writeCsvField(writer, row.getExtraBaggage(), true);
+            if (includeJson) {
+                writeCsvField(writer, row.getServicesJson(), true);
+                writeCsvField(writer, row.getShoppingItemsJson(), true);
+            }
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Write one CSV field. Fields containing a comma, quote or line break are
+     * quoted and inner quotes doubled; null is written as an empty field.
+     */
+    static void writeCsvField(Writer writer, Object value, boolean separator) throws IOException {
+        if (separator) {
+            writer.write(',');
+        }
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private long writeNdjson(Iterator<ManifestRow> rows, boolean includeJson, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                ManifestRow row = rows.next();
+                generator.writeStartObject();
+                generator.writeNumberField("passengerId", row.getPassengerId());
+                generator.writeNumberField("flightId", row.getFlightId());
+                writeStringField(generator, "flightName", row.getFlightName());
+                writeStringField(generator, "flightDate", row.getFlightDate());
+                writeStringField(generator, "route", row.getRoute());
+                writeStringField(generator, "departureTime", row.getDepartureTime());
+                writeStringField(generator, "name", row.getName());
+                writeStringField(generator, "seat", row.getSeat());
+                generator.writeBooleanField("checkedIn", row.isCheckedIn());
+                generator.writeBooleanField("wheelchair", row.needsWheelchair());
+                generator.writeBooleanField("infant", row.hasInfant());
+                writeStringField(generator, "passportNumber", row.getPassportNumber());
+                writeStringField(generator, "phoneNumber", row.getPhoneNumber());
+                writeStringField(generator, "address", row.getAddress());
+                writeStringField(generator, "dateOfBirth", row.getDateOfBirth());
+                writeStringField(generator, "origin", row.getOrigin());
+                writeStringField(generator, "destination", row.getDestination());
+                writeStringField(generator, "mealType", row.getMealType());
+                writeStringField(generator, "mealName", row.getMealName());
+                if (row.getExtraBaggage() == null) {
+                    generator.writeNullField("extraBaggage");
+                } else {
+                    generator.writeNumberField("extraBaggage", row.getExtraBaggage());
+                }
+                if (includeJson) {
+                    writeJsonArrayField(generator, "services", row.getServicesJson());
+                    writeJsonArrayField(generator, "shoppingItems", row.getShoppingItemsJson());
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+            generator.flush();
+        }
+        return count;
+    }
+
+    private static void writeStringField(JsonGenerator generator, String field, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value.toString());
+        }
+    }
+
+    /**
+     * Write a stored JSON array as nested JSON. Empty or unreadable values are
+     * written as an empty array, as PassengerDto does.
+     */
+    private static void writeJsonArrayField(JsonGenerator generator, String field, String json) throws IOException {
+        generator.writeFieldName(field);
+        if (json != null && !json.isBlank()) {
+            try {
+                generator.writeTree(objectMapper.readTree(json));
+                return;
+            } catch (JsonProcessingException e) {
+                logger.warn("Skipping unreadable {} JSON in manifest export: {}", field, e.getOriginalMessage());
+            }
+        }
+        generator.writeStartArray();
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,80 @@
+package com.oracle.passengers.service;
+
+import com.oracle.passengers.dto.ChangeFeedDto;
+import com.oracle.passengers.dto.PassengerChangeDto;
+import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.repository.PassengerTombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Service for the passenger change feed.
+ *
+ * Updates and deletes are read as two keyset-paginated streams ordered by
+ * (change time, passenger ID) and merged into a single page. Changes newer than the
+ * settle window are held back so a transaction that commits late with an older
+ * timestamp is not skipped by a client that has already moved past it.
+ * Passengers removed by the cascade of a flight delete have no tombstone here;
+ * the flight feed's DELETE entry covers them.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PassengerChangeFeedService {
+
+    static final int MAX_LIMIT = 1000;
+    private static final Comparator<PassengerChangeDto> CHANGE_ORDER =
+            Comparator.comparing(PassengerChangeDto::getChangedAt).thenComparing(PassengerChangeDto::getPassengerId);
+
+    private final PassengerRepository passengerRepository;
+    private final PassengerTombstoneRepository tombstoneRepository;
+    private final long settleMillis;
+
+    @Autowired
+    public PassengerChangeFeedService(PassengerRepository passengerRepository,
+                                      PassengerTombstoneRepository tombstoneRepository,
+                                      @Value("${app.changes.settle-ms:2000}") long settleMillis) {
+        this.passengerRepository = passengerRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * Get passengers created, updated or deleted after a feed position
+     * @param since the nextSince of the previous page, an ISO timestamp, or null for everything
+     * @param limit maximum number of changes to return
+     * @return one page of changes in (change time, passenger ID) order
+     */
+    public ChangeFeedDto<PassengerChangeDto> getChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        ChangeCursor cursor = ChangeCursor.parse(since);
+        LocalDateTime until = LocalDateTime.now().minusNanos(settleMillis * 1_000_000);
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<PassengerChangeDto> changes = new ArrayList<>();
+        passengerRepository.findChangedAfter(cursor.getChangedAt(), cursor.getId(), until, page)
+                .forEach(passenger -> changes.add(PassengerChangeDto.upsert(PassengerService.convertToDto(passenger))));
+        tombstoneRepository.findDeletedAfter(cursor.getChangedAt(), cursor.getId(), until, page)
+                .forEach(tombstone -> changes.add(PassengerChangeDto.delete(tombstone)));
+        changes.sort(CHANGE_ORDER);
+
+        boolean hasMore = changes.size() > limit;
+        List<PassengerChangeDto> pageChanges = hasMore ? changes.subList(0, limit) : changes;
+        ChangeCursor next = cursor;
+        if (!pageChanges.isEmpty()) {
+            PassengerChangeDto last = pageChanges.get(pageChanges.size() - 1);
+            next = new ChangeCursor(last.getChangedAt(), last.getPassengerId());
+        }
+        return new ChangeFeedDto<>(List.copyOf(pageChanges), next.toString(), hasMore);
+    }
+}
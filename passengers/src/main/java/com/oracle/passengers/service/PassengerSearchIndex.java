@@ -0,0 +1,683 @@
+package com.oracle.passengers.service;
+
+import com.oracle.passengers.dto.PassengerSearchResultDto;
+import com.oracle.passengers.entity.Passenger;
+import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.repository.PassengerSearchView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search index backing the passenger quick search and autocomplete.
+ *
+ * Names, passport numbers and phone numbers are split into normalized terms
+ * (lower case, accents stripped). Sorted term dictionaries map every term to a
+ * sorted array of passenger IDs, so exact and prefix matches are a range scan.
+ * Name terms are also indexed by trigram: substring matches only look at the
+ * terms of the query's rarest trigram, and typo-tolerant matches (edit distance
+ * 1 or 2) only at terms sharing enough trigrams with the query. Searches within
+ * a flight score that flight's passengers directly.
+ *
+ * Posting arrays are immutable and replaced on every write, which keeps reads
+ * lock-free; writes are serialized. The index is rebuilt from the database at
+ * startup and kept current from the passenger write paths once their
+ * transaction commits. Passengers removed by a cascading flight delete stay
+ * searchable until the next rebuild.
+ */
+@Component
+public class PassengerSearchIndex {
+
+    // Very common terms (e.g., a one-letter prefix) stop collecting matches here
+    static final int MAX_CANDIDATES = 10_000;
+    // Typo-tolerant matching only runs for terms with fewer direct matches than this
+    static final int FUZZY_FALLBACK_HITS = 100;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.75;
+    private static final double SUBSTRING = 0.5;
+    private static final double FUZZY = 0.4;
+    private static final long[] NO_IDS = new long[0];
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Comparator<Scored> RANKING = Comparator.comparingDouble((Scored s) -> -s.score)
+            .thenComparing(s -> s.doc.name == null ? "" : s.doc.name)
+            .thenComparingLong(s -> s.doc.passengerId);
+
+    private static final Logger logger = LoggerFactory.getLogger(PassengerSearchIndex.class);
+
+    private final PassengerRepository passengerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private volatile Segment segment = new Builder().build();
+    private volatile boolean ready;
+
+    @Autowired
+    public PassengerSearchIndex(PassengerRepository passengerRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.passengerRepository = passengerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Build the index at startup. A failure leaves the index unready, so searches
+     * fall back to the database instead of keeping the service from starting.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        try {
+            rebuild();
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Passenger search index could not be built, searching the database instead: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Builder builder = new Builder();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<PassengerSearchView> views = passengerRepository.streamAllSearchViews()) {
+                views.forEach(view -> builder.add(new Doc(view.getPassengerId(), view.getFlightId(), view.getName(),
+                        view.getPassportNumber(), view.getPhoneNumber())));
+            }
+        });
+        segment = builder.build();
+        ready = true;
+
+        logger.info("Passenger search index built with {} passengers and {} terms in {} ms",
+                segment.docs.size(), segment.namePostings.size() + segment.keyPostings.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return true once the index has been loaded and can serve searches
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Search passengers by name, passport number or phone number.
+     * Every query term must match a term of the passenger: exactly, as a prefix,
+     * as a substring of a name, or (if fuzzy) a name within one or two typos.
+     * @param query the search text
+     * @param flightId only search the passengers of this flight (optional)
+     * @param fuzzy whether to tolerate typos in names
+     * @param page zero-based page number
+     * @param size page size
+     * @return one page of matches, best first
+     * @throws IllegalArgumentException if the query contains no letters or digits
+     */
+    public PassengerSearchResultDto search(String query, Long flightId, boolean fuzzy, int page, int size) {
+        Ranking ranking = rank(query, flightId, false, fuzzy, (long) (page + 1) * size);
+        List<Scored> ranked = ranking.hits;
+        int from = (int) Math.min((long) page * size, ranked.size());
+        int to = Math.min(from + size, ranked.size());
+
+        List<PassengerSearchResultDto.Hit> hits = new ArrayList<>(to - from);
+        for (Scored scored : ranked.subList(from, to)) {
+            Doc doc = scored.doc;
+            hits.add(new PassengerSearchResultDto.Hit(doc.passengerId, doc.flightId, doc.name,
+                    doc.passportNumber, doc.phoneNumber, scored.score));
+        }
+        return new PassengerSearchResultDto(page, size, ranking.total, ranking.truncated, hits);
+    }
+
+    /**
+     * Suggest passenger names for a search box; every term is matched as a prefix
+     * @param prefix the text typed so far
+     * @param flightId only suggest passengers of this flight (optional)
+     * @param limit maximum number of suggestions
+     * @return distinct passenger names, best first
+     * @throws IllegalArgumentException if the prefix contains no letters or digits
+     */
+    public List<String> suggest(String prefix, Long flightId, int limit) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Scored scored : rank(prefix, flightId, true, false, Long.MAX_VALUE).hits) {
+            if (scored.doc.name != null && names.add(scored.doc.name) && names.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Record a created or updated passenger once the surrounding transaction commits
+     * @param passenger the saved passenger
+     */
+    public void onPassengerSaved(Passenger passenger) {
+        Doc doc = new Doc(passenger.getPassengerId(), passenger.getFlightId(), passenger.getName(),
+                passenger.getPassportNumber(), passenger.getPhoneNumber());
+        TransactionHooks.afterCommit(() -> upsert(doc));
+    }
+
+    /**
+     * Remove a deleted passenger once the surrounding transaction commits
+     * @param passengerId the passenger ID
+     */
+    public void onPassengerDeleted(Long passengerId) {
+        TransactionHooks.afterCommit(() -> remove(passengerId));
+    }
+
+    synchronized void upsert(Doc doc) {
+        segment.remove(doc.passengerId);
+        segment.add(doc);
+    }
+
+    synchronized void remove(Long passengerId) {
+        segment.remove(passengerId);
+    }
+
+    /**
+     * Find and rank the matches of a query, keeping only the best few when a page needs no more
+     */
+    private Ranking rank(String query, Long flightId, boolean prefixOnly, boolean fuzzy, long top) {
+        List<String> queryTerms = terms(query);
+        if (queryTerms.isEmpty()) {
+            throw new IllegalArgumentException("Search text must contain letters or digits");
+        }
+        queryTerms = new ArrayList<>(new LinkedHashSet<>(queryTerms));
+        if (queryTerms.size() > MAX_QUERY_TERMS) {
+            queryTerms = queryTerms.subList(0, MAX_QUERY_TERMS);
+        }
+        Segment current = segment;
+        Ranking ranking = flightId != null
+                ? rankFlight(current, flightId, queryTerms, prefixOnly, fuzzy)
+                : rankAll(current, queryTerms, prefixOnly, fuzzy);
+        ranking.total = ranking.hits.size();
+        if (ranking.hits.size() > top) {
+            // Bounded heap whose head is the worst of the best matches seen so far
+            PriorityQueue<Scored> best = new PriorityQueue<>((int) top + 1, RANKING.reversed());
+            for (Scored scored : ranking.hits) {
+                best.add(scored);
+                if (best.size() > top) {
+                    best.poll();
+                }
+            }
+            ranking.hits.clear();
+            ranking.hits.addAll(best);
+        }
+        ranking.hits.sort(RANKING);
+        return ranking;
+    }
+
+    private static Ranking rankFlight(Segment segment, Long flightId, List<String> queryTerms,
+                                      boolean prefixOnly, boolean fuzzy) {
+        Ranking ranking = new Ranking();
+        for (long passengerId : segment.docsByFlight.getOrDefault(flightId, NO_IDS)) {
+            Doc doc = segment.docs.get(passengerId);
+            if (doc == null) {
+                continue;
+            }
+            double total = 0;
+            for (String queryTerm : queryTerms) {
+                double best = 0;
+                for (String term : doc.nameTerms) {
+                    best = Math.max(best, score(queryTerm, term, prefixOnly, fuzzy));
+                }
+                for (String term : doc.keyTerms) {
+                    best = Math.max(best, score(queryTerm, term, true, false));
+                }
+                if (best == 0) {
+                    total = 0;
+                    break;
+                }
+                total += best;
+            }
+            if (total > 0) {
+                ranking.hits.add(new Scored(doc, total));
+            }
+        }
+        return ranking;
+    }
+
+    private static Ranking rankAll(Segment segment, List<String> queryTerms, boolean prefixOnly, boolean fuzzy) {
+        Ranking ranking = new Ranking();
+        List<Matches> perTerm = new ArrayList<>(queryTerms.size());
+        for (String queryTerm : queryTerms) {
+            Matches matches = match(segment, queryTerm, prefixOnly, fuzzy);
+            if (matches.scores.isEmpty()) {
+                return ranking;
+            }
+            ranking.truncated |= matches.truncated;
+            perTerm.add(matches);
+        }
+        perTerm.sort(Comparator.comparingInt(matches -> matches.scores.size()));
+
+        Matches rarest = perTerm.get(0);
+        candidates:
+        for (Map.Entry<Long, Double> candidate : rarest.scores.entrySet()) {
+            double total = candidate.getValue();
+            for (int i = 1; i < perTerm.size(); i++) {
+                Double score = perTerm.get(i).scores.get(candidate.getKey());
+                if (score == null) {
+                    continue candidates;
+                }
+                total += score;
+            }
+            Doc doc = segment.docs.get(candidate.getKey());
+            if (doc != null) {
+                ranking.hits.add(new Scored(doc, total));
+            }
+        }
+        return ranking;
+    }
+
+    /**
+     * Collect the passengers matching one query term, with the best score per passenger
+     */
+    private static Matches match(Segment segment, String queryTerm, boolean prefixOnly, boolean fuzzy) {
+        Matches matches = new Matches();
+        String upperBound = queryTerm + Character.MAX_VALUE;
+        for (ConcurrentNavigableMap<String, long[]> postings : List.of(segment.namePostings, segment.keyPostings)) {
+            for (Map.Entry<String, long[]> entry : postings.subMap(queryTerm, true, upperBound, false).entrySet()) {
+                if (!matches.add(entry.getValue(), entry.getKey().equals(queryTerm) ? EXACT : PREFIX)) {
+                    return matches;
+                }
+            }
+        }
+        if (prefixOnly) {
+            return matches;
+        }
+
+        if (queryTerm.length() >= 3) {
+            String[] rarestGram = null;
+            for (String gram : grams(queryTerm, false)) {
+                String[] terms = segment.termsByGram.get(gram);
+                if (terms == null) {
+                    rarestGram = new String[0];
+                    break;
+                }
+                if (rarestGram == null || terms.length < rarestGram.length) {
+                    rarestGram = terms;
+                }
+            }
+            for (String term : rarestGram) {
+                if (!term.startsWith(queryTerm) && term.contains(queryTerm)
+                        && !matches.add(segment.namePostings.get(term), SUBSTRING)) {
+                    return matches;
+                }
+            }
+        }
+
+        if (fuzzy && queryTerm.length() >= 4 && matches.scores.size() < FUZZY_FALLBACK_HITS) {
+            int maxEdits = maxEdits(queryTerm);
+            List<String> paddedGrams = grams(queryTerm, true);
+            Map<String, Integer> sharedGrams = new HashMap<>();
+            for (String gram : paddedGrams) {
+                for (String term : segment.termsByGram.getOrDefault(gram, new String[0])) {
+                    sharedGrams.merge(term, 1, Integer::sum);
+                }
+            }
+            // Each edit changes at most three trigrams of the padded term
+            int required = Math.max(1, paddedGrams.size() - 3 * maxEdits);
+            if (queryTerm.length() <= 5) {
+                // Short terms have too few trigrams to survive a transposition ("jhon"), so
+                // also check the terms sharing their first letter
+                String first = queryTerm.substring(0, 1);
+                for (String term : segment.namePostings.subMap(first, true, first + Character.MAX_VALUE, false).keySet()) {
+                    if (Math.abs(term.length() - queryTerm.length()) <= maxEdits) {
+                        sharedGrams.put(term, required);
+                    }
+                }
+            }
+            for (Map.Entry<String, Integer> entry : sharedGrams.entrySet()) {
+                String term = entry.getKey();
+                if (entry.getValue() >= required && !term.contains(queryTerm)) {
+                    double score = score(queryTerm, term, false, true);
+                    if (score > 0 && !matches.add(segment.namePostings.get(term), score)) {
+                        return matches;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Score how well an indexed term matches a query term; 0 means no match
+     */
+    static double score(String queryTerm, String term, boolean prefixOnly, boolean fuzzy) {
+        if (term.startsWith(queryTerm)) {
+            return term.length() == queryTerm.length() ? EXACT : PREFIX;
+        }
+        if (prefixOnly) {
+            return 0;
+        }
+        if (queryTerm.length() >= 3 && term.contains(queryTerm)) {
+            return SUBSTRING;
+        }
+        if (fuzzy && queryTerm.length() >= 4) {
+            int maxEdits = maxEdits(queryTerm);
+            int distance = editDistance(queryTerm, term, maxEdits);
+            if (distance <= maxEdits) {
+                return FUZZY - 0.1 * (distance - 1);
+            }
+        }
+        return 0;
+    }
+
+    private static int maxEdits(String queryTerm) {
+        return queryTerm.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Optimal string alignment distance (insertions, deletions, substitutions and
+     * adjacent transpositions), or max + 1 as soon as it must exceed max
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    /**
+     * Split text into lower-case, accent-free terms of letters and digits
+     */
+    static List<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Trigrams of a term; padded grams mark the start and end of the term with '$'
+     */
+    private static List<String> grams(String term, boolean padded) {
+        String text = padded ? "$" + term + "$" : term;
+        List<String> grams = new ArrayList<>(Math.max(0, text.length() - 2));
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            grams.add(text.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static long[] withId(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+        int insertAt = -position - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, insertAt);
+        copy[insertAt] = id;
+        System.arraycopy(ids, insertAt, copy, insertAt + 1, ids.length - insertAt);
+        return copy;
+    }
+
+    private static long[] withoutId(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, position);
+        System.arraycopy(ids, position + 1, copy, position, ids.length - position - 1);
+        return copy;
+    }
+
+    private static long[] toSortedArray(List<Long> ids) {
+        long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * Indexed passenger: the fields returned in results plus their terms
+     */
+    static final class Doc {
+        final long passengerId;
+        final Long flightId;
+        final String name;
+        final String passportNumber;
+        final String phoneNumber;
+        final String[] nameTerms;
+        final String[] keyTerms;
+
+        Doc(Long passengerId, Long flightId, String name, String passportNumber, String phoneNumber) {
+            this.passengerId = passengerId;
+            this.flightId = flightId;
+            this.name = name;
+            this.passportNumber = passportNumber;
+            this.phoneNumber = phoneNumber;
+            this.nameTerms = new LinkedHashSet<>(terms(name)).toArray(new String[0]);
+
+            Set<String> keys = new LinkedHashSet<>(terms(passportNumber));
+            List<String> phoneTerms = terms(phoneNumber);
+            keys.addAll(phoneTerms);
+            if (phoneTerms.size() > 1) {
+                // "123-456-7890" is also findable as "1234567890"
+                keys.add(String.join("", phoneTerms));
+            }
+            keys.removeAll(Arrays.asList(nameTerms));
+            this.keyTerms = keys.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * The index data. Maps are concurrent so searches can run while a write is applied.
+     */
+    static final class Segment {
+        final Map<Long, Doc> docs;
+        final ConcurrentNavigableMap<String, long[]> namePostings;
+        final ConcurrentNavigableMap<String, long[]> keyPostings;
+        final Map<String, String[]> termsByGram;
+        final Map<Long, long[]> docsByFlight;
+
+        Segment(Map<Long, Doc> docs, TreeMap<String, long[]> namePostings, TreeMap<String, long[]> keyPostings,
+                Map<String, String[]> termsByGram, Map<Long, long[]> docsByFlight) {
+            this.docs = new ConcurrentHashMap<>(docs);
+            this.namePostings = new ConcurrentSkipListMap<>(namePostings);
+            this.keyPostings = new ConcurrentSkipListMap<>(keyPostings);
+            this.termsByGram = new ConcurrentHashMap<>(termsByGram);
+            this.docsByFlight = new ConcurrentHashMap<>(docsByFlight);
+        }
+
+        void add(Doc doc) {
+            docs.put(doc.passengerId, doc);
+            if (doc.flightId != null) {
+                docsByFlight.compute(doc.flightId, (flightId, ids) -> withId(ids == null ? NO_IDS : ids, doc.passengerId));
+            }
+            for (String term : doc.nameTerms) {
+                long[] ids = namePostings.get(term);
+                if (ids == null) {
+                    for (String gram : grams(term, true)) {
+                        termsByGram.merge(gram, new String[] {term}, (terms, added) -> {
+                            String[] copy = Arrays.copyOf(terms, terms.length + 1);
+                            copy[terms.length] = term;
+                            return copy;
+                        });
+                    }
+                }
+                namePostings.put(term, withId(ids == null ? NO_IDS : ids, doc.passengerId));
+            }
+            for (String term : doc.keyTerms) {
+                keyPostings.put(term, withId(keyPostings.getOrDefault(term, NO_IDS), doc.passengerId));
+            }
+        }
+
+        void remove(long passengerId) {
+            Doc doc = docs.remove(passengerId);
+            if (doc == null) {
+                return;
+            }
+            if (doc.flightId != null) {
+                docsByFlight.computeIfPresent(doc.flightId, (flightId, ids) -> {
+                    long[] remaining = withoutId(ids, passengerId);
+                    return remaining.length == 0 ? null : remaining;
+                });
+            }
+            for (String term : doc.nameTerms) {
+                long[] remaining = withoutId(namePostings.getOrDefault(term, NO_IDS), passengerId);
+                if (remaining.length > 0) {
+                    namePostings.put(term, remaining);
+                    continue;
+                }
+                namePostings.remove(term);
+                for (String gram : grams(term, true)) {
+                    termsByGram.computeIfPresent(gram, (key, terms) -> {
+                        String[] rest = Arrays.stream(terms).filter(t -> !t.equals(term)).toArray(String[]::new);
+                        return rest.length == 0 ? null : rest;
+                    });
+                }
+            }
+            for (String term : doc.keyTerms) {
+                long[] remaining = withoutId(keyPostings.getOrDefault(term, NO_IDS), passengerId);
+                if (remaining.length > 0) {
+                    keyPostings.put(term, remaining);
+                } else {
+                    keyPostings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects a full index in plain collections before freezing it into a segment
+     */
+    static final class Builder {
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final Map<String, List<Long>> namePostings = new HashMap<>();
+        private final Map<String, List<Long>> keyPostings = new HashMap<>();
+        private final Map<Long, List<Long>> docsByFlight = new HashMap<>();
+
+        void add(Doc doc) {
+            docs.put(doc.passengerId, doc);
+            if (doc.flightId != null) {
+                docsByFlight.computeIfAbsent(doc.flightId, flightId -> new ArrayList<>()).add(doc.passengerId);
+            }
+            for (String term : doc.nameTerms) {
+                namePostings.computeIfAbsent(term, t -> new ArrayList<>()).add(doc.passengerId);
+            }
+            for (String term : doc.keyTerms) {
+                keyPostings.computeIfAbsent(term, t -> new ArrayList<>()).add(doc.passengerId);
+            }
+        }
+
+        Segment build() {
+            TreeMap<String, long[]> names = new TreeMap<>();
+            Map<String, List<String>> gramLists = new HashMap<>();
+            namePostings.forEach((term, ids) -> {
+                names.put(term, toSortedArray(ids));
+                for (String gram : grams(term, true)) {
+                    gramLists.computeIfAbsent(gram, g -> new ArrayList<>()).add(term);
+                }
+            });
+            TreeMap<String, long[]> keys = new TreeMap<>();
+            keyPostings.forEach((term, ids) -> keys.put(term, toSortedArray(ids)));
+            Map<String, String[]> termsByGram = new HashMap<>();
+            gramLists.forEach((gram, terms) -> termsByGram.put(gram, terms.toArray(new String[0])));
+            Map<Long, long[]> flights = new HashMap<>();
+            docsByFlight.forEach((flightId, ids) -> flights.put(flightId, toSortedArray(ids)));
+            return new Segment(docs, names, keys, termsByGram, flights);
+        }
+    }
+
+    /**
+     * Best score per passenger for one query term, capped at MAX_CANDIDATES passengers
+     */
+    private static final class Matches {
+        final Map<Long, Double> scores = new HashMap<>();
+        boolean truncated;
+
+        /**
+         * @return false once the cap is reached and no more matches should be collected
+         */
+        boolean add(long[] passengerIds, double score) {
+            if (passengerIds == null) {
+                return true;
+            }
+            for (long passengerId : passengerIds) {
+                scores.merge(passengerId, score, Math::max);
+                if (scores.size() >= MAX_CANDIDATES) {
+                    truncated = true;
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Scored {
+        final Doc doc;
+        final double score;
+
+        Scored(Doc doc, double score) {
+            this.doc = doc;
+            this.score = score;
+        }
+    }
+
+    private static final class Ranking {
+        final List<Scored> hits = new ArrayList<>();
+        int total;
+        boolean truncated;
+    }
+}
@@ -1,17 +1,37 @@
 package com.oracle.passengers.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.oracle.passengers.dto.*;
 import com.oracle.passengers.entity.Passenger;
+import com.oracle.passengers.entity.PassengerTombstone;
+import com.oracle.passengers.entity.SeatHold;
 import com.oracle.passengers.exception.PassengerAlreadyCheckedInException;
 import com.oracle.passengers.exception.PassengerNotFoundException;
 import com.oracle.passengers.exception.SeatNotAvailableException;
 import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.repository.PassengerSpecifications;
+import com.oracle.passengers.repository.PassengerTombstoneRepository;
+import com.oracle.passengers.repository.ResourceVersion;
+import com.oracle.passengers.repository.SeatHoldRepository;
+import com.oracle.passengers.repository.TakenSeatView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -21,11 +41,35 @@ import java.util.stream.Collectors;
 @Transactional
 public class PassengerService {
     
+    // Also keeps the seat lookup of a bulk create within Oracle's 1000-element IN list limit
+    static final int MAX_BULK_SIZE = 1000;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+    static final int MAX_SUGGESTIONS = 50;
+    static final int MAX_PAGE_SIZE = 200;
+    // Properties the paged passenger list can be sorted by
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "name", "seat", "checkedIn", "mealType", "createdAt", "updatedAt", "passengerId");
+    
     private final PassengerRepository passengerRepository;
+    private final PassengerTombstoneRepository tombstoneRepository;
+    private final PassengerSearchIndex searchIndex;
+    private final JsonMergePatcher mergePatcher;
+    private final SeatHoldRepository seatHoldRepository;
+    private final FlightOpsCounters opsCounters;
     
     @Autowired
-    public PassengerService(PassengerRepository passengerRepository) {
+    public PassengerService(PassengerRepository passengerRepository,
+                            PassengerTombstoneRepository tombstoneRepository,
+                            PassengerSearchIndex searchIndex,
+                            JsonMergePatcher mergePatcher,
+                            SeatHoldRepository seatHoldRepository,
+                            FlightOpsCounters opsCounters) {
         this.passengerRepository = passengerRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.searchIndex = searchIndex;
+        this.mergePatcher = mergePatcher;
+        this.seatHoldRepository = seatHoldRepository;
+        this.opsCounters = opsCounters;
     }
     
     /**
@@ -35,7 +79,7 @@ public class PassengerService {
     @Transactional(readOnly = true)
     public List<PassengerDto> getAllPassengers() {
         return passengerRepository.findAll().stream()
-                .map(this::convertToDto)
+                .map(PassengerService::convertToDto)
                 .collect(Collectors.toList());
     }
     
@@ -59,47 +103,189 @@ public class PassengerService {
     @Transactional(readOnly = true)
     public List<PassengerDto> getPassengersByFlightId(Long flightId) {
         return passengerRepository.findByFlightIdOrderByName(flightId).stream()
-                .map(this::convertToDto)
+                .map(PassengerService::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Get the passengers of a flight that pass every given filter
+     * @param flightId the flight ID
+     * @param filter the filters to combine (unset ones are ignored)
+     * @return matching passengers ordered by name
+     */
+    @Transactional(readOnly = true)
+    public List<PassengerDto> getPassengersByFlightId(Long flightId, PassengerFilterDto filter) {
+        return passengerRepository.findAll(PassengerSpecifications.matching(flightId, filter),
+                        Sort.by("name", "passengerId")).stream()
+                .map(PassengerService::convertToDto)
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get one page of the passengers of a flight that pass every given filter
+     * @param flightId the flight ID
+     * @param filter the filters to combine (unset ones are ignored)
+     * @param page zero-based page number
+     * @param size page size (1-200)
+     * @param sort property to sort by, optionally followed by ",asc" or ",desc" (e.g., "seat,desc")
+     * @param includeFacets whether to also count the flight's passengers per dashboard tab
+     * @return the page, with facet counts over the whole flight if requested
+     */
+    @Transactional(readOnly = true)
+    public PassengerPageDto getPassengerPage(Long flightId, PassengerFilterDto filter, int page, int size,
+                                             String sort, boolean includeFacets) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Page<Passenger> passengers = passengerRepository.findAll(
+                PassengerSpecifications.matching(flightId, filter).and(parseSort(sort)), PageRequest.of(page, size));
+        PassengerFacetsDto facets = includeFacets ? passengerRepository.findFacetsByFlightId(flightId) : null;
+        return new PassengerPageDto(
+                passengers.getContent().stream().map(PassengerService::convertToDto).collect(Collectors.toList()),
+                page, size, passengers.getTotalElements(), passengers.getTotalPages(), facets);
+    }
+    
     /**
      * Create a new passenger
      * @param createDto the passenger creation data
      * @return the created passenger
+     * @throws IllegalArgumentException if shopping items are given
      */
     public PassengerDto createPassenger(PassengerCreateDto createDto) {
         // Validate seat availability if seat is provided
         if (createDto.getSeat() != null && !createDto.getSeat().trim().isEmpty()) {
-            if (!passengerRepository.isSeatAvailable(createDto.getFlightId(), createDto.getSeat())) {
+            if (!isSeatAvailable(createDto.getFlightId(), createDto.getSeat(), null)) {
                 throw new SeatNotAvailableException(createDto.getFlightId(), createDto.getSeat());
             }
         }
         
         Passenger passenger = convertFromCreateDto(createDto);
         Passenger savedPassenger = passengerRepository.save(passenger);
+        opsCounters.record(null, FlightOpsCounters.contributionOf(savedPassenger));
+        searchIndex.onPassengerSaved(savedPassenger);
         return convertToDto(savedPassenger);
     }
     
+    /**
+     * Create several passengers in one transaction.
+     * All requested seats are checked with a single query and the inserts are
+     * sent in JDBC batches; if any seat is taken, nothing is created.
+     * @param createDtos the passenger creation data
+     * @return the created passengers, in request order
+     * @throws SeatNotAvailableException if a seat is taken or requested twice
+     */
+    public List<PassengerDto> createPassengers(List<PassengerCreateDto> createDtos) {
+        if (createDtos == null || createDtos.isEmpty()) {
+            throw new IllegalArgumentException("At least one passenger is required");
+        }
+        if (createDtos.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " passengers can be created at once");
+        }
+        
+        Map<Long, Set<String>> seatsByFlight = new HashMap<>();
+        Set<String> allSeats = new HashSet<>();
+        for (PassengerCreateDto createDto : createDtos) {
+            if (createDto.getSeat() != null && !createDto.getSeat().trim().isEmpty()) {
+                if (!seatsByFlight.computeIfAbsent(createDto.getFlightId(), id -> new HashSet<>()).add(createDto.getSeat())) {
+                    throw new SeatNotAvailableException(createDto.getFlightId(), createDto.getSeat());
+                }
+                allSeats.add(createDto.getSeat());
+            }
+        }
+        if (!seatsByFlight.isEmpty()) {
+            for (TakenSeatView taken : passengerRepository.findTakenSeats(seatsByFlight.keySet(), allSeats)) {
+                if (seatsByFlight.get(taken.getFlightId()).contains(taken.getSeat())) {
+                    throw new SeatNotAvailableException(taken.getFlightId(), taken.getSeat());
+                }
+            }
+            loadHeldSeats(seatsByFlight.keySet(), null).forEach((flightId, heldSeats) -> {
+                for (String seat : seatsByFlight.get(flightId)) {
+                    if (heldSeats.contains(seat)) {
+                        throw new SeatNotAvailableException(flightId, seat);
+                    }
+                }
+            });
+        }
+        
+        List<Passenger> passengers = createDtos.stream()
+                .map(this::convertFromCreateDto)
+                .collect(Collectors.toList());
+        List<Passenger> savedPassengers = passengerRepository.saveAll(passengers);
+        savedPassengers.forEach(savedPassenger -> opsCounters.record(null, FlightOpsCounters.contributionOf(savedPassenger)));
+        savedPassengers.forEach(searchIndex::onPassengerSaved);
+        return savedPassengers.stream()
+                .map(PassengerService::convertToDto)
+                .collect(Collectors.toList());
+    }
+    
     /**
      * Update passenger information
      * @param passengerId the passenger ID
      * @param updateDto the update data
      * @return the updated passenger
+     * @throws IllegalArgumentException if the shopping items would change
      */
     public PassengerDto updatePassenger(Long passengerId, PassengerUpdateDto updateDto) {
         Passenger passenger = passengerRepository.findById(passengerId)
                 .orElseThrow(() -> new PassengerNotFoundException(passengerId));
+        if (updateDto.getShoppingItems() != null) {
+            rejectShoppingItemsChange(passenger.getShoppingItems(), updateDto.getShoppingItems());
+        }
         
         // Validate seat availability if seat is being changed
         if (updateDto.getSeat() != null && !updateDto.getSeat().equals(passenger.getSeat())) {
-            if (!passengerRepository.isSeatAvailable(passenger.getFlightId(), updateDto.getSeat())) {
+            if (!isSeatAvailable(passenger.getFlightId(), updateDto.getSeat(), null)) {
                 throw new SeatNotAvailableException(passenger.getFlightId(), updateDto.getSeat());
             }
         }
         
+        FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
         updatePassengerFromDto(passenger, updateDto);
         Passenger savedPassenger = passengerRepository.save(passenger);
+        opsCounters.record(before, FlightOpsCounters.contributionOf(savedPassenger));
+        searchIndex.onPassengerSaved(savedPassenger);
+        return convertToDto(savedPassenger);
+    }
+    
+    /**
+     * Apply an RFC 7396 JSON merge patch to a passenger. Only the fields the patch
+     * actually changes are copied to the entity, and since passengers are updated
+     * dynamically only their columns are written; the services and shopping items
+     * CLOBs are left alone unless the patch replaces them.
+     * @param passengerId the passenger ID
+     * @param patch the merge patch; a null member clears that field
+     * @return the updated passenger
+     * @throws IllegalArgumentException if the patch is invalid, removes the name or changes the shopping items
+     */
+    public PassengerDto patchPassenger(Long passengerId, JsonNode patch) {
+        Passenger passenger = passengerRepository.findById(passengerId)
+                .orElseThrow(() -> new PassengerNotFoundException(passengerId));
+        
+        JsonMergePatcher.Result<PassengerUpdateDto> result =
+                mergePatcher.apply(toUpdateDto(passenger), patch, PassengerUpdateDto.class);
+        PassengerUpdateDto patched = result.getValue();
+        if (result.changed("name") && patched.getName() == null) {
+            throw new IllegalArgumentException("name: must not be removed");
+        }
+        if (result.changed("shoppingItems")) {
+            rejectShoppingItemsChange(passenger.getShoppingItems(), patched.getShoppingItems());
+        }
+        if (result.changed("seat") && patched.getSeat() != null
+                && !isSeatAvailable(passenger.getFlightId(), patched.getSeat(), null)) {
+            throw new SeatNotAvailableException(passenger.getFlightId(), patched.getSeat());
+        }
+        if (result.getChangedFields().isEmpty()) {
+            return convertToDto(passenger);
+        }
+        
+        FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
+        applyPatch(passenger, result);
+        Passenger savedPassenger = passengerRepository.save(passenger);
+        opsCounters.record(before, FlightOpsCounters.contributionOf(savedPassenger));
+        searchIndex.onPassengerSaved(savedPassenger);
         return convertToDto(savedPassenger);
     }
     
@@ -108,10 +294,12 @@ public class PassengerService {
      * @param passengerId the passenger ID
      */
     public void deletePassenger(Long passengerId) {
-        if (!passengerRepository.existsById(passengerId)) {
-            throw new PassengerNotFoundException(passengerId);
-        }
-        passengerRepository.deleteById(passengerId);
+        Passenger passenger = passengerRepository.findById(passengerId)
+                .orElseThrow(() -> new PassengerNotFoundException(passengerId));
+        passengerRepository.delete(passenger);
+        opsCounters.record(FlightOpsCounters.contributionOf(passenger), null);
+        tombstoneRepository.save(new PassengerTombstone(passengerId, LocalDateTime.now()));
+        searchIndex.onPassengerDeleted(passengerId);
     }
     
     /**
@@ -127,10 +315,11 @@ public class PassengerService {
         if (passenger.isCheckedIn()) {
             throw new PassengerAlreadyCheckedInException(passengerId);
         }
+        FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
         
         // Validate seat availability if seat is being assigned/changed
         if (checkInDto.getSeat() != null && !checkInDto.getSeat().equals(passenger.getSeat())) {
-            if (!passengerRepository.isSeatAvailable(passenger.getFlightId(), checkInDto.getSeat())) {
+            if (!isSeatAvailable(passenger.getFlightId(), checkInDto.getSeat(), null)) {
                 throw new SeatNotAvailableException(passenger.getFlightId(), checkInDto.getSeat());
             }
             passenger.setSeat(checkInDto.getSeat());
@@ -148,14 +337,96 @@ public class PassengerService {
         passenger.setCheckedIn(true);
         
         Passenger savedPassenger = passengerRepository.save(passenger);
+        opsCounters.record(before, FlightOpsCounters.contributionOf(savedPassenger));
         return convertToDto(savedPassenger);
     }
     
     /**
-     * Assign seat to passenger
+     * Check in several passengers at once.
+     * The passengers are loaded with one query and every requested seat is
+     * validated against one occupancy set per flight, built from a single seat
+     * query; seats requested earlier in the batch count as taken for later
+     * passengers. The accepted check-ins are flushed together as batched updates.
+     * In ALL_OR_NOTHING mode nothing is changed unless every passenger passes.
+     * @param batchDto the passengers to check in and the failure mode
+     * @return one outcome per requested passenger, in request order
+     */
+    public BatchCheckInResultDto checkInPassengers(BatchCheckInDto batchDto) {
+        List<BatchCheckInItemDto> items = batchDto.getPassengers();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one passenger is required");
+        }
+        if (items.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " passengers can be checked in at once");
+        }
+        if (items.stream().anyMatch(item -> item == null || item.getPassengerId() == null)) {
+            throw new IllegalArgumentException("Passenger ID is required");
+        }
+        BatchCheckInDto.Mode mode = batchDto.getMode() != null ? batchDto.getMode() : BatchCheckInDto.Mode.ALL_OR_NOTHING;
+        
+        Map<Long, Passenger> passengersById = new HashMap<>();
+        passengerRepository.findAllById(items.stream().map(BatchCheckInItemDto::getPassengerId).collect(Collectors.toSet()))
+                .forEach(passenger -> passengersById.put(passenger.getPassengerId(), passenger));
+        Map<Long, Set<String>> occupiedSeatsByFlight = loadOccupiedSeats(items, passengersById);
+        
+        List<BatchCheckInResultDto.Outcome> outcomes = new ArrayList<>(items.size());
+        List<Integer> accepted = new ArrayList<>(items.size());
+        Set<Long> seenIds = new HashSet<>();
+        for (BatchCheckInItemDto item : items) {
+            Long passengerId = item.getPassengerId();
+            Passenger passenger = passengersById.get(passengerId);
+            BatchCheckInResultDto.Status status = null;
+            String message = null;
+            if (!seenIds.add(passengerId)) {
+                status = BatchCheckInResultDto.Status.DUPLICATE;
+                message = "Passenger with ID " + passengerId + " is listed more than once";
+            } else if (passenger == null) {
+                status = BatchCheckInResultDto.Status.NOT_FOUND;
+                message = new PassengerNotFoundException(passengerId).getMessage();
+            } else if (passenger.isCheckedIn()) {
+                status = BatchCheckInResultDto.Status.ALREADY_CHECKED_IN;
+                message = new PassengerAlreadyCheckedInException(passengerId).getMessage();
+            } else if (isSeatChange(passenger, item)
+                    && !occupiedSeatsByFlight.computeIfAbsent(passenger.getFlightId(), id -> new HashSet<>()).add(item.getSeat())) {
+                status = BatchCheckInResultDto.Status.SEAT_NOT_AVAILABLE;
+                message = new SeatNotAvailableException(passenger.getFlightId(), item.getSeat()).getMessage();
+            }
+            if (status == null) {
+                accepted.add(outcomes.size());
+            }
+            outcomes.add(new BatchCheckInResultDto.Outcome(passengerId, status, message, null));
+        }
+        
+        if (mode == BatchCheckInDto.Mode.ALL_OR_NOTHING && accepted.size() < items.size()) {
+            accepted.forEach(index -> outcomes.get(index).setStatus(BatchCheckInResultDto.Status.NOT_APPLIED));
+            return new BatchCheckInResultDto(mode, false, outcomes);
+        }
+        
+        List<Passenger> checkedIn = new ArrayList<>(accepted.size());
+        for (int index : accepted) {
+            Passenger passenger = passengersById.get(items.get(index).getPassengerId());
+            FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
+            applyCheckIn(passenger, items.get(index));
+            opsCounters.record(before, FlightOpsCounters.contributionOf(passenger));
+            checkedIn.add(passenger);
+        }
+        passengerRepository.saveAllAndFlush(checkedIn);
+        for (int index : accepted) {
+            BatchCheckInResultDto.Outcome outcome = outcomes.get(index);
+            outcome.setStatus(BatchCheckInResultDto.Status.CHECKED_IN);
+            outcome.setPassenger(convertToDto(passengersById.get(outcome.getPassengerId())));
+        }
+        return new BatchCheckInResultDto(mode, true, outcomes);
+    }
+    
+    /**
+     * Assign seat to passenger. A seat held through the flights service can only be
+     * assigned with the ID of its hold; the seat then leaves the hold in the same
+     * transaction, and the hold is closed once all of its seats are assigned.
      * @param flightId the flight ID
      * @param seatAssignmentDto the seat assignment data
      * @return the updated passenger
+     * @throws SeatNotAvailableException if the seat is taken, held by another hold, or the hold has expired
      */
     public PassengerDto assignSeat(Long flightId, SeatAssignmentDto seatAssignmentDto) {
         Passenger passenger = passengerRepository.findById(seatAssignmentDto.getPassengerId())
@@ -166,13 +437,34 @@ public class PassengerService {
             throw new IllegalArgumentException("Passenger does not belong to flight " + flightId);
         }
         
+        String seat = seatAssignmentDto.getSeat();
+        String holdId = seatAssignmentDto.getHoldId();
+        SeatHold hold = null;
+        if (holdId != null && !holdId.isBlank()) {
+            hold = seatHoldRepository.findById(holdId)
+                    .filter(candidate -> candidate.getFlightId().equals(flightId)
+                            && candidate.isActive(LocalDateTime.now()))
+                    .orElseThrow(() -> new SeatNotAvailableException(
+                            "Seat hold " + holdId + " does not exist or has expired"));
+            if (!hold.getSeatList().contains(seat)) {
+                throw new SeatNotAvailableException("Seat " + seat + " is not part of seat hold " + holdId);
+            }
+        }
+        
         // Validate seat availability
-        if (!passengerRepository.isSeatAvailable(flightId, seatAssignmentDto.getSeat())) {
-            throw new SeatNotAvailableException(flightId, seatAssignmentDto.getSeat());
+        if (!isSeatAvailable(flightId, seat, holdId)) {
+            throw new SeatNotAvailableException(flightId, seat);
         }
         
-        passenger.setSeat(seatAssignmentDto.getSeat());
+        passenger.setSeat(seat);
         Passenger savedPassenger = passengerRepository.save(passenger);
+        if (hold != null) {
+            if (hold.removeSeat(seat)) {
+                seatHoldRepository.delete(hold);
+            } else {
+                seatHoldRepository.save(hold);
+            }
+        }
         return convertToDto(savedPassenger);
     }
     
@@ -184,7 +476,7 @@ public class PassengerService {
     @Transactional(readOnly = true)
     public List<PassengerDto> getPassengersWithSpecialNeeds(Long flightId) {
         return passengerRepository.findPassengersWithSpecialNeedsByFlightId(flightId).stream()
-                .map(this::convertToDto)
+                .map(PassengerService::convertToDto)
                 .collect(Collectors.toList());
     }
     
@@ -196,7 +488,7 @@ public class PassengerService {
     @Transactional(readOnly = true)
     public List<PassengerDto> getCheckedInPassengers(Long flightId) {
         return passengerRepository.findCheckedInPassengersByFlightId(flightId).stream()
-                .map(this::convertToDto)
+                .map(PassengerService::convertToDto)
                 .collect(Collectors.toList());
     }
     
@@ -208,7 +500,7 @@ public class PassengerService {
     @Transactional(readOnly = true)
     public List<PassengerDto> getNotCheckedInPassengers(Long flightId) {
         return passengerRepository.findNotCheckedInPassengersByFlightId(flightId).stream()
-                .map(this::convertToDto)
+                .map(PassengerService::convertToDto)
                 .collect(Collectors.toList());
     }
     
@@ -220,7 +512,7 @@ public class PassengerService {
     @Transactional(readOnly = true)
     public List<PassengerDto> getPassengersWithMissingInfo(Long flightId) {
         return passengerRepository.findPassengersWithMissingInfoByFlightId(flightId).stream()
-                .map(this::convertToDto)
+                .map(PassengerService::convertToDto)
                 .collect(Collectors.toList());
     }
     
@@ -232,16 +524,124 @@ public class PassengerService {
     @Transactional(readOnly = true)
     public List<PassengerDto> searchPassengersByName(String name) {
         return passengerRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(this::convertToDto)
+                .map(PassengerService::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Search passengers by name, passport number or phone number, ranked by relevance
+     * @param query the search text
+     * @param flightId only search the passengers of this flight (optional)
+     * @param fuzzy whether to tolerate typos in names
+     * @param page zero-based page number
+     * @param size page size (1-100)
+     * @return one page of matches, best first
+     */
+    @Transactional(readOnly = true)
+    public PassengerSearchResultDto quickSearch(String query, Long flightId, boolean fuzzy, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (searchIndex.isReady()) {
+            return searchIndex.search(query, flightId, fuzzy, page, size);
+        }
+        
+        List<PassengerSearchResultDto.Hit> hits = searchByNameUntilIndexed(query, flightId).stream()
+                .map(passenger -> new PassengerSearchResultDto.Hit(passenger.getPassengerId(), passenger.getFlightId(),
+                        passenger.getName(), passenger.getPassportNumber(), passenger.getPhoneNumber(), 0))
+                .collect(Collectors.toList());
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        return new PassengerSearchResultDto(page, size, hits.size(), false, hits.subList(from, to));
+    }
+    
+    /**
+     * Suggest passenger names for a search box
+     * @param prefix the text typed so far
+     * @param flightId only suggest passengers of this flight (optional)
+     * @param limit maximum number of suggestions (1-50)
+     * @return distinct passenger names, best first
+     */
+    @Transactional(readOnly = true)
+    public List<String> suggestPassengerNames(String prefix, Long flightId, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (searchIndex.isReady()) {
+            return searchIndex.suggest(prefix, flightId, limit);
+        }
+        return searchByNameUntilIndexed(prefix, flightId).stream()
+                .map(Passenger::getName)
+                .distinct()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Plain name search used while the search index is still loading
+     */
+    private List<Passenger> searchByNameUntilIndexed(String query, Long flightId) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search text must contain letters or digits");
+        }
+        return passengerRepository.findByNameContainingIgnoreCase(query.trim()).stream()
+                .filter(passenger -> flightId == null || flightId.equals(passenger.getFlightId()))
                 .collect(Collectors.toList());
     }
+    
+    /**
+     * Get the version fingerprint of all passengers
+     * @return count and newest update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getPassengersVersion() {
+        return passengerRepository.findVersion();
+    }
+    
+    /**
+     * Get the version fingerprint of a passenger
+     * @param passengerId the passenger ID
+     * @return the version
+     * @throws PassengerNotFoundException if the passenger does not exist
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getPassengerVersion(Long passengerId) {
+        ResourceVersion version = passengerRepository.findVersionById(passengerId);
+        if (version.isEmpty()) {
+            throw new PassengerNotFoundException(passengerId);
+        }
+        return version;
+    }
+    
+    /**
+     * Get the version fingerprint of the passengers on a flight
+     * @param flightId the flight ID
+     * @return count and newest update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getPassengersVersionByFlight(Long flightId) {
+        return passengerRepository.findVersionByFlightId(flightId);
+    }
+    
+    /**
+     * Get the version fingerprint of the passengers matching a name search
+     * @param name the name to search for
+     * @return count and newest update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getPassengersVersionByName(String name) {
+        return passengerRepository.findVersionByNameContainingIgnoreCase(name);
+    }
 
     // Conversion methods
 
     /**
      * Convert Passenger entity to PassengerDto
      */
-    private PassengerDto convertToDto(Passenger passenger) {
+    static PassengerDto convertToDto(Passenger passenger) {
         return new PassengerDto(
                 passenger.getPassengerId(),
                 passenger.getFlightId(),
@@ -266,10 +666,26 @@ public class PassengerService {
         );
     }
 
+    /**
+     * Shopping items are sold through the service management service, which takes them
+     * from the flight's stock; writing them here would bypass the stock and oversell it.
+     * An unchanged list (e.g. sent back from a GET) is accepted.
+     * @throws IllegalArgumentException if the items would change
+     */
+    private static void rejectShoppingItemsChange(List<String> current, List<String> requested) {
+        List<String> before = current == null ? List.of() : current;
+        List<String> after = requested == null ? List.of() : requested;
+        if (!before.equals(after)) {
+            throw new IllegalArgumentException(
+                    "shoppingItems: use PUT /services/passenger/{passengerId}/shopping to change shopping items");
+        }
+    }
+    
     /**
      * Convert PassengerCreateDto to Passenger entity
      */
     private Passenger convertFromCreateDto(PassengerCreateDto createDto) {
+        rejectShoppingItemsChange(null, createDto.getShoppingItems());
         Passenger passenger = new Passenger();
         passenger.setFlightId(createDto.getFlightId());
         passenger.setName(createDto.getName());
@@ -291,6 +707,97 @@ public class PassengerService {
         return passenger;
     }
 
+    /**
+     * Parse a "property[,asc|desc]" sort parameter into an ordering specification
+     */
+    private static Specification<Passenger> parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return PassengerSpecifications.orderedBy("name", false);
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property) || parts.length > 2) {
+            throw new IllegalArgumentException("Invalid sort: " + sort + " (sortable: "
+                    + String.join(", ", new TreeSet<>(SORTABLE_PROPERTIES)) + ")");
+        }
+        Sort.Direction direction = parts.length == 2
+                ? Sort.Direction.fromOptionalString(parts[1].trim()).orElseThrow(
+                        () -> new IllegalArgumentException("Invalid sort direction: " + parts[1].trim()))
+                : Sort.Direction.ASC;
+        return PassengerSpecifications.orderedBy(property, direction.isDescending());
+    }
+    
+    /**
+     * Load the seats already taken among those requested in a batch check-in, per flight
+     */
+    private Map<Long, Set<String>> loadOccupiedSeats(List<BatchCheckInItemDto> items, Map<Long, Passenger> passengersById) {
+        Set<Long> flightIds = new HashSet<>();
+        Set<String> seats = new HashSet<>();
+        for (BatchCheckInItemDto item : items) {
+            Passenger passenger = passengersById.get(item.getPassengerId());
+            if (passenger != null && isSeatChange(passenger, item)) {
+                flightIds.add(passenger.getFlightId());
+                seats.add(item.getSeat());
+            }
+        }
+        Map<Long, Set<String>> occupiedSeatsByFlight = new HashMap<>();
+        if (!seats.isEmpty()) {
+            for (TakenSeatView taken : passengerRepository.findTakenSeats(flightIds, seats)) {
+                occupiedSeatsByFlight.computeIfAbsent(taken.getFlightId(), id -> new HashSet<>()).add(taken.getSeat());
+            }
+            loadHeldSeats(flightIds, null).forEach((flightId, heldSeats) ->
+                    occupiedSeatsByFlight.computeIfAbsent(flightId, id -> new HashSet<>()).addAll(heldSeats));
+        }
+        return occupiedSeatsByFlight;
+    }
+    
+    /**
+     * Whether a seat is neither taken by a passenger nor held, except by the given hold
+     */
+    private boolean isSeatAvailable(Long flightId, String seat, String holdId) {
+        return passengerRepository.isSeatAvailable(flightId, seat)
+                && !loadHeldSeats(List.of(flightId), holdId).getOrDefault(flightId, Set.of()).contains(seat);
+    }
+    
+    /**
+     * Load the seats held through the flights service, per flight
+     * @param flightIds the flights
+     * @param exceptHoldId a hold whose seats count as free, or null
+     */
+    private Map<Long, Set<String>> loadHeldSeats(Collection<Long> flightIds, String exceptHoldId) {
+        Map<Long, Set<String>> heldSeatsByFlight = new HashMap<>();
+        for (SeatHold hold : seatHoldRepository.findActiveByFlightIds(flightIds, LocalDateTime.now())) {
+            if (!hold.getHoldId().equals(exceptHoldId)) {
+                heldSeatsByFlight.computeIfAbsent(hold.getFlightId(), id -> new HashSet<>()).addAll(hold.getSeatList());
+            }
+        }
+        return heldSeatsByFlight;
+    }
+    
+    /**
+     * Whether a check-in assigns the passenger a different seat
+     */
+    private static boolean isSeatChange(Passenger passenger, CheckInDto checkInDto) {
+        return checkInDto.getSeat() != null && !checkInDto.getSeat().trim().isEmpty()
+                && !checkInDto.getSeat().equals(passenger.getSeat());
+    }
+    
+    /**
+     * Apply already validated check-in data to a Passenger entity
+     */
+    private static void applyCheckIn(Passenger passenger, CheckInDto checkInDto) {
+        if (isSeatChange(passenger, checkInDto)) {
+            passenger.setSeat(checkInDto.getSeat());
+        }
+        if (checkInDto.getWheelchair() != null) {
+            passenger.setWheelchair(checkInDto.getWheelchair());
+        }
+        if (checkInDto.getInfant() != null) {
+            passenger.setInfant(checkInDto.getInfant());
+        }
+        passenger.setCheckedIn(true);
+    }
+
     /**
      * Update Passenger entity from PassengerUpdateDto
      */
@@ -335,4 +842,80 @@ public class PassengerService {
             passenger.setInfant(updateDto.getInfant());
         }
     }
+    
+    /**
+     * Current patchable state of a passenger, in the shape of an update request
+     */
+    private PassengerUpdateDto toUpdateDto(Passenger passenger) {
+        PassengerUpdateDto dto = new PassengerUpdateDto();
+        dto.setName(passenger.getName());
+        dto.setPhoneNumber(passenger.getPhoneNumber());
+        dto.setAddress(passenger.getAddress());
+        dto.setPassportNumber(passenger.getPassportNumber());
+        dto.setDateOfBirth(passenger.getDateOfBirth());
+        dto.setServices(passenger.getServicesJson() == null ? null : passenger.getServices());
+        dto.setMealType(passenger.getMealType());
+        dto.setMealName(passenger.getMealName());
+        dto.setExtraBaggage(passenger.getExtraBaggage());
+        dto.setShoppingItems(passenger.getShoppingItemsJson() == null ? null : passenger.getShoppingItems());
+        dto.setSeat(passenger.getSeat());
+        dto.setWheelchair(passenger.needsWheelchair());
+        dto.setInfant(passenger.hasInfant());
+        return dto;
+    }
+    
+    /**
+     * Copy the fields a merge patch changed to the entity. Removed flags and
+     * baggage fall back to the column defaults; removed lists clear the column.
+     */
+    private void applyPatch(Passenger passenger, JsonMergePatcher.Result<PassengerUpdateDto> result) {
+        PassengerUpdateDto patched = result.getValue();
+        if (result.changed("name")) {
+            passenger.setName(patched.getName());
+        }
+        if (result.changed("phoneNumber")) {
+            passenger.setPhoneNumber(patched.getPhoneNumber());
+        }
+        if (result.changed("address")) {
+            passenger.setAddress(patched.getAddress());
+        }
+        if (result.changed("passportNumber")) {
+            passenger.setPassportNumber(patched.getPassportNumber());
+        }
+        if (result.changed("dateOfBirth")) {
+            passenger.setDateOfBirth(patched.getDateOfBirth());
+        }
+        if (result.changed("services")) {
+            if (patched.getServices() == null) {
+                passenger.setServicesJson(null);
+            } else {
+                passenger.setServices(patched.getServices());
+            }
+        }
+        if (result.changed("mealType")) {
+            passenger.setMealType(patched.getMealType());
+        }
+        if (result.changed("mealName")) {
+            passenger.setMealName(patched.getMealName());
+        }
+        if (result.changed("extraBaggage")) {
+            passenger.setExtraBaggage(patched.getExtraBaggage() == null ? 0 : patched.getExtraBaggage());
+        }
+        if (result.changed("shoppingItems")) {
+            if (patched.getShoppingItems() == null) {
+                passenger.setShoppingItemsJson(null);
+            } else {
+                passenger.setShoppingItems(patched.getShoppingItems());
+            }
+        }
+        if (result.changed("seat")) {
+            passenger.setSeat(patched.getSeat());
+        }
+        if (result.changed("wheelchair")) {
+            passenger.setWheelchair(Boolean.TRUE.equals(patched.getWheelchair()));
+        }
+        if (result.changed("infant")) {
+            passenger.setInfant(Boolean.TRUE.equals(patched.getInfant()));
+        }
+    }
 }
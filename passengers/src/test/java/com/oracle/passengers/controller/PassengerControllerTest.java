@@ -4,12 +4,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oracle.passengers.dto.*;
 import com.oracle.passengers.exception.PassengerNotFoundException;
 import com.oracle.passengers.exception.SeatNotAvailableException;
+import com.oracle.passengers.repository.ResourceVersion;
+import com.oracle.passengers.service.PassengerChangeFeedService;
 import com.oracle.passengers.service.PassengerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -32,6 +35,9 @@ class PassengerControllerTest {
     @MockBean
     private PassengerService passengerService;
     
+    @MockBean
+    private PassengerChangeFeedService changeFeedService;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -40,6 +46,7 @@ class PassengerControllerTest {
     private PassengerUpdateDto testUpdateDto;
     private CheckInDto testCheckInDto;
     private SeatAssignmentDto testSeatAssignmentDto;
+    private ResourceVersion testVersion;
     
     @BeforeEach
     void setUp() {
@@ -68,6 +75,12 @@ class PassengerControllerTest {
         testCheckInDto = new CheckInDto("1", false, false, null);
 
         testSeatAssignmentDto = new SeatAssignmentDto(1L, "2");
+        
+        testVersion = new ResourceVersion(1L, LocalDateTime.of(2025, 8, 1, 10, 0));
+        when(passengerService.getPassengersVersion()).thenReturn(testVersion);
+        when(passengerService.getPassengerVersion(1L)).thenReturn(testVersion);
+        when(passengerService.getPassengersVersionByFlight(1L)).thenReturn(testVersion);
+        when(passengerService.getPassengersVersionByName(anyString())).thenReturn(testVersion);
     }
     
     @Test
@@ -100,13 +113,13 @@ class PassengerControllerTest {
     
     @Test
     void getPassengerById_WhenNotFound_ShouldReturn404() throws Exception {
-        when(passengerService.getPassengerById(999L))
+        when(passengerService.getPassengerVersion(999L))
                 .thenThrow(new PassengerNotFoundException(999L));
         
         mockMvc.perform(get("/passengers/999"))
                 .andExpect(status().isNotFound());
         
-        verify(passengerService).getPassengerById(999L);
+        verify(passengerService, never()).getPassengerById(999L);
     }
     
     @Test
@@ -233,4 +246,33 @@ class PassengerControllerTest {
         
         verify(passengerService).searchPassengersByName("John");
     }
+    
+    @Test
+    void getPassengerById_ShouldSetETag() throws Exception {
+        when(passengerService.getPassengerById(1L)).thenReturn(testPassenger);
+        
+        mockMvc.perform(get("/passengers/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, testVersion.getETag()))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+    }
+    
+    @Test
+    void getPassengerById_WhenETagMatches_ShouldReturn304() throws Exception {
+        mockMvc.perform(get("/passengers/1").header(HttpHeaders.IF_NONE_MATCH, testVersion.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        verify(passengerService, never()).getPassengerById(1L);
+    }
+    
+    @Test
+    void getPassengersByFlight_WhenETagMatches_ShouldReturn304() throws Exception {
+        mockMvc.perform(get("/passengers/flight/1")
+                        .param("checkedIn", "true")
+                        .header(HttpHeaders.IF_NONE_MATCH, testVersion.getETag()))
+                .andExpect(status().isNotModified());
+        
+        verify(passengerService, never()).getCheckedInPassengers(1L);
+    }
 }
@@ -0,0 +1,205 @@
+package com.oracle.passengers.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.passengers.dto.BatchCheckInDto;
+import com.oracle.passengers.dto.BatchCheckInItemDto;
+import com.oracle.passengers.dto.CheckInDto;
+import com.oracle.passengers.dto.PassengerCreateDto;
+import com.oracle.passengers.dto.PassengerDto;
+import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.service.FlightOpsCounters;
+import com.oracle.passengers.service.FlightOpsReconciler;
+import com.oracle.passengers.service.PassengerService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes passengers through the service and checks that the striped operations
+ * counters always equal a recount of the flight's passengers
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.oracle.passengers=INFO"})
+@ActiveProfiles("test")
+class FlightOpsCountersIntegrationTest {
+
+    private static final Long FLIGHT_ID = 40L;
+
+    @Autowired
+    private PassengerService passengerService;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private FlightOpsReconciler reconciler;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> entityManager.createQuery("DELETE FROM FlightOpsCounter").executeUpdate());
+    }
+
+    @Test
+    void writes_ShouldKeepCountersEqualToARecount() {
+        List<PassengerDto> created = passengerService.createPassengers(manifest(20));
+        passengerService.createPassenger(passenger(21));
+        passengerService.checkInPassengers(new BatchCheckInDto(BatchCheckInDto.Mode.ALL_OR_NOTHING, List.of(
+                new BatchCheckInItemDto(created.get(0).getPassengerId(), null),
+                new BatchCheckInItemDto(created.get(1).getPassengerId(), null))));
+        CheckInDto checkIn = new CheckInDto();
+        checkIn.setWheelchair(true);
+        passengerService.checkInPassenger(created.get(2).getPassengerId(), checkIn);
+        passengerService.patchPassenger(created.get(3).getPassengerId(),
+                new ObjectMapper().createObjectNode().put("mealType", "Kosher").put("extraBaggage", 25));
+        passengerService.deletePassenger(created.get(4).getPassengerId());
+
+        Map<String, Long> counters = counters();
+        assertEquals(20L, counters.get(FlightOpsCounters.PASSENGERS));
+        assertEquals(3L, counters.get(FlightOpsCounters.CHECKED_IN));
+        assertEquals(1L, counters.get(FlightOpsCounters.WHEELCHAIR));
+        assertEquals(1L, counters.get("MEAL:Kosher"));
+        assertEquals(recount(), counters);
+        assertEquals(0, reconciler.reconcile(FLIGHT_ID));
+    }
+
+    @Test
+    void rolledBackWrite_ShouldNotChangeCounters() {
+        passengerService.createPassengers(manifest(5));
+        Map<String, Long> before = counters();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            passengerService.createPassenger(passenger(6));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, counters());
+    }
+
+    @Test
+    void concurrentCheckIns_ShouldAllBeCounted() throws Exception {
+        List<PassengerDto> created = passengerService.createPassengers(manifest(40));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<PassengerDto>> checkIns = new ArrayList<>();
+            for (PassengerDto passenger : created) {
+                checkIns.add(pool.submit(() -> passengerService.checkInPassenger(passenger.getPassengerId(), new CheckInDto())));
+            }
+            for (Future<PassengerDto> checkIn : checkIns) {
+                assertTrue(checkIn.get().isCheckedIn());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(40L, counters().get(FlightOpsCounters.CHECKED_IN));
+        assertEquals(recount(), counters());
+    }
+
+    @Test
+    void reconcile_ShouldRepairDriftAndBackfillMissingCounters() {
+        passengerService.createPassengers(manifest(10));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("UPDATE FlightOpsCounter c SET c.counterValue = c.counterValue + 7 " +
+                    "WHERE c.flightId = :flightId AND c.counterName = :counterName")
+                    .setParameter("flightId", FLIGHT_ID)
+                    .setParameter("counterName", FlightOpsCounters.PASSENGERS)
+                    .executeUpdate();
+            entityManager.createQuery("DELETE FROM FlightOpsCounter c WHERE c.counterName LIKE 'MEAL:%'")
+                    .executeUpdate();
+            // A counter left with fewer stripes than writers may pick
+            entityManager.createQuery("DELETE FROM FlightOpsCounter c WHERE c.counterName = :counterName " +
+                    "AND c.stripe > 0 AND c.counterValue = 0")
+                    .setParameter("counterName", FlightOpsCounters.SERVICE_PREFIX + "Meal")
+                    .executeUpdate();
+        });
+
+        assertEquals(2, reconciler.reconcile(FLIGHT_ID));
+        assertEquals(recount(), counters());
+        assertEquals(0, reconciler.reconcile(FLIGHT_ID));
+        stripeCounts().forEach((counterName, stripes) ->
+                assertEquals(FlightOpsCounters.STRIPES, stripes, counterName));
+    }
+
+    @Test
+    void write_ShouldCreateEveryStripeOfANewCounter() {
+        passengerService.createPassenger(passenger(2));
+
+        Map<String, Integer> stripes = stripeCounts();
+        assertEquals(recount().keySet(), stripes.keySet());
+        stripes.forEach((counterName, count) -> assertEquals(FlightOpsCounters.STRIPES, count, counterName));
+    }
+
+    // Counter values summed over their stripes, leaving out counters that are back to zero
+    private Map<String, Long> counters() {
+        Map<String, Long> counters = new TreeMap<>();
+        entityManager.createQuery("SELECT c.counterName, SUM(c.counterValue) FROM FlightOpsCounter c " +
+                        "WHERE c.flightId = :flightId GROUP BY c.counterName", Object[].class)
+                .setParameter("flightId", FLIGHT_ID)
+                .getResultList()
+                .forEach(row -> {
+                    long value = ((Number) row[1]).longValue();
+                    if (value != 0) {
+                        counters.put((String) row[0], value);
+                    }
+                });
+        return counters;
+    }
+
+    private Map<String, Integer> stripeCounts() {
+        Map<String, Integer> stripes = new TreeMap<>();
+        entityManager.createQuery("SELECT c.counterName, COUNT(c) FROM FlightOpsCounter c " +
+                        "WHERE c.flightId = :flightId GROUP BY c.counterName", Object[].class)
+                .setParameter("flightId", FLIGHT_ID)
+                .getResultList()
+                .forEach(row -> stripes.put((String) row[0], ((Number) row[1]).intValue()));
+        return stripes;
+    }
+
+    private Map<String, Long> recount() {
+        return FlightOpsCounters.totalsOf(passengerRepository.findByFlightIdOrderByName(FLIGHT_ID));
+    }
+
+    private static List<PassengerCreateDto> manifest(int size) {
+        List<PassengerCreateDto> manifest = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            manifest.add(passenger(i));
+        }
+        return manifest;
+    }
+
+    private static PassengerCreateDto passenger(int number) {
+        PassengerCreateDto createDto = new PassengerCreateDto(FLIGHT_ID, "Passenger " + number, "NYC", "LON");
+        createDto.setSeat(String.valueOf(number));
+        if (number % 2 == 0) {
+            createDto.setServices(List.of("Meal", "Shopping"));
+            createDto.setMealType("Veg");
+        }
+        if (number % 3 == 0) {
+            createDto.setExtraBaggage(10);
+        }
+        createDto.setInfant(number % 7 == 0);
+        return createDto;
+    }
+}
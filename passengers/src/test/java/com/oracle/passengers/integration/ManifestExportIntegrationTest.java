@@ -0,0 +1,117 @@
+package com.oracle.passengers.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.passengers.entity.Flight;
+import com.oracle.passengers.entity.Passenger;
+import com.oracle.passengers.repository.PassengerManifestRepository;
+import com.oracle.passengers.service.ManifestExportService;
+import com.oracle.passengers.service.ManifestExportService.Format;
+import com.oracle.passengers.service.ManifestExportService.Selection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exports passenger manifests from the test database and checks the streamed output
+ */
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "app.manifest.fetch-size=2"})
+@ActiveProfiles("test")
+@Import({ManifestExportService.class, PassengerManifestRepository.class})
+class ManifestExportIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 5, 1);
+
+    @Autowired
+    private ManifestExportService exportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(new Flight(10L, "Flight 10", DAY, "NYC-LON", "08:00 AM"));
+        entityManager.persist(new Flight(11L, "Flight 11", DAY, "NYC-PAR", "09:00 AM"));
+        entityManager.persist(new Flight(12L, "Flight 12", DAY.plusDays(1), "NYC-LON", "08:00 AM"));
+
+        Passenger quoted = passenger(10L, "Doe, \"Johnny\"", "12A");
+        quoted.setCheckedIn(true);
+        quoted.setServices(List.of("Meal", "Shopping"));
+        entityManager.persist(quoted);
+        entityManager.persist(passenger(10L, "Anna Smith", null));
+        entityManager.persist(passenger(11L, "Carl Paris", "3C"));
+        entityManager.persist(passenger(12L, "Dora Later", "1A"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportCsv_ForDate_ShouldStreamAllFlightsOfTheDay_WithoutJsonColumns() throws IOException {
+        String csv = export(Selection.of(null, DAY, null), Format.CSV, false);
+
+        String[] lines = csv.split("\r\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("passengerId,flightId,flightName,flightDate,route,"));
+        assertTrue(lines[0].endsWith(",mealName,extraBaggage"));
+        assertTrue(lines[1].contains(",10,Flight 10,2026-05-01,NYC-LON,08:00 AM,Anna Smith,,false,"));
+        assertTrue(lines[2].contains(",10,Flight 10,2026-05-01,NYC-LON,08:00 AM,\"Doe, \"\"Johnny\"\"\",12A,true,"));
+        assertTrue(lines[3].contains(",11,Flight 11,2026-05-01,NYC-PAR,"));
+        assertFalse(csv.contains("Meal"));
+    }
+
+    @Test
+    void exportNdjson_ForRoute_ShouldWriteOneObjectPerLine_WithJsonColumnsOnRequest() throws IOException {
+        String ndjson = export(Selection.of(null, null, " NYC-LON "), Format.NDJSON, true);
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(ndjson.endsWith("\n"));
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Anna Smith", first.get("name").asText());
+        assertTrue(first.get("seat").isNull());
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals("Doe, \"Johnny\"", second.get("name").asText());
+        assertTrue(second.get("checkedIn").asBoolean());
+        assertEquals("Shopping", second.get("services").get(1).asText());
+        assertEquals(0, second.get("shoppingItems").size());
+        assertEquals(12, objectMapper.readTree(lines[2]).get("flightId").asLong());
+
+        String withoutJson = export(Selection.of(12L, null, null), Format.NDJSON, false);
+        assertFalse(objectMapper.readTree(withoutJson).has("services"));
+    }
+
+    @Test
+    void export_ShouldRejectMissingSelectionAndUnknownFormat() {
+        assertThrows(IllegalArgumentException.class, () -> Selection.of(null, null, " "));
+        assertThrows(IllegalArgumentException.class, () -> Format.parse("xml"));
+        assertEquals(Format.NDJSON, Format.parse("NDJSON"));
+        assertEquals("manifest-flight-10-NYC-LON-2026-05-01.csv",
+                Selection.of(10L, DAY, "NYC-LON").fileName(Format.CSV));
+    }
+
+    private String export(Selection selection, Format format, boolean includeJson) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportManifest(selection, format, includeJson, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Passenger passenger(Long flightId, String name, String seat) {
+        Passenger passenger = new Passenger(flightId, name, "NYC", "LON");
+        passenger.setSeat(seat);
+        return passenger;
+    }
+}
@@ -0,0 +1,104 @@
+package com.oracle.passengers.integration;
+
+import com.oracle.passengers.dto.PassengerCreateDto;
+import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.service.PassengerService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares loading a 400-passenger manifest one createPassenger call at a time
+ * with a single createPassengers call. Statement counts come from Hibernate
+ * statistics and are asserted; timings on H2 are logged for comparison.
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.com.oracle.passengers=INFO", "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"})
+@ActiveProfiles("test")
+class PassengerBulkCreateBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassengerBulkCreateBenchmarkTest.class);
+    private static final int MANIFEST_SIZE = 400;
+
+    @Autowired
+    private PassengerService passengerService;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        passengerRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+    }
+
+    @Test
+    void bulkCreate_ShouldUseFarFewerStatementsThanSingleCreates() {
+        // Warm up both paths so class loading and JIT do not count against the first one
+        passengerService.createPassenger(manifest(9L, 1).get(0));
+        passengerService.createPassengers(manifest(8L, 10));
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (PassengerCreateDto createDto : manifest(1L, MANIFEST_SIZE)) {
+            passengerService.createPassenger(createDto);
+        }
+        long singleNanos = System.nanoTime() - start;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        start = System.nanoTime();
+        passengerService.createPassengers(manifest(2L, MANIFEST_SIZE));
+        long bulkNanos = System.nanoTime() - start;
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(MANIFEST_SIZE, passengerRepository.countByFlightId(1L));
+        assertEquals(MANIFEST_SIZE, passengerRepository.countByFlightId(2L));
+        assertTrue(bulkStatements * 10 < singleStatements,
+                "bulk create prepared " + bulkStatements + " statements, single creates " + singleStatements);
+
+        logger.info("{} passengers: single creates {} ms / {} statements ({} passengers/s), " +
+                        "bulk create {} ms / {} statements ({} passengers/s)",
+                MANIFEST_SIZE,
+                singleNanos / 1_000_000, singleStatements, perSecond(singleNanos),
+                bulkNanos / 1_000_000, bulkStatements, perSecond(bulkNanos));
+    }
+
+    private List<PassengerCreateDto> manifest(Long flightId, int size) {
+        List<PassengerCreateDto> manifest = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            PassengerCreateDto createDto = new PassengerCreateDto(flightId, "Passenger " + i, "NYC", "LON");
+            createDto.setSeat(String.valueOf(i));
+            createDto.setServices(List.of("Meal"));
+            manifest.add(createDto);
+        }
+        return manifest;
+    }
+
+    private static long perSecond(long nanos) {
+        return MANIFEST_SIZE * 1_000_000_000L / Math.max(nanos, 1);
+    }
+}
@@ -0,0 +1,125 @@
+package com.oracle.passengers.integration;
+
+import com.oracle.passengers.dto.PassengerCreateDto;
+import com.oracle.passengers.dto.PassengerUpdateDto;
+import com.oracle.passengers.entity.Passenger;
+import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.service.PassengerService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Interleaves passenger edits made here with the version-checked updates the service
+ * management service makes to the same rows, and checks that neither overwrites the other
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class PassengerConcurrentUpdateTest {
+
+    private static final Long FLIGHT_ID = 60L;
+
+    @Autowired
+    private PassengerService passengerService;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long passengerId;
+
+    @BeforeEach
+    void setUp() {
+        passengerId = passengerService.createPassenger(
+                new PassengerCreateDto(FLIGHT_ID, "John Doe", "NYC", "LON")).getPassengerId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> entityManager.createQuery("DELETE FROM FlightOpsCounter").executeUpdate());
+    }
+
+    @Test
+    void serviceUpdate_AfterAPassengerEdit_ShouldFindTheVersionChanged() {
+        long read = version();
+
+        PassengerUpdateDto edit = new PassengerUpdateDto();
+        edit.setPhoneNumber("555-000-1111");
+        passengerService.updatePassenger(passengerId, edit);
+        assertEquals(read + 1, version());
+
+        assertEquals(0, setMealType("Veg", read));
+        assertEquals(1, setMealType("Veg", read + 1));
+        assertEquals("555-000-1111", passengerRepository.findById(passengerId).orElseThrow().getPhoneNumber());
+    }
+
+    @Test
+    void passengerEdit_InterleavedWithAServiceUpdate_ShouldFailWithoutOverwritingIt() {
+        TransactionTemplate edit = new TransactionTemplate(transactionManager);
+        assertThrows(OptimisticLockingFailureException.class, () -> edit.executeWithoutResult(status -> {
+            // The edit reads the passenger, then the service update commits before the edit does
+            passengerRepository.findById(passengerId).orElseThrow();
+            TransactionTemplate serviceUpdate = new TransactionTemplate(transactionManager);
+            serviceUpdate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            serviceUpdate.executeWithoutResult(inner -> assertEquals(1, setMealType("Kosher", version())));
+
+            PassengerUpdateDto update = new PassengerUpdateDto();
+            update.setMealType("Veg");
+            passengerService.updatePassenger(passengerId, update);
+        }));
+
+        Passenger passenger = passengerRepository.findById(passengerId).orElseThrow();
+        assertEquals("Kosher", passenger.getMealType());
+        assertEquals(1L, passenger.getVersion());
+    }
+
+    @Test
+    void passengersVersion_AfterAnUpdateStampedBeforeTheNewestOne_ShouldChange() {
+        passengerService.createPassenger(new PassengerCreateDto(FLIGHT_ID, "Jane Doe", "NYC", "LON"));
+        String before = passengerService.getPassengersVersionByFlight(FLIGHT_ID).getETag();
+
+        // Committed late: stamped before the other passenger's newer update time
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.createQuery(
+                        "UPDATE Passenger p SET p.mealType = 'Veg', p.version = p.version + 1, " +
+                        "p.updatedAt = (SELECT MIN(o.updatedAt) FROM Passenger o) WHERE p.passengerId = :passengerId")
+                .setParameter("passengerId", passengerId)
+                .executeUpdate());
+
+        assertNotEquals(before, passengerService.getPassengersVersionByFlight(FLIGHT_ID).getETag());
+    }
+
+    private long version() {
+        return entityManager.createQuery("SELECT p.version FROM Passenger p WHERE p.passengerId = :passengerId",
+                        Long.class)
+                .setParameter("passengerId", passengerId)
+                .getSingleResult();
+    }
+
+    // The targeted update the service management service runs
+    private int setMealType(String mealType, long version) {
+        return new TransactionTemplate(transactionManager).execute(status -> entityManager.createQuery(
+                        "UPDATE Passenger p SET p.mealType = :mealType, p.version = p.version + 1 " +
+                        "WHERE p.passengerId = :passengerId AND p.version = :version")
+                .setParameter("mealType", mealType)
+                .setParameter("passengerId", passengerId)
+                .setParameter("version", version)
+                .executeUpdate());
+    }
+}
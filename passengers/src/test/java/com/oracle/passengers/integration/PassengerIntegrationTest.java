@@ -9,16 +9,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -131,6 +139,41 @@ class PassengerIntegrationTest {
                 .andExpect(jsonPath("$.error", is("Validation Failed")));
     }
     
+    @Test
+    void createPassengers_ShouldCreateAllOrNothing() throws Exception {
+        PassengerCreateDto first = new PassengerCreateDto(2L, "Jane Smith", "LON", "NYC");
+        first.setSeat("14B");
+        PassengerCreateDto second = new PassengerCreateDto(2L, "Jim Smith", "LON", "NYC");
+        second.setSeat("14C");
+        
+        mockMvc.perform(post("/passengers/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(first, second))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].name", is("Jim Smith")))
+                .andExpect(jsonPath("$[1].passengerId", notNullValue()));
+        
+        PassengerCreateDto taken = new PassengerCreateDto(2L, "Late Smith", "LON", "NYC");
+        taken.setSeat("14C");
+        PassengerCreateDto free = new PassengerCreateDto(2L, "Free Smith", "LON", "NYC");
+        free.setSeat("14D");
+        
+        mockMvc.perform(post("/passengers/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(free, taken))))
+                .andExpect(status().isConflict());
+        
+        mockMvc.perform(post("/passengers/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(free, new PassengerCreateDto()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("[1].name")));
+        
+        mockMvc.perform(get("/passengers/flight/2"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+    
     @Test
     void updatePassenger_WithValidData_ShouldUpdatePassenger() throws Exception {
         PassengerUpdateDto updateDto = new PassengerUpdateDto();
@@ -198,6 +241,109 @@ class PassengerIntegrationTest {
                 .andExpect(jsonPath("$.error", is("Conflict")));
     }
     
+    @Test
+    void getPassengersByFlight_ShouldCombineFilters_AndPageWithFacets() throws Exception {
+        // testPassenger: seat 12A, Veg meal, Meal service, complete info, not checked in
+        passengerRepository.save(flightPassenger("Anna Wheel", "14C", true, false, List.of("Meal", "Shopping")));
+        passengerRepository.save(flightPassenger("Ben Infant", null, false, true, List.of("Shopping")));
+        Passenger checkedIn = flightPassenger("Cara Ready", "2B", false, false, List.of());
+        checkedIn.setCheckedIn(true);
+        passengerRepository.save(checkedIn);
+        
+        mockMvc.perform(get("/passengers/flight/1")
+                        .param("checkedIn", "false")
+                        .param("specialNeeds", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Anna Wheel", "Ben Infant")));
+        
+        mockMvc.perform(get("/passengers/flight/1")
+                        .param("services", "shopping", "MEAL")
+                        .param("hasSeat", "true"))
+                .andExpect(jsonPath("$[*].name", contains("Anna Wheel")));
+        
+        mockMvc.perform(get("/passengers/flight/1")
+                        .param("missingInfo", "false")
+                        .param("mealType", "veg"))
+                .andExpect(jsonPath("$[*].name", contains("John Doe")));
+        
+        mockMvc.perform(get("/passengers/flight/1/filter")
+                        .param("missingInfo", "true")
+                        .param("sort", "seat,desc")
+                        .param("size", "2")
+                        .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].name", contains("Cara Ready", "Anna Wheel")))
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.totalPages", is(2)))
+                .andExpect(jsonPath("$.facets.total", is(4)))
+                .andExpect(jsonPath("$.facets.checkedIn", is(1)))
+                .andExpect(jsonPath("$.facets.notCheckedIn", is(3)))
+                .andExpect(jsonPath("$.facets.specialNeeds", is(2)))
+                .andExpect(jsonPath("$.facets.missingInfo", is(3)));
+        
+        mockMvc.perform(get("/passengers/flight/1/filter").param("hasSeat", "false"))
+                .andExpect(jsonPath("$.content[*].name", contains("Ben Infant")))
+                .andExpect(jsonPath("$.facets").doesNotExist());
+        
+        mockMvc.perform(get("/passengers/flight/1/filter").param("sort", "address"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    private Passenger flightPassenger(String name, String seat, boolean wheelchair, boolean infant, List<String> services) {
+        Passenger passenger = new Passenger();
+        passenger.setFlightId(1L);
+        passenger.setName(name);
+        passenger.setOrigin("NYC");
+        passenger.setDestination("LON");
+        passenger.setSeat(seat);
+        passenger.setWheelchair(wheelchair);
+        passenger.setInfant(infant);
+        passenger.setServices(services);
+        return passenger;
+    }
+    
+    @Test
+    void checkInPassengers_ShouldHonourMode() throws Exception {
+        Passenger companion = new Passenger();
+        companion.setFlightId(1L);
+        companion.setName("Jane Doe");
+        companion.setOrigin("NYC");
+        companion.setDestination("LON");
+        companion.setSeat("12B");
+        companion = passengerRepository.save(companion);
+        
+        BatchCheckInDto batch = new BatchCheckInDto(BatchCheckInDto.Mode.ALL_OR_NOTHING, List.of(
+                new BatchCheckInItemDto(testPassenger.getPassengerId(), "14A"),
+                new BatchCheckInItemDto(companion.getPassengerId(), "12A")));
+        
+        mockMvc.perform(post("/passengers/checkin/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.applied", is(false)))
+                .andExpect(jsonPath("$.outcomes[0].status", is("NOT_APPLIED")))
+                .andExpect(jsonPath("$.outcomes[1].status", is("SEAT_NOT_AVAILABLE")));
+        
+        mockMvc.perform(get("/passengers/flight/1/checkedin"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        
+        batch.setMode(BatchCheckInDto.Mode.BEST_EFFORT);
+        mockMvc.perform(post("/passengers/checkin/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(true)))
+                .andExpect(jsonPath("$.checkedIn", is(1)))
+                .andExpect(jsonPath("$.outcomes[0].passenger.seat", is("14A")))
+                .andExpect(jsonPath("$.outcomes[0].passenger.checkedIn", is(true)))
+                .andExpect(jsonPath("$.outcomes[1].status", is("SEAT_NOT_AVAILABLE")));
+        
+        mockMvc.perform(post("/passengers/checkin/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"passengers\":[{\"seat\":\"1A\"}]}"))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     void assignSeat_WithValidSeat_ShouldAssignSeat() throws Exception {
         SeatAssignmentDto seatDto = new SeatAssignmentDto(testPassenger.getPassengerId(), "15C");
@@ -232,6 +378,93 @@ class PassengerIntegrationTest {
                 .andExpect(jsonPath("$.error", is("Conflict")));
     }
     
+    @Test
+    void getPassengerChanges_ShouldReportUpdatesAndDeletes() throws Exception {
+        Passenger other = new Passenger();
+        other.setFlightId(1L);
+        other.setName("Jane Doe");
+        other.setOrigin("NYC");
+        other.setDestination("LON");
+        // Flushed so its update time is set before the feed computes its settle window
+        other = passengerRepository.saveAndFlush(other);
+        
+        mockMvc.perform(delete("/passengers/" + testPassenger.getPassengerId()))
+                .andExpect(status().isNoContent());
+        
+        mockMvc.perform(get("/passengers/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[?(@.type == 'UPSERT')].passengerId")
+                        .value(contains(other.getPassengerId().intValue())))
+                .andExpect(jsonPath("$.changes[?(@.type == 'DELETE')].passengerId")
+                        .value(contains(testPassenger.getPassengerId().intValue())))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextSince").isNotEmpty());
+        
+        mockMvc.perform(get("/passengers/changes").param("since", "not-a-time"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void patchPassenger_ShouldApplyMergePatch() throws Exception {
+        mockMvc.perform(patch("/passengers/" + testPassenger.getPassengerId())
+                .contentType("application/merge-patch+json")
+                .content("{\"phoneNumber\":\"555-000-1111\",\"address\":null,\"services\":[\"Meal\",\"Shopping\"],\"wheelchair\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phoneNumber", is("555-000-1111")))
+                .andExpect(jsonPath("$.address").doesNotExist())
+                .andExpect(jsonPath("$.services", contains("Meal", "Shopping")))
+                .andExpect(jsonPath("$.wheelchair", is(true)))
+                .andExpect(jsonPath("$.name", is("John Doe")))
+                .andExpect(jsonPath("$.mealName", is("Pasta")));
+        
+        Passenger patched = passengerRepository.findById(testPassenger.getPassengerId()).orElseThrow();
+        assertNull(patched.getAddress());
+        assertEquals("P123456", patched.getPassportNumber());
+        
+        mockMvc.perform(patch("/passengers/" + testPassenger.getPassengerId())
+                .contentType("application/merge-patch+json")
+                .content("{\"name\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/passengers/" + testPassenger.getPassengerId())
+                .contentType("application/merge-patch+json")
+                .content("{\"checkedIn\":true}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/passengers/" + testPassenger.getPassengerId())
+                .contentType("application/merge-patch+json")
+                .content("{\"shoppingItems\":[\"Perfume\"]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/passengers/999")
+                .contentType("application/merge-patch+json")
+                .content("{\"phoneNumber\":\"1\"}"))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void exportManifest_ShouldStreamGzippedCsv_AndRejectMissingSelection() throws Exception {
+        MvcResult started = mockMvc.perform(get("/passengers/manifest")
+                .param("flightId", "999")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("manifest-flight-999.csv")))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn();
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(csv, startsWith("passengerId,flightId,flightName,"));
+        }
+
+        mockMvc.perform(get("/passengers/manifest").param("format", "ndjson"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/passengers/manifest").param("date", "01/05/2026"))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     void searchPassengers_ShouldReturnMatchingPassengers() throws Exception {
         mockMvc.perform(get("/passengers/search")
@@ -0,0 +1,123 @@
+package com.oracle.passengers.integration;
+
+import com.oracle.passengers.dto.PassengerSearchResultDto;
+import com.oracle.passengers.entity.Passenger;
+import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.service.PassengerSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the in-memory search index with the LIKE name search on H2.
+ * For a single substring without typo tolerance both must find the same
+ * passengers; timings are logged for comparison.
+ * <p>
+ * Runs on 20k passengers by default so the regular build stays fast. Pass
+ * {@code -Dbenchmark.passengers=1000000} to measure at production scale.
+ */
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.jdbc.batch_size=500"})
+@ActiveProfiles("test")
+class PassengerSearchBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PassengerSearchBenchmarkTest.class);
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+            "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"
+    };
+    private static final String[] SYLLABLES = {
+            "an", "ber", "cor", "del", "fin", "gar", "hol", "ket", "lin", "mor", "nel", "ost", "quin", "ros", "vek"
+    };
+    private static final int PASSENGERS = Integer.getInteger("benchmark.passengers", 20_000);
+    private static final int QUERIES = 300;
+    private static final int BATCH_SIZE = 5_000;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void indexSearch_ShouldMatchSqlSearch() {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>(PASSENGERS);
+        List<Passenger> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < PASSENGERS; i++) {
+            Passenger passenger = new Passenger();
+            passenger.setFlightId(1L + random.nextInt(50));
+            passenger.setName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + lastName(random));
+            passenger.setOrigin("NYC");
+            passenger.setDestination("LON");
+            names.add(passenger.getName());
+            batch.add(passenger);
+            if (batch.size() == BATCH_SIZE || i == PASSENGERS - 1) {
+                passengerRepository.saveAll(batch);
+                entityManager.flush();
+                entityManager.clear();
+                batch.clear();
+            }
+        }
+
+        PassengerSearchIndex index = new PassengerSearchIndex(passengerRepository, transactionManager);
+        index.rebuild();
+
+        long sqlNanos = 0;
+        long indexNanos = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String[] words = names.get(random.nextInt(PASSENGERS)).split(" ");
+            String word = words[random.nextInt(words.length)].toLowerCase(Locale.ROOT);
+            int length = Math.min(word.length(), 3 + random.nextInt(3));
+            int start = random.nextInt(word.length() - length + 1);
+            String query = word.substring(start, start + length);
+
+            long begin = System.nanoTime();
+            Set<Long> sqlIds = passengerRepository.findByNameContainingIgnoreCase(query).stream()
+                    .map(Passenger::getPassengerId)
+                    .collect(Collectors.toSet());
+            sqlNanos += System.nanoTime() - begin;
+            entityManager.clear();
+
+            begin = System.nanoTime();
+            PassengerSearchResultDto result = index.search(query, null, false, 0, 20);
+            indexNanos += System.nanoTime() - begin;
+
+            if (result.isTruncated()) {
+                // a very common substring: only the first candidates are ranked
+                assertTrue(result.getTotal() <= sqlIds.size(), query);
+            } else {
+                assertEquals(sqlIds.size(), result.getTotal(), query);
+            }
+            result.getHits().forEach(hit -> assertTrue(sqlIds.contains(hit.getPassengerId()), query));
+        }
+
+        logger.info("Passenger search over {} passengers, {} queries: SQL {} us/query, index {} us/query",
+                PASSENGERS, QUERIES, sqlNanos / QUERIES / 1_000, indexNanos / QUERIES / 1_000);
+    }
+
+    private static String lastName(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
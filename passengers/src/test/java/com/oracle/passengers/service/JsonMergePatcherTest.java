@@ -0,0 +1,82 @@
+package com.oracle.passengers.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.passengers.dto.PassengerUpdateDto;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonMergePatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ValidatorFactory validatorFactory;
+    private JsonMergePatcher patcher;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        patcher = new JsonMergePatcher(validatorFactory.getValidator());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void merge_ShouldFollowRfc7396Examples() throws Exception {
+        assertMerged("{\"a\":\"c\"}", "{\"a\":\"b\"}", "{\"a\":\"c\"}");
+        assertMerged("{\"a\":\"b\",\"b\":\"c\"}", "{\"a\":\"b\"}", "{\"b\":\"c\"}");
+        assertMerged("{}", "{\"a\":\"b\"}", "{\"a\":null}");
+        assertMerged("{\"a\":[\"b\"]}", "{\"a\":[{\"b\":\"c\"}]}", "{\"a\":[\"b\"]}");
+        assertMerged("{\"a\":{\"b\":\"d\"}}", "{\"a\":{\"b\":\"c\"}}", "{\"a\":{\"b\":\"d\",\"c\":null}}");
+        assertMerged("[\"c\"]", "[\"a\",\"b\"]", "[\"c\"]");
+        assertMerged("{\"a\":{\"bb\":{}}}", "{}", "{\"a\":{\"bb\":{\"ccc\":null}}}");
+    }
+
+    @Test
+    void apply_ShouldReportOnlyFieldsWhoseValueChanged() throws Exception {
+        PassengerUpdateDto current = new PassengerUpdateDto();
+        current.setName("John Doe");
+        current.setPhoneNumber("123");
+        current.setServices(List.of("Meal"));
+        current.setDateOfBirth(LocalDate.of(1990, 1, 1));
+
+        JsonMergePatcher.Result<PassengerUpdateDto> result = patcher.apply(current, objectMapper.readTree(
+                "{\"phoneNumber\":\"456\",\"services\":[\"Meal\"],\"seat\":null,\"dateOfBirth\":\"1991-02-03\"}"),
+                PassengerUpdateDto.class);
+
+        assertEquals(Set.of("phoneNumber", "dateOfBirth"), result.getChangedFields());
+        assertEquals("456", result.getValue().getPhoneNumber());
+        assertEquals(LocalDate.of(1991, 2, 3), result.getValue().getDateOfBirth());
+        assertEquals("John Doe", result.getValue().getName());
+    }
+
+    @Test
+    void apply_ShouldRejectInvalidPatches() {
+        PassengerUpdateDto current = new PassengerUpdateDto();
+        assertThrows(IllegalArgumentException.class, () ->
+                patcher.apply(current, objectMapper.readTree("[]"), PassengerUpdateDto.class));
+        assertThrows(IllegalArgumentException.class, () ->
+                patcher.apply(current, objectMapper.readTree("{\"checkedIn\":true}"), PassengerUpdateDto.class));
+        assertThrows(IllegalArgumentException.class, () ->
+                patcher.apply(current, objectMapper.readTree("{\"extraBaggage\":\"heavy\"}"), PassengerUpdateDto.class));
+        IllegalArgumentException tooLong = assertThrows(IllegalArgumentException.class, () ->
+                patcher.apply(current, objectMapper.readTree("{\"seat\":\"12345678901\"}"), PassengerUpdateDto.class));
+        assertTrue(tooLong.getMessage().startsWith("seat: "));
+    }
+
+    private void assertMerged(String expected, String target, String patch) throws Exception {
+        JsonNode merged = JsonMergePatcher.merge(objectMapper.readTree(target), objectMapper.readTree(patch));
+        assertEquals(objectMapper.readTree(expected), merged);
+    }
+}
@@ -0,0 +1,135 @@
+package com.oracle.passengers.service;
+
+import com.oracle.passengers.dto.PassengerSearchResultDto;
+import com.oracle.passengers.entity.Passenger;
+import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.repository.PassengerSearchView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PassengerSearchIndexTest {
+
+    @Mock
+    private PassengerRepository passengerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PassengerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(passengerRepository.streamAllSearchViews()).thenReturn(Stream.of(
+                view(1L, 10L, "John Doe", "P123456", "123-456-7890"),
+                view(2L, 10L, "Johanna Smith", "X998877", null)));
+        index = new PassengerSearchIndex(passengerRepository, transactionManager);
+        index.rebuild();
+
+        index.onPassengerSaved(passenger(3L, 20L, "Jon Doe", "P555000", "555-123-4567"));
+        index.onPassengerSaved(passenger(4L, 20L, "José Álvarez", null, null));
+        index.onPassengerSaved(passenger(5L, 20L, "Mary Johnson", null, null));
+    }
+
+    @Test
+    void rebuild_ShouldMarkIndexReady() {
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void search_ShouldRankExactAbovePrefixAboveSubstring() {
+        assertEquals(List.of(1L, 5L), ids(index.search("john", null, false, 0, 20)));
+        assertEquals(List.of(2L), ids(index.search("hann", null, false, 0, 20)));
+        PassengerSearchResultDto ranked = index.search("jon", null, false, 0, 20);
+        assertEquals(List.of(3L), ids(ranked));
+        assertTrue(ranked.getHits().get(0).getScore() > index.search("johns", null, false, 0, 20).getHits().get(0).getScore());
+    }
+
+    @Test
+    void search_ShouldRequireEveryTerm_AndMatchPassportAndPhone() {
+        assertEquals(List.of(1L, 3L), ids(index.search("doe", null, false, 0, 20)));
+        assertEquals(List.of(1L), ids(index.search("John DOE", null, false, 0, 20)));
+        assertEquals(List.of(1L), ids(index.search("p1234", null, false, 0, 20)));
+        assertEquals(List.of(3L), ids(index.search("5551234567", null, false, 0, 20)));
+        assertEquals(List.of(1L, 3L), ids(index.search("123-456", null, false, 0, 20)));
+    }
+
+    @Test
+    void search_ShouldFoldAccents_AndTolerateTypos() {
+        assertEquals(List.of(4L), ids(index.search("jose alvarez", null, false, 0, 20)));
+        assertEquals(List.of(), ids(index.search("smtih", null, false, 0, 20)));
+        assertEquals(List.of(2L), ids(index.search("smtih", null, true, 0, 20)));
+        assertEquals(List.of(1L, 3L), ids(index.search("jhon doe", null, true, 0, 20)));
+        assertEquals(List.of(3L), ids(index.search("jhon doe", 20L, true, 0, 20)));
+    }
+
+    @Test
+    void search_ShouldFilterByFlight_AndPaginate() {
+        assertEquals(List.of(3L), ids(index.search("doe", 20L, false, 0, 20)));
+        PassengerSearchResultDto secondPage = index.search("jo", null, false, 1, 2);
+        assertEquals(5, secondPage.getTotal());
+        assertEquals(List.of(3L, 4L), ids(secondPage));
+        assertThrows(IllegalArgumentException.class, () -> index.search(" - ", null, true, 0, 20));
+    }
+
+    @Test
+    void suggest_ShouldMatchPrefixesOnly() {
+        assertEquals(List.of("Johanna Smith", "John Doe", "Mary Johnson"), index.suggest("joh", null, 10));
+        assertEquals(List.of("Johanna Smith"), index.suggest("joh", null, 1));
+        assertEquals(List.of("Jon Doe"), index.suggest("jon d", 20L, 10));
+        assertEquals(List.of(), index.suggest("ohn", null, 10));
+    }
+
+    @Test
+    void onPassengerSavedAndDeleted_ShouldUpdateIndex() {
+        index.onPassengerSaved(passenger(1L, 10L, "Jonathan Doe", "P123456", null));
+        index.onPassengerDeleted(3L);
+
+        assertEquals(List.of(1L), ids(index.search("jonathan", null, false, 0, 20)));
+        assertEquals(List.of(5L), ids(index.search("john", null, false, 0, 20)));
+        assertEquals(List.of(), ids(index.search("5551234567", null, false, 0, 20)));
+        assertEquals(List.of(1L), ids(index.search("doe", null, false, 0, 20)));
+    }
+
+    @Test
+    void editDistance_ShouldCountTranspositionsAsOneEdit() {
+        assertEquals(1, PassengerSearchIndex.editDistance("smith", "smtih", 2));
+        assertEquals(2, PassengerSearchIndex.editDistance("johnson", "jonsen", 2));
+        assertEquals(2, PassengerSearchIndex.editDistance("abc", "xyzabc", 1));
+    }
+
+    private static List<Long> ids(PassengerSearchResultDto result) {
+        return result.getHits().stream().map(PassengerSearchResultDto.Hit::getPassengerId).collect(Collectors.toList());
+    }
+
+    private static Passenger passenger(Long passengerId, Long flightId, String name, String passport, String phone) {
+        Passenger passenger = new Passenger();
+        passenger.setPassengerId(passengerId);
+        passenger.setFlightId(flightId);
+        passenger.setName(name);
+        passenger.setPassportNumber(passport);
+        passenger.setPhoneNumber(phone);
+        return passenger;
+    }
+
+    private static PassengerSearchView view(Long passengerId, Long flightId, String name, String passport, String phone) {
+        return new PassengerSearchView() {
+            public Long getPassengerId() { return passengerId; }
+            public Long getFlightId() { return flightId; }
+            public String getName() { return name; }
+            public String getPassportNumber() { return passport; }
+            public String getPhoneNumber() { return phone; }
+        };
+    }
+}
@@ -2,10 +2,15 @@ package com.oracle.passengers.service;
 
 import com.oracle.passengers.dto.*;
 import com.oracle.passengers.entity.Passenger;
+import com.oracle.passengers.entity.SeatHold;
 import com.oracle.passengers.exception.PassengerAlreadyCheckedInException;
 import com.oracle.passengers.exception.PassengerNotFoundException;
 import com.oracle.passengers.exception.SeatNotAvailableException;
 import com.oracle.passengers.repository.PassengerRepository;
+import com.oracle.passengers.repository.PassengerTombstoneRepository;
+import com.oracle.passengers.repository.SeatHoldRepository;
+import com.oracle.passengers.repository.ResourceVersion;
+import com.oracle.passengers.repository.TakenSeatView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +34,18 @@ class PassengerServiceTest {
     @Mock
     private PassengerRepository passengerRepository;
     
+    @Mock
+    private PassengerTombstoneRepository tombstoneRepository;
+    
+    @Mock
+    private PassengerSearchIndex searchIndex;
+    
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+    
+    @Mock
+    private FlightOpsCounters opsCounters;
+    
     @InjectMocks
     private PassengerService passengerService;
     
@@ -126,6 +143,7 @@ class PassengerServiceTest {
         assertEquals("12A", result.getSeat());
         verify(passengerRepository).isSeatAvailable(1L, "12A");
         verify(passengerRepository).save(any(Passenger.class));
+        verify(searchIndex).onPassengerSaved(testPassenger);
     }
     
     @Test
@@ -139,6 +157,53 @@ class PassengerServiceTest {
         verify(passengerRepository, never()).save(any(Passenger.class));
     }
     
+    @Test
+    void createPassengers_ShouldCheckAllSeatsWithOneQuery_AndSaveInOneCall() {
+        PassengerCreateDto second = new PassengerCreateDto(1L, "Jane Doe", "NYC", "LON");
+        second.setSeat("2");
+        PassengerCreateDto noSeat = new PassengerCreateDto(2L, "Jim Doe", "NYC", "LON");
+        when(passengerRepository.findTakenSeats(any(), any())).thenReturn(List.of());
+        when(passengerRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        List<PassengerDto> result = passengerService.createPassengers(List.of(testCreateDto, second, noSeat));
+        
+        assertEquals(3, result.size());
+        assertEquals("Jane Doe", result.get(1).getName());
+        verify(passengerRepository).findTakenSeats(argThat(ids -> ids.size() == 1 && ids.contains(1L)),
+                argThat(seats -> seats.containsAll(List.of("1", "2"))));
+        verify(passengerRepository, never()).isSeatAvailable(any(), any());
+        verify(passengerRepository).saveAll(anyList());
+    }
+    
+    @Test
+    void createPassengers_WithTakenSeat_ShouldCreateNothing() {
+        PassengerCreateDto otherFlight = new PassengerCreateDto(2L, "Jane Doe", "NYC", "LON");
+        otherFlight.setSeat("1");
+        // Seat 1 is taken on flight 2 but requested on flights 1 and 2; seat 2 on flight 1 is irrelevant
+        TakenSeatView taken = mock(TakenSeatView.class);
+        when(taken.getFlightId()).thenReturn(2L);
+        when(taken.getSeat()).thenReturn("1");
+        when(passengerRepository.findTakenSeats(any(), any())).thenReturn(List.of(taken));
+        
+        assertThrows(SeatNotAvailableException.class,
+                () -> passengerService.createPassengers(List.of(testCreateDto, otherFlight)));
+        
+        verify(passengerRepository, never()).saveAll(anyList());
+    }
+    
+    @Test
+    void createPassengers_WithSameSeatTwice_ShouldCreateNothing() {
+        PassengerCreateDto sameSeat = new PassengerCreateDto(1L, "Jane Doe", "NYC", "LON");
+        sameSeat.setSeat("1");
+        
+        assertThrows(SeatNotAvailableException.class,
+                () -> passengerService.createPassengers(List.of(testCreateDto, sameSeat)));
+        assertThrows(IllegalArgumentException.class, () -> passengerService.createPassengers(List.of()));
+        
+        verify(passengerRepository, never()).findTakenSeats(any(), any());
+        verify(passengerRepository, never()).saveAll(anyList());
+    }
+    
     @Test
     void updatePassenger_WhenExists_ShouldUpdatePassenger() {
         when(passengerRepository.findById(1L)).thenReturn(Optional.of(testPassenger));
@@ -151,26 +216,44 @@ class PassengerServiceTest {
         verify(passengerRepository).save(any(Passenger.class));
     }
     
+    @Test
+    void createAndUpdate_WithShoppingItems_ShouldBeRejected_UnlessUnchanged() {
+        testCreateDto.setShoppingItems(List.of("Perfume"));
+        assertThrows(IllegalArgumentException.class, () -> passengerService.createPassengers(List.of(testCreateDto)));
+        
+        testPassenger.setShoppingItems(List.of("Magazine"));
+        when(passengerRepository.findById(1L)).thenReturn(Optional.of(testPassenger));
+        testUpdateDto.setShoppingItems(List.of("Magazine", "Perfume"));
+        assertThrows(IllegalArgumentException.class, () -> passengerService.updatePassenger(1L, testUpdateDto));
+        verify(passengerRepository, never()).save(any(Passenger.class));
+        verify(passengerRepository, never()).saveAll(any());
+        
+        when(passengerRepository.save(any(Passenger.class))).thenReturn(testPassenger);
+        testUpdateDto.setShoppingItems(List.of("Magazine"));
+        assertNotNull(passengerService.updatePassenger(1L, testUpdateDto));
+    }
+    
     @Test
     void deletePassenger_WhenExists_ShouldDeletePassenger() {
-        when(passengerRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(passengerRepository).deleteById(1L);
+        when(passengerRepository.findById(1L)).thenReturn(Optional.of(testPassenger));
         
         assertDoesNotThrow(() -> passengerService.deletePassenger(1L));
         
-        verify(passengerRepository).existsById(1L);
-        verify(passengerRepository).deleteById(1L);
+        verify(passengerRepository).delete(testPassenger);
+        verify(opsCounters).record(argThat(before -> before.getCounters().get(FlightOpsCounters.PASSENGERS) == 1L), isNull());
+        verify(tombstoneRepository).save(argThat(t -> t.getPassengerId().equals(1L)));
+        verify(searchIndex).onPassengerDeleted(1L);
     }
     
     @Test
     void deletePassenger_WhenNotExists_ShouldThrowException() {
-        when(passengerRepository.existsById(999L)).thenReturn(false);
+        when(passengerRepository.findById(999L)).thenReturn(Optional.empty());
         
         assertThrows(PassengerNotFoundException.class, 
                 () -> passengerService.deletePassenger(999L));
         
-        verify(passengerRepository).existsById(999L);
-        verify(passengerRepository, never()).deleteById(999L);
+        verify(passengerRepository, never()).delete(any(Passenger.class));
+        verifyNoInteractions(opsCounters);
     }
     
     @Test
@@ -184,6 +267,9 @@ class PassengerServiceTest {
         assertNotNull(result);
         verify(passengerRepository).findById(1L);
         verify(passengerRepository).save(any(Passenger.class));
+        verify(opsCounters).record(
+                argThat(before -> !before.getCounters().containsKey(FlightOpsCounters.CHECKED_IN)),
+                argThat(after -> after.getCounters().get(FlightOpsCounters.CHECKED_IN) == 1L));
     }
     
     @Test
@@ -198,6 +284,120 @@ class PassengerServiceTest {
         verify(passengerRepository, never()).save(any(Passenger.class));
     }
     
+    @Test
+    void getPassengerPage_ShouldValidatePagingAndSort_BeforeQuerying() {
+        PassengerFilterDto filter = new PassengerFilterDto();
+        
+        assertThrows(IllegalArgumentException.class, () -> passengerService.getPassengerPage(1L, filter, -1, 50, "name", false));
+        assertThrows(IllegalArgumentException.class, () -> passengerService.getPassengerPage(1L, filter, 0, 201, "name", false));
+        assertThrows(IllegalArgumentException.class, () -> passengerService.getPassengerPage(1L, filter, 0, 50, "address", false));
+        assertThrows(IllegalArgumentException.class, () -> passengerService.getPassengerPage(1L, filter, 0, 50, "seat,sideways", false));
+        
+        verifyNoInteractions(passengerRepository);
+    }
+    
+    @Test
+    void quickSearch_ShouldUseIndexOnceReady_AndValidatePaging() {
+        PassengerSearchResultDto indexed = new PassengerSearchResultDto(0, 20, 0, false, List.of());
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("john", 1L, true, 0, 20)).thenReturn(indexed);
+        
+        assertSame(indexed, passengerService.quickSearch("john", 1L, true, 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> passengerService.quickSearch("john", null, true, -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> passengerService.quickSearch("john", null, true, 0, 101));
+        verify(passengerRepository, never()).findByNameContainingIgnoreCase(any());
+    }
+    
+    @Test
+    void quickSearch_BeforeIndexIsReady_ShouldFallBackToNameSearch() {
+        Passenger otherFlight = passengerOnFlight(2L, "2");
+        otherFlight.setFlightId(2L);
+        otherFlight.setName("John Smith");
+        when(passengerRepository.findByNameContainingIgnoreCase("John")).thenReturn(List.of(testPassenger, otherFlight));
+        
+        PassengerSearchResultDto result = passengerService.quickSearch(" John ", 1L, true, 0, 20);
+        
+        assertEquals(1, result.getTotal());
+        assertEquals(1L, result.getHits().get(0).getPassengerId());
+        assertEquals(List.of("John Doe", "John Smith"), passengerService.suggestPassengerNames("John", null, 10));
+        verify(searchIndex, never()).search(any(), any(), anyBoolean(), anyInt(), anyInt());
+    }
+    
+    @Test
+    void checkInPassengers_BestEffort_ShouldCheckInValidPassengers_AndReportTheRest() {
+        Passenger second = passengerOnFlight(2L, "2");
+        Passenger third = passengerOnFlight(3L, "3");
+        Passenger checkedIn = passengerOnFlight(4L, "4");
+        checkedIn.setCheckedIn(true);
+        when(passengerRepository.findAllById(anyCollection())).thenReturn(List.of(testPassenger, second, third, checkedIn));
+        TakenSeatView taken = mock(TakenSeatView.class);
+        when(taken.getFlightId()).thenReturn(1L);
+        when(taken.getSeat()).thenReturn("9A");
+        when(passengerRepository.findTakenSeats(any(), any())).thenReturn(List.of(taken));
+        
+        BatchCheckInItemDto wheelchair = new BatchCheckInItemDto(1L, null);
+        wheelchair.setWheelchair(true);
+        BatchCheckInResultDto result = passengerService.checkInPassengers(new BatchCheckInDto(
+                BatchCheckInDto.Mode.BEST_EFFORT, List.of(
+                        wheelchair,
+                        new BatchCheckInItemDto(2L, "5C"),
+                        new BatchCheckInItemDto(3L, "5C"),
+                        new BatchCheckInItemDto(4L, null),
+                        new BatchCheckInItemDto(99L, null),
+                        new BatchCheckInItemDto(1L, null),
+                        new BatchCheckInItemDto(3L, "9A"))));
+        
+        assertTrue(result.isApplied());
+        assertEquals(2, result.getCheckedIn());
+        assertEquals(5, result.getFailed());
+        assertEquals(List.of(BatchCheckInResultDto.Status.CHECKED_IN, BatchCheckInResultDto.Status.CHECKED_IN,
+                        BatchCheckInResultDto.Status.SEAT_NOT_AVAILABLE, BatchCheckInResultDto.Status.ALREADY_CHECKED_IN,
+                        BatchCheckInResultDto.Status.NOT_FOUND, BatchCheckInResultDto.Status.DUPLICATE,
+                        BatchCheckInResultDto.Status.DUPLICATE),
+                result.getOutcomes().stream().map(BatchCheckInResultDto.Outcome::getStatus).toList());
+        assertTrue(result.getOutcomes().get(0).getPassenger().isWheelchair());
+        assertEquals("5C", result.getOutcomes().get(1).getPassenger().getSeat());
+        assertFalse(third.isCheckedIn());
+        verify(passengerRepository).findAllById(anyCollection());
+        verify(passengerRepository).findTakenSeats(argThat(ids -> ids.size() == 1 && ids.contains(1L)),
+                argThat(seats -> seats.size() == 2 && seats.containsAll(List.of("5C", "9A"))));
+        verify(passengerRepository).saveAllAndFlush(argThat(passengers -> ((List<Passenger>) passengers).size() == 2));
+        verify(passengerRepository, never()).findById(any());
+        verify(passengerRepository, never()).isSeatAvailable(any(), any());
+    }
+    
+    @Test
+    void checkInPassengers_AllOrNothing_WithOneFailure_ShouldChangeNothing() {
+        Passenger second = passengerOnFlight(2L, "2");
+        when(passengerRepository.findAllById(anyCollection())).thenReturn(List.of(testPassenger, second));
+        when(passengerRepository.findTakenSeats(any(), any())).thenReturn(List.of());
+        
+        BatchCheckInResultDto result = passengerService.checkInPassengers(new BatchCheckInDto(
+                BatchCheckInDto.Mode.ALL_OR_NOTHING, List.of(
+                        new BatchCheckInItemDto(1L, "7A"),
+                        new BatchCheckInItemDto(2L, "7A"))));
+        
+        assertFalse(result.isApplied());
+        assertEquals(0, result.getCheckedIn());
+        assertEquals(1, result.getFailed());
+        assertEquals(BatchCheckInResultDto.Status.NOT_APPLIED, result.getOutcomes().get(0).getStatus());
+        assertEquals(BatchCheckInResultDto.Status.SEAT_NOT_AVAILABLE, result.getOutcomes().get(1).getStatus());
+        assertFalse(testPassenger.isCheckedIn());
+        assertEquals("1", testPassenger.getSeat());
+        verify(passengerRepository, never()).saveAllAndFlush(any());
+        assertThrows(IllegalArgumentException.class, () -> passengerService.checkInPassengers(
+                new BatchCheckInDto(BatchCheckInDto.Mode.BEST_EFFORT, List.of())));
+    }
+    
+    private Passenger passengerOnFlight(Long passengerId, String seat) {
+        Passenger passenger = new Passenger();
+        passenger.setPassengerId(passengerId);
+        passenger.setFlightId(1L);
+        passenger.setName("Passenger " + passengerId);
+        passenger.setSeat(seat);
+        return passenger;
+    }
+    
     @Test
     void assignSeat_WithValidData_ShouldAssignSeat() {
         when(passengerRepository.findById(1L)).thenReturn(Optional.of(testPassenger));
@@ -225,6 +425,47 @@ class PassengerServiceTest {
         verify(passengerRepository, never()).save(any(Passenger.class));
     }
     
+    @Test
+    void assignSeat_WithHeldSeat_ShouldRequireTheHold_AndTakeTheSeatOutOfIt() {
+        SeatHold hold = new SeatHold("hold-1", 1L, "1,2,3", LocalDateTime.now().plusMinutes(2));
+        when(passengerRepository.findById(1L)).thenReturn(Optional.of(testPassenger));
+        when(passengerRepository.isSeatAvailable(1L, "2")).thenReturn(true);
+        when(seatHoldRepository.findActiveByFlightIds(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(hold));
+        
+        assertThrows(SeatNotAvailableException.class,
+                () -> passengerService.assignSeat(1L, testSeatAssignmentDto));
+        verify(passengerRepository, never()).save(any(Passenger.class));
+        
+        when(seatHoldRepository.findById("hold-1")).thenReturn(Optional.of(hold));
+        when(passengerRepository.save(any(Passenger.class))).thenReturn(testPassenger);
+        testSeatAssignmentDto.setHoldId("hold-1");
+        
+        passengerService.assignSeat(1L, testSeatAssignmentDto);
+        
+        assertEquals("2", testPassenger.getSeat());
+        assertEquals(List.of("1", "3"), hold.getSeatList());
+        verify(seatHoldRepository).save(hold);
+        verify(seatHoldRepository, never()).delete(any(SeatHold.class));
+    }
+    
+    @Test
+    void assignSeat_WithExpiredOrForeignHold_ShouldThrowException() {
+        when(passengerRepository.findById(1L)).thenReturn(Optional.of(testPassenger));
+        when(seatHoldRepository.findById("expired")).thenReturn(Optional.of(
+                new SeatHold("expired", 1L, "2", LocalDateTime.now().minusSeconds(1))));
+        when(seatHoldRepository.findById("other-seats")).thenReturn(Optional.of(
+                new SeatHold("other-seats", 1L, "5,6", LocalDateTime.now().plusMinutes(2))));
+        
+        testSeatAssignmentDto.setHoldId("expired");
+        assertThrows(SeatNotAvailableException.class,
+                () -> passengerService.assignSeat(1L, testSeatAssignmentDto));
+        testSeatAssignmentDto.setHoldId("other-seats");
+        assertThrows(SeatNotAvailableException.class,
+                () -> passengerService.assignSeat(1L, testSeatAssignmentDto));
+        verify(passengerRepository, never()).save(any(Passenger.class));
+    }
+    
     @Test
     void getPassengersByFlightId_ShouldReturnFlightPassengers() {
         List<Passenger> passengers = Arrays.asList(testPassenger);
@@ -250,4 +491,19 @@ class PassengerServiceTest {
         assertTrue(result.get(0).getName().contains("John"));
         verify(passengerRepository).findByNameContainingIgnoreCase("John");
     }
+    
+    @Test
+    void getPassengerVersion_WhenPassengerNotFound_ShouldThrowException() {
+        when(passengerRepository.findVersionById(999L)).thenReturn(new ResourceVersion(0L, null));
+        
+        assertThrows(PassengerNotFoundException.class, () -> passengerService.getPassengerVersion(999L));
+    }
+    
+    @Test
+    void getPassengerVersion_ShouldReturnVersion() {
+        ResourceVersion version = new ResourceVersion(1L, LocalDateTime.of(2025, 8, 1, 10, 0));
+        when(passengerRepository.findVersionById(1L)).thenReturn(version);
+        
+        assertEquals(version.getETag(), passengerService.getPassengerVersion(1L).getETag());
+    }
 }
@@ -0,0 +1,19 @@
+package com.oracle.service_management.config;
+
+import org.hibernate.FlushMode;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts Hibernate sessions with manual flushing, as the shared tables are mostly read here
+ */
+@Configuration
+public class ReadOnlySessionConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer readOnlySessionCustomizer() {
+        return properties -> properties.putIfAbsent(AvailableSettings.FLUSH_MODE, FlushMode.MANUAL.name());
+    }
+}
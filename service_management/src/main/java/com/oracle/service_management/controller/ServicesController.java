@@ -1,15 +1,22 @@
 package com.oracle.service_management.controller;
 
 import com.oracle.service_management.dto.*;
+import com.oracle.service_management.repository.ResourceVersion;
+import com.oracle.service_management.service.ServiceRollupService;
 import com.oracle.service_management.service.ServicesService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,10 +30,15 @@ public class ServicesController {
 
     private static final Logger logger = LoggerFactory.getLogger(ServicesController.class);
     private final ServicesService servicesService;
+    private final ServiceRollupService serviceRollupService;
+    private final long settleMillis;
 
     @Autowired
-    public ServicesController(ServicesService servicesService) {
+    public ServicesController(ServicesService servicesService, ServiceRollupService serviceRollupService,
+                              @Value("${app.versions.settle-ms:2000}") long settleMillis) {
         this.servicesService = servicesService;
+        this.serviceRollupService = serviceRollupService;
+        this.settleMillis = settleMillis;
     }
     
     /**
@@ -35,7 +47,15 @@ public class ServicesController {
      * @return flight services information
      */
     @GetMapping("/flight/{flightId}")
-    public ResponseEntity<FlightServicesDto> getFlightServices(@PathVariable Long flightId) {
+    public ResponseEntity<FlightServicesDto> getFlightServices(@PathVariable Long flightId, WebRequest request) {
+        ResourceVersion version = servicesService.getFlightVersion(flightId);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (isNotModified(version, request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        
         Optional<FlightServicesDto> flightServices = servicesService.getFlightServices(flightId);
         
         if (flightServices.isEmpty()) {
@@ -54,7 +74,12 @@ public class ServicesController {
     @GetMapping("/flight/{flightId}/passengers")
     public ResponseEntity<List<PassengerServicesDto>> getFlightPassengerServices(
             @PathVariable Long flightId,
-            @RequestParam(required = false) String serviceType) {
+            @RequestParam(required = false) String serviceType,
+            WebRequest request) {
+        
+        if (isNotModified(servicesService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         
         List<PassengerServicesDto> passengers;
         
@@ -79,7 +104,12 @@ public class ServicesController {
      * @return service statistics
      */
     @GetMapping("/flight/{flightId}/stats")
-    public ResponseEntity<FlightServiceStatsDto> getFlightServiceStats(@PathVariable Long flightId) {
+    public ResponseEntity<FlightServiceStatsDto> getFlightServiceStats(@PathVariable Long flightId,
+                                                                       WebRequest request) {
+        if (isNotModified(servicesService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        
         Optional<FlightServiceStatsDto> stats = servicesService.getFlightServiceStats(flightId);
         
         if (stats.isEmpty()) {
@@ -89,13 +119,45 @@ public class ServicesController {
         return ResponseEntity.ok(stats.get());
     }
     
+    /**
+     * GET /services/rollup?date= - Get meal counts by type, extra baggage, wheelchair and infant counts
+     * for every flight departing on a date, and for the whole day
+     * @param date the flight date, yyyy-MM-dd
+     * @return the day's rollup; flights without passengers are listed with zero counts
+     */
+    @GetMapping("/rollup")
+    public ResponseEntity<ServiceRollupDto> getServiceRollup(@RequestParam String date, WebRequest request) {
+        LocalDate flightDate;
+        try {
+            flightDate = LocalDate.parse(date.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date must be in yyyy-MM-dd format: " + date);
+        }
+        
+        ResourceVersion version = serviceRollupService.getRollupVersion(flightDate);
+        if (isNotModified(version, request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        
+        return ResponseEntity.ok(serviceRollupService.getRollup(flightDate, version));
+    }
+    
     /**
      * GET /services/passenger/{passengerId} - Get passenger services information
      * @param passengerId the passenger ID
      * @return passenger services information
      */
     @GetMapping("/passenger/{passengerId}")
-    public ResponseEntity<PassengerServicesDto> getPassengerServices(@PathVariable Long passengerId) {
+    public ResponseEntity<PassengerServicesDto> getPassengerServices(@PathVariable Long passengerId,
+                                                                     WebRequest request) {
+        ResourceVersion version = servicesService.getPassengerVersion(passengerId);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (isNotModified(version, request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        
         Optional<PassengerServicesDto> passengerServices = servicesService.getPassengerServices(passengerId);
         
         if (passengerServices.isEmpty()) {
@@ -195,6 +257,21 @@ public class ServicesController {
         }
     }
     
+    /**
+     * PUT /services/flight/{flightId}/bulk - Set meals, baggage and shopping for many passengers of a flight
+     * @param flightId the flight ID
+     * @param bulkDto the per-passenger changes and the failure mode
+     * @return one outcome per passenger; 409 if an all-or-nothing batch was rejected
+     */
+    @PutMapping("/flight/{flightId}/bulk")
+    public ResponseEntity<BulkServiceResultDto> updateFlightServices(
+            @PathVariable Long flightId,
+            @Valid @RequestBody BulkServiceUpdateDto bulkDto) {
+        
+        BulkServiceResultDto result = servicesService.updateFlightServices(flightId, bulkDto);
+        return new ResponseEntity<>(result, result.isApplied() ? HttpStatus.OK : HttpStatus.CONFLICT);
+    }
+    
     /**
      * GET /services/meals/flight/{flightId} - Get passengers with meal services for a flight
      * @param flightId the flight ID
@@ -204,7 +281,12 @@ public class ServicesController {
     @GetMapping("/meals/flight/{flightId}")
     public ResponseEntity<List<PassengerServicesDto>> getFlightMealServices(
             @PathVariable Long flightId,
-            @RequestParam(required = false) String mealType) {
+            @RequestParam(required = false) String mealType,
+            WebRequest request) {
+        
+        if (isNotModified(servicesService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         
         List<PassengerServicesDto> passengers;
         
@@ -223,7 +305,11 @@ public class ServicesController {
      * @return list of passengers with extra baggage
      */
     @GetMapping("/baggage/flight/{flightId}")
-    public ResponseEntity<List<PassengerServicesDto>> getFlightBaggageServices(@PathVariable Long flightId) {
+    public ResponseEntity<List<PassengerServicesDto>> getFlightBaggageServices(@PathVariable Long flightId,
+                                                                               WebRequest request) {
+        if (isNotModified(servicesService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PassengerServicesDto> passengers = servicesService.getPassengersWithExtraBaggage(flightId);
         return ResponseEntity.ok(passengers);
     }
@@ -234,11 +320,41 @@ public class ServicesController {
      * @return list of passengers with shopping services
      */
     @GetMapping("/shopping/flight/{flightId}")
-    public ResponseEntity<List<PassengerServicesDto>> getFlightShoppingServices(@PathVariable Long flightId) {
+    public ResponseEntity<List<PassengerServicesDto>> getFlightShoppingServices(@PathVariable Long flightId,
+                                                                                WebRequest request) {
+        if (isNotModified(servicesService.getPassengersVersionByFlight(flightId), request)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PassengerServicesDto> passengers = servicesService.getPassengersWithShoppingServices(flightId);
         return ResponseEntity.ok(passengers);
     }
 
+    /**
+     * GET /services/shopping/flight/{flightId}/stock - Get the in-flight shopping stock of a flight
+     * @param flightId the flight ID
+     * @return stock, units sold and units available per item sold on the flight
+     */
+    @GetMapping("/shopping/flight/{flightId}/stock")
+    public ResponseEntity<List<ShoppingStockDto>> getFlightShoppingStock(@PathVariable Long flightId) {
+        return ResponseEntity.ok(servicesService.getShoppingStock(flightId));
+    }
+
+    /**
+     * Apply the ETag of a version fingerprint to the response and check it against the
+     * request's If-None-Match header. Passengers leaving a flight only change the count,
+     * which a Last-Modified date cannot carry, so none is sent.
+     * Every per-flight passenger listing, filtered or not, uses the fingerprint of
+     * all passengers on the flight. Fingerprints that have not settled get no tag, so a
+     * client never holds one that a late committing flight update could leave unchanged.
+     * @param version the version of the requested data
+     * @param request the current request
+     * @return true if the client's copy is current and the body can be skipped
+     */
+    private boolean isNotModified(ResourceVersion version, WebRequest request) {
+        return !version.isEmpty() && version.isSettled(LocalDateTime.now().minusNanos(settleMillis * 1_000_000))
+                && request.checkNotModified(version.getETag());
+    }
+
     /**
      * Health check endpoint
      * @return simple health status
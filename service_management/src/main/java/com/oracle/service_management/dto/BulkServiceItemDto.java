@@ -0,0 +1,107 @@
+package com.oracle.service_management.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for the service changes of one passenger in a bulk update.
+ * Only the services that are set are changed: a meal type sets the meal, an extra
+ * baggage weight sets the baggage and a list of shopping items replaces the order.
+ */
+public class BulkServiceItemDto {
+    
+    @NotNull(message = "Passenger ID is required")
+    private Long passengerId;
+    
+    @Size(max = 50, message = "Meal type must not exceed 50 characters")
+    private String mealType;
+    
+    @Size(max = 100, message = "Meal name must not exceed 100 characters")
+    private String mealName;
+    
+    @Min(value = 0, message = "Extra baggage weight must be non-negative")
+    private Integer extraBaggageWeight;
+    
+    private List<String> shoppingItems;
+    
+    // Default constructor
+    public BulkServiceItemDto() {}
+    
+    // Constructor with all fields
+    public BulkServiceItemDto(Long passengerId, String mealType, String mealName,
+                              Integer extraBaggageWeight, List<String> shoppingItems) {
+        this.passengerId = passengerId;
+        this.mealType = mealType;
+        this.mealName = mealName;
+        this.extraBaggageWeight = extraBaggageWeight;
+        this.shoppingItems = shoppingItems;
+    }
+    
+    // Getters and setters
+    public Long getPassengerId() {
+        return passengerId;
+    }
+    
+    public void setPassengerId(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+    
+    public String getMealType() {
+        return mealType;
+    }
+    
+    public void setMealType(String mealType) {
+        this.mealType = mealType;
+    }
+    
+    public String getMealName() {
+        return mealName;
+    }
+    
+    public void setMealName(String mealName) {
+        this.mealName = mealName;
+    }
+    
+    public Integer getExtraBaggageWeight() {
+        return extraBaggageWeight;
+    }
+    
+    public void setExtraBaggageWeight(Integer extraBaggageWeight) {
+        this.extraBaggageWeight = extraBaggageWeight;
+    }
+    
+    public List<String> getShoppingItems() {
+        return shoppingItems;
+    }
+    
+    public void setShoppingItems(List<String> shoppingItems) {
+        this.shoppingItems = shoppingItems;
+    }
+    
+    // Utility methods
+    public boolean hasMeal() {
+        return mealType != null || mealName != null;
+    }
+    
+    public boolean hasBaggage() {
+        return extraBaggageWeight != null;
+    }
+    
+    public boolean hasShopping() {
+        return shoppingItems != null;
+    }
+    
+    @Override
+    public String toString() {
+        return "BulkServiceItemDto{" +
+                "passengerId=" + passengerId +
+                ", mealType='" + mealType + '\'' +
+                ", mealName='" + mealName + '\'' +
+                ", extraBaggageWeight=" + extraBaggageWeight +
+                ", shoppingItems=" + shoppingItems +
+                '}';
+    }
+}
@@ -0,0 +1,133 @@
+package com.oracle.service_management.dto;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a bulk service update, with one outcome per requested passenger in request order
+ */
+public class BulkServiceResultDto {
+    
+    /**
+     * Outcome of one passenger of a bulk service update
+     */
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        FLIGHT_MISMATCH,
+        SERVICE_NOT_AVAILABLE,
+        OUT_OF_STOCK,
+        INVALID,
+        DUPLICATE,
+        /** Could have been updated, but the all-or-nothing batch was rejected */
+        NOT_APPLIED
+    }
+    
+    private Long flightId;
+    private BulkServiceUpdateDto.Mode mode;
+    private boolean applied;
+    private int updated;
+    private int failed;
+    private List<Outcome> outcomes;
+    
+    public BulkServiceResultDto() {}
+    
+    public BulkServiceResultDto(Long flightId, BulkServiceUpdateDto.Mode mode, boolean applied, List<Outcome> outcomes) {
+        this.flightId = flightId;
+        this.mode = mode;
+        this.applied = applied;
+        this.outcomes = outcomes;
+        this.updated = (int) outcomes.stream().filter(o -> o.getStatus() == Status.UPDATED).count();
+        this.failed = (int) outcomes.stream()
+                .filter(o -> o.getStatus() != Status.UPDATED && o.getStatus() != Status.NOT_APPLIED).count();
+    }
+    
+    // Getters and setters
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public BulkServiceUpdateDto.Mode getMode() {
+        return mode;
+    }
+    
+    public void setMode(BulkServiceUpdateDto.Mode mode) {
+        this.mode = mode;
+    }
+    
+    public boolean isApplied() {
+        return applied;
+    }
+    
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+    
+    public int getUpdated() {
+        return updated;
+    }
+    
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public List<Outcome> getOutcomes() {
+        return outcomes;
+    }
+    
+    public void setOutcomes(List<Outcome> outcomes) {
+        this.outcomes = outcomes;
+    }
+    
+    /**
+     * Outcome for a single passenger; message is only set when the passenger was not updated
+     */
+    public static class Outcome {
+        private Long passengerId;
+        private Status status;
+        private String message;
+        
+        public Outcome() {}
+        
+        public Outcome(Long passengerId, Status status, String message) {
+            this.passengerId = passengerId;
+            this.status = status;
+            this.message = message;
+        }
+        
+        public Long getPassengerId() {
+            return passengerId;
+        }
+        
+        public void setPassengerId(Long passengerId) {
+            this.passengerId = passengerId;
+        }
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.oracle.service_management.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * DTO for setting meals, baggage and shopping for many passengers of one flight at once
+ */
+public class BulkServiceUpdateDto {
+    
+    /**
+     * How failures of individual passengers affect the rest of the batch
+     */
+    public enum Mode {
+        /** Change nobody unless every passenger's change is valid */
+        ALL_OR_NOTHING,
+        /** Apply every valid change and report the rest */
+        BEST_EFFORT
+    }
+    
+    @NotNull(message = "Mode is required")
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    
+    @NotEmpty(message = "At least one passenger is required")
+    private List<@Valid @NotNull BulkServiceItemDto> passengers;
+    
+    // Default constructor
+    public BulkServiceUpdateDto() {}
+    
+    // Constructor with all fields
+    public BulkServiceUpdateDto(Mode mode, List<BulkServiceItemDto> passengers) {
+        this.mode = mode;
+        this.passengers = passengers;
+    }
+    
+    // Getters and setters
+    public Mode getMode() {
+        return mode;
+    }
+    
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+    
+    public List<BulkServiceItemDto> getPassengers() {
+        return passengers;
+    }
+    
+    public void setPassengers(List<BulkServiceItemDto> passengers) {
+        this.passengers = passengers;
+    }
+}
@@ -0,0 +1,56 @@
+package com.oracle.service_management.dto;
+
+/**
+ * DTO for the catering and load-planning counts of one flight of a daily rollup
+ */
+public class FlightRollupDto extends RollupCountsDto {
+    
+    private Long flightId;
+    private String flightName;
+    private String route;
+    private String departureTime;
+    
+    // Default constructor
+    public FlightRollupDto() {}
+    
+    // Constructor with flight fields
+    public FlightRollupDto(Long flightId, String flightName, String route, String departureTime) {
+        this.flightId = flightId;
+        this.flightName = flightName;
+        this.route = route;
+        this.departureTime = departureTime;
+    }
+    
+    // Getters and setters
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public String getFlightName() {
+        return flightName;
+    }
+    
+    public void setFlightName(String flightName) {
+        this.flightName = flightName;
+    }
+    
+    public String getRoute() {
+        return route;
+    }
+    
+    public void setRoute(String route) {
+        this.route = route;
+    }
+    
+    public String getDepartureTime() {
+        return departureTime;
+    }
+    
+    public void setDepartureTime(String departureTime) {
+        this.departureTime = departureTime;
+    }
+}
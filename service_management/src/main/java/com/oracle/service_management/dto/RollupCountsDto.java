@@ -0,0 +1,78 @@
+package com.oracle.service_management.dto;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DTO for the catering and load-planning counts of a flight or a whole day
+ */
+public class RollupCountsDto {
+    
+    private long passengers;
+    private long checkedIn;
+    private long meals;
+    private Map<String, Long> mealsByType = new TreeMap<>();
+    private long extraBaggageKg;
+    private long wheelchair;
+    private long infant;
+    
+    // Default constructor
+    public RollupCountsDto() {}
+    
+    // Getters and setters
+    public long getPassengers() {
+        return passengers;
+    }
+    
+    public void setPassengers(long passengers) {
+        this.passengers = passengers;
+    }
+    
+    public long getCheckedIn() {
+        return checkedIn;
+    }
+    
+    public void setCheckedIn(long checkedIn) {
+        this.checkedIn = checkedIn;
+    }
+    
+    public long getMeals() {
+        return meals;
+    }
+    
+    public void setMeals(long meals) {
+        this.meals = meals;
+    }
+    
+    public Map<String, Long> getMealsByType() {
+        return mealsByType;
+    }
+    
+    public void setMealsByType(Map<String, Long> mealsByType) {
+        this.mealsByType = mealsByType;
+    }
+    
+    public long getExtraBaggageKg() {
+        return extraBaggageKg;
+    }
+    
+    public void setExtraBaggageKg(long extraBaggageKg) {
+        this.extraBaggageKg = extraBaggageKg;
+    }
+    
+    public long getWheelchair() {
+        return wheelchair;
+    }
+    
+    public void setWheelchair(long wheelchair) {
+        this.wheelchair = wheelchair;
+    }
+    
+    public long getInfant() {
+        return infant;
+    }
+    
+    public void setInfant(long infant) {
+        this.infant = infant;
+    }
+}
@@ -0,0 +1,77 @@
+package com.oracle.service_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the catering and load-planning rollup of every flight departing on a date
+ */
+public class ServiceRollupDto {
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+    
+    private int flightCount;
+    private RollupCountsDto totals;
+    private List<FlightRollupDto> flights;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime generatedAt;
+    
+    // Default constructor
+    public ServiceRollupDto() {}
+    
+    // Constructor with all fields
+    public ServiceRollupDto(LocalDate date, RollupCountsDto totals, List<FlightRollupDto> flights,
+                            LocalDateTime generatedAt) {
+        this.date = date;
+        this.flightCount = flights.size();
+        this.totals = totals;
+        this.flights = flights;
+        this.generatedAt = generatedAt;
+    }
+    
+    // Getters and setters
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public int getFlightCount() {
+        return flightCount;
+    }
+    
+    public void setFlightCount(int flightCount) {
+        this.flightCount = flightCount;
+    }
+    
+    public RollupCountsDto getTotals() {
+        return totals;
+    }
+    
+    public void setTotals(RollupCountsDto totals) {
+        this.totals = totals;
+    }
+    
+    public List<FlightRollupDto> getFlights() {
+        return flights;
+    }
+    
+    public void setFlights(List<FlightRollupDto> flights) {
+        this.flights = flights;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.oracle.service_management.dto;
+
+/**
+ * DTO for the in-flight shopping stock of one item on a flight
+ */
+public class ShoppingStockDto {
+    
+    private String itemName;
+    private int stock;
+    private int sold;
+    private int available;
+    
+    // Default constructor
+    public ShoppingStockDto() {}
+    
+    // Constructor with all fields
+    public ShoppingStockDto(String itemName, int stock, int sold, int available) {
+        this.itemName = itemName;
+        this.stock = stock;
+        this.sold = sold;
+        this.available = available;
+    }
+    
+    // Getters and setters
+    public String getItemName() {
+        return itemName;
+    }
+    
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+    
+    public int getStock() {
+        return stock;
+    }
+    
+    public void setStock(int stock) {
+        this.stock = stock;
+    }
+    
+    public int getSold() {
+        return sold;
+    }
+    
+    public void setSold(int sold) {
+        this.sold = sold;
+    }
+    
+    public int getAvailable() {
+        return available;
+    }
+    
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -16,10 +17,12 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Flight entity representing the flights table
- * Used for services management operations
+ * Read-only Flight entity representing the flights table, which is owned by the
+ * flights service. Used for services management operations; the seat map is not
+ * mapped since nothing here reads it.
  */
 @Entity
+@Immutable
 @Table(name = "flights")
 public class Flight {
     
@@ -69,10 +72,6 @@ public class Flight {
     @Column(name = "service_subtypes")
     private String serviceSubtypesJson;
     
-    @Lob
-    @Column(name = "seat_map")
-    private String seatMapJson;
-    
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -191,14 +190,6 @@ public class Flight {
         this.serviceSubtypesJson = serviceSubtypesJson;
     }
     
-    public String getSeatMapJson() {
-        return seatMapJson;
-    }
-    
-    public void setSeatMapJson(String seatMapJson) {
-        this.seatMapJson = seatMapJson;
-    }
-    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,109 @@
+package com.oracle.service_management.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * One stripe of a per-flight operations counter. A counter's value is the sum of
+ * its stripes; writers add to a random stripe so that concurrent transactions on
+ * the same flight seldom wait on the same row lock.
+ */
+@Entity
+@IdClass(FlightOpsCounter.Key.class)
+@Table(name = "flight_ops_counters")
+public class FlightOpsCounter {
+
+    @Id
+    @Column(name = "flight_id")
+    private Long flightId;
+
+    @Id
+    @Column(name = "counter_name", length = 60)
+    private String counterName;
+
+    @Id
+    @Column(name = "stripe")
+    private Integer stripe;
+
+    @Column(name = "counter_value", nullable = false)
+    private Long counterValue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public FlightOpsCounter() {}
+
+    public FlightOpsCounter(Long flightId, String counterName, Integer stripe, Long counterValue) {
+        this.flightId = flightId;
+        this.counterName = counterName;
+        this.stripe = stripe;
+        this.counterValue = counterValue;
+    }
+
+    // Getters
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getCounterName() {
+        return counterName;
+    }
+
+    public Integer getStripe() {
+        return stripe;
+    }
+
+    public Long getCounterValue() {
+        return counterValue;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "FlightOpsCounter{" +
+                "flightId=" + flightId +
+                ", counterName='" + counterName + '\'' +
+                ", stripe=" + stripe +
+                ", counterValue=" + counterValue +
+                '}';
+    }
+
+    /**
+     * Primary key of a counter stripe
+     */
+    public static class Key implements Serializable {
+
+        private Long flightId;
+        private String counterName;
+        private Integer stripe;
+
+        public Key() {}
+
+        public Key(Long flightId, String counterName, Integer stripe) {
+            this.flightId = flightId;
+            this.counterName = counterName;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(flightId, key.flightId)
+                    && Objects.equals(counterName, key.counterName)
+                    && Objects.equals(stripe, key.stripe);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(flightId, counterName, stripe);
+        }
+    }
+}
@@ -102,6 +102,11 @@ public class Passenger {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Bumped by every write from this service; checked so concurrent updates are retried, not lost
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     // Transient fields for JSON conversion
     @Transient
     private static final ObjectMapper objectMapper = new ObjectMapper();
@@ -278,6 +283,14 @@ public class Passenger {
         this.updatedAt = updatedAt;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // Convenience methods for boolean fields
     public boolean isCheckedIn() {
         return "Y".equals(checkedIn);
@@ -0,0 +1,114 @@
+package com.oracle.service_management.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * In-flight shopping stock of one item on one flight. Service management instances
+ * lease units of the stock in chunks (allocated) and sell them from memory, so
+ * allocated never exceeds stock; sold is written behind periodically.
+ */
+@Entity
+@IdClass(ShoppingStock.Key.class)
+@Table(name = "flight_shopping_stock")
+public class ShoppingStock {
+
+    @Id
+    @Column(name = "flight_id")
+    private Long flightId;
+
+    @Id
+    @Column(name = "item_name", length = 100)
+    private String itemName;
+
+    @Column(name = "stock", nullable = false)
+    private Integer stock;
+
+    @Column(name = "allocated", nullable = false)
+    private Integer allocated;
+
+    @Column(name = "sold", nullable = false)
+    private Integer sold;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ShoppingStock() {}
+
+    public ShoppingStock(Long flightId, String itemName, Integer stock) {
+        this.flightId = flightId;
+        this.itemName = itemName;
+        this.stock = stock;
+        this.allocated = 0;
+        this.sold = 0;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public Integer getAllocated() {
+        return allocated;
+    }
+
+    public Integer getSold() {
+        return sold;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ShoppingStock{" +
+                "flightId=" + flightId +
+                ", itemName='" + itemName + '\'' +
+                ", stock=" + stock +
+                ", allocated=" + allocated +
+                ", sold=" + sold +
+                '}';
+    }
+
+    /**
+     * Primary key of a stock row
+     */
+    public static class Key implements Serializable {
+
+        private Long flightId;
+        private String itemName;
+
+        public Key() {}
+
+        public Key(Long flightId, String itemName) {
+            this.flightId = flightId;
+            this.itemName = itemName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(flightId, key.flightId) && Objects.equals(itemName, key.itemName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(flightId, itemName);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.oracle.service_management.exception;
+
+/**
+ * Exception thrown when an in-flight shopping item has no units left on a flight
+ */
+public class OutOfStockException extends ServiceNotAvailableException {
+    
+    private final String itemName;
+    
+    public OutOfStockException(Long flightId, String itemName) {
+        super(flightId, "Shopping", String.format("Item '%s' is out of stock on flight %d", itemName, flightId));
+        this.itemName = itemName;
+    }
+    
+    public String getItemName() {
+        return itemName;
+    }
+}
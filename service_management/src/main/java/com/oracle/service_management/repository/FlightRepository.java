@@ -1,14 +1,19 @@
 package com.oracle.service_management.repository;
 
 import com.oracle.service_management.entity.Flight;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Flight entity
@@ -130,4 +135,60 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
      */
     @Query("SELECT f.servicesJson FROM Flight f WHERE f.flightId = :flightId")
     Optional<String> findServicesByFlightId(@Param("flightId") Long flightId);
+    
+    /**
+     * Load just the service catalog columns of a flight
+     * @param flightId the flight ID
+     * @return the flight's services and service subtypes JSON, if the flight exists
+     */
+    @Query("SELECT new com.oracle.service_management.repository.FlightServicesRow(" +
+           "f.flightId, f.servicesJson, f.serviceSubtypesJson, f.updatedAt) FROM Flight f WHERE f.flightId = :flightId")
+    Optional<FlightServicesRow> findServiceCatalogById(@Param("flightId") Long flightId);
+    
+    /**
+     * Find the flights changed after a point in time
+     * @param since the exclusive lower bound of the update time
+     * @return IDs of the flights updated after it
+     */
+    @Query("SELECT f.flightId FROM Flight f WHERE f.updatedAt > :since")
+    List<Long> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+    
+    /**
+     * @return the newest update time of any flight, or null if there are no flights
+     */
+    @Query("SELECT MAX(f.updatedAt) FROM Flight f")
+    LocalDateTime findLastUpdated();
+    
+    /**
+     * Load the version fingerprint of a single flight
+     * @param flightId the flight ID
+     * @return count (0 if the flight does not exist) and update time
+     */
+    @Query("SELECT new com.oracle.service_management.repository.ResourceVersion(COUNT(f), MAX(f.updatedAt)) " +
+           "FROM Flight f WHERE f.flightId = :flightId")
+    ResourceVersion findVersionById(@Param("flightId") Long flightId);
+    
+    /**
+     * Load the version fingerprint of the flights of a date
+     * @param flightDate the flight date
+     * @return count and newest update time
+     */
+    @Query("SELECT new com.oracle.service_management.repository.ResourceVersion(COUNT(f), MAX(f.updatedAt)) " +
+           "FROM Flight f WHERE f.flightDate = :flightDate")
+    ResourceVersion findVersionByFlightDate(@Param("flightDate") LocalDate flightDate);
+    
+    /**
+     * Aggregate the passengers of every flight of a date in one grouped query, one row per
+     * flight and meal type, ordered by flight
+     * @param flightDate the flight date
+     * @return the rollup rows; must be consumed inside a transaction and closed
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.oracle.service_management.repository.FlightRollupRow(" +
+           "f.flightId, f.flightName, f.route, f.departureTime, p.mealType, COUNT(p.passengerId), " +
+           "SUM(CASE WHEN p.checkedIn = 'Y' THEN 1L ELSE 0L END), SUM(COALESCE(p.extraBaggage, 0)), " +
+           "SUM(CASE WHEN p.wheelchair = 'Y' THEN 1L ELSE 0L END), SUM(CASE WHEN p.infant = 'Y' THEN 1L ELSE 0L END)) " +
+           "FROM Flight f LEFT JOIN Passenger p ON p.flightId = f.flightId WHERE f.flightDate = :flightDate " +
+           "GROUP BY f.flightId, f.flightName, f.route, f.departureTime, p.mealType ORDER BY f.flightId")
+    Stream<FlightRollupRow> streamRollupByFlightDate(@Param("flightDate") LocalDate flightDate);
 }
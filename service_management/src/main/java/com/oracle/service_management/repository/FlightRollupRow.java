@@ -0,0 +1,73 @@
+package com.oracle.service_management.repository;
+
+/**
+ * One group of the daily service rollup: the passengers of one flight with one meal type.
+ * A flight without passengers yields a single row with a null meal type and zero counts.
+ */
+public class FlightRollupRow {
+
+    private final Long flightId;
+    private final String flightName;
+    private final String route;
+    private final String departureTime;
+    private final String mealType;
+    private final long passengers;
+    private final long checkedIn;
+    private final long extraBaggageKg;
+    private final long wheelchair;
+    private final long infant;
+
+    public FlightRollupRow(Long flightId, String flightName, String route, String departureTime, String mealType,
+                           Long passengers, Long checkedIn, Long extraBaggageKg, Long wheelchair, Long infant) {
+        this.flightId = flightId;
+        this.flightName = flightName;
+        this.route = route;
+        this.departureTime = departureTime;
+        this.mealType = mealType;
+        this.passengers = passengers == null ? 0 : passengers;
+        this.checkedIn = checkedIn == null ? 0 : checkedIn;
+        this.extraBaggageKg = extraBaggageKg == null ? 0 : extraBaggageKg;
+        this.wheelchair = wheelchair == null ? 0 : wheelchair;
+        this.infant = infant == null ? 0 : infant;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getFlightName() {
+        return flightName;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getDepartureTime() {
+        return departureTime;
+    }
+
+    public String getMealType() {
+        return mealType;
+    }
+
+    public long getPassengers() {
+        return passengers;
+    }
+
+    public long getCheckedIn() {
+        return checkedIn;
+    }
+
+    public long getExtraBaggageKg() {
+        return extraBaggageKg;
+    }
+
+    public long getWheelchair() {
+        return wheelchair;
+    }
+
+    public long getInfant() {
+        return infant;
+    }
+}
@@ -0,0 +1,39 @@
+package com.oracle.service_management.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection of a flight's service catalog: the services and service
+ * subtypes JSON only, without the flight's schedule or seat counts
+ */
+public class FlightServicesRow {
+
+    private final Long flightId;
+    private final String servicesJson;
+    private final String serviceSubtypesJson;
+    private final LocalDateTime updatedAt;
+
+    public FlightServicesRow(Long flightId, String servicesJson, String serviceSubtypesJson,
+                             LocalDateTime updatedAt) {
+        this.flightId = flightId;
+        this.servicesJson = servicesJson;
+        this.serviceSubtypesJson = serviceSubtypesJson;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getServicesJson() {
+        return servicesJson;
+    }
+
+    public String getServiceSubtypesJson() {
+        return serviceSubtypesJson;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,15 @@ import java.util.Optional;
  */
 @Repository
 public interface PassengerRepository extends JpaRepository<Passenger, Long> {
+
+    /**
+     * Projection select shared by the read-only services queries; rows are built with a
+     * constructor expression, so no entities are loaded into the persistence context
+     */
+    String ROW_SELECT = "SELECT new com.oracle.service_management.repository.PassengerServicesRow(" +
+            "p.passengerId, p.flightId, p.name, p.phoneNumber, p.origin, p.destination, p.seat, " +
+            "p.checkedIn, p.wheelchair, p.infant, p.servicesJson, p.mealType, p.mealName, " +
+            "p.extraBaggage, p.shoppingItemsJson, p.updatedAt) FROM Passenger p ";
     
     /**
      * Find passengers by flight ID
@@ -29,15 +39,16 @@ public interface PassengerRepository extends JpaRepository<Passenger, Long> {
      * @param flightId the flight ID
      * @return list of passengers for the specified flight ordered by name
      */
-    List<Passenger> findByFlightIdOrderByName(Long flightId);
+    @Query(ROW_SELECT + "WHERE p.flightId = :flightId ORDER BY p.name")
+    List<PassengerServicesRow> findByFlightIdOrderByName(@Param("flightId") Long flightId);
     
     /**
      * Find passenger by ID with services information
      * @param passengerId the passenger ID
      * @return optional passenger with services data
      */
-    @Query("SELECT p FROM Passenger p WHERE p.passengerId = :passengerId")
-    Optional<Passenger> findByIdWithServices(@Param("passengerId") Long passengerId);
+    @Query(ROW_SELECT + "WHERE p.passengerId = :passengerId")
+    Optional<PassengerServicesRow> findByIdWithServices(@Param("passengerId") Long passengerId);
     
     /**
      * Find passengers with specific service type
@@ -52,40 +63,40 @@ public interface PassengerRepository extends JpaRepository<Passenger, Long> {
      * @param flightId the flight ID
      * @return list of passengers with meal services for the specified flight
      */
-    @Query("SELECT p FROM Passenger p WHERE p.flightId = :flightId AND p.servicesJson LIKE '%Meal%'")
-    List<Passenger> findPassengersWithMealServicesByFlightId(@Param("flightId") Long flightId);
+    @Query(ROW_SELECT + "WHERE p.flightId = :flightId AND p.servicesJson LIKE '%Meal%'")
+    List<PassengerServicesRow> findPassengersWithMealServicesByFlightId(@Param("flightId") Long flightId);
     
     /**
      * Find passengers with shopping services by flight
      * @param flightId the flight ID
      * @return list of passengers with shopping services for the specified flight
      */
-    @Query("SELECT p FROM Passenger p WHERE p.flightId = :flightId AND p.servicesJson LIKE '%Shopping%'")
-    List<Passenger> findPassengersWithShoppingServicesByFlightId(@Param("flightId") Long flightId);
+    @Query(ROW_SELECT + "WHERE p.flightId = :flightId AND p.servicesJson LIKE '%Shopping%'")
+    List<PassengerServicesRow> findPassengersWithShoppingServicesByFlightId(@Param("flightId") Long flightId);
     
     /**
      * Find passengers with ancillary services by flight
      * @param flightId the flight ID
      * @return list of passengers with ancillary services for the specified flight
      */
-    @Query("SELECT p FROM Passenger p WHERE p.flightId = :flightId AND p.servicesJson LIKE '%Ancillary%'")
-    List<Passenger> findPassengersWithAncillaryServicesByFlightId(@Param("flightId") Long flightId);
+    @Query(ROW_SELECT + "WHERE p.flightId = :flightId AND p.servicesJson LIKE '%Ancillary%'")
+    List<PassengerServicesRow> findPassengersWithAncillaryServicesByFlightId(@Param("flightId") Long flightId);
     
     /**
      * Find passengers with extra baggage by flight
      * @param flightId the flight ID
      * @return list of passengers with extra baggage for the specified flight
      */
-    @Query("SELECT p FROM Passenger p WHERE p.flightId = :flightId AND p.extraBaggage > 0")
-    List<Passenger> findPassengersWithExtraBaggageByFlightId(@Param("flightId") Long flightId);
+    @Query(ROW_SELECT + "WHERE p.flightId = :flightId AND p.extraBaggage > 0")
+    List<PassengerServicesRow> findPassengersWithExtraBaggageByFlightId(@Param("flightId") Long flightId);
     
     /**
      * Find passengers with shopping items by flight
      * @param flightId the flight ID
      * @return list of passengers with shopping items for the specified flight
      */
-    @Query("SELECT p FROM Passenger p WHERE p.flightId = :flightId AND p.shoppingItemsJson IS NOT NULL AND p.shoppingItemsJson != '[]' AND p.shoppingItemsJson != ''")
-    List<Passenger> findPassengersWithShoppingItemsByFlightId(@Param("flightId") Long flightId);
+    @Query(ROW_SELECT + "WHERE p.flightId = :flightId AND p.shoppingItemsJson IS NOT NULL AND p.shoppingItemsJson != '[]' AND p.shoppingItemsJson != ''")
+    List<PassengerServicesRow> findPassengersWithShoppingItemsByFlightId(@Param("flightId") Long flightId);
     
     /**
      * Find passengers with specific meal type by flight
@@ -93,8 +104,8 @@ public interface PassengerRepository extends JpaRepository<Passenger, Long> {
      * @param mealType the meal type (e.g., "Veg", "Non-Veg", "Vegan")
      * @return list of passengers with the specified meal type for the flight
      */
-    @Query("SELECT p FROM Passenger p WHERE p.flightId = :flightId AND p.mealType = :mealType")
-    List<Passenger> findPassengersByFlightIdAndMealType(@Param("flightId") Long flightId, @Param("mealType") String mealType);
+    @Query(ROW_SELECT + "WHERE p.flightId = :flightId AND p.mealType = :mealType")
+    List<PassengerServicesRow> findPassengersByFlightIdAndMealType(@Param("flightId") Long flightId, @Param("mealType") String mealType);
     
     /**
      * Find passengers with special needs by flight
@@ -130,45 +141,88 @@ public interface PassengerRepository extends JpaRepository<Passenger, Long> {
     Long countPassengersWithShoppingServicesByFlightId(@Param("flightId") Long flightId);
     
     /**
-     * Update passenger services
+     * Services JSON with a service added, computed by the database so a service added by a
+     * concurrent writer is never dropped: a list that already names the service is kept, an
+     * empty list is started and any other list is extended at its closing bracket, the only
+     * one in an array of service names
+     */
+    String WITH_MEAL = "CASE WHEN p.servicesJson LIKE '%\"Meal\"%' THEN CAST(p.servicesJson AS String) " +
+            "WHEN p.servicesJson IS NULL OR p.servicesJson NOT LIKE '%\"%' THEN '[\"Meal\"]' " +
+            "ELSE REPLACE(CAST(p.servicesJson AS String), ']', ',\"Meal\"]') END";
+    String WITH_ANCILLARY = "CASE WHEN p.servicesJson LIKE '%\"Ancillary\"%' THEN CAST(p.servicesJson AS String) " +
+            "WHEN p.servicesJson IS NULL OR p.servicesJson NOT LIKE '%\"%' THEN '[\"Ancillary\"]' " +
+            "ELSE REPLACE(CAST(p.servicesJson AS String), ']', ',\"Ancillary\"]') END";
+    String WITH_SHOPPING = "CASE WHEN p.servicesJson LIKE '%\"Shopping\"%' THEN CAST(p.servicesJson AS String) " +
+            "WHEN p.servicesJson IS NULL OR p.servicesJson NOT LIKE '%\"%' THEN '[\"Shopping\"]' " +
+            "ELSE REPLACE(CAST(p.servicesJson AS String), ']', ',\"Shopping\"]') END";
+
+    /**
+     * Update passenger services, meal, baggage and shopping items if the passenger is still at
+     * the version they were read at
      * @param passengerId the passenger ID
+     * @param version the version the passenger was read at
      * @param servicesJson the new services JSON
-     * @return number of updated records
+     * @param mealType the meal type
+     * @param mealName the meal name
+     * @param extraBaggage the extra baggage amount
+     * @param shoppingItemsJson the new shopping items JSON
+     * @return number of updated records; 0 if the passenger was changed or deleted since
      */
-    @Modifying
-    @Query("UPDATE Passenger p SET p.servicesJson = :servicesJson WHERE p.passengerId = :passengerId")
-    int updatePassengerServices(@Param("passengerId") Long passengerId, @Param("servicesJson") String servicesJson);
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Passenger p SET p.servicesJson = :servicesJson, p.mealType = :mealType, p.mealName = :mealName, " +
+           "p.extraBaggage = :extraBaggage, p.shoppingItemsJson = :shoppingItemsJson, " +
+           "p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.passengerId = :passengerId AND p.version = :version")
+    int updatePassengerServices(@Param("passengerId") Long passengerId, @Param("version") Long version,
+                                @Param("servicesJson") String servicesJson, @Param("mealType") String mealType,
+                                @Param("mealName") String mealName, @Param("extraBaggage") Integer extraBaggage,
+                                @Param("shoppingItemsJson") String shoppingItemsJson);
     
     /**
-     * Update passenger meal information
+     * Update passenger meal information and add the Meal service if the passenger is still at
+     * the version they were read at
      * @param passengerId the passenger ID
+     * @param version the version the passenger was read at
      * @param mealType the meal type
      * @param mealName the meal name
-     * @return number of updated records
+     * @return number of updated records; 0 if the passenger was changed or deleted since
      */
-    @Modifying
-    @Query("UPDATE Passenger p SET p.mealType = :mealType, p.mealName = :mealName WHERE p.passengerId = :passengerId")
-    int updatePassengerMeal(@Param("passengerId") Long passengerId, @Param("mealType") String mealType, @Param("mealName") String mealName);
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Passenger p SET p.mealType = :mealType, p.mealName = :mealName, p.servicesJson = " + WITH_MEAL +
+           ", p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.passengerId = :passengerId AND p.version = :version")
+    int updatePassengerMeal(@Param("passengerId") Long passengerId, @Param("version") Long version,
+                            @Param("mealType") String mealType, @Param("mealName") String mealName);
     
     /**
-     * Update passenger extra baggage
+     * Update passenger extra baggage and add the Ancillary service if the passenger is still at
+     * the version they were read at
      * @param passengerId the passenger ID
+     * @param version the version the passenger was read at
      * @param extraBaggage the extra baggage amount
-     * @return number of updated records
+     * @return number of updated records; 0 if the passenger was changed or deleted since
      */
-    @Modifying
-    @Query("UPDATE Passenger p SET p.extraBaggage = :extraBaggage WHERE p.passengerId = :passengerId")
-    int updatePassengerExtraBaggage(@Param("passengerId") Long passengerId, @Param("extraBaggage") Integer extraBaggage);
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Passenger p SET p.extraBaggage = :extraBaggage, p.servicesJson = " + WITH_ANCILLARY +
+           ", p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.passengerId = :passengerId AND p.version = :version")
+    int updatePassengerExtraBaggage(@Param("passengerId") Long passengerId, @Param("version") Long version,
+                                    @Param("extraBaggage") Integer extraBaggage);
     
     /**
-     * Update passenger shopping items
+     * Update passenger shopping items and add the Shopping service if the passenger is still at
+     * the version they were read at
      * @param passengerId the passenger ID
+     * @param version the version the passenger was read at
      * @param shoppingItemsJson the new shopping items JSON
-     * @return number of updated records
+     * @return number of updated records; 0 if the passenger was changed or deleted since
      */
-    @Modifying
-    @Query("UPDATE Passenger p SET p.shoppingItemsJson = :shoppingItemsJson WHERE p.passengerId = :passengerId")
-    int updatePassengerShoppingItems(@Param("passengerId") Long passengerId, @Param("shoppingItemsJson") String shoppingItemsJson);
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Passenger p SET p.shoppingItemsJson = :shoppingItemsJson, p.servicesJson = " + WITH_SHOPPING +
+           ", p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.passengerId = :passengerId AND p.version = :version")
+    int updatePassengerShoppingItems(@Param("passengerId") Long passengerId, @Param("version") Long version,
+                                     @Param("shoppingItemsJson") String shoppingItemsJson);
     
     /**
      * Check if passenger exists and belongs to flight
@@ -178,4 +232,31 @@ public interface PassengerRepository extends JpaRepository<Passenger, Long> {
      */
     @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Passenger p WHERE p.passengerId = :passengerId AND p.flightId = :flightId")
     boolean existsByIdAndFlightId(@Param("passengerId") Long passengerId, @Param("flightId") Long flightId);
+    
+    /**
+     * Load the version fingerprint of a single passenger
+     * @param passengerId the passenger ID
+     * @return count (0 if the passenger does not exist), row version and update time
+     */
+    @Query("SELECT new com.oracle.service_management.repository.ResourceVersion(COUNT(p), SUM(p.version), MAX(p.updatedAt)) " +
+           "FROM Passenger p WHERE p.passengerId = :passengerId")
+    ResourceVersion findVersionById(@Param("passengerId") Long passengerId);
+    
+    /**
+     * Load the version fingerprint of the passengers on a flight
+     * @param flightId the flight ID
+     * @return count, summed row versions and newest update time
+     */
+    @Query("SELECT new com.oracle.service_management.repository.ResourceVersion(COUNT(p), SUM(p.version), MAX(p.updatedAt)) " +
+           "FROM Passenger p WHERE p.flightId = :flightId")
+    ResourceVersion findVersionByFlightId(@Param("flightId") Long flightId);
+    
+    /**
+     * Load the version fingerprint of the passengers on the flights of a date
+     * @param flightDate the flight date
+     * @return count, summed row versions and newest update time
+     */
+    @Query("SELECT new com.oracle.service_management.repository.ResourceVersion(COUNT(p), SUM(p.version), MAX(p.updatedAt)) " +
+           "FROM Passenger p WHERE p.flightId IN (SELECT f.flightId FROM Flight f WHERE f.flightDate = :flightDate)")
+    ResourceVersion findVersionByFlightDate(@Param("flightDate") LocalDate flightDate);
 }
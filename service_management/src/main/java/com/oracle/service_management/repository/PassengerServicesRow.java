@@ -0,0 +1,134 @@
+package com.oracle.service_management.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only projection of a passenger's services, selected with a constructor
+ * expression so listing a flight's passengers does not build managed entities.
+ * Address, passport number and date of birth are not read.
+ */
+public class PassengerServicesRow {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Long passengerId;
+    private final Long flightId;
+    private final String name;
+    private final String phoneNumber;
+    private final String origin;
+    private final String destination;
+    private final String seat;
+    private final String checkedIn;
+    private final String wheelchair;
+    private final String infant;
+    private final String servicesJson;
+    private final String mealType;
+    private final String mealName;
+    private final Integer extraBaggage;
+    private final String shoppingItemsJson;
+    private final LocalDateTime updatedAt;
+
+    public PassengerServicesRow(Long passengerId, Long flightId, String name, String phoneNumber,
+                                String origin, String destination, String seat, String checkedIn,
+                                String wheelchair, String infant, String servicesJson, String mealType,
+                                String mealName, Integer extraBaggage, String shoppingItemsJson,
+                                LocalDateTime updatedAt) {
+        this.passengerId = passengerId;
+        this.flightId = flightId;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.origin = origin;
+        this.destination = destination;
+        this.seat = seat;
+        this.checkedIn = checkedIn;
+        this.wheelchair = wheelchair;
+        this.infant = infant;
+        this.servicesJson = servicesJson;
+        this.mealType = mealType;
+        this.mealName = mealName;
+        this.extraBaggage = extraBaggage;
+        this.shoppingItemsJson = shoppingItemsJson;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public String getSeat() {
+        return seat;
+    }
+
+    public boolean isCheckedIn() {
+        return "Y".equals(checkedIn);
+    }
+
+    public boolean needsWheelchair() {
+        return "Y".equals(wheelchair);
+    }
+
+    public boolean hasInfant() {
+        return "Y".equals(infant);
+    }
+
+    public List<String> getServices() {
+        return parseList(servicesJson);
+    }
+
+    public String getMealType() {
+        return mealType;
+    }
+
+    public String getMealName() {
+        return mealName;
+    }
+
+    public Integer getExtraBaggage() {
+        return extraBaggage;
+    }
+
+    public List<String> getShoppingItems() {
+        return parseList(shoppingItemsJson);
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // Same lenient parsing as the Passenger entity: missing or malformed JSON reads as empty
+    private static List<String> parseList(String json) {
+        if (json == null || json.trim().isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<List<String>>() {});
+        } catch (JsonProcessingException e) {
+            return List.of();
+        }
+    }
+}
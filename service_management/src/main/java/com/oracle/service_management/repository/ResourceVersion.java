@@ -0,0 +1,116 @@
+package com.oracle.service_management.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Version fingerprint of a flight, a passenger or a set of them: the row count, the sum of
+ * the row versions where the rows carry one, and the newest update timestamp. Loaded with a
+ * single aggregate query so conditional GETs can be answered without fetching the rows
+ * themselves.
+ *
+ * Passengers are versioned, so every passenger update and delete changes the fingerprint.
+ * Flights only carry a timestamp, and an update that commits after a newer one is already
+ * visible leaves the newest timestamp as it was. Such a fingerprint is only trusted once it
+ * has settled: its newest timestamp is old enough that every write stamped before it has
+ * committed.
+ */
+public class ResourceVersion {
+
+    private final long count;
+    private final long changes;
+    private final LocalDateTime lastUpdated;
+    private final boolean counted;
+
+    public ResourceVersion(Long count, LocalDateTime lastUpdated) {
+        this(count, 0L, lastUpdated, false);
+    }
+
+    public ResourceVersion(Long count, Long changes, LocalDateTime lastUpdated) {
+        this(count, changes, lastUpdated, true);
+    }
+
+    private ResourceVersion(Long count, Long changes, LocalDateTime lastUpdated, boolean counted) {
+        this.count = count == null ? 0 : count;
+        this.changes = changes == null ? 0 : changes;
+        this.lastUpdated = lastUpdated;
+        this.counted = counted;
+    }
+
+    /**
+     * @return true if no rows matched
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return strong entity tag for the matched rows
+     */
+    public String getETag() {
+        long updated = lastUpdated == null ? 0 : toEpochMilli(lastUpdated);
+        return "\"" + Long.toString(count, 36) + "-" + Long.toString(changes, 36) + "-"
+                + Long.toString(updated, 36) + "\"";
+    }
+
+    /**
+     * @param cutoff the newest timestamp whose writes are taken to have committed
+     * @return true if the fingerprint cannot be missing a committed write: the rows are
+     *         versioned, or nothing was written after the cutoff
+     */
+    public boolean isSettled(LocalDateTime cutoff) {
+        return counted || lastUpdated == null || lastUpdated.isBefore(cutoff);
+    }
+
+    /**
+     * Combine the fingerprints of two disjoint sets of rows, e.g. a day's flights and their passengers
+     * @param other the fingerprint of the other set
+     * @return the fingerprint of both sets together
+     */
+    public ResourceVersion and(ResourceVersion other) {
+        LocalDateTime newest = lastUpdated;
+        if (other.lastUpdated != null && (newest == null || other.lastUpdated.isAfter(newest))) {
+            newest = other.lastUpdated;
+        }
+        return new ResourceVersion(count + other.count, changes + other.changes, newest, counted && other.counted);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getChanges() {
+        return changes;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    private static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ResourceVersion that)) return false;
+        return count == that.count && changes == that.changes && counted == that.counted
+                && Objects.equals(lastUpdated, that.lastUpdated);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(count, changes, lastUpdated, counted);
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceVersion{" +
+                "count=" + count +
+                ", changes=" + changes +
+                ", lastUpdated=" + lastUpdated +
+                '}';
+    }
+}
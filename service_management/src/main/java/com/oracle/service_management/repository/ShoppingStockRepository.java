@@ -0,0 +1,117 @@
+package com.oracle.service_management.repository;
+
+import com.oracle.service_management.entity.ShoppingStock;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the per-flight shopping stock.
+ *
+ * Leases and sales are in-place UPDATEs that add to a column, and a lease only
+ * succeeds if the row still has the units, so concurrent instances can never lease
+ * more than the stock between them whatever they read beforehand.
+ */
+@Repository
+public class ShoppingStockRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Lease units of an item's stock
+     * @param flightId the flight ID
+     * @param itemName the item name
+     * @param units the number of units
+     * @return 1 if the units were leased, 0 if the row does not exist or has fewer units left
+     */
+    public int lease(Long flightId, String itemName, int units) {
+        return entityManager.createQuery("UPDATE ShoppingStock s " +
+                        "SET s.allocated = s.allocated + :units, s.updatedAt = :now " +
+                        "WHERE s.flightId = :flightId AND s.itemName = :itemName AND s.allocated + :units <= s.stock")
+                .setParameter("units", units)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("flightId", flightId)
+                .setParameter("itemName", itemName)
+                .executeUpdate();
+    }
+
+    /**
+     * Give leased units back to an item's stock
+     * @param flightId the flight ID
+     * @param itemName the item name
+     * @param units the number of units
+     * @return 1 if the row exists, 0 otherwise
+     */
+    public int release(Long flightId, String itemName, int units) {
+        return entityManager.createQuery("UPDATE ShoppingStock s " +
+                        "SET s.allocated = s.allocated - :units, s.updatedAt = :now " +
+                        "WHERE s.flightId = :flightId AND s.itemName = :itemName")
+                .setParameter("units", units)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("flightId", flightId)
+                .setParameter("itemName", itemName)
+                .executeUpdate();
+    }
+
+    /**
+     * Add to the number of units sold of an item
+     * @param flightId the flight ID
+     * @param itemName the item name
+     * @param delta the units sold since the last write (negative for returns)
+     * @return 1 if the row exists, 0 otherwise
+     */
+    public int addSold(Long flightId, String itemName, int delta) {
+        return entityManager.createQuery("UPDATE ShoppingStock s " +
+                        "SET s.sold = s.sold + :delta, s.updatedAt = :now " +
+                        "WHERE s.flightId = :flightId AND s.itemName = :itemName")
+                .setParameter("delta", delta)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("flightId", flightId)
+                .setParameter("itemName", itemName)
+                .executeUpdate();
+    }
+
+    /**
+     * Insert an item's stock row; fails with a constraint violation if it already exists
+     * @param flightId the flight ID
+     * @param itemName the item name
+     * @param stock the units in stock
+     */
+    public void create(Long flightId, String itemName, int stock) {
+        entityManager.persist(new ShoppingStock(flightId, itemName, stock));
+        entityManager.flush();
+    }
+
+    /**
+     * Find an item's stock row
+     * @param flightId the flight ID
+     * @param itemName the item name
+     * @return the row, if the item has been sold on the flight before
+     */
+    public Optional<ShoppingStock> find(Long flightId, String itemName) {
+        return entityManager.createQuery("SELECT s FROM ShoppingStock s " +
+                        "WHERE s.flightId = :flightId AND s.itemName = :itemName", ShoppingStock.class)
+                .setParameter("flightId", flightId)
+                .setParameter("itemName", itemName)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Find the stock rows of a flight
+     * @param flightId the flight ID
+     * @return the flight's stock rows ordered by item name
+     */
+    public List<ShoppingStock> findByFlightId(Long flightId) {
+        return entityManager.createQuery("SELECT s FROM ShoppingStock s WHERE s.flightId = :flightId " +
+                        "ORDER BY s.itemName", ShoppingStock.class)
+                .setParameter("flightId", flightId)
+                .getResultList();
+    }
+}
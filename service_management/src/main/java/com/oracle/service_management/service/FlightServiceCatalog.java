@@ -0,0 +1,225 @@
+package com.oracle.service_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.FlightServicesRow;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory catalog of the services each flight offers, so validating a meal,
+ * baggage or shopping request does not read the flights table.
+ *
+ * A flight's catalog is loaded on first use through a projection of just the
+ * services and subtypes columns and kept as immutable sets. Flights are owned by
+ * the flights service, so changes are picked up by polling: every
+ * app.catalog.refresh-seconds the IDs of flights updated since the last poll are
+ * read through the updated_at index and their entries dropped. The poll looks back
+ * a little further than the newest update it saw, so a transaction that commits
+ * with a slightly older timestamp is not missed. Entries also expire after
+ * app.catalog.ttl-seconds whatever happens, which bounds how long a deleted flight
+ * or a missed change can be served.
+ */
+@Component
+public class FlightServiceCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightServiceCatalog.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+
+    private final FlightRepository flightRepository;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration refreshInterval;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped whenever entries are dropped, so a load that raced with a drop is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile LocalDateTime lastSeenUpdate;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public FlightServiceCatalog(FlightRepository flightRepository,
+                                @Value("${app.catalog.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${app.catalog.refresh-seconds:10}") long refreshSeconds) {
+        this(flightRepository, Clock.systemDefaultZone(), Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(refreshSeconds));
+    }
+
+    FlightServiceCatalog(FlightRepository flightRepository, Clock clock, Duration ttl, Duration refreshInterval) {
+        this.flightRepository = flightRepository;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Start polling for changed flights (a refresh interval of 0 leaves only the TTL)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (refreshInterval.isZero() || poller != null) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-service-catalog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollChanges, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the services a flight offers
+     * @param flightId the flight ID
+     * @return the flight's catalog, or empty if the flight does not exist
+     */
+    public Optional<Catalog> get(Long flightId) {
+        Entry entry = entries.get(flightId);
+        Instant now = clock.instant();
+        if (entry != null && now.isBefore(entry.expiresAt)) {
+            return Optional.of(entry.catalog);
+        }
+        long seenInvalidations = invalidations.get();
+        Optional<Catalog> loaded = flightRepository.findServiceCatalogById(flightId).map(FlightServiceCatalog::parse);
+        if (loaded.isPresent() && invalidations.get() == seenInvalidations) {
+            entries.put(flightId, new Entry(loaded.get(), now.plus(ttl)));
+        } else {
+            entries.remove(flightId);
+        }
+        return loaded;
+    }
+
+    /**
+     * Check whether a flight offers a service
+     * @param flightId the flight ID
+     * @param service the service name (e.g., "Meal")
+     * @return true if the flight exists and offers the service
+     */
+    public boolean offers(Long flightId, String service) {
+        return get(flightId).map(catalog -> catalog.offers(service)).orElse(false);
+    }
+
+    /**
+     * Drop a flight's cached catalog
+     * @param flightId the flight ID
+     */
+    public void invalidate(Long flightId) {
+        invalidations.incrementAndGet();
+        entries.remove(flightId);
+    }
+
+    /**
+     * Drop the cached catalogs of the flights updated since the previous poll
+     */
+    void pollChanges() {
+        try {
+            LocalDateTime since = lastSeenUpdate;
+            if (since != null) {
+                flightRepository.findIdsUpdatedAfter(since.minus(POLL_OVERLAP)).stream()
+                        .filter(entries::containsKey)
+                        .forEach(this::invalidate);
+            }
+            LocalDateTime newest = flightRepository.findLastUpdated();
+            if (newest != null && (since == null || newest.isAfter(since))) {
+                lastSeenUpdate = newest;
+            }
+        } catch (DataAccessException e) {
+            // Keep serving; entries still expire after the TTL
+            logger.warn("Could not poll for changed flights: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of cached flights
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static Catalog parse(FlightServicesRow row) {
+        Set<String> services = Set.copyOf(readJson(row.getServicesJson(), new TypeReference<List<String>>() {}, List.of())
+                .stream().filter(Objects::nonNull).toList());
+        Map<String, List<String>> subtypesJson =
+                readJson(row.getServiceSubtypesJson(), new TypeReference<Map<String, List<String>>>() {}, Map.of());
+        Map<String, Set<String>> subtypes = new HashMap<>();
+        subtypesJson.forEach((service, names) -> {
+            if (service != null && names != null) {
+                subtypes.put(service, Set.copyOf(names.stream().filter(Objects::nonNull).toList()));
+            }
+        });
+        return new Catalog(services, Map.copyOf(subtypes));
+    }
+
+    // Same lenient parsing as the Flight entity: missing or malformed JSON reads as empty
+    private static <T> T readJson(String json, TypeReference<T> type, T empty) {
+        if (json == null || json.trim().isEmpty()) {
+            return empty;
+        }
+        try {
+            T value = objectMapper.readValue(json, type);
+            return value != null ? value : empty;
+        } catch (JsonProcessingException e) {
+            return empty;
+        }
+    }
+
+    private record Entry(Catalog catalog, Instant expiresAt) {}
+
+    /**
+     * The services a flight offers and the subtypes of each, e.g. Meal: Veg, Non-Veg
+     */
+    public static final class Catalog {
+
+        private final Set<String> services;
+        private final Map<String, Set<String>> subtypes;
+
+        Catalog(Set<String> services, Map<String, Set<String>> subtypes) {
+            this.services = services;
+            this.subtypes = subtypes;
+        }
+
+        public boolean offers(String service) {
+            return services.contains(service);
+        }
+
+        public Set<String> getServices() {
+            return services;
+        }
+
+        public Set<String> getSubtypes(String service) {
+            return subtypes.getOrDefault(service, Set.of());
+        }
+    }
+}
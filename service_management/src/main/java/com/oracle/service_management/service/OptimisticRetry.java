@@ -0,0 +1,78 @@
+package com.oracle.service_management.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs passenger updates in a transaction of their own and runs them again when they
+ * lose an optimistic version check to a concurrent update.
+ *
+ * Every attempt re-reads and re-validates the passenger, so a retried update is applied
+ * to the other writer's changes instead of overwriting them. Attempts back off by a
+ * random delay of up to app.retry.backoff-millis times the attempt number; after
+ * app.retry.max-attempts the conflict is thrown. Inside a caller's transaction the update
+ * runs once, as the caller's transaction cannot be retried from here.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    @Autowired
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${app.retry.max-attempts:5}") int maxAttempts,
+                           @Value("${app.retry.backoff-millis:20}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Run an update, retrying it on optimistic locking conflicts
+     * @param update the update; it may mark its transaction rollback-only through the status
+     * @return the update's result
+     * @throws OptimisticLockingFailureException if the last attempt still conflicted
+     */
+    public <T> T execute(TransactionCallback<T> update) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactionTemplate.execute(update);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(update);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Update conflicted on attempt {}, retrying: {}", attempt, e.getMessage());
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        if (backoffMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying an update", e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.oracle.service_management.service;
+
+import com.oracle.service_management.dto.FlightRollupDto;
+import com.oracle.service_management.dto.RollupCountsDto;
+import com.oracle.service_management.dto.ServiceRollupDto;
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.FlightRollupRow;
+import com.oracle.service_management.repository.PassengerRepository;
+import com.oracle.service_management.repository.ResourceVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service layer for the daily catering and load-planning rollup.
+ *
+ * A date's rollup is computed with one grouped aggregate over the date's flights
+ * left-joined to their passengers, read as a forward-only stream and folded flight
+ * by flight, so neither passengers nor intermediate lists are held in memory. The
+ * result is cached per date together with the version fingerprint of the date's
+ * flights and passengers. Every request reloads only the fingerprint (two aggregate
+ * queries); any passenger write on one of the date's flights, from this service or
+ * another, changes it and the rollup is recomputed. A rollup is only cached once its
+ * fingerprint has settled, since a flight update committing late may not move it.
+ * Entries also expire after app.rollup.ttl-seconds, and at most app.rollup.max-dates
+ * dates are kept.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ServiceRollupService {
+
+    private final FlightRepository flightRepository;
+    private final PassengerRepository passengerRepository;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration settle;
+    private final int maxDates;
+    private final Map<LocalDate, Entry> cache = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceRollupService(FlightRepository flightRepository, PassengerRepository passengerRepository,
+                                @Value("${app.rollup.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${app.rollup.max-dates:64}") int maxDates,
+                                @Value("${app.versions.settle-ms:2000}") long settleMillis) {
+        this(flightRepository, passengerRepository, Clock.systemDefaultZone(), Duration.ofSeconds(ttlSeconds),
+                Duration.ofMillis(settleMillis), maxDates);
+    }
+
+    ServiceRollupService(FlightRepository flightRepository, PassengerRepository passengerRepository,
+                         Clock clock, Duration ttl, Duration settle, int maxDates) {
+        this.flightRepository = flightRepository;
+        this.passengerRepository = passengerRepository;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.settle = settle;
+        this.maxDates = maxDates;
+    }
+
+    /**
+     * Get the version fingerprint of a date's rollup
+     * @param date the flight date
+     * @return count and newest update time of the date's flights and their passengers
+     */
+    public ResourceVersion getRollupVersion(LocalDate date) {
+        validateDate(date);
+        return flightRepository.findVersionByFlightDate(date)
+                .and(passengerRepository.findVersionByFlightDate(date));
+    }
+
+    /**
+     * Get the rollup of every flight departing on a date
+     * @param date the flight date
+     * @return meal counts by type, extra baggage, wheelchair and infant counts per flight and for the day
+     */
+    public ServiceRollupDto getRollup(LocalDate date) {
+        return getRollup(date, getRollupVersion(date));
+    }
+
+    /**
+     * Get the rollup of every flight departing on a date
+     * @param date the flight date
+     * @param version the date's current fingerprint, as returned by getRollupVersion
+     * @return meal counts by type, extra baggage, wheelchair and infant counts per flight and for the day
+     */
+    public ServiceRollupDto getRollup(LocalDate date, ResourceVersion version) {
+        validateDate(date);
+        Instant now = clock.instant();
+        Entry entry = cache.get(date);
+        if (entry != null && entry.version.equals(version) && now.isBefore(entry.expiresAt)) {
+            return entry.rollup;
+        }
+
+        // The fingerprint was read first, so a write racing with the aggregate only causes a recompute later
+        ServiceRollupDto rollup;
+        try (Stream<FlightRollupRow> rows = flightRepository.streamRollupByFlightDate(date)) {
+            rollup = fold(date, rows.iterator());
+        }
+        if (version.isSettled(LocalDateTime.now(clock).minus(settle))) {
+            cache.put(date, new Entry(version, rollup, now.plus(ttl)));
+            evictOverflow();
+        }
+        return rollup;
+    }
+
+    // Rows arrive ordered by flight, so each flight is complete once the next one starts
+    private ServiceRollupDto fold(LocalDate date, Iterator<FlightRollupRow> rows) {
+        RollupCountsDto totals = new RollupCountsDto();
+        List<FlightRollupDto> flights = new ArrayList<>();
+        FlightRollupDto current = null;
+        while (rows.hasNext()) {
+            FlightRollupRow row = rows.next();
+            if (current == null || !current.getFlightId().equals(row.getFlightId())) {
+                current = new FlightRollupDto(row.getFlightId(), row.getFlightName(), row.getRoute(),
+                        row.getDepartureTime());
+                flights.add(current);
+            }
+            add(current, row);
+            add(totals, row);
+        }
+        return new ServiceRollupDto(date, totals, flights, LocalDateTime.now(clock));
+    }
+
+    private static void add(RollupCountsDto counts, FlightRollupRow row) {
+        counts.setPassengers(counts.getPassengers() + row.getPassengers());
+        counts.setCheckedIn(counts.getCheckedIn() + row.getCheckedIn());
+        counts.setExtraBaggageKg(counts.getExtraBaggageKg() + row.getExtraBaggageKg());
+        counts.setWheelchair(counts.getWheelchair() + row.getWheelchair());
+        counts.setInfant(counts.getInfant() + row.getInfant());
+        String mealType = row.getMealType();
+        if (mealType != null && !mealType.isBlank() && row.getPassengers() > 0) {
+            counts.getMealsByType().merge(mealType, row.getPassengers(), Long::sum);
+            counts.setMeals(counts.getMeals() + row.getPassengers());
+        }
+    }
+
+    private void evictOverflow() {
+        while (cache.size() > maxDates) {
+            cache.entrySet().stream()
+                    .min(Comparator.comparing(e -> e.getValue().expiresAt))
+                    .ifPresent(oldest -> cache.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+
+    private void validateDate(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date is required");
+        }
+    }
+
+    private record Entry(ResourceVersion version, ServiceRollupDto rollup, Instant expiresAt) {}
+}
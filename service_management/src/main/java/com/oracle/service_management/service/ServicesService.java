@@ -1,33 +1,69 @@
 package com.oracle.service_management.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oracle.service_management.dto.*;
 import com.oracle.service_management.entity.Flight;
 import com.oracle.service_management.entity.Passenger;
 import com.oracle.service_management.exception.*;
 import com.oracle.service_management.repository.FlightRepository;
 import com.oracle.service_management.repository.PassengerRepository;
+import com.oracle.service_management.repository.PassengerServicesRow;
+import com.oracle.service_management.repository.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
- * Service layer for managing passenger services including meals, baggage, shopping, and other services
+ * Service layer for managing passenger services including meals, baggage, shopping, and other services.
+ *
+ * Transactions are read-only unless a method says otherwise: Spring then opens the Hibernate
+ * session read-only with manual flushing, so reads keep no snapshots and never flush.
+ * Passenger lists are read as PassengerServicesRow projections rather than entities.
+ *
+ * Updates run through OptimisticRetry in a transaction of their own. They write only the
+ * columns they change, and only if the passenger's version is still the one they read;
+ * an update that lost to a concurrent one is re-read and applied again. Services are added
+ * to the passenger's list by the database rather than by rewriting the list read.
  */
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class ServicesService {
     
+    static final int MAX_BULK_SIZE = 1000;
+    
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
     private final FlightRepository flightRepository;
     private final PassengerRepository passengerRepository;
+    private final FlightOpsCounters opsCounters;
+    private final FlightServiceCatalog serviceCatalog;
+    private final ShoppingInventory shoppingInventory;
+    private final OptimisticRetry updateRetry;
     
     @Autowired
-    public ServicesService(FlightRepository flightRepository, PassengerRepository passengerRepository) {
+    public ServicesService(FlightRepository flightRepository, PassengerRepository passengerRepository,
+                           FlightOpsCounters opsCounters, FlightServiceCatalog serviceCatalog,
+                           ShoppingInventory shoppingInventory, OptimisticRetry updateRetry) {
         this.flightRepository = flightRepository;
         this.passengerRepository = passengerRepository;
+        this.opsCounters = opsCounters;
+        this.serviceCatalog = serviceCatalog;
+        this.shoppingInventory = shoppingInventory;
+        this.updateRetry = updateRetry;
     }
     
     /**
@@ -74,10 +110,14 @@ public class ServicesService {
      * @param serviceRequest the service request
      * @return service response
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ServiceResponseDto updatePassengerServices(Long passengerId, ServiceRequestDto serviceRequest) {
         validatePassengerId(passengerId);
         validateServiceRequest(serviceRequest);
-
+        return updateRetry.execute(status -> applyPassengerServices(passengerId, serviceRequest));
+    }
+    
+    private ServiceResponseDto applyPassengerServices(Long passengerId, ServiceRequestDto serviceRequest) {
         Optional<Passenger> passengerOpt = passengerRepository.findById(passengerId);
         
         if (passengerOpt.isEmpty()) {
@@ -91,29 +131,54 @@ public class ServicesService {
             return ServiceResponseDto.error("Flight ID mismatch", "UPDATE_SERVICES", passengerId, serviceRequest.getFlightId());
         }
         
-        // Update services
-        if (serviceRequest.getRequestedServices() != null) {
-            passenger.setServices(serviceRequest.getRequestedServices());
+        // Take stock for added shopping items before changing anything
+        if (serviceRequest.hasShoppingService() && serviceRequest.hasShoppingDetails()) {
+            try {
+                shoppingInventory.replace(passenger.getFlightId(), passenger.getShoppingItems(),
+                        serviceRequest.getShoppingItems());
+            } catch (ServiceNotAvailableException e) {
+                return ServiceResponseDto.error(e.getMessage(), "UPDATE_SERVICES", passengerId, serviceRequest.getFlightId());
+            }
         }
         
+        FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
+
+        // Work out the new values, then write them only if nobody changed the passenger meanwhile
+        List<String> services = serviceRequest.getRequestedServices() != null
+                ? serviceRequest.getRequestedServices() : passenger.getServices();
+        String mealType = passenger.getMealType();
+        String mealName = passenger.getMealName();
+        Integer extraBaggage = passenger.getExtraBaggage();
+        List<String> shoppingItems = passenger.getShoppingItems();
+        
         // Update meal information if meal service is requested
         if (serviceRequest.hasMealService() && serviceRequest.hasMealDetails()) {
-            passenger.setMealType(serviceRequest.getMealType());
-            passenger.setMealName(serviceRequest.getMealName());
+            mealType = serviceRequest.getMealType();
+            mealName = serviceRequest.getMealName();
         }
         
         // Update baggage information if ancillary service is requested
         if (serviceRequest.hasAncillaryService() && serviceRequest.hasBaggageDetails()) {
-            passenger.setExtraBaggage(serviceRequest.getExtraBaggageWeight());
+            extraBaggage = serviceRequest.getExtraBaggageWeight();
         }
         
         // Update shopping items if shopping service is requested
         if (serviceRequest.hasShoppingService() && serviceRequest.hasShoppingDetails()) {
-            passenger.setShoppingItems(serviceRequest.getShoppingItems());
+            shoppingItems = serviceRequest.getShoppingItems();
         }
         
-        Passenger savedPassenger = passengerRepository.save(passenger);
-        PassengerServicesDto updatedServices = convertToPassengerServicesDto(savedPassenger);
+        checkUpdated(passengerRepository.updatePassengerServices(passengerId, passenger.getVersion(), toJson(services),
+                mealType, mealName, extraBaggage, toJson(shoppingItems)), passengerId);
+        
+        // The update detached the passenger; bring it in line with the row
+        passenger.setServices(services);
+        passenger.setMealType(mealType);
+        passenger.setMealName(mealName);
+        passenger.setExtraBaggage(extraBaggage);
+        passenger.setShoppingItems(shoppingItems);
+        passenger.setUpdatedAt(LocalDateTime.now());
+        opsCounters.record(before, FlightOpsCounters.contributionOf(passenger));
+        PassengerServicesDto updatedServices = convertToPassengerServicesDto(passenger);
         
         return ServiceResponseDto.success("Services updated successfully", "UPDATE_SERVICES", 
                 passengerId, serviceRequest.getFlightId(), updatedServices);
@@ -125,10 +190,14 @@ public class ServicesService {
      * @param mealDto the meal request
      * @return service response
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ServiceResponseDto updatePassengerMeal(Long passengerId, MealDto mealDto) {
         validatePassengerId(passengerId);
         validateMealRequest(mealDto);
-
+        return updateRetry.execute(status -> applyPassengerMeal(passengerId, mealDto));
+    }
+    
+    private ServiceResponseDto applyPassengerMeal(Long passengerId, MealDto mealDto) {
         Optional<Passenger> passengerOpt = passengerRepository.findById(passengerId);
         
         if (passengerOpt.isEmpty()) {
@@ -143,25 +212,22 @@ public class ServicesService {
         }
         
         // Validate flight has meal service
-        Optional<Flight> flightOpt = flightRepository.findById(mealDto.getFlightId());
-        if (flightOpt.isEmpty() || !flightOpt.get().getServices().contains("Meal")) {
+        if (!serviceCatalog.offers(mealDto.getFlightId(), "Meal")) {
             return ServiceResponseDto.error("Meal service not available for this flight", "UPDATE_MEAL", 
                     passengerId, mealDto.getFlightId());
         }
         
-        // Update meal information
+        FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
+
+        // Update meal information; the database adds the Meal service if not already present
+        checkUpdated(passengerRepository.updatePassengerMeal(passengerId, passenger.getVersion(),
+                mealDto.getMealType(), mealDto.getMealName()), passengerId);
+        
         passenger.setMealType(mealDto.getMealType());
         passenger.setMealName(mealDto.getMealName());
-        
-        // Add meal service to passenger services if not already present
-        List<String> services = passenger.getServices();
-        if (!services.contains("Meal")) {
-            services.add("Meal");
-            passenger.setServices(services);
-        }
-        
-        Passenger savedPassenger = passengerRepository.save(passenger);
-        PassengerServicesDto updatedServices = convertToPassengerServicesDto(savedPassenger);
+        addService(passenger, "Meal");
+        opsCounters.record(before, FlightOpsCounters.contributionOf(passenger));
+        PassengerServicesDto updatedServices = convertToPassengerServicesDto(passenger);
         
         return ServiceResponseDto.success("Meal service updated successfully", "UPDATE_MEAL", 
                 passengerId, mealDto.getFlightId(), updatedServices);
@@ -173,10 +239,14 @@ public class ServicesService {
      * @param baggageDto the baggage request
      * @return service response
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ServiceResponseDto updatePassengerBaggage(Long passengerId, BaggageDto baggageDto) {
         validatePassengerId(passengerId);
         validateBaggageRequest(baggageDto);
-
+        return updateRetry.execute(status -> applyPassengerBaggage(passengerId, baggageDto));
+    }
+    
+    private ServiceResponseDto applyPassengerBaggage(Long passengerId, BaggageDto baggageDto) {
         Optional<Passenger> passengerOpt = passengerRepository.findById(passengerId);
         
         if (passengerOpt.isEmpty()) {
@@ -191,24 +261,21 @@ public class ServicesService {
         }
         
         // Validate flight has ancillary service
-        Optional<Flight> flightOpt = flightRepository.findById(baggageDto.getFlightId());
-        if (flightOpt.isEmpty() || !flightOpt.get().getServices().contains("Ancillary")) {
+        if (!serviceCatalog.offers(baggageDto.getFlightId(), "Ancillary")) {
             return ServiceResponseDto.error("Baggage service not available for this flight", "UPDATE_BAGGAGE", 
                     passengerId, baggageDto.getFlightId());
         }
         
-        // Update baggage information
-        passenger.setExtraBaggage(baggageDto.getExtraBaggageWeight());
-        
-        // Add ancillary service to passenger services if not already present
-        List<String> services = passenger.getServices();
-        if (!services.contains("Ancillary")) {
-            services.add("Ancillary");
-            passenger.setServices(services);
-        }
+        FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
+
+        // Update baggage information; the database adds the Ancillary service if not already present
+        checkUpdated(passengerRepository.updatePassengerExtraBaggage(passengerId, passenger.getVersion(),
+                baggageDto.getExtraBaggageWeight()), passengerId);
         
-        Passenger savedPassenger = passengerRepository.save(passenger);
-        PassengerServicesDto updatedServices = convertToPassengerServicesDto(savedPassenger);
+        passenger.setExtraBaggage(baggageDto.getExtraBaggageWeight());
+        addService(passenger, "Ancillary");
+        opsCounters.record(before, FlightOpsCounters.contributionOf(passenger));
+        PassengerServicesDto updatedServices = convertToPassengerServicesDto(passenger);
         
         return ServiceResponseDto.success("Baggage service updated successfully", "UPDATE_BAGGAGE", 
                 passengerId, baggageDto.getFlightId(), updatedServices);
@@ -220,10 +287,14 @@ public class ServicesService {
      * @param shoppingDto the shopping request
      * @return service response
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ServiceResponseDto updatePassengerShopping(Long passengerId, ShoppingDto shoppingDto) {
         validatePassengerId(passengerId);
         validateShoppingRequest(shoppingDto);
-
+        return updateRetry.execute(status -> applyPassengerShopping(passengerId, shoppingDto));
+    }
+    
+    private ServiceResponseDto applyPassengerShopping(Long passengerId, ShoppingDto shoppingDto) {
         Optional<Passenger> passengerOpt = passengerRepository.findById(passengerId);
         
         if (passengerOpt.isEmpty()) {
@@ -238,29 +309,143 @@ public class ServicesService {
         }
         
         // Validate flight has shopping service
-        Optional<Flight> flightOpt = flightRepository.findById(shoppingDto.getFlightId());
-        if (flightOpt.isEmpty() || !flightOpt.get().getServices().contains("Shopping")) {
+        if (!serviceCatalog.offers(shoppingDto.getFlightId(), "Shopping")) {
             return ServiceResponseDto.error("Shopping service not available for this flight", "UPDATE_SHOPPING", 
                     passengerId, shoppingDto.getFlightId());
         }
         
-        // Update shopping items
-        passenger.setShoppingItems(shoppingDto.getItems());
-        
-        // Add shopping service to passenger services if not already present
-        List<String> services = passenger.getServices();
-        if (!services.contains("Shopping")) {
-            services.add("Shopping");
-            passenger.setServices(services);
+        // Take stock for added items and give back removed ones when this transaction commits
+        try {
+            shoppingInventory.replace(passenger.getFlightId(), passenger.getShoppingItems(), shoppingDto.getItems());
+        } catch (ServiceNotAvailableException e) {
+            return ServiceResponseDto.error(e.getMessage(), "UPDATE_SHOPPING", passengerId, shoppingDto.getFlightId());
         }
         
-        Passenger savedPassenger = passengerRepository.save(passenger);
-        PassengerServicesDto updatedServices = convertToPassengerServicesDto(savedPassenger);
+        FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
+
+        // Update shopping items; the database adds the Shopping service if not already present
+        checkUpdated(passengerRepository.updatePassengerShoppingItems(passengerId, passenger.getVersion(),
+                toJson(shoppingDto.getItems())), passengerId);
+        
+        passenger.setShoppingItems(shoppingDto.getItems());
+        addService(passenger, "Shopping");
+        opsCounters.record(before, FlightOpsCounters.contributionOf(passenger));
+        PassengerServicesDto updatedServices = convertToPassengerServicesDto(passenger);
         
         return ServiceResponseDto.success("Shopping service updated successfully", "UPDATE_SHOPPING",
                 passengerId, shoppingDto.getFlightId(), updatedServices);
     }
 
+    /**
+     * Set meals, baggage and shopping for many passengers of a flight at once.
+     * The flight's services are checked once against the service catalog, the
+     * passengers are loaded with one query and the accepted changes are flushed
+     * together as batched updates. In ALL_OR_NOTHING mode nothing is changed
+     * unless every passenger's change is valid.
+     * @param flightId the flight ID
+     * @param bulkDto the per-passenger changes and the failure mode
+     * @return one outcome per requested passenger, in request order
+     * @throws FlightNotFoundException if the flight does not exist
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BulkServiceResultDto updateFlightServices(Long flightId, BulkServiceUpdateDto bulkDto) {
+        validateFlightId(flightId);
+        List<BulkServiceItemDto> items = bulkDto.getPassengers();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one passenger is required");
+        }
+        if (items.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " passengers can be updated at once");
+        }
+        if (items.stream().anyMatch(item -> item == null || item.getPassengerId() == null)) {
+            throw new IllegalArgumentException("Passenger ID is required");
+        }
+        BulkServiceUpdateDto.Mode mode = bulkDto.getMode() != null ? bulkDto.getMode() : BulkServiceUpdateDto.Mode.ALL_OR_NOTHING;
+        return updateRetry.execute(transaction -> applyFlightServices(flightId, items, mode, transaction));
+    }
+    
+    private BulkServiceResultDto applyFlightServices(Long flightId, List<BulkServiceItemDto> items,
+                                                     BulkServiceUpdateDto.Mode mode, TransactionStatus transaction) {
+        FlightServiceCatalog.Catalog catalog = serviceCatalog.get(flightId)
+                .orElseThrow(() -> new FlightNotFoundException(flightId));
+        
+        Map<Long, Passenger> passengersById = new HashMap<>();
+        passengerRepository.findAllById(items.stream().map(BulkServiceItemDto::getPassengerId).collect(Collectors.toSet()))
+                .forEach(passenger -> passengersById.put(passenger.getPassengerId(), passenger));
+        
+        List<BulkServiceResultDto.Outcome> outcomes = new ArrayList<>(items.size());
+        List<Integer> accepted = new ArrayList<>(items.size());
+        Set<Long> seenIds = new HashSet<>();
+        for (BulkServiceItemDto item : items) {
+            Long passengerId = item.getPassengerId();
+            Passenger passenger = passengersById.get(passengerId);
+            BulkServiceResultDto.Status status = null;
+            String message = null;
+            if (!seenIds.add(passengerId)) {
+                status = BulkServiceResultDto.Status.DUPLICATE;
+                message = "Passenger with ID " + passengerId + " is listed more than once";
+            } else if (passenger == null) {
+                status = BulkServiceResultDto.Status.NOT_FOUND;
+                message = new PassengerNotFoundException(passengerId).getMessage();
+            } else if (!passenger.getFlightId().equals(flightId)) {
+                status = BulkServiceResultDto.Status.FLIGHT_MISMATCH;
+                message = "Passenger with ID " + passengerId + " is not on flight " + flightId;
+            } else if ((message = invalidBulkItem(item)) != null) {
+                status = BulkServiceResultDto.Status.INVALID;
+            } else if ((message = unavailableService(item, catalog)) != null) {
+                status = BulkServiceResultDto.Status.SERVICE_NOT_AVAILABLE;
+            } else if (item.hasShopping()) {
+                try {
+                    shoppingInventory.replace(flightId, passenger.getShoppingItems(), item.getShoppingItems());
+                } catch (OutOfStockException e) {
+                    status = BulkServiceResultDto.Status.OUT_OF_STOCK;
+                    message = e.getMessage();
+                } catch (ServiceNotAvailableException e) {
+                    status = BulkServiceResultDto.Status.SERVICE_NOT_AVAILABLE;
+                    message = e.getMessage();
+                }
+            }
+            if (status == null) {
+                accepted.add(outcomes.size());
+            }
+            outcomes.add(new BulkServiceResultDto.Outcome(passengerId, status, message));
+        }
+        
+        if (mode == BulkServiceUpdateDto.Mode.ALL_OR_NOTHING && accepted.size() < items.size()) {
+            accepted.forEach(index -> outcomes.get(index).setStatus(BulkServiceResultDto.Status.NOT_APPLIED));
+            // Rolling back gives back the shopping stock taken for the accepted passengers
+            transaction.setRollbackOnly();
+            return new BulkServiceResultDto(flightId, mode, false, outcomes);
+        }
+        
+        List<Passenger> updated = new ArrayList<>(accepted.size());
+        for (int index : accepted) {
+            BulkServiceItemDto item = items.get(index);
+            Passenger passenger = passengersById.get(item.getPassengerId());
+            FlightOpsCounters.Contribution before = FlightOpsCounters.contributionOf(passenger);
+            applyBulkItem(passenger, item);
+            opsCounters.record(before, FlightOpsCounters.contributionOf(passenger));
+            updated.add(passenger);
+            outcomes.get(index).setStatus(BulkServiceResultDto.Status.UPDATED);
+        }
+        passengerRepository.saveAllAndFlush(updated);
+        return new BulkServiceResultDto(flightId, mode, true, outcomes);
+    }
+
+    /**
+     * Get the in-flight shopping stock of a flight
+     * @param flightId the flight ID
+     * @return stock, units sold and units available per item sold on the flight
+     * @throws FlightNotFoundException if the flight does not exist
+     */
+    public List<ShoppingStockDto> getShoppingStock(Long flightId) {
+        validateFlightId(flightId);
+        if (serviceCatalog.get(flightId).isEmpty()) {
+            throw new FlightNotFoundException(flightId);
+        }
+        return shoppingInventory.getStock(flightId);
+    }
+
     /**
      * Get passengers with meal services for a specific flight
      * @param flightId the flight ID
@@ -353,6 +538,38 @@ public class ServicesService {
         return Optional.of(stats);
     }
 
+    /**
+     * Get the version fingerprint of a flight's service catalog
+     * @param flightId the flight ID
+     * @return count (0 if the flight does not exist) and update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getFlightVersion(Long flightId) {
+        validateFlightId(flightId);
+        return flightRepository.findVersionById(flightId);
+    }
+
+    /**
+     * Get the version fingerprint of a passenger's services
+     * @param passengerId the passenger ID
+     * @return count (0 if the passenger does not exist) and update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getPassengerVersion(Long passengerId) {
+        validatePassengerId(passengerId);
+        return passengerRepository.findVersionById(passengerId);
+    }
+
+    /**
+     * Get the version fingerprint of the passengers on a flight
+     * @param flightId the flight ID
+     * @return count and newest update time
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getPassengersVersionByFlight(Long flightId) {
+        return passengerRepository.findVersionByFlightId(flightId);
+    }
+
     // Conversion methods
 
     /**
@@ -374,6 +591,30 @@ public class ServicesService {
         );
     }
 
+    /**
+     * Convert a PassengerServicesRow projection to PassengerServicesDto
+     */
+    private PassengerServicesDto convertToPassengerServicesDto(PassengerServicesRow row) {
+        return new PassengerServicesDto(
+                row.getPassengerId(),
+                row.getFlightId(),
+                row.getName(),
+                row.getPhoneNumber(),
+                row.getOrigin(),
+                row.getDestination(),
+                row.getSeat(),
+                row.isCheckedIn(),
+                row.needsWheelchair(),
+                row.hasInfant(),
+                row.getServices(),
+                row.getMealType(),
+                row.getMealName(),
+                row.getExtraBaggage(),
+                row.getShoppingItems(),
+                row.getUpdatedAt()
+        );
+    }
+
     /**
      * Convert Passenger entity to PassengerServicesDto
      */
@@ -400,6 +641,107 @@ public class ServicesService {
 
     // Validation methods
 
+    /**
+     * Check the changes of one bulk update item
+     * @param item the item
+     * @return why the item is invalid, or null if it is valid
+     */
+    private String invalidBulkItem(BulkServiceItemDto item) {
+        if (!item.hasMeal() && !item.hasBaggage() && !item.hasShopping()) {
+            return "No service changes given";
+        }
+        if (item.hasMeal() && (item.getMealType() == null || item.getMealType().trim().isEmpty())) {
+            return "Meal type is required";
+        }
+        if (item.hasBaggage() && item.getExtraBaggageWeight() < 0) {
+            return "Extra baggage weight must be non-negative";
+        }
+        if (item.hasShopping() && item.getShoppingItems().isEmpty()) {
+            return "At least one shopping item is required";
+        }
+        return null;
+    }
+
+    /**
+     * Check that the flight offers every service a bulk update item changes
+     * @param item the item
+     * @param catalog the flight's services
+     * @return which service is not offered, or null if all are
+     */
+    private String unavailableService(BulkServiceItemDto item, FlightServiceCatalog.Catalog catalog) {
+        if (item.hasMeal() && !catalog.offers("Meal")) {
+            return "Meal service not available for this flight";
+        }
+        if (item.hasBaggage() && !catalog.offers("Ancillary")) {
+            return "Baggage service not available for this flight";
+        }
+        if (item.hasShopping() && !catalog.offers("Shopping")) {
+            return "Shopping service not available for this flight";
+        }
+        return null;
+    }
+
+    /**
+     * Apply the changes of one bulk update item, the same way the single-service updates do
+     * @param passenger the passenger to change
+     * @param item the changes
+     */
+    private void applyBulkItem(Passenger passenger, BulkServiceItemDto item) {
+        List<String> services = passenger.getServices() != null
+                ? new ArrayList<>(passenger.getServices()) : new ArrayList<>();
+        if (item.hasMeal()) {
+            passenger.setMealType(item.getMealType());
+            passenger.setMealName(item.getMealName());
+            if (!services.contains("Meal")) {
+                services.add("Meal");
+            }
+        }
+        if (item.hasBaggage()) {
+            passenger.setExtraBaggage(item.getExtraBaggageWeight());
+            if (!services.contains("Ancillary")) {
+                services.add("Ancillary");
+            }
+        }
+        if (item.hasShopping()) {
+            passenger.setShoppingItems(item.getShoppingItems());
+            if (!services.contains("Shopping")) {
+                services.add("Shopping");
+            }
+        }
+        passenger.setServices(services);
+    }
+
+    /**
+     * Fail the current attempt if a targeted update found the passenger at another version
+     * @param updatedRows the rows the update changed
+     * @param passengerId the passenger ID
+     * @throws OptimisticLockingFailureException if no row was changed, so the update is retried
+     */
+    private static void checkUpdated(int updatedRows, Long passengerId) {
+        if (updatedRows == 0) {
+            throw new OptimisticLockingFailureException(
+                    "Passenger with ID " + passengerId + " was changed by another update");
+        }
+    }
+    
+    // Mirror of the database's set-add, so the detached passenger matches the updated row
+    private static void addService(Passenger passenger, String service) {
+        List<String> services = new ArrayList<>(passenger.getServices());
+        if (!services.contains(service)) {
+            services.add(service);
+            passenger.setServices(services);
+        }
+    }
+    
+    // Same JSON as Passenger.setServices/setShoppingItems writes
+    private static String toJson(List<String> values) {
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            return "[]";
+        }
+    }
+
     /**
      * Validate flight ID
      * @param flightId the flight ID to validate
@@ -0,0 +1,314 @@
+package com.oracle.service_management.service;
+
+import com.oracle.service_management.dto.ShoppingStockDto;
+import com.oracle.service_management.entity.ShoppingStock;
+import com.oracle.service_management.exception.OutOfStockException;
+import com.oracle.service_management.exception.ServiceNotAvailableException;
+import com.oracle.service_management.repository.ShoppingStockRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-flight stock of the in-flight shopping items, so duty-free is never oversold.
+ *
+ * The items sold on a flight are the subtypes of its Shopping service; each gets a
+ * flight_shopping_stock row with app.inventory.default-stock units on its first sale.
+ * Orders do not lock that row. Each instance leases units from it in chunks of
+ * app.inventory.lease-size with a conditional UPDATE that cannot take more than is
+ * left, and then sells from its local quota with a compare-and-set on an atomic
+ * counter, so concurrent crew tablets only meet at the database once per chunk and
+ * several instances can never sell more than the stock between them.
+ *
+ * Units are taken from the quota as soon as an order is accepted. When the order's
+ * transaction commits they count as sold; when it rolls back they go back to the
+ * quota, and items dropped from a replaced shopping list go back on commit. Sales are
+ * written to the row every app.inventory.flush-seconds, and unsold quota is given
+ * back to the row on shutdown. Flights without Shopping subtypes are not stocked.
+ */
+@Component
+public class ShoppingInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShoppingInventory.class);
+    private static final int MAX_LEASE_ATTEMPTS = 5;
+
+    private final ShoppingStockRepository stockRepository;
+    private final FlightServiceCatalog serviceCatalog;
+    private final TransactionTemplate newTransactionTemplate;
+    private final int defaultStock;
+    private final int leaseSize;
+    private final long flushSeconds;
+    private final Map<ItemKey, Quota> quotas = new ConcurrentHashMap<>();
+    private ScheduledExecutorService writer;
+
+    @Autowired
+    public ShoppingInventory(ShoppingStockRepository stockRepository, FlightServiceCatalog serviceCatalog,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.inventory.default-stock:50}") int defaultStock,
+                             @Value("${app.inventory.lease-size:10}") int leaseSize,
+                             @Value("${app.inventory.flush-seconds:5}") long flushSeconds) {
+        this.stockRepository = stockRepository;
+        this.serviceCatalog = serviceCatalog;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultStock = defaultStock;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.flushSeconds = flushSeconds;
+    }
+
+    /**
+     * Start writing sales behind (a flush interval of 0 leaves it to {@link #flush()})
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (flushSeconds <= 0 || writer != null) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shopping-inventory-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flush, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Write the last sales and give unsold quota back
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (writer != null) {
+            writer.shutdownNow();
+        }
+        flush();
+        quotas.forEach((key, quota) -> {
+            int units = quota.units.getAndSet(0);
+            if (units > 0) {
+                try {
+                    newTransactionTemplate.executeWithoutResult(
+                            status -> stockRepository.release(key.flightId(), key.itemName(), units));
+                } catch (DataAccessException e) {
+                    logger.warn("Could not give back {} units of {}: {}", units, key, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Replace a passenger's shopping list: take the units of the items added and give
+     * back those of the items removed when the current transaction commits
+     * @param flightId the passenger's flight
+     * @param before the current shopping items (null if none)
+     * @param after the new shopping items (null if none)
+     * @throws OutOfStockException if an added item has no units left; nothing is taken then
+     * @throws ServiceNotAvailableException if an added item is not sold on the flight
+     */
+    public void replace(Long flightId, List<String> before, List<String> after) {
+        Set<String> stocked = serviceCatalog.get(flightId)
+                .map(catalog -> catalog.getSubtypes("Shopping"))
+                .orElse(Set.of());
+        if (stocked.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> changes = new TreeMap<>();
+        count(after, 1, changes);
+        count(before, -1, changes);
+        Map<ItemKey, Integer> taken = new TreeMap<>();
+        Map<ItemKey, Integer> returned = new TreeMap<>();
+        try {
+            for (Map.Entry<String, Integer> change : changes.entrySet()) {
+                String item = change.getKey();
+                int units = change.getValue();
+                if (units > 0 && !stocked.contains(item)) {
+                    throw new ServiceNotAvailableException(flightId, "Shopping",
+                            String.format("Item '%s' is not sold on flight %d", item, flightId));
+                }
+                ItemKey key = new ItemKey(flightId, item);
+                if (units > 0) {
+                    if (!take(key, units)) {
+                        throw new OutOfStockException(flightId, item);
+                    }
+                    taken.put(key, units);
+                } else if (units < 0 && stocked.contains(item)) {
+                    returned.put(key, -units);
+                }
+            }
+        } catch (RuntimeException e) {
+            taken.forEach((key, units) -> quota(key).units.addAndGet(units));
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete(taken, returned, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                complete(taken, returned, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    /**
+     * Get the stock of the items sold on a flight, as seen by this instance
+     * @param flightId the flight ID
+     * @return one entry per item: stock, units sold and units still available
+     */
+    public List<ShoppingStockDto> getStock(Long flightId) {
+        Map<String, ShoppingStockDto> stock = new TreeMap<>();
+        serviceCatalog.get(flightId).ifPresent(catalog -> catalog.getSubtypes("Shopping").forEach(
+                item -> stock.put(item, new ShoppingStockDto(item, defaultStock, 0, defaultStock))));
+        for (ShoppingStock row : stockRepository.findByFlightId(flightId)) {
+            Quota quota = quotas.get(new ItemKey(flightId, row.getItemName()));
+            int localUnits = quota == null ? 0 : quota.units.get();
+            int unwrittenSales = quota == null ? 0 : quota.unwrittenSales.get();
+            // Quota leased by other instances counts as unavailable here
+            stock.put(row.getItemName(), new ShoppingStockDto(row.getItemName(), row.getStock(),
+                    row.getSold() + unwrittenSales, row.getStock() - row.getAllocated() + localUnits));
+        }
+        return new ArrayList<>(stock.values());
+    }
+
+    /**
+     * Write the sales made since the last flush to the stock rows
+     */
+    public void flush() {
+        quotas.forEach((key, quota) -> {
+            int sales = quota.unwrittenSales.getAndSet(0);
+            if (sales == 0) {
+                return;
+            }
+            try {
+                newTransactionTemplate.executeWithoutResult(
+                        status -> stockRepository.addSold(key.flightId(), key.itemName(), sales));
+            } catch (DataAccessException e) {
+                quota.unwrittenSales.addAndGet(sales);
+                logger.warn("Could not write {} sales of {}: {}", sales, key, e.getMessage());
+            }
+        });
+    }
+
+    // Take units from the local quota, leasing more from the stock row when it runs short
+    private boolean take(ItemKey key, int units) {
+        Quota quota = quota(key);
+        while (true) {
+            int available = quota.units.get();
+            if (available >= units) {
+                if (quota.units.compareAndSet(available, available - units)) {
+                    return true;
+                }
+                continue;
+            }
+            synchronized (quota) {
+                // Another order may have leased while this one waited
+                if (quota.units.get() < units && !lease(key, quota, units - quota.units.get())) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private boolean lease(ItemKey key, Quota quota, int needed) {
+        int wanted = Math.max(needed, leaseSize);
+        for (int attempt = 0; attempt < MAX_LEASE_ATTEMPTS; attempt++) {
+            int units = wanted;
+            Integer leased = newTransactionTemplate.execute(status ->
+                    stockRepository.lease(key.flightId(), key.itemName(), units) > 0 ? units : null);
+            if (leased != null) {
+                quota.units.addAndGet(leased);
+                return true;
+            }
+            ShoppingStock row = newTransactionTemplate.execute(
+                    status -> stockRepository.find(key.flightId(), key.itemName()).orElse(null));
+            if (row == null) {
+                createRow(key);
+                continue;
+            }
+            int left = row.getStock() - row.getAllocated();
+            if (left < needed) {
+                return false;
+            }
+            wanted = Math.min(wanted, left);
+        }
+        return false;
+    }
+
+    private void createRow(ItemKey key) {
+        try {
+            newTransactionTemplate.executeWithoutResult(
+                    status -> stockRepository.create(key.flightId(), key.itemName(), defaultStock));
+        } catch (DataIntegrityViolationException e) {
+            // Created by a concurrent order or another instance in the meantime
+        }
+    }
+
+    private void complete(Map<ItemKey, Integer> taken, Map<ItemKey, Integer> returned,
+                          boolean committed) {
+        if (!committed) {
+            taken.forEach((key, units) -> quota(key).units.addAndGet(units));
+            return;
+        }
+        taken.forEach((key, units) -> quota(key).unwrittenSales.addAndGet(units));
+        returned.forEach((key, units) -> {
+            Quota quota = quota(key);
+            quota.unwrittenSales.addAndGet(-units);
+            quota.units.addAndGet(units);
+        });
+    }
+
+    private Quota quota(ItemKey key) {
+        return quotas.computeIfAbsent(key, k -> new Quota());
+    }
+
+    private static void count(List<String> items, int sign, Map<String, Integer> changes) {
+        if (items == null) {
+            return;
+        }
+        for (String item : items) {
+            if (item != null && !item.isBlank()) {
+                changes.merge(item.trim(), sign, Integer::sum);
+            }
+        }
+    }
+
+    private record ItemKey(Long flightId, String itemName) implements Comparable<ItemKey> {
+        @Override
+        public int compareTo(ItemKey other) {
+            int byFlight = flightId.compareTo(other.flightId);
+            return byFlight != 0 ? byFlight : itemName.compareTo(other.itemName);
+        }
+    }
+
+    /**
+     * The units of one item this instance has leased and not sold, and the sales not yet written
+     */
+    private static final class Quota {
+        private final AtomicInteger units = new AtomicInteger();
+        private final AtomicInteger unwrittenSales = new AtomicInteger();
+    }
+}
@@ -0,0 +1,187 @@
+package com.oracle.service_management.integration;
+
+import com.oracle.service_management.dto.BulkServiceItemDto;
+import com.oracle.service_management.dto.BulkServiceResultDto;
+import com.oracle.service_management.dto.BulkServiceUpdateDto;
+import com.oracle.service_management.dto.MealDto;
+import com.oracle.service_management.entity.Flight;
+import com.oracle.service_management.entity.Passenger;
+import com.oracle.service_management.exception.FlightNotFoundException;
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.PassengerRepository;
+import com.oracle.service_management.service.ServicesService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sets the meals of a whole flight one passenger at a time, the way crews used to,
+ * and through the bulk update. Prepared statements come from Hibernate statistics
+ * and are asserted; the throughput on H2 is logged for comparison.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class BulkServiceUpdateThroughputTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkServiceUpdateThroughputTest.class);
+    private static final int PASSENGERS = 500;
+
+    @Autowired
+    private ServicesService servicesService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Long flightId;
+    private List<Long> passengerIds;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Flight flight = new Flight("Flight 303", LocalDate.of(2026, 7, 1), "NYC-PAR",
+                "07:00 PM", "08:30 AM", "Boeing 787", PASSENGERS, PASSENGERS);
+        flight.setServices(List.of("Meal", "Ancillary"));
+        flightId = flightRepository.save(flight).getFlightId();
+
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 1; i <= PASSENGERS; i++) {
+            Passenger passenger = new Passenger(flightId, String.format("Passenger %04d", i), "NYC", "PAR");
+            passenger.setServices(List.of());
+            passengers.add(passenger);
+        }
+        passengerIds = passengerRepository.saveAll(passengers).stream().map(Passenger::getPassengerId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+        flightRepository.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> entityManager.createQuery("DELETE FROM FlightOpsCounter").executeUpdate());
+    }
+
+    @Test
+    void bulkUpdate_ShouldUseFarFewerStatementsThanPerPassengerUpdates() {
+        statistics.clear();
+        long start = System.nanoTime();
+        for (Long passengerId : passengerIds) {
+            assertTrue(servicesService.updatePassengerMeal(passengerId,
+                    new MealDto(passengerId, flightId, "Veg", "Pasta", null)).isSuccess());
+        }
+        long singleNanos = System.nanoTime() - start;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        List<BulkServiceItemDto> items = passengerIds.stream()
+                .map(passengerId -> new BulkServiceItemDto(passengerId, "Non-Veg", "Chicken Curry", 10, null))
+                .toList();
+        statistics.clear();
+        start = System.nanoTime();
+        BulkServiceResultDto result = servicesService.updateFlightServices(flightId,
+                new BulkServiceUpdateDto(BulkServiceUpdateDto.Mode.ALL_OR_NOTHING, items));
+        long bulkNanos = System.nanoTime() - start;
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        assertTrue(result.isApplied());
+        assertEquals(PASSENGERS, result.getUpdated());
+        assertEquals(0, result.getFailed());
+        // One passenger read, the batched updates and the counter rows
+        assertTrue(bulkStatements < PASSENGERS / 10,
+                "bulk update prepared " + bulkStatements + " statements");
+        assertTrue(bulkStatements * 20 < singleStatements,
+                "bulk " + bulkStatements + " vs single " + singleStatements + " statements");
+
+        List<Passenger> stored = passengerRepository.findAllById(passengerIds);
+        assertTrue(stored.stream().allMatch(p -> "Non-Veg".equals(p.getMealType())
+                && Integer.valueOf(10).equals(p.getExtraBaggage())
+                && p.getServices().containsAll(List.of("Meal", "Ancillary"))));
+
+        logger.info("{} passengers: per-passenger updates {} statements / {} ms ({} passengers/s), " +
+                        "bulk update {} statements / {} ms ({} passengers/s)",
+                PASSENGERS, singleStatements, singleNanos / 1_000_000, perSecond(singleNanos),
+                bulkStatements, bulkNanos / 1_000_000, perSecond(bulkNanos));
+    }
+
+    @Test
+    void bulkUpdate_AllOrNothing_ShouldChangeNobodyWhenOnePassengerFails() {
+        List<BulkServiceItemDto> items = List.of(
+                new BulkServiceItemDto(passengerIds.get(0), "Veg", null, null, null),
+                new BulkServiceItemDto(passengerIds.get(1), null, null, null, List.of("Perfume")),
+                new BulkServiceItemDto(-1L, "Veg", null, null, null),
+                new BulkServiceItemDto(passengerIds.get(0), "Kosher", null, null, null));
+
+        BulkServiceResultDto result = servicesService.updateFlightServices(flightId,
+                new BulkServiceUpdateDto(BulkServiceUpdateDto.Mode.ALL_OR_NOTHING, items));
+
+        assertFalse(result.isApplied());
+        assertEquals(List.of(BulkServiceResultDto.Status.NOT_APPLIED,
+                        BulkServiceResultDto.Status.SERVICE_NOT_AVAILABLE,
+                        BulkServiceResultDto.Status.NOT_FOUND,
+                        BulkServiceResultDto.Status.DUPLICATE),
+                result.getOutcomes().stream().map(BulkServiceResultDto.Outcome::getStatus).toList());
+        assertEquals(3, result.getFailed());
+        assertNull(passengerRepository.findById(passengerIds.get(0)).orElseThrow().getMealType());
+    }
+
+    @Test
+    void bulkUpdate_BestEffort_ShouldApplyTheValidChanges() {
+        List<BulkServiceItemDto> items = List.of(
+                new BulkServiceItemDto(passengerIds.get(0), "Veg", null, null, null),
+                new BulkServiceItemDto(passengerIds.get(1), null, "Pasta", null, null),
+                new BulkServiceItemDto(passengerIds.get(2), null, null, null, null));
+
+        BulkServiceResultDto result = servicesService.updateFlightServices(flightId,
+                new BulkServiceUpdateDto(BulkServiceUpdateDto.Mode.BEST_EFFORT, items));
+
+        assertTrue(result.isApplied());
+        assertEquals(1, result.getUpdated());
+        assertEquals(List.of(BulkServiceResultDto.Status.UPDATED,
+                        BulkServiceResultDto.Status.INVALID,
+                        BulkServiceResultDto.Status.INVALID),
+                result.getOutcomes().stream().map(BulkServiceResultDto.Outcome::getStatus).toList());
+        Passenger updated = passengerRepository.findById(passengerIds.get(0)).orElseThrow();
+        assertEquals("Veg", updated.getMealType());
+        assertEquals(List.of("Meal"), updated.getServices());
+    }
+
+    @Test
+    void bulkUpdate_ForAnUnknownFlight_ShouldThrow() {
+        BulkServiceUpdateDto bulkDto = new BulkServiceUpdateDto(BulkServiceUpdateDto.Mode.BEST_EFFORT,
+                List.of(new BulkServiceItemDto(passengerIds.get(0), "Veg", null, null, null)));
+
+        assertThrows(FlightNotFoundException.class, () -> servicesService.updateFlightServices(flightId + 1, bulkDto));
+    }
+
+    private static long perSecond(long nanos) {
+        return nanos == 0 ? 0 : PASSENGERS * 1_000_000_000L / nanos;
+    }
+}
@@ -0,0 +1,113 @@
+package com.oracle.service_management.integration;
+
+import com.oracle.service_management.dto.BaggageDto;
+import com.oracle.service_management.dto.MealDto;
+import com.oracle.service_management.entity.Flight;
+import com.oracle.service_management.entity.Passenger;
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.PassengerRepository;
+import com.oracle.service_management.service.FlightOpsCounters;
+import com.oracle.service_management.service.ServicesService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Updates passenger services and checks that the flight's operations counters follow
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FlightOpsCountersIntegrationTest {
+
+    @Autowired
+    private ServicesService servicesService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long flightId;
+    private Long passengerId;
+
+    @BeforeEach
+    void setUp() {
+        Flight flight = new Flight("Flight 202", LocalDate.of(2026, 6, 1), "LON-NYC",
+                "10:00 AM", "01:00 PM", "Airbus A350", 300, 300);
+        flight.setServices(List.of("Meal", "Shopping", "Ancillary"));
+        flightId = flightRepository.save(flight).getFlightId();
+        Passenger passenger = new Passenger(flightId, "Jane Roe", "LON", "NYC");
+        passenger.setMealType("Veg");
+        passenger.setServices(List.of("Meal"));
+        passengerId = passengerRepository.save(passenger).getPassengerId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+        flightRepository.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> entityManager.createQuery("DELETE FROM FlightOpsCounter").executeUpdate());
+    }
+
+    @Test
+    void serviceUpdates_ShouldMoveTheCountersOfTheChangedServices() {
+        assertTrue(servicesService.updatePassengerMeal(passengerId,
+                new MealDto(passengerId, flightId, "Non-Veg", "Chicken Curry", null)).isSuccess());
+        assertTrue(servicesService.updatePassengerBaggage(passengerId,
+                new BaggageDto(passengerId, flightId, 15)).isSuccess());
+
+        Map<String, Long> counters = counters();
+        // The passenger was created without going through a counting writer, so only the changes show
+        assertEquals(-1L, counters.get("MEAL:Veg"));
+        assertEquals(1L, counters.get("MEAL:Non-Veg"));
+        assertEquals(15L, counters.get(FlightOpsCounters.EXTRA_BAGGAGE_KG));
+        assertEquals(1L, counters.get("SERVICE:Ancillary"));
+        assertFalse(counters.containsKey("SERVICE:Meal"));
+        assertFalse(counters.containsKey(FlightOpsCounters.PASSENGERS));
+    }
+
+    @Test
+    void rejectedUpdate_ShouldNotTouchTheCounters() {
+        assertFalse(servicesService.updatePassengerMeal(passengerId,
+                new MealDto(passengerId, flightId + 1, "Non-Veg", "Chicken Curry", null)).isSuccess());
+
+        assertTrue(counters().isEmpty());
+    }
+
+    // Counter values summed over their stripes, leaving out counters that are back to zero
+    private Map<String, Long> counters() {
+        Map<String, Long> counters = new TreeMap<>();
+        entityManager.createQuery("SELECT c.counterName, SUM(c.counterValue) FROM FlightOpsCounter c " +
+                        "WHERE c.flightId = :flightId GROUP BY c.counterName", Object[].class)
+                .setParameter("flightId", flightId)
+                .getResultList()
+                .forEach(row -> {
+                    long value = ((Number) row[1]).longValue();
+                    if (value != 0) {
+                        counters.put((String) row[0], value);
+                    }
+                });
+        return counters;
+    }
+}
@@ -0,0 +1,157 @@
+package com.oracle.service_management.integration;
+
+import com.oracle.service_management.dto.BaggageDto;
+import com.oracle.service_management.dto.MealDto;
+import com.oracle.service_management.dto.ServiceRequestDto;
+import com.oracle.service_management.dto.ShoppingDto;
+import com.oracle.service_management.entity.Flight;
+import com.oracle.service_management.entity.Passenger;
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.PassengerRepository;
+import com.oracle.service_management.service.ServicesService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs meal, baggage and shopping updates of the same passengers at the same time and
+ * checks that none of them is lost.
+ */
+@SpringBootTest(properties = {
+        // Conflicts are expected here; give every update enough attempts to get through
+        "app.retry.max-attempts=50",
+        "app.retry.backoff-millis=5"
+})
+@ActiveProfiles("test")
+class PassengerConcurrentUpdateTest {
+
+    private static final int PASSENGERS = 10;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ServicesService servicesService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long flightId;
+    private List<Long> passengerIds;
+
+    @BeforeEach
+    void setUp() {
+        Flight flight = new Flight("Flight 505", LocalDate.of(2026, 9, 1), "SFO-NRT",
+                "11:00 AM", "03:00 PM", "Boeing 777", PASSENGERS, PASSENGERS);
+        flight.setServices(List.of("Meal", "Ancillary", "Shopping"));
+        flightId = flightRepository.save(flight).getFlightId();
+
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 1; i <= PASSENGERS; i++) {
+            Passenger passenger = new Passenger(flightId, String.format("Passenger %02d", i), "SFO", "NRT");
+            passenger.setServices(List.of());
+            passengers.add(passenger);
+        }
+        passengerIds = passengerRepository.saveAll(passengers).stream().map(Passenger::getPassengerId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+        flightRepository.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> entityManager.createQuery("DELETE FROM FlightOpsCounter").executeUpdate());
+    }
+
+    @Test
+    void concurrentUpdatesOfOnePassenger_ShouldAllBeKept() throws Exception {
+        List<Callable<Boolean>> updates = new ArrayList<>();
+        for (Long passengerId : passengerIds) {
+            updates.add(() -> servicesService.updatePassengerMeal(passengerId,
+                    new MealDto(passengerId, flightId, "Veg", "Pasta", null)).isSuccess());
+            updates.add(() -> servicesService.updatePassengerBaggage(passengerId,
+                    new BaggageDto(passengerId, flightId, 15)).isSuccess());
+            updates.add(() -> servicesService.updatePassengerShopping(passengerId,
+                    new ShoppingDto(passengerId, flightId, List.of("Magazine"))).isSuccess());
+        }
+
+        assertEquals(updates.size(), countSuccesses(updates));
+
+        for (Passenger passenger : passengerRepository.findAllById(passengerIds)) {
+            assertEquals("Veg", passenger.getMealType());
+            assertEquals(15, passenger.getExtraBaggage());
+            assertEquals(List.of("Magazine"), passenger.getShoppingItems());
+            assertEquals(Set.of("Meal", "Ancillary", "Shopping"), Set.copyOf(passenger.getServices()));
+            assertEquals(3, passenger.getServices().size());
+            assertEquals(3L, passenger.getVersion());
+        }
+    }
+
+    @Test
+    void serviceUpdates_ShouldAddTheirServiceOnceAndBumpTheVersion() {
+        Long passengerId = passengerIds.get(0);
+        ServiceRequestDto request = new ServiceRequestDto(passengerId, flightId, List.of("Shopping"));
+        request.setShoppingItems(List.of("Perfume"));
+        assertTrue(servicesService.updatePassengerServices(passengerId, request).isSuccess());
+
+        assertTrue(servicesService.updatePassengerMeal(passengerId,
+                new MealDto(passengerId, flightId, "Vegan", null, null)).isSuccess());
+        assertTrue(servicesService.updatePassengerMeal(passengerId,
+                new MealDto(passengerId, flightId, "Veg", null, null)).isSuccess());
+
+        Passenger passenger = passengerRepository.findById(passengerId).orElseThrow();
+        assertEquals(List.of("Shopping", "Meal"), passenger.getServices());
+        assertEquals(List.of("Perfume"), passenger.getShoppingItems());
+        assertEquals("Veg", passenger.getMealType());
+        assertEquals(3L, passenger.getVersion());
+    }
+
+    private int countSuccesses(List<Callable<Boolean>> updates) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Callable<Boolean> update : updates) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return update.call();
+                }));
+            }
+            start.countDown();
+            int successes = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    successes++;
+                }
+            }
+            return successes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.oracle.service_management.integration;
+
+import com.oracle.service_management.dto.PassengerServicesDto;
+import com.oracle.service_management.entity.Flight;
+import com.oracle.service_management.entity.Passenger;
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.PassengerRepository;
+import com.oracle.service_management.service.ServicesService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares listing a flight's passenger services through managed entities, the way the
+ * service used to, with the read-only PassengerServicesRow projection it uses now.
+ * Entity loads and flushes come from Hibernate statistics and are asserted; the bytes
+ * allocated by the calling thread and the timings on H2 are logged for comparison.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ReadOnlyProjectionBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadOnlyProjectionBenchmarkTest.class);
+    private static final int PASSENGERS = 1000;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ServicesService servicesService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Long flightId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Flight flight = new Flight("Flight 101", LocalDate.of(2026, 5, 1), "NYC-LON",
+                "08:00 AM", "04:00 PM", "Boeing 777", PASSENGERS, PASSENGERS);
+        flight.setServices(List.of("Meal", "Shopping", "Ancillary"));
+        flightId = flightRepository.save(flight).getFlightId();
+
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 1; i <= PASSENGERS; i++) {
+            Passenger passenger = new Passenger(flightId, String.format("Passenger %04d", i), "NYC", "LON");
+            passenger.setAddress(i + " Main Street, Springfield");
+            passenger.setPassportNumber("P" + (100000 + i));
+            passenger.setDateOfBirth(LocalDate.of(1980, 1, 1).plusDays(i));
+            passenger.setSeat(String.valueOf(i));
+            passenger.setCheckedIn(i % 2 == 0);
+            passenger.setServices(List.of("Meal", "Shopping"));
+            passenger.setMealType("Veg");
+            passenger.setMealName("Pasta");
+            passenger.setShoppingItems(List.of("Magazine", "Perfume"));
+            passengers.add(passenger);
+        }
+        passengerRepository.saveAll(passengers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+        flightRepository.deleteAll();
+    }
+
+    @Test
+    void sessions_ShouldBeReadOnlyWithManualFlush_UnlessTheTransactionWrites() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertTrue(session.isDefaultReadOnly());
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+        });
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            assertFalse(session.isDefaultReadOnly());
+            assertEquals(FlushMode.AUTO, session.getHibernateFlushMode());
+        });
+
+        EntityManager standalone = entityManagerFactory.createEntityManager();
+        try {
+            assertEquals(FlushMode.MANUAL, standalone.unwrap(Session.class).getHibernateFlushMode());
+        } finally {
+            standalone.close();
+        }
+    }
+
+    @Test
+    void projection_ShouldLoadNoEntities_AndMatchTheEntityListing() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<List<String>> managedEntities = () -> readWrite.execute(status -> listEntities());
+        Supplier<List<String>> readOnlyEntities = () -> readOnly.execute(status -> listEntities());
+        Supplier<List<String>> projection = () -> servicesService.getPassengerServicesByFlight(flightId).stream()
+                .map(ReadOnlyProjectionBenchmarkTest::describe)
+                .toList();
+
+        // Warm up every path so class loading and JIT do not count against the first one
+        List<String> expected = managedEntities.get();
+        assertEquals(PASSENGERS, expected.size());
+        assertEquals(expected, readOnlyEntities.get());
+        assertEquals(expected, projection.get());
+
+        Measurement managed = measure(managedEntities);
+        Measurement readOnlyManaged = measure(readOnlyEntities);
+        Measurement projected = measure(projection);
+
+        assertEquals((long) PASSENGERS * ROUNDS, managed.entityLoads);
+        assertEquals(ROUNDS, managed.flushes);
+        assertEquals(0, readOnlyManaged.flushes);
+        assertEquals(0, projected.entityLoads);
+        assertEquals(0, projected.flushes);
+
+        logger.info("{} passengers x {} rounds: managed entities {} KB / {} ms, read-only entities {} KB / {} ms, " +
+                        "read-only projection {} KB / {} ms (allocated per round / total time)",
+                PASSENGERS, ROUNDS,
+                managed.kilobytesPerRound(), managed.nanos / 1_000_000,
+                readOnlyManaged.kilobytesPerRound(), readOnlyManaged.nanos / 1_000_000,
+                projected.kilobytesPerRound(), projected.nanos / 1_000_000);
+    }
+
+    // The pre-projection read path: full entities, converted the same way as the DTO
+    private List<String> listEntities() {
+        return entityManager.createQuery("SELECT p FROM Passenger p WHERE p.flightId = :flightId ORDER BY p.name",
+                        Passenger.class)
+                .setParameter("flightId", flightId)
+                .getResultList().stream()
+                .map(passenger -> passenger.getPassengerId() + ":" + passenger.getName() + ":"
+                        + passenger.getServices() + ":" + passenger.getShoppingItems() + ":" + passenger.isCheckedIn())
+                .toList();
+    }
+
+    private static String describe(PassengerServicesDto dto) {
+        return dto.getPassengerId() + ":" + dto.getName() + ":" + dto.getRequestedServices() + ":"
+                + dto.getShoppingItems() + ":" + dto.isCheckedIn();
+    }
+
+    private Measurement measure(Supplier<List<String>> listing) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        statistics.clear();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            assertEquals(PASSENGERS, listing.get().size());
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Measurement(allocated, nanos, statistics.getEntityLoadCount(), statistics.getFlushCount());
+    }
+
+    private record Measurement(long allocatedBytes, long nanos, long entityLoads, long flushes) {
+        long kilobytesPerRound() {
+            return allocatedBytes / ROUNDS / 1024;
+        }
+    }
+}
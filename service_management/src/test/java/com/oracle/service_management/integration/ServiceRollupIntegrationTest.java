@@ -0,0 +1,158 @@
+package com.oracle.service_management.integration;
+
+import com.oracle.service_management.dto.FlightRollupDto;
+import com.oracle.service_management.dto.MealDto;
+import com.oracle.service_management.dto.ServiceRollupDto;
+import com.oracle.service_management.entity.Flight;
+import com.oracle.service_management.entity.Passenger;
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.PassengerRepository;
+import com.oracle.service_management.service.ServiceRollupService;
+import com.oracle.service_management.service.ServicesService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds the daily rollup over real flights and passengers and checks that the cached
+ * rollup is reused until a passenger write on one of the date's flights
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ServiceRollupIntegrationTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 8, 15);
+
+    @Autowired
+    private ServiceRollupService serviceRollupService;
+
+    @Autowired
+    private ServicesService servicesService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long morningFlightId;
+    private Long eveningFlightId;
+    private Long emptyFlightId;
+    private Long vegPassengerId;
+
+    @BeforeEach
+    void setUp() {
+        morningFlightId = saveFlight("Flight 401", DATE, "08:00 AM");
+        eveningFlightId = saveFlight("Flight 402", DATE, "06:00 PM");
+        emptyFlightId = saveFlight("Flight 403", DATE, "11:00 PM");
+        Long otherDayFlightId = saveFlight("Flight 404", DATE.plusDays(1), "08:00 AM");
+
+        vegPassengerId = savePassenger(morningFlightId, "Veg", 10, true, false, true);
+        savePassenger(morningFlightId, "Veg", 0, false, true, false);
+        savePassenger(morningFlightId, "Non-Veg", 5, false, false, false);
+        savePassenger(morningFlightId, null, 0, false, false, false);
+        savePassenger(eveningFlightId, "Vegan", 20, true, false, true);
+        savePassenger(otherDayFlightId, "Veg", 30, true, true, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+        flightRepository.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> entityManager.createQuery("DELETE FROM FlightOpsCounter").executeUpdate());
+    }
+
+    @Test
+    void getRollup_ShouldAggregateEveryFlightOfTheDate() {
+        ServiceRollupDto rollup = serviceRollupService.getRollup(DATE);
+
+        assertEquals(DATE, rollup.getDate());
+        assertEquals(3, rollup.getFlightCount());
+        assertEquals(List.of(morningFlightId, eveningFlightId, emptyFlightId),
+                rollup.getFlights().stream().map(FlightRollupDto::getFlightId).toList());
+
+        FlightRollupDto morning = rollup.getFlights().get(0);
+        assertEquals("Flight 401", morning.getFlightName());
+        assertEquals(4, morning.getPassengers());
+        assertEquals(1, morning.getCheckedIn());
+        assertEquals(3, morning.getMeals());
+        assertEquals(Map.of("Veg", 2L, "Non-Veg", 1L), morning.getMealsByType());
+        assertEquals(15, morning.getExtraBaggageKg());
+        assertEquals(1, morning.getWheelchair());
+        assertEquals(1, morning.getInfant());
+
+        FlightRollupDto empty = rollup.getFlights().get(2);
+        assertEquals(0, empty.getPassengers());
+        assertTrue(empty.getMealsByType().isEmpty());
+
+        assertEquals(5, rollup.getTotals().getPassengers());
+        assertEquals(Map.of("Veg", 2L, "Non-Veg", 1L, "Vegan", 1L), rollup.getTotals().getMealsByType());
+        assertEquals(35, rollup.getTotals().getExtraBaggageKg());
+        assertEquals(2, rollup.getTotals().getInfant());
+    }
+
+    @Test
+    void getRollup_ShouldBeCachedUntilAPassengerOfTheDateChanges() {
+        ServiceRollupDto first = serviceRollupService.getRollup(DATE);
+        assertSame(first, serviceRollupService.getRollup(DATE));
+
+        assertTrue(servicesService.updatePassengerMeal(vegPassengerId,
+                new MealDto(vegPassengerId, morningFlightId, "Kosher", null, null)).isSuccess());
+
+        ServiceRollupDto afterMealChange = serviceRollupService.getRollup(DATE);
+        assertNotSame(first, afterMealChange);
+        assertEquals(Map.of("Veg", 1L, "Non-Veg", 1L, "Kosher", 1L),
+                afterMealChange.getFlights().get(0).getMealsByType());
+
+        // A passenger written by another service, and then one removed
+        Long addedId = savePassenger(emptyFlightId, "Veg", 0, false, false, false);
+        assertEquals(6, serviceRollupService.getRollup(DATE).getTotals().getPassengers());
+        passengerRepository.deleteById(addedId);
+        assertEquals(5, serviceRollupService.getRollup(DATE).getTotals().getPassengers());
+    }
+
+    @Test
+    void getRollup_ForADateWithoutFlights_ShouldBeEmpty() {
+        ServiceRollupDto rollup = serviceRollupService.getRollup(DATE.minusDays(1));
+
+        assertEquals(0, rollup.getFlightCount());
+        assertEquals(0, rollup.getTotals().getPassengers());
+    }
+
+    private Long saveFlight(String name, LocalDate date, String departureTime) {
+        Flight flight = new Flight(name, date, "NYC-LON", departureTime, "11:00 PM", "Boeing 777", 200, 200);
+        flight.setServices(List.of("Meal", "Ancillary"));
+        return flightRepository.save(flight).getFlightId();
+    }
+
+    private Long savePassenger(Long flightId, String mealType, int extraBaggage,
+                               boolean checkedIn, boolean wheelchair, boolean infant) {
+        Passenger passenger = new Passenger(flightId, "Passenger", "NYC", "LON");
+        passenger.setServices(mealType != null ? List.of("Meal") : List.of());
+        passenger.setMealType(mealType);
+        passenger.setExtraBaggage(extraBaggage);
+        passenger.setCheckedIn(checkedIn);
+        passenger.setWheelchair(wheelchair);
+        passenger.setInfant(infant);
+        return passengerRepository.save(passenger).getPassengerId();
+    }
+}
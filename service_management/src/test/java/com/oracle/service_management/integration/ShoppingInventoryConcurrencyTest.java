@@ -0,0 +1,255 @@
+package com.oracle.service_management.integration;
+
+import com.oracle.service_management.dto.BulkServiceItemDto;
+import com.oracle.service_management.dto.BulkServiceResultDto;
+import com.oracle.service_management.dto.BulkServiceUpdateDto;
+import com.oracle.service_management.dto.ServiceResponseDto;
+import com.oracle.service_management.dto.ShoppingDto;
+import com.oracle.service_management.dto.ShoppingStockDto;
+import com.oracle.service_management.entity.Flight;
+import com.oracle.service_management.entity.Passenger;
+import com.oracle.service_management.entity.ShoppingStock;
+import com.oracle.service_management.exception.OutOfStockException;
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.PassengerRepository;
+import com.oracle.service_management.repository.ShoppingStockRepository;
+import com.oracle.service_management.service.FlightServiceCatalog;
+import com.oracle.service_management.service.ServicesService;
+import com.oracle.service_management.service.ShoppingInventory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sells a flight's duty-free from many threads at once, as crew tablets do, and
+ * checks that no more units are sold than the flight stocks.
+ */
+@SpringBootTest(properties = {
+        "app.inventory.default-stock=" + ShoppingInventoryConcurrencyTest.STOCK,
+        "app.inventory.lease-size=4",
+        // Leases run in their own transaction, next to the order's
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+@ActiveProfiles("test")
+class ShoppingInventoryConcurrencyTest {
+
+    static final int STOCK = 30;
+    private static final int PASSENGERS = 60;
+    private static final int THREADS = 12;
+
+    @Autowired
+    private ServicesService servicesService;
+
+    @Autowired
+    private ShoppingInventory shoppingInventory;
+
+    @Autowired
+    private ShoppingStockRepository stockRepository;
+
+    @Autowired
+    private FlightServiceCatalog serviceCatalog;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long flightId;
+    private List<Long> passengerIds;
+
+    @BeforeEach
+    void setUp() {
+        Flight flight = new Flight("Flight 404", LocalDate.of(2026, 8, 1), "LON-DXB",
+                "09:00 AM", "07:00 PM", "Airbus A380", PASSENGERS, PASSENGERS);
+        flight.setServices(List.of("Meal", "Shopping"));
+        flight.setServiceSubtypes(Map.of("Shopping", List.of("Perfume", "Watch")));
+        flightId = flightRepository.save(flight).getFlightId();
+
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 1; i <= PASSENGERS; i++) {
+            Passenger passenger = new Passenger(flightId, String.format("Passenger %03d", i), "LON", "DXB");
+            passenger.setServices(List.of());
+            passengers.add(passenger);
+        }
+        passengerIds = passengerRepository.saveAll(passengers).stream().map(Passenger::getPassengerId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        passengerRepository.deleteAll();
+        flightRepository.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM ShoppingStock").executeUpdate();
+            entityManager.createQuery("DELETE FROM FlightOpsCounter").executeUpdate();
+        });
+    }
+
+    @Test
+    void concurrentOrders_ShouldSellExactlyTheStock() throws Exception {
+        List<Callable<Boolean>> orders = passengerIds.stream()
+                .map(passengerId -> (Callable<Boolean>) () -> servicesService.updatePassengerShopping(passengerId,
+                        new ShoppingDto(passengerId, flightId, List.of("Perfume"))).isSuccess())
+                .toList();
+
+        int sold = countSuccesses(orders);
+        shoppingInventory.flush();
+
+        assertEquals(STOCK, sold);
+        assertEquals(STOCK, passengerRepository.findAllById(passengerIds).stream()
+                .filter(p -> p.getShoppingItems() != null && p.getShoppingItems().contains("Perfume"))
+                .count());
+        ShoppingStock row = stockRepository.find(flightId, "Perfume").orElseThrow();
+        assertEquals(STOCK, row.getAllocated());
+        assertEquals(STOCK, row.getSold());
+        ShoppingStockDto perfume = stock("Perfume");
+        assertEquals(STOCK, perfume.getSold());
+        assertEquals(0, perfume.getAvailable());
+        assertEquals(STOCK, stock("Watch").getAvailable());
+    }
+
+    @Test
+    void twoInstances_ShouldNeverSellMoreThanTheStockBetweenThem() throws Exception {
+        // A second inventory stands in for another service instance sharing the table
+        ShoppingInventory otherInstance = new ShoppingInventory(stockRepository, serviceCatalog,
+                transactionManager, STOCK, 4, 0);
+        List<Callable<Boolean>> orders = new ArrayList<>();
+        for (int i = 0; i < passengerIds.size(); i++) {
+            Long passengerId = passengerIds.get(i);
+            if (i % 2 == 0) {
+                orders.add(() -> servicesService.updatePassengerShopping(passengerId,
+                        new ShoppingDto(passengerId, flightId, List.of("Watch"))).isSuccess());
+            } else {
+                orders.add(() -> {
+                    try {
+                        otherInstance.replace(flightId, null, List.of("Watch"));
+                        return true;
+                    } catch (OutOfStockException e) {
+                        return false;
+                    }
+                });
+            }
+        }
+
+        int sold = countSuccesses(orders);
+        shoppingInventory.flush();
+        otherInstance.flush();
+
+        ShoppingStock row = stockRepository.find(flightId, "Watch").orElseThrow();
+        assertTrue(sold <= STOCK, sold + " sold");
+        // At most one unsold lease per instance is left over
+        assertTrue(sold > STOCK - 8, sold + " sold");
+        assertTrue(row.getAllocated() <= STOCK);
+        assertEquals(sold, row.getSold());
+
+        // Once the other instance gives back its unsold lease, only the units sold are gone
+        otherInstance.shutdown();
+        assertEquals(STOCK - sold, stock("Watch").getAvailable());
+    }
+
+    @Test
+    void replacingItems_ShouldGiveBackTheItemsDropped() {
+        Long passengerId = passengerIds.get(0);
+        assertTrue(servicesService.updatePassengerShopping(passengerId,
+                new ShoppingDto(passengerId, flightId, List.of("Perfume", "Perfume"))).isSuccess());
+        assertEquals(STOCK - 2, stock("Perfume").getAvailable());
+
+        assertTrue(servicesService.updatePassengerShopping(passengerId,
+                new ShoppingDto(passengerId, flightId, List.of("Watch"))).isSuccess());
+        shoppingInventory.flush();
+
+        assertEquals(STOCK, stock("Perfume").getAvailable());
+        assertEquals(0, stock("Perfume").getSold());
+        assertEquals(STOCK - 1, stock("Watch").getAvailable());
+        assertEquals(1, stock("Watch").getSold());
+    }
+
+    @Test
+    void rejectedOrders_ShouldNotTakeStock() {
+        Long passengerId = passengerIds.get(0);
+        ServiceResponseDto notSold = servicesService.updatePassengerShopping(passengerId,
+                new ShoppingDto(passengerId, flightId, List.of("Watch", "Magazine")));
+        assertFalse(notSold.isSuccess());
+        assertEquals(STOCK, stock("Watch").getAvailable());
+
+        // An all-or-nothing bulk update that is not applied rolls back the units it took
+        BulkServiceResultDto result = servicesService.updateFlightServices(flightId, new BulkServiceUpdateDto(
+                BulkServiceUpdateDto.Mode.ALL_OR_NOTHING, List.of(
+                        new BulkServiceItemDto(passengerIds.get(1), null, null, null, List.of("Watch")),
+                        new BulkServiceItemDto(-1L, null, null, null, List.of("Watch")))));
+        assertFalse(result.isApplied());
+        assertEquals(STOCK, stock("Watch").getAvailable());
+        List<String> items = passengerRepository.findById(passengerIds.get(1)).orElseThrow().getShoppingItems();
+        assertTrue(items == null || items.isEmpty());
+    }
+
+    @Test
+    void bulkUpdate_ShouldReportItemsOutOfStock() {
+        List<BulkServiceItemDto> items = new ArrayList<>();
+        for (int i = 0; i <= STOCK; i++) {
+            items.add(new BulkServiceItemDto(passengerIds.get(i), null, null, null, List.of("Perfume")));
+        }
+
+        BulkServiceResultDto result = servicesService.updateFlightServices(flightId,
+                new BulkServiceUpdateDto(BulkServiceUpdateDto.Mode.BEST_EFFORT, items));
+
+        assertEquals(STOCK, result.getUpdated());
+        assertEquals(BulkServiceResultDto.Status.OUT_OF_STOCK, result.getOutcomes().get(STOCK).getStatus());
+        assertEquals(0, stock("Perfume").getAvailable());
+    }
+
+    private int countSuccesses(List<Callable<Boolean>> orders) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Callable<Boolean> order : orders) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return order.call();
+                }));
+            }
+            start.countDown();
+            int successes = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    successes++;
+                }
+            }
+            return successes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ShoppingStockDto stock(String itemName) {
+        return servicesService.getShoppingStock(flightId).stream()
+                .filter(item -> item.getItemName().equals(itemName))
+                .findFirst()
+                .orElseThrow();
+    }
+}
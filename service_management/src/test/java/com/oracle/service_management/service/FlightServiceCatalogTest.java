@@ -0,0 +1,149 @@
+package com.oracle.service_management.service;
+
+import com.oracle.service_management.repository.FlightRepository;
+import com.oracle.service_management.repository.FlightServicesRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightServiceCatalogTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 6, 1, 9, 0);
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private MutableClock clock;
+    private FlightServiceCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-06-01T09:00:00Z"));
+        catalog = new FlightServiceCatalog(flightRepository, clock, Duration.ofMinutes(5), Duration.ZERO);
+    }
+
+    @Test
+    void offers_ShouldReadTheFlightOnlyOnce() {
+        when(flightRepository.findServiceCatalogById(1L)).thenReturn(Optional.of(
+                row(1L, "[\"Meal\",\"Shopping\"]", "{\"Meal\":[\"Veg\",\"Non-Veg\"]}")));
+
+        assertTrue(catalog.offers(1L, "Meal"));
+        assertTrue(catalog.offers(1L, "Shopping"));
+        assertFalse(catalog.offers(1L, "Ancillary"));
+
+        verify(flightRepository, times(1)).findServiceCatalogById(1L);
+        FlightServiceCatalog.Catalog flight = catalog.get(1L).orElseThrow();
+        assertEquals(Set.of("Veg", "Non-Veg"), flight.getSubtypes("Meal"));
+        assertEquals(Set.of(), flight.getSubtypes("Shopping"));
+    }
+
+    @Test
+    void offers_AfterTheTtl_ShouldReloadTheFlight() {
+        when(flightRepository.findServiceCatalogById(1L))
+                .thenReturn(Optional.of(row(1L, "[\"Meal\"]", null)))
+                .thenReturn(Optional.of(row(1L, "[\"Shopping\"]", null)));
+
+        assertTrue(catalog.offers(1L, "Meal"));
+        clock.advance(Duration.ofMinutes(5));
+
+        assertFalse(catalog.offers(1L, "Meal"));
+        assertTrue(catalog.offers(1L, "Shopping"));
+        verify(flightRepository, times(2)).findServiceCatalogById(1L);
+    }
+
+    @Test
+    void offers_ForAMissingFlight_ShouldNotCacheTheMiss() {
+        when(flightRepository.findServiceCatalogById(9L)).thenReturn(Optional.empty());
+
+        assertFalse(catalog.offers(9L, "Meal"));
+        assertFalse(catalog.offers(9L, "Meal"));
+
+        verify(flightRepository, times(2)).findServiceCatalogById(9L);
+        assertEquals(0, catalog.size());
+    }
+
+    @Test
+    void offers_WithMalformedServices_ShouldOfferNothing() {
+        when(flightRepository.findServiceCatalogById(1L)).thenReturn(Optional.of(row(1L, "not json", "{")));
+
+        assertFalse(catalog.offers(1L, "Meal"));
+        assertTrue(catalog.get(1L).orElseThrow().getServices().isEmpty());
+    }
+
+    @Test
+    void pollChanges_ShouldDropTheCachedFlightsThatChanged() {
+        when(flightRepository.findServiceCatalogById(1L)).thenReturn(Optional.of(row(1L, "[\"Meal\"]", null)));
+        when(flightRepository.findServiceCatalogById(2L)).thenReturn(Optional.of(row(2L, "[\"Meal\"]", null)));
+        when(flightRepository.findLastUpdated()).thenReturn(T0, T0.plusSeconds(20));
+        catalog.pollChanges();
+        catalog.offers(1L, "Meal");
+        catalog.offers(2L, "Meal");
+
+        when(flightRepository.findIdsUpdatedAfter(T0.minusSeconds(30))).thenReturn(List.of(2L, 3L));
+        catalog.pollChanges();
+
+        assertEquals(1, catalog.size());
+        catalog.offers(1L, "Meal");
+        catalog.offers(2L, "Meal");
+        verify(flightRepository, times(1)).findServiceCatalogById(1L);
+        verify(flightRepository, times(2)).findServiceCatalogById(2L);
+    }
+
+    @Test
+    void pollChanges_OnTheFirstPoll_ShouldOnlyRecordTheWatermark() {
+        when(flightRepository.findLastUpdated()).thenReturn(T0);
+
+        catalog.pollChanges();
+
+        verify(flightRepository, never()).findIdsUpdatedAfter(any());
+    }
+
+    private static FlightServicesRow row(Long flightId, String services, String subtypes) {
+        return new FlightServicesRow(flightId, services, subtypes, T0);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
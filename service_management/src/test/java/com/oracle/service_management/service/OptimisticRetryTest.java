@@ -0,0 +1,81 @@
+package com.oracle.service_management.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OptimisticRetryTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    OptimisticRetryTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    void execute_ShouldRetryConflictsInNewTransactions() {
+        OptimisticRetry retry = new OptimisticRetry(transactionManager, 5, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute(status -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "updated";
+        });
+
+        assertEquals("updated", result);
+        assertEquals(3, attempts.get());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void execute_ShouldGiveUpAfterTheLastAttempt() {
+        OptimisticRetry retry = new OptimisticRetry(transactionManager, 3, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> retry.execute(status -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void execute_ShouldNotRetryOtherFailures() {
+        OptimisticRetry retry = new OptimisticRetry(transactionManager, 3, 0);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> retry.execute(status -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("invalid");
+        }));
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void execute_InsideATransaction_ShouldRunOnce() {
+        OptimisticRetry retry = new OptimisticRetry(transactionManager, 3, 0);
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(OptimisticLockingFailureException.class, () -> retry.execute(status -> {
+                attempts.incrementAndGet();
+                throw new OptimisticLockingFailureException("conflict");
+            }));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(1, attempts.get());
+    }
+}
@@ -1,17 +1,34 @@
 package com.oracle.travel_history_service.controller;
 
+import com.oracle.travel_history_service.dto.ArchiveStatusDto;
+import com.oracle.travel_history_service.dto.BatchIngestResultDto;
+import com.oracle.travel_history_service.dto.HistoryCacheStatsDto;
 import com.oracle.travel_history_service.dto.TravelHistoryResponseDto;
+import com.oracle.travel_history_service.dto.TravelStatsDto;
+import com.oracle.travel_history_service.repository.ResourceVersion;
+import com.oracle.travel_history_service.service.Enrichment;
+import com.oracle.travel_history_service.service.RecentHistoryCache;
+import com.oracle.travel_history_service.service.TravelHistoryArchiver;
+import com.oracle.travel_history_service.service.TravelHistoryIngestService;
 import com.oracle.travel_history_service.service.TravelHistoryService;
+import com.oracle.travel_history_service.service.TravelStatsService;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * REST Controller for travel history operations
@@ -25,25 +42,48 @@ public class TravelHistoryController {
     private static final Logger logger = LoggerFactory.getLogger(TravelHistoryController.class);
 
     private final TravelHistoryService travelHistoryService;
+    private final TravelStatsService travelStatsService;
+    private final TravelHistoryIngestService travelHistoryIngestService;
+    private final TravelHistoryArchiver travelHistoryArchiver;
+    private final RecentHistoryCache recentHistoryCache;
+    private final long settleMillis;
 
     @Autowired
-    public TravelHistoryController(TravelHistoryService travelHistoryService) {
+    public TravelHistoryController(TravelHistoryService travelHistoryService,
+                                   TravelStatsService travelStatsService,
+                                   TravelHistoryIngestService travelHistoryIngestService,
+                                   TravelHistoryArchiver travelHistoryArchiver,
+                                   RecentHistoryCache recentHistoryCache,
+                                   @Value("${app.versions.settle-ms:2000}") long settleMillis) {
         this.travelHistoryService = travelHistoryService;
+        this.travelStatsService = travelStatsService;
+        this.travelHistoryIngestService = travelHistoryIngestService;
+        this.travelHistoryArchiver = travelHistoryArchiver;
+        this.recentHistoryCache = recentHistoryCache;
+        this.settleMillis = settleMillis;
     }
 
     /**
      * Get travel history by passenger ID
      * @param passengerId the passenger ID
+     * @param include the sections to embed in each record: passenger, flight or none (default both)
      * @return travel history response
      */
     @GetMapping("/passenger/{passengerId}")
     public ResponseEntity<TravelHistoryResponseDto> getTravelHistoryByPassenger(
-            @PathVariable @NotNull @Positive Long passengerId) {
+            @PathVariable @NotNull @Positive Long passengerId,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
         
         logger.info("REST request to get travel history for passenger ID: {}", passengerId);
 
+        Set<Enrichment> sections = Enrichment.parse(include);
         try {
-            TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByPassenger(passengerId);
+            ResourceVersion version = travelHistoryService.getTravelHistoryVersionByPassenger(passengerId);
+            if (isNotModified(version, sections, request)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByPassenger(passengerId, sections);
             
             if (response.isSuccess()) {
                 return ResponseEntity.ok(response);
@@ -66,16 +106,25 @@ public class TravelHistoryController {
     /**
      * Get travel history by booking reference
      * @param reference the booking reference
+     * @param include the sections to embed in each record: passenger, flight or none (default both)
      * @return travel history response
      */
     @GetMapping("/booking/{reference}")
     public ResponseEntity<TravelHistoryResponseDto> getTravelHistoryByBookingReference(
-            @PathVariable @NotBlank String reference) {
+            @PathVariable @NotBlank String reference,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
         
         logger.info("REST request to get travel history for booking reference: {}", reference);
 
+        Set<Enrichment> sections = Enrichment.parse(include);
         try {
-            TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByBookingReference(reference);
+            if (isNotModified(travelHistoryService.getTravelHistoryVersionByBookingReference(reference), sections,
+                    request)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            TravelHistoryResponseDto response = travelHistoryService
+                    .getTravelHistoryByBookingReference(reference, sections);
             
             if (response.isSuccess()) {
                 return ResponseEntity.ok(response);
@@ -98,16 +147,23 @@ public class TravelHistoryController {
     /**
      * Get travel history by flight ID
      * @param flightId the flight ID
+     * @param include the sections to embed in each record: passenger, flight or none (default both)
      * @return travel history response
      */
     @GetMapping("/flight/{flightId}")
     public ResponseEntity<TravelHistoryResponseDto> getTravelHistoryByFlight(
-            @PathVariable @NotNull @Positive Long flightId) {
+            @PathVariable @NotNull @Positive Long flightId,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
         
         logger.info("REST request to get travel history for flight ID: {}", flightId);
 
+        Set<Enrichment> sections = Enrichment.parse(include);
         try {
-            TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByFlight(flightId);
+            if (isNotModified(travelHistoryService.getTravelHistoryVersionByFlight(flightId), sections, request)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByFlight(flightId, sections);
             
             if (response.isSuccess()) {
                 return ResponseEntity.ok(response);
@@ -130,16 +186,23 @@ public class TravelHistoryController {
     /**
      * Get recent travel history by passenger ID (last 30 days)
      * @param passengerId the passenger ID
+     * @param include the sections to embed in each record: passenger, flight or none (default both)
      * @return travel history response
      */
     @GetMapping("/passenger/{passengerId}/recent")
     public ResponseEntity<TravelHistoryResponseDto> getRecentTravelHistory(
-            @PathVariable @NotNull @Positive Long passengerId) {
+            @PathVariable @NotNull @Positive Long passengerId,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
         
         logger.info("REST request to get recent travel history for passenger ID: {}", passengerId);
 
+        Set<Enrichment> sections = Enrichment.parse(include);
         try {
-            TravelHistoryResponseDto response = travelHistoryService.getRecentTravelHistory(passengerId);
+            if (isNotModified(travelHistoryService.getRecentTravelHistoryVersion(passengerId), sections, request)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            TravelHistoryResponseDto response = travelHistoryService.getRecentTravelHistory(passengerId, sections);
             
             if (response.isSuccess()) {
                 return ResponseEntity.ok(response);
@@ -159,18 +222,27 @@ public class TravelHistoryController {
      * Get travel history by passenger ID and status
      * @param passengerId the passenger ID
      * @param status the status filter
+     * @param include the sections to embed in each record: passenger, flight or none (default both)
      * @return travel history response
      */
     @GetMapping("/passenger/{passengerId}/status/{status}")
     public ResponseEntity<TravelHistoryResponseDto> getTravelHistoryByStatus(
             @PathVariable @NotNull @Positive Long passengerId,
-            @PathVariable @NotBlank String status) {
+            @PathVariable @NotBlank String status,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
         
         logger.info("REST request to get travel history for passenger ID: {} with status: {}", 
                 passengerId, status);
 
+        Set<Enrichment> sections = Enrichment.parse(include);
         try {
-            TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByStatus(passengerId, status);
+            ResourceVersion version = travelHistoryService.getTravelHistoryVersionByPassenger(passengerId);
+            if (isNotModified(version, sections, request)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            TravelHistoryResponseDto response = travelHistoryService
+                    .getTravelHistoryByStatus(passengerId, status, sections);
             
             if (response.isSuccess()) {
                 return ResponseEntity.ok(response);
@@ -187,6 +259,48 @@ public class TravelHistoryController {
         }
     }
 
+    /**
+     * Get travel statistics and frequent-flyer tier by passenger ID
+     * @param passengerId the passenger ID
+     * @return travel statistics; an unknown passenger is a 404
+     */
+    @GetMapping("/passenger/{passengerId}/stats")
+    public ResponseEntity<TravelStatsDto> getTravelStats(@PathVariable @NotNull @Positive Long passengerId) {
+        logger.info("REST request to get travel statistics for passenger ID: {}", passengerId);
+        return ResponseEntity.ok(travelStatsService.getStats(passengerId));
+    }
+
+    /**
+     * Ingest a batch of travel history records
+     * @param body newline-delimited JSON, one travel history record per line
+     * @return counts of inserted, duplicate and rejected records, with the errors per line
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<BatchIngestResultDto> ingestTravelHistory(InputStream body) {
+        logger.info("REST request to ingest a travel history batch");
+        return ResponseEntity.ok(travelHistoryIngestService.ingest(body));
+    }
+
+    /**
+     * Get the state of the travel history archive
+     * @return tier sizes, records due for the archive and archiver progress
+     */
+    @GetMapping("/archive/status")
+    public ResponseEntity<ArchiveStatusDto> getArchiveStatus() {
+        logger.info("REST request to get the travel history archive status");
+        return ResponseEntity.ok(travelHistoryArchiver.getStatus());
+    }
+
+    /**
+     * Get the counters of the recent history cache
+     * @return lookups, evictions and size
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<HistoryCacheStatsDto> getCacheStats() {
+        logger.info("REST request to get the recent history cache statistics");
+        return ResponseEntity.ok(recentHistoryCache.getStats());
+    }
+
     /**
      * Health check endpoint
      * @return simple health status
@@ -198,14 +312,21 @@ public class TravelHistoryController {
 
     /**
      * Get all travel history records (for admin dashboard)
+     * @param include the sections to embed in each record: passenger, flight or none (default both)
      * @return all travel history records
      */
     @GetMapping
-    public ResponseEntity<TravelHistoryResponseDto> getAllTravelHistory() {
+    public ResponseEntity<TravelHistoryResponseDto> getAllTravelHistory(
+            @RequestParam(required = false) String include,
+            WebRequest request) {
         logger.info("REST request to get all travel history records");
 
+        Set<Enrichment> sections = Enrichment.parse(include);
         try {
-            TravelHistoryResponseDto response = travelHistoryService.getAllTravelHistory();
+            if (isNotModified(travelHistoryService.getAllTravelHistoryVersion(), sections, request)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            TravelHistoryResponseDto response = travelHistoryService.getAllTravelHistory(sections);
 
             if (response.isSuccess()) {
                 return ResponseEntity.ok(response);
@@ -222,6 +343,23 @@ public class TravelHistoryController {
         }
     }
 
+    /**
+     * Apply the ETag of a version fingerprint to the response and check it against the
+     * request's If-None-Match header. A Last-Modified date would miss removed records,
+     * which only lower the count, so none is sent.
+     * The status listing reuses the fingerprint of the passenger's full history. Each set of
+     * embedded sections is a representation of its own, with a tag of its own. A fingerprint
+     * that has not settled gets no tag, since a summary update still committing may not move it.
+     * @param version the version of the requested data
+     * @param sections the sections embedded in the response
+     * @param request the current request
+     * @return true if the client's copy is current and the body can be skipped
+     */
+    private boolean isNotModified(ResourceVersion version, Set<Enrichment> sections, WebRequest request) {
+        return !version.isEmpty() && version.isSettled(LocalDateTime.now().minusNanos(settleMillis * 1_000_000))
+                && request.checkNotModified(version.getETag(Enrichment.variant(sections)));
+    }
+
     /**
      * Get API information
      * @return API information
@@ -238,7 +376,11 @@ public class TravelHistoryController {
                 "GET /history/booking/{reference} - Get booking by reference",
                 "GET /history/flight/{flightId} - Get history for specific flight",
                 "GET /history/passenger/{passengerId}/recent - Get recent travel history",
-                "GET /history/passenger/{passengerId}/status/{status} - Get travel history by status"
+                "GET /history/passenger/{passengerId}/status/{status} - Get travel history by status",
+                "GET /history/passenger/{passengerId}/stats - Get travel statistics and frequent-flyer tier",
+                "POST /history/batch - Ingest travel history records (NDJSON)",
+                "GET /history/archive/status - Get archive tier sizes and progress",
+                "GET /history/cache/stats - Get recent history cache hits, misses and evictions"
             };
         });
     }
@@ -0,0 +1,108 @@
+package com.oracle.travel_history_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the state of the travel history archive: the size of each tier, the records
+ * still due for the archive and the progress of the archiver. Sizes are as of the last
+ * archive run or status request, whichever is later.
+ */
+public class ArchiveStatusDto {
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate horizon;
+
+    private long hotRows;
+
+    private long archivedRows;
+
+    private long pendingRows;
+
+    private long movedTotal;
+
+    private boolean running;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastRunStarted;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastRunFinished;
+
+    private long lastRunMoved;
+
+    // Getters and Setters
+    public LocalDate getHorizon() {
+        return horizon;
+    }
+
+    public void setHorizon(LocalDate horizon) {
+        this.horizon = horizon;
+    }
+
+    public long getHotRows() {
+        return hotRows;
+    }
+
+    public void setHotRows(long hotRows) {
+        this.hotRows = hotRows;
+    }
+
+    public long getArchivedRows() {
+        return archivedRows;
+    }
+
+    public void setArchivedRows(long archivedRows) {
+        this.archivedRows = archivedRows;
+    }
+
+    public long getPendingRows() {
+        return pendingRows;
+    }
+
+    public void setPendingRows(long pendingRows) {
+        this.pendingRows = pendingRows;
+    }
+
+    public long getMovedTotal() {
+        return movedTotal;
+    }
+
+    public void setMovedTotal(long movedTotal) {
+        this.movedTotal = movedTotal;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public LocalDateTime getLastRunStarted() {
+        return lastRunStarted;
+    }
+
+    public void setLastRunStarted(LocalDateTime lastRunStarted) {
+        this.lastRunStarted = lastRunStarted;
+    }
+
+    public LocalDateTime getLastRunFinished() {
+        return lastRunFinished;
+    }
+
+    public void setLastRunFinished(LocalDateTime lastRunFinished) {
+        this.lastRunFinished = lastRunFinished;
+    }
+
+    public long getLastRunMoved() {
+        return lastRunMoved;
+    }
+
+    public void setLastRunMoved(long lastRunMoved) {
+        this.lastRunMoved = lastRunMoved;
+    }
+}
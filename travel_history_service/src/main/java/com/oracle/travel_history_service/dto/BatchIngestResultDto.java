@@ -0,0 +1,129 @@
+package com.oracle.travel_history_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for the outcome of a travel history batch ingestion.
+ * Every record read is counted as inserted, duplicate or rejected; rejected records are
+ * listed with their line number, up to the configured limit.
+ */
+public class BatchIngestResultDto {
+
+    private long received;
+    private long inserted;
+    private long duplicates;
+    private long rejected;
+    private long elapsedMs;
+    private List<RecordError> errors = new ArrayList<>();
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public BatchIngestResultDto() {
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(long duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public List<RecordError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RecordError> errors) {
+        this.errors = errors;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * A record that was not ingested, and why
+     */
+    public static class RecordError {
+
+        private long line;
+        private String bookingReference;
+        private String message;
+
+        public RecordError() {}
+
+        public RecordError(long line, String bookingReference, String message) {
+            this.line = line;
+            this.bookingReference = bookingReference;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getBookingReference() {
+            return bookingReference;
+        }
+
+        public void setBookingReference(String bookingReference) {
+            this.bookingReference = bookingReference;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -35,6 +35,16 @@ public class FlightSummaryDto {
         this.arrivalTime = arrivalTime;
     }
 
+    // Full constructor, used by the FlightRepository projection
+    public FlightSummaryDto(Long flightId, String flightName, LocalDate flightDate, String route,
+                            String departureTime, String arrivalTime, String aircraftType,
+                            Integer totalSeats, Integer availableSeats) {
+        this(flightId, flightName, flightDate, route, departureTime, arrivalTime);
+        this.aircraftType = aircraftType;
+        this.totalSeats = totalSeats;
+        this.availableSeats = availableSeats;
+    }
+
     // Getters and Setters
     public Long getFlightId() {
         return flightId;
@@ -0,0 +1,90 @@
+package com.oracle.travel_history_service.dto;
+
+/**
+ * DTO for the recent history cache: lookups since startup, entries evicted or refused
+ * for lack of room, and how full the cache is. Weight counts the trips held plus one
+ * per passenger.
+ */
+public class HistoryCacheStatsDto {
+
+    private long hits;
+
+    private long misses;
+
+    private double hitRate;
+
+    private long evictions;
+
+    private int entries;
+
+    private long weight;
+
+    private long maxWeight;
+
+    private int tripsPerPassenger;
+
+    // Getters and Setters
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public void setEntries(int entries) {
+        this.entries = entries;
+    }
+
+    public long getWeight() {
+        return weight;
+    }
+
+    public void setWeight(long weight) {
+        this.weight = weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public int getTripsPerPassenger() {
+        return tripsPerPassenger;
+    }
+
+    public void setTripsPerPassenger(int tripsPerPassenger) {
+        this.tripsPerPassenger = tripsPerPassenger;
+    }
+}
@@ -30,6 +30,15 @@ public class PassengerSummaryDto {
         this.seat = seat;
     }
 
+    // Full constructor, used by the PassengerRepository projection
+    public PassengerSummaryDto(Long passengerId, String name, String phoneNumber, String passportNumber,
+                               LocalDate dateOfBirth, String seat, String checkedIn) {
+        this(passengerId, name, phoneNumber, seat);
+        this.passportNumber = passportNumber;
+        this.dateOfBirth = dateOfBirth;
+        this.checkedIn = checkedIn;
+    }
+
     // Getters and Setters
     public Long getPassengerId() {
         return passengerId;
@@ -1,6 +1,7 @@
 package com.oracle.travel_history_service.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDate;
@@ -31,11 +32,13 @@ public class TravelHistoryDto {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
 
-    // Nested objects for related data
+    // Nested objects for related data, left out when not requested
     @JsonProperty("passengerDetails")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private PassengerSummaryDto passenger;
 
     @JsonProperty("flightDetails")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private FlightSummaryDto flight;
 
     // Constructors
@@ -0,0 +1,217 @@
+package com.oracle.travel_history_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a passenger's travel statistics and frequent-flyer tier.
+ * Distance, duration, the yearly counts and the routes cover completed trips only;
+ * the qualifying figures are those of the current and previous calendar year.
+ */
+public class TravelStatsDto {
+
+    private Long passengerId;
+    private long totalTrips;
+    private long completedTrips;
+    private long totalDistanceKm;
+    private long totalDurationMin;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate firstTravelDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate lastTravelDate;
+
+    private Map<String, Long> tripsByStatus;
+    private Map<String, Long> tripsByFareClass;
+    private Map<String, Long> tripsByYear;
+    private Map<String, Long> distanceByYear;
+    private List<RouteCount> topRoutes;
+    private String tier;
+    private String nextTier;
+    private long qualifyingTrips;
+    private long qualifyingDistanceKm;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public TravelStatsDto() {}
+
+    public TravelStatsDto(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+
+    // Getters and Setters
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public void setPassengerId(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+
+    public long getTotalTrips() {
+        return totalTrips;
+    }
+
+    public void setTotalTrips(long totalTrips) {
+        this.totalTrips = totalTrips;
+    }
+
+    public long getCompletedTrips() {
+        return completedTrips;
+    }
+
+    public void setCompletedTrips(long completedTrips) {
+        this.completedTrips = completedTrips;
+    }
+
+    public long getTotalDistanceKm() {
+        return totalDistanceKm;
+    }
+
+    public void setTotalDistanceKm(long totalDistanceKm) {
+        this.totalDistanceKm = totalDistanceKm;
+    }
+
+    public long getTotalDurationMin() {
+        return totalDurationMin;
+    }
+
+    public void setTotalDurationMin(long totalDurationMin) {
+        this.totalDurationMin = totalDurationMin;
+    }
+
+    public LocalDate getFirstTravelDate() {
+        return firstTravelDate;
+    }
+
+    public void setFirstTravelDate(LocalDate firstTravelDate) {
+        this.firstTravelDate = firstTravelDate;
+    }
+
+    public LocalDate getLastTravelDate() {
+        return lastTravelDate;
+    }
+
+    public void setLastTravelDate(LocalDate lastTravelDate) {
+        this.lastTravelDate = lastTravelDate;
+    }
+
+    public Map<String, Long> getTripsByStatus() {
+        return tripsByStatus;
+    }
+
+    public void setTripsByStatus(Map<String, Long> tripsByStatus) {
+        this.tripsByStatus = tripsByStatus;
+    }
+
+    public Map<String, Long> getTripsByFareClass() {
+        return tripsByFareClass;
+    }
+
+    public void setTripsByFareClass(Map<String, Long> tripsByFareClass) {
+        this.tripsByFareClass = tripsByFareClass;
+    }
+
+    public Map<String, Long> getTripsByYear() {
+        return tripsByYear;
+    }
+
+    public void setTripsByYear(Map<String, Long> tripsByYear) {
+        this.tripsByYear = tripsByYear;
+    }
+
+    public Map<String, Long> getDistanceByYear() {
+        return distanceByYear;
+    }
+
+    public void setDistanceByYear(Map<String, Long> distanceByYear) {
+        this.distanceByYear = distanceByYear;
+    }
+
+    public List<RouteCount> getTopRoutes() {
+        return topRoutes;
+    }
+
+    public void setTopRoutes(List<RouteCount> topRoutes) {
+        this.topRoutes = topRoutes;
+    }
+
+    public String getTier() {
+        return tier;
+    }
+
+    public void setTier(String tier) {
+        this.tier = tier;
+    }
+
+    public String getNextTier() {
+        return nextTier;
+    }
+
+    public void setNextTier(String nextTier) {
+        this.nextTier = nextTier;
+    }
+
+    public long getQualifyingTrips() {
+        return qualifyingTrips;
+    }
+
+    public void setQualifyingTrips(long qualifyingTrips) {
+        this.qualifyingTrips = qualifyingTrips;
+    }
+
+    public long getQualifyingDistanceKm() {
+        return qualifyingDistanceKm;
+    }
+
+    public void setQualifyingDistanceKm(long qualifyingDistanceKm) {
+        this.qualifyingDistanceKm = qualifyingDistanceKm;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * A route and the number of completed trips flown on it
+     */
+    public static class RouteCount {
+
+        private String route;
+        private long trips;
+
+        public RouteCount() {}
+
+        public RouteCount(String route, long trips) {
+            this.route = route;
+            this.trips = trips;
+        }
+
+        public String getRoute() {
+            return route;
+        }
+
+        public void setRoute(String route) {
+            this.route = route;
+        }
+
+        public long getTrips() {
+            return trips;
+        }
+
+        public void setTrips(long trips) {
+            this.trips = trips;
+        }
+    }
+}
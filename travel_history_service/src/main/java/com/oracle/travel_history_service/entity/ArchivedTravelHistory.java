@@ -0,0 +1,155 @@
+package com.oracle.travel_history_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Entity representing an archived travel history record: a completed or cancelled trip
+ * moved out of travel_history once it is older than the archive horizon. Rows are only
+ * written by the archiver's insert-select and never change afterwards, so the mapping is
+ * read-only. Records keep the ID they had in travel_history.
+ */
+@Entity
+@Immutable
+@Table(name = "travel_history_archive")
+public class ArchivedTravelHistory {
+
+    /**
+     * Statuses of the trips that are archived; no other status changes once the trip is over
+     */
+    public static final List<String> STATUSES = List.of("Completed", "Cancelled");
+
+    @Id
+    @Column(name = "history_id")
+    private Long historyId;
+
+    @Column(name = "passenger_id")
+    private Long passengerId;
+
+    @Column(name = "flight_id")
+    private Long flightId;
+
+    @Column(name = "travel_date")
+    private LocalDate travelDate;
+
+    @Column(name = "origin", length = 10)
+    private String origin;
+
+    @Column(name = "destination", length = 10)
+    private String destination;
+
+    @Column(name = "seat", length = 10)
+    private String seat;
+
+    @Column(name = "booking_reference", length = 20)
+    private String bookingReference;
+
+    @Column(name = "fare_class", length = 30)
+    private String fareClass;
+
+    @Column(name = "status", length = 20)
+    private String status;
+
+    @Column(name = "distance_km")
+    private Integer distanceKm;
+
+    @Column(name = "duration_min")
+    private Integer durationMin;
+
+    @Column(name = "notes", length = 500)
+    private String notes;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedTravelHistory() {}
+
+    // Getters
+    public Long getHistoryId() {
+        return historyId;
+    }
+
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public Long getFlightId() {
+        return flightId;
+    }
+
+    public LocalDate getTravelDate() {
+        return travelDate;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public String getSeat() {
+        return seat;
+    }
+
+    public String getBookingReference() {
+        return bookingReference;
+    }
+
+    public String getFareClass() {
+        return fareClass;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getDistanceKm() {
+        return distanceKm;
+    }
+
+    public Integer getDurationMin() {
+        return durationMin;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    /**
+     * @return a detached TravelHistory with this record's values, to be served alongside hot records
+     */
+    public TravelHistory toTravelHistory() {
+        TravelHistory travelHistory = new TravelHistory(passengerId, flightId, travelDate,
+                origin, destination, bookingReference);
+        travelHistory.setHistoryId(historyId);
+        travelHistory.setSeat(seat);
+        travelHistory.setFareClass(fareClass);
+        travelHistory.setStatus(status);
+        travelHistory.setDistanceKm(distanceKm);
+        travelHistory.setDurationMin(durationMin);
+        travelHistory.setNotes(notes);
+        travelHistory.setCreatedAt(createdAt);
+        return travelHistory;
+    }
+}
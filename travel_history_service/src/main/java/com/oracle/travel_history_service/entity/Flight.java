@@ -4,14 +4,17 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
- * Minimal Flight entity for travel history relationships
+ * Minimal, read-only Flight entity for travel history relationships.
+ * Flights are owned by the flights service.
  */
 @Entity
+@Immutable
 @Table(name = "flights")
 public class Flight {
 
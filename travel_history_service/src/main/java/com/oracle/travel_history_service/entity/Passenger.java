@@ -4,14 +4,17 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
- * Minimal Passenger entity for travel history relationships
+ * Minimal, read-only Passenger entity for travel history relationships.
+ * Passengers are owned by the passengers service.
  */
 @Entity
+@Immutable
 @Table(name = "passengers")
 public class Passenger {
 
@@ -0,0 +1,200 @@
+package com.oracle.travel_history_service.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Entity representing a passenger's travel statistics, rolled up from their travel
+ * history. Counts that break down by status, fare class, year or route are kept as
+ * JSON objects so the whole rollup is one row.
+ */
+@Entity
+@Table(name = "passenger_travel_stats")
+public class PassengerTravelStats {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Id
+    @Column(name = "passenger_id")
+    private Long passengerId;
+
+    @Column(name = "total_trips", nullable = false)
+    private long totalTrips;
+
+    @Column(name = "completed_trips", nullable = false)
+    private long completedTrips;
+
+    @Column(name = "distance_km", nullable = false)
+    private long distanceKm;
+
+    @Column(name = "duration_min", nullable = false)
+    private long durationMin;
+
+    @Column(name = "first_travel_date")
+    private LocalDate firstTravelDate;
+
+    @Column(name = "last_travel_date")
+    private LocalDate lastTravelDate;
+
+    @Lob
+    @Column(name = "trips_by_status")
+    private String tripsByStatusJson;
+
+    @Lob
+    @Column(name = "trips_by_fare_class")
+    private String tripsByFareClassJson;
+
+    @Lob
+    @Column(name = "trips_by_year")
+    private String tripsByYearJson;
+
+    @Lob
+    @Column(name = "distance_by_year")
+    private String distanceByYearJson;
+
+    @Lob
+    @Column(name = "trips_by_route")
+    private String tripsByRouteJson;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public PassengerTravelStats() {}
+
+    public PassengerTravelStats(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+
+    // Getters and Setters
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public void setPassengerId(Long passengerId) {
+        this.passengerId = passengerId;
+    }
+
+    public long getTotalTrips() {
+        return totalTrips;
+    }
+
+    public void setTotalTrips(long totalTrips) {
+        this.totalTrips = totalTrips;
+    }
+
+    public long getCompletedTrips() {
+        return completedTrips;
+    }
+
+    public void setCompletedTrips(long completedTrips) {
+        this.completedTrips = completedTrips;
+    }
+
+    public long getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(long distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    public long getDurationMin() {
+        return durationMin;
+    }
+
+    public void setDurationMin(long durationMin) {
+        this.durationMin = durationMin;
+    }
+
+    public LocalDate getFirstTravelDate() {
+        return firstTravelDate;
+    }
+
+    public void setFirstTravelDate(LocalDate firstTravelDate) {
+        this.firstTravelDate = firstTravelDate;
+    }
+
+    public LocalDate getLastTravelDate() {
+        return lastTravelDate;
+    }
+
+    public void setLastTravelDate(LocalDate lastTravelDate) {
+        this.lastTravelDate = lastTravelDate;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // JSON conversion methods for the breakdowns
+    public Map<String, Long> getTripsByStatus() {
+        return readCounts(tripsByStatusJson);
+    }
+
+    public void setTripsByStatus(Map<String, Long> tripsByStatus) {
+        this.tripsByStatusJson = writeCounts(tripsByStatus);
+    }
+
+    public Map<String, Long> getTripsByFareClass() {
+        return readCounts(tripsByFareClassJson);
+    }
+
+    public void setTripsByFareClass(Map<String, Long> tripsByFareClass) {
+        this.tripsByFareClassJson = writeCounts(tripsByFareClass);
+    }
+
+    public Map<String, Long> getTripsByYear() {
+        return readCounts(tripsByYearJson);
+    }
+
+    public void setTripsByYear(Map<String, Long> tripsByYear) {
+        this.tripsByYearJson = writeCounts(tripsByYear);
+    }
+
+    public Map<String, Long> getDistanceByYear() {
+        return readCounts(distanceByYearJson);
+    }
+
+    public void setDistanceByYear(Map<String, Long> distanceByYear) {
+        this.distanceByYearJson = writeCounts(distanceByYear);
+    }
+
+    public Map<String, Long> getTripsByRoute() {
+        return readCounts(tripsByRouteJson);
+    }
+
+    public void setTripsByRoute(Map<String, Long> tripsByRoute) {
+        this.tripsByRouteJson = writeCounts(tripsByRoute);
+    }
+
+    private static Map<String, Long> readCounts(String json) {
+        if (json == null || json.trim().isEmpty()) {
+            return new TreeMap<>();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<TreeMap<String, Long>>() {});
+        } catch (JsonProcessingException e) {
+            return new TreeMap<>();
+        }
+    }
+
+    private static String writeCounts(Map<String, Long> counts) {
+        try {
+            return objectMapper.writeValueAsString(counts != null ? new TreeMap<>(counts) : Map.of());
+        } catch (JsonProcessingException e) {
+            return "{}";
+        }
+    }
+}
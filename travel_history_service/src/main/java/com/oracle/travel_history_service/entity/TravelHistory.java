@@ -16,8 +16,10 @@ import java.time.LocalDateTime;
 @Table(name = "travel_history")
 public class TravelHistory {
 
+    // Pooled sequence instead of IDENTITY so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "travel_history_seq")
+    @SequenceGenerator(name = "travel_history_seq", sequenceName = "travel_history_seq", allocationSize = 50)
     @Column(name = "history_id")
     private Long historyId;
 
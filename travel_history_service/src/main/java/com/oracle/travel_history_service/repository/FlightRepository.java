@@ -1,10 +1,15 @@
 package com.oracle.travel_history_service.repository;
 
+import com.oracle.travel_history_service.dto.FlightSummaryDto;
 import com.oracle.travel_history_service.entity.Flight;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -34,4 +39,37 @@ public interface FlightRepository extends JpaRepository<Flight, Long> {
      * @return list of flights matching both criteria
      */
     List<Flight> findByRouteAndFlightDate(String route, LocalDate flightDate);
+
+    /**
+     * Load the summaries embedded in travel history records, straight into DTOs
+     * @param flightIds the flight IDs
+     * @return one summary per flight that exists
+     */
+    @Query("SELECT new com.oracle.travel_history_service.dto.FlightSummaryDto(" +
+           "f.flightId, f.flightName, f.flightDate, f.route, f.departureTime, f.arrivalTime, " +
+           "f.aircraftType, f.totalSeats, f.availableSeats) " +
+           "FROM Flight f WHERE f.flightId IN :flightIds")
+    List<FlightSummaryDto> findSummariesByIdIn(@Param("flightIds") Collection<Long> flightIds);
+
+    /**
+     * Find which of some flights exist
+     * @param flightIds the flight IDs
+     * @return the IDs that exist
+     */
+    @Query("SELECT f.flightId FROM Flight f WHERE f.flightId IN :flightIds")
+    List<Long> findExistingIds(@Param("flightIds") Collection<Long> flightIds);
+
+    /**
+     * Find the flights changed after a point in time
+     * @param since the exclusive lower bound of the update time
+     * @return IDs of the flights updated after it
+     */
+    @Query("SELECT f.flightId FROM Flight f WHERE f.updatedAt > :since")
+    List<Long> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    /**
+     * @return the newest update time of any flight, or null if there are no flights
+     */
+    @Query("SELECT MAX(f.updatedAt) FROM Flight f")
+    LocalDateTime findLastUpdated();
 }
@@ -1,9 +1,14 @@
 package com.oracle.travel_history_service.repository;
 
+import com.oracle.travel_history_service.dto.PassengerSummaryDto;
 import com.oracle.travel_history_service.entity.Passenger;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,4 +30,36 @@ public interface PassengerRepository extends JpaRepository<Passenger, Long> {
      * @return list of passengers with matching name
      */
     List<Passenger> findByNameContainingIgnoreCase(String name);
+
+    /**
+     * Load the summaries embedded in travel history records, straight into DTOs
+     * @param passengerIds the passenger IDs
+     * @return one summary per passenger that exists
+     */
+    @Query("SELECT new com.oracle.travel_history_service.dto.PassengerSummaryDto(" +
+           "p.passengerId, p.name, p.phoneNumber, p.passportNumber, p.dateOfBirth, p.seat, p.checkedIn) " +
+           "FROM Passenger p WHERE p.passengerId IN :passengerIds")
+    List<PassengerSummaryDto> findSummariesByIdIn(@Param("passengerIds") Collection<Long> passengerIds);
+
+    /**
+     * Find which of some passengers exist
+     * @param passengerIds the passenger IDs
+     * @return the IDs that exist
+     */
+    @Query("SELECT p.passengerId FROM Passenger p WHERE p.passengerId IN :passengerIds")
+    List<Long> findExistingIds(@Param("passengerIds") Collection<Long> passengerIds);
+
+    /**
+     * Find the passengers changed after a point in time
+     * @param since the exclusive lower bound of the update time
+     * @return IDs of the passengers updated after it
+     */
+    @Query("SELECT p.passengerId FROM Passenger p WHERE p.updatedAt > :since")
+    List<Long> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    /**
+     * @return the newest update time of any passenger, or null if there are no passengers
+     */
+    @Query("SELECT MAX(p.updatedAt) FROM Passenger p")
+    LocalDateTime findLastUpdated();
 }
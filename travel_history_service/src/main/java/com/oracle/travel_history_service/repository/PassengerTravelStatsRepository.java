@@ -0,0 +1,36 @@
+package com.oracle.travel_history_service.repository;
+
+import com.oracle.travel_history_service.entity.PassengerTravelStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Repository interface for PassengerTravelStats entity
+ */
+@Repository
+public interface PassengerTravelStatsRepository extends JpaRepository<PassengerTravelStats, Long> {
+
+    /**
+     * Delete the statistics of one partition of the passengers, before it is rebuilt
+     * @param partitions the number of partitions
+     * @param partition the partition, passengers whose ID modulo partitions equals it
+     * @return number of deleted records
+     */
+    @Modifying
+    @Query("DELETE FROM PassengerTravelStats s WHERE MOD(s.passengerId, :partitions) = :partition")
+    int deleteByPartition(@Param("partitions") int partitions, @Param("partition") int partition);
+
+    /**
+     * Delete the statistics of some passengers
+     * @param passengerIds the passenger IDs
+     * @return number of deleted records
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM PassengerTravelStats s WHERE s.passengerId IN :passengerIds")
+    int deleteByPassengerIdIn(@Param("passengerIds") Collection<Long> passengerIds);
+}
@@ -0,0 +1,102 @@
+package com.oracle.travel_history_service.repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Version fingerprint of a set of travel history records: the row count plus the
+ * newest timestamp among the records and the passengers and flights they embed.
+ * Loaded with a single aggregate query so conditional GETs can be answered without
+ * fetching the rows themselves.
+ *
+ * Travel history rows are append-only and carry only a creation timestamp; changes
+ * to the embedded passenger and flight summaries are picked up through their own
+ * update timestamps. Hot and archived records are fingerprinted separately and added
+ * together with plus().
+ *
+ * A summary update that commits after a newer timestamp is already visible does not
+ * move the fingerprint, so it is only trusted once it has settled: its newest
+ * timestamp is old enough that every write stamped before it has committed.
+ */
+public class ResourceVersion {
+
+    private final long count;
+    private final LocalDateTime lastUpdated;
+
+    public ResourceVersion(Long count, LocalDateTime lastUpdated) {
+        this.count = count == null ? 0 : count;
+        this.lastUpdated = lastUpdated;
+    }
+
+    public ResourceVersion(Long count, LocalDateTime historyCreated,
+                           LocalDateTime passengerUpdated, LocalDateTime flightUpdated) {
+        this(count, latest(latest(historyCreated, passengerUpdated), flightUpdated));
+    }
+
+    /**
+     * @param other the fingerprint of another, disjoint set of rows
+     * @return the fingerprint of both sets together
+     */
+    public ResourceVersion plus(ResourceVersion other) {
+        return new ResourceVersion(count + other.count, latest(lastUpdated, other.lastUpdated));
+    }
+
+    /**
+     * @param cutoff the newest timestamp whose writes are taken to have committed
+     * @return true if nothing was written after the cutoff
+     */
+    public boolean isSettled(LocalDateTime cutoff) {
+        return lastUpdated == null || lastUpdated.isBefore(cutoff);
+    }
+
+    /**
+     * @return true if no rows matched
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return strong entity tag for the matched rows
+     */
+    public String getETag() {
+        long updated = lastUpdated == null ? 0 : toEpochMilli(lastUpdated);
+        return "\"" + Long.toString(count, 36) + "-" + Long.toString(updated, 36) + "\"";
+    }
+
+    /**
+     * @param variant short name of one representation of the rows, or null for the full one
+     * @return strong entity tag for that representation of the matched rows
+     */
+    public String getETag(String variant) {
+        String tag = getETag();
+        return variant == null ? tag : tag.substring(0, tag.length() - 1) + "-" + variant + "\"";
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+
+    private static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceVersion{" +
+                "count=" + count +
+                ", lastUpdated=" + lastUpdated +
+                '}';
+    }
+}
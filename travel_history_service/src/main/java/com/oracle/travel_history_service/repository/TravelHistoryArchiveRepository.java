@@ -0,0 +1,103 @@
+package com.oracle.travel_history_service.repository;
+
+import com.oracle.travel_history_service.entity.ArchivedTravelHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for ArchivedTravelHistory entity. Callers normally go through
+ * TravelHistoryRepository, which merges archived records into its reads.
+ */
+@Repository
+public interface TravelHistoryArchiveRepository extends JpaRepository<ArchivedTravelHistory, Long> {
+
+    /**
+     * Find archived travel history by passenger ID
+     * @param passengerId the passenger ID
+     * @return list of archived travel history records for the passenger
+     */
+    List<ArchivedTravelHistory> findByPassengerIdOrderByTravelDateDesc(Long passengerId);
+
+    /**
+     * Find archived travel history by booking reference
+     * @param bookingReference the booking reference
+     * @return optional archived travel history record
+     */
+    Optional<ArchivedTravelHistory> findByBookingReference(String bookingReference);
+
+    /**
+     * Find archived travel history by flight ID
+     * @param flightId the flight ID
+     * @return list of archived travel history records for the flight
+     */
+    List<ArchivedTravelHistory> findByFlightIdOrderByTravelDateDesc(Long flightId);
+
+    /**
+     * Find archived travel history by passenger ID and status
+     * @param passengerId the passenger ID
+     * @param status the status
+     * @return list of archived travel history records
+     */
+    List<ArchivedTravelHistory> findByPassengerIdAndStatusOrderByTravelDateDesc(Long passengerId, String status);
+
+    /**
+     * Find archived travel history by passenger ID within date range
+     * @param passengerId the passenger ID
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return list of archived travel history records
+     */
+    @Query("SELECT a FROM ArchivedTravelHistory a WHERE a.passengerId = :passengerId " +
+           "AND a.travelDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY a.travelDate DESC")
+    List<ArchivedTravelHistory> findByPassengerIdAndDateRange(@Param("passengerId") Long passengerId,
+                                                              @Param("startDate") LocalDate startDate,
+                                                              @Param("endDate") LocalDate endDate);
+
+    /**
+     * Find archived travel history by passenger ID since a date
+     * @param passengerId the passenger ID
+     * @param cutoffDate the earliest travel date included
+     * @return list of archived travel history records
+     */
+    List<ArchivedTravelHistory> findByPassengerIdAndTravelDateGreaterThanEqualOrderByTravelDateDesc(
+            Long passengerId, LocalDate cutoffDate);
+
+    /**
+     * Find a passenger's most recent archived travel history
+     * @param passengerId the passenger ID
+     * @param limit the most records to return
+     * @return the newest archived records, newest first
+     */
+    List<ArchivedTravelHistory> findByPassengerIdOrderByTravelDateDescHistoryIdDesc(Long passengerId, Limit limit);
+
+    /**
+     * Find which of some booking references are archived
+     * @param bookingReferences the booking references
+     * @return the references that are archived
+     */
+    @Query("SELECT a.bookingReference FROM ArchivedTravelHistory a WHERE a.bookingReference IN :bookingReferences")
+    List<String> findExistingBookingReferences(@Param("bookingReferences") Collection<String> bookingReferences);
+
+    /**
+     * Copy travel history records into the archive, stamped with the database time
+     * @param historyIds the IDs of the records to copy
+     * @return number of records copied
+     */
+    @Modifying
+    @Query("INSERT INTO ArchivedTravelHistory (historyId, passengerId, flightId, travelDate, origin, destination, " +
+           "seat, bookingReference, fareClass, status, distanceKm, durationMin, notes, createdAt, archivedAt) " +
+           "SELECT th.historyId, th.passengerId, th.flightId, th.travelDate, th.origin, th.destination, " +
+           "th.seat, th.bookingReference, th.fareClass, th.status, th.distanceKm, th.durationMin, th.notes, " +
+           "th.createdAt, LOCAL DATETIME FROM TravelHistory th WHERE th.historyId IN :historyIds")
+    int copyFromHistory(@Param("historyIds") Collection<Long> historyIds);
+}
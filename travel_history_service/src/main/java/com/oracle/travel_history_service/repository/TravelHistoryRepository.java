@@ -1,49 +1,26 @@
 package com.oracle.travel_history_service.repository;
 
 import com.oracle.travel_history_service.entity.TravelHistory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 /**
- * Repository interface for TravelHistory entity
+ * Repository interface for TravelHistory entity.
+ *
+ * The lookups and version fingerprints declared in TravelHistoryRepositoryCustom also
+ * read the archive tier; the queries declared here read the hot table only.
  */
 @Repository
-public interface TravelHistoryRepository extends JpaRepository<TravelHistory, Long> {
-
-    /**
-     * Find travel history by passenger ID
-     * @param passengerId the passenger ID
-     * @return list of travel history records for the passenger
-     */
-    List<TravelHistory> findByPassengerIdOrderByTravelDateDesc(Long passengerId);
-
-    /**
-     * Find travel history by booking reference
-     * @param bookingReference the booking reference
-     * @return optional travel history record
-     */
-    Optional<TravelHistory> findByBookingReference(String bookingReference);
-
-    /**
-     * Find travel history by flight ID
-     * @param flightId the flight ID
-     * @return list of travel history records for the flight
-     */
-    List<TravelHistory> findByFlightIdOrderByTravelDateDesc(Long flightId);
-
-    /**
-     * Find travel history by passenger ID and status
-     * @param passengerId the passenger ID
-     * @param status the status
-     * @return list of travel history records
-     */
-    List<TravelHistory> findByPassengerIdAndStatusOrderByTravelDateDesc(Long passengerId, String status);
+public interface TravelHistoryRepository extends JpaRepository<TravelHistory, Long>, TravelHistoryRepositoryCustom {
 
     /**
      * Find travel history by flight ID and status
@@ -53,20 +30,6 @@ public interface TravelHistoryRepository extends JpaRepository<TravelHistory, Lo
      */
     List<TravelHistory> findByFlightIdAndStatusOrderByTravelDateDesc(Long flightId, String status);
 
-    /**
-     * Find travel history by passenger ID within date range
-     * @param passengerId the passenger ID
-     * @param startDate the start date
-     * @param endDate the end date
-     * @return list of travel history records
-     */
-    @Query("SELECT th FROM TravelHistory th WHERE th.passengerId = :passengerId " +
-           "AND th.travelDate BETWEEN :startDate AND :endDate " +
-           "ORDER BY th.travelDate DESC")
-    List<TravelHistory> findByPassengerIdAndDateRange(@Param("passengerId") Long passengerId,
-                                                      @Param("startDate") LocalDate startDate,
-                                                      @Param("endDate") LocalDate endDate);
-
     /**
      * Find travel history by route
      * @param origin the origin
@@ -99,18 +62,6 @@ public interface TravelHistoryRepository extends JpaRepository<TravelHistory, Lo
            "ORDER BY th.travelDate DESC")
     List<TravelHistory> findTravelHistoryWithDetails(@Param("passengerId") Long passengerId);
 
-    /**
-     * Find recent travel history (last 30 days) by passenger ID
-     * @param passengerId the passenger ID
-     * @param cutoffDate the cutoff date (30 days ago)
-     * @return list of recent travel history records
-     */
-    @Query("SELECT th FROM TravelHistory th WHERE th.passengerId = :passengerId " +
-           "AND th.travelDate >= :cutoffDate " +
-           "ORDER BY th.travelDate DESC")
-    List<TravelHistory> findRecentTravelHistory(@Param("passengerId") Long passengerId,
-                                               @Param("cutoffDate") LocalDate cutoffDate);
-
     /**
      * Find travel history by multiple statuses
      * @param passengerId the passenger ID
@@ -141,4 +92,49 @@ public interface TravelHistoryRepository extends JpaRepository<TravelHistory, Lo
            nativeQuery = true)
     List<TravelHistory> findTopNByPassengerId(@Param("passengerId") Long passengerId, 
                                              @Param("limit") int limit);
+
+    /**
+     * Find the IDs of records due for the archive, oldest ID first
+     * @param horizon the travel date before which records are archived
+     * @param statuses the statuses of the records that are archived
+     * @param limit the maximum number of IDs to return
+     * @return history IDs
+     */
+    @Query("SELECT th.historyId FROM TravelHistory th WHERE th.travelDate < :horizon " +
+           "AND th.status IN :statuses ORDER BY th.historyId")
+    List<Long> findArchivableIds(@Param("horizon") LocalDate horizon,
+                                 @Param("statuses") Collection<String> statuses,
+                                 Limit limit);
+
+    /**
+     * Count the records due for the archive
+     * @param horizon the travel date before which records are archived
+     * @param statuses the statuses of the records that are archived
+     * @return count of records
+     */
+    @Query("SELECT COUNT(th) FROM TravelHistory th WHERE th.travelDate < :horizon AND th.status IN :statuses")
+    long countArchivable(@Param("horizon") LocalDate horizon, @Param("statuses") Collection<String> statuses);
+
+    /**
+     * Delete records that have been copied to the archive
+     * @param historyIds the history IDs
+     * @return number of records deleted
+     */
+    @Modifying
+    @Query("DELETE FROM TravelHistory th WHERE th.historyId IN :historyIds")
+    int deleteByHistoryIdIn(@Param("historyIds") Collection<Long> historyIds);
+
+    /**
+     * Find the passengers with travel history recorded after a time
+     * @param since the exclusive lower bound of the creation time
+     * @return distinct passenger IDs
+     */
+    @Query("SELECT DISTINCT th.passengerId FROM TravelHistory th WHERE th.createdAt > :since")
+    List<Long> findPassengerIdsCreatedAfter(@Param("since") LocalDateTime since);
+
+    /**
+     * @return the creation time of the newest travel history record, or null if there is none
+     */
+    @Query("SELECT MAX(th.createdAt) FROM TravelHistory th")
+    LocalDateTime findLastCreated();
 }
@@ -0,0 +1,137 @@
+package com.oracle.travel_history_service.repository;
+
+import com.oracle.travel_history_service.entity.TravelHistory;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Travel history queries that read both tiers: the hot travel_history table and the
+ * travel_history_archive table that old completed and cancelled trips are moved to.
+ * Archived records are returned as detached TravelHistory instances, merged in travel
+ * date order, so callers cannot tell the tiers apart. Queries bounded by a date only
+ * read the archive when their range reaches back past the archive horizon.
+ */
+public interface TravelHistoryRepositoryCustom {
+
+    /**
+     * Find travel history by passenger ID
+     * @param passengerId the passenger ID
+     * @return list of travel history records for the passenger
+     */
+    List<TravelHistory> findByPassengerIdOrderByTravelDateDesc(Long passengerId);
+
+    /**
+     * Find travel history by booking reference
+     * @param bookingReference the booking reference
+     * @return optional travel history record
+     */
+    Optional<TravelHistory> findByBookingReference(String bookingReference);
+
+    /**
+     * Find travel history by flight ID
+     * @param flightId the flight ID
+     * @return list of travel history records for the flight
+     */
+    List<TravelHistory> findByFlightIdOrderByTravelDateDesc(Long flightId);
+
+    /**
+     * Find travel history by passenger ID and status
+     * @param passengerId the passenger ID
+     * @param status the status
+     * @return list of travel history records
+     */
+    List<TravelHistory> findByPassengerIdAndStatusOrderByTravelDateDesc(Long passengerId, String status);
+
+    /**
+     * Find travel history by passenger ID within date range
+     * @param passengerId the passenger ID
+     * @param startDate the start date
+     * @param endDate the end date
+     * @return list of travel history records
+     */
+    List<TravelHistory> findByPassengerIdAndDateRange(Long passengerId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Find recent travel history (last 30 days) by passenger ID
+     * @param passengerId the passenger ID
+     * @param cutoffDate the cutoff date (30 days ago)
+     * @return list of recent travel history records
+     */
+    List<TravelHistory> findRecentTravelHistory(Long passengerId, LocalDate cutoffDate);
+
+    /**
+     * Find a passenger's most recent travel history, whatever its date
+     * @param passengerId the passenger ID
+     * @param limit the most records to return
+     * @return the newest records, newest first
+     */
+    List<TravelHistory> findRecentByPassengerId(Long passengerId, int limit);
+
+    /**
+     * Find all travel history records
+     * @return all records of both tiers
+     */
+    List<TravelHistory> findAll();
+
+    /**
+     * Find which of some booking references are already recorded
+     * @param bookingReferences the booking references
+     * @return the references that exist
+     */
+    List<String> findExistingBookingReferences(Collection<String> bookingReferences);
+
+    /**
+     * Stream the grouped travel statistics of one partition of the passengers, ordered by
+     * passenger so each passenger's groups arrive together
+     * @param partitions the number of partitions
+     * @param partition the partition, passengers whose ID modulo partitions equals it
+     * @return grouped statistics rows; must be closed
+     */
+    Stream<TravelStatsRow> streamStatsRowsByPartition(int partitions, int partition);
+
+    /**
+     * Find the grouped travel statistics of some passengers
+     * @param passengerIds the passenger IDs
+     * @return grouped statistics rows ordered by passenger
+     */
+    List<TravelStatsRow> findStatsRowsByPassengerIdIn(Collection<Long> passengerIds);
+
+    /**
+     * Load the version fingerprint of all travel history records
+     * @return count and newest change time
+     */
+    ResourceVersion findVersion();
+
+    /**
+     * Load the version fingerprint of a passenger's travel history
+     * @param passengerId the passenger ID
+     * @return count and newest change time
+     */
+    ResourceVersion findVersionByPassengerId(Long passengerId);
+
+    /**
+     * Load the version fingerprint of a passenger's travel history since a date
+     * @param passengerId the passenger ID
+     * @param cutoffDate the earliest travel date included
+     * @return count and newest change time
+     */
+    ResourceVersion findRecentVersionByPassengerId(Long passengerId, LocalDate cutoffDate);
+
+    /**
+     * Load the version fingerprint of a flight's travel history
+     * @param flightId the flight ID
+     * @return count and newest change time
+     */
+    ResourceVersion findVersionByFlightId(Long flightId);
+
+    /**
+     * Load the version fingerprint of a booking
+     * @param bookingReference the booking reference
+     * @return count (0 if the booking does not exist) and newest change time
+     */
+    ResourceVersion findVersionByBookingReference(String bookingReference);
+}
@@ -0,0 +1,357 @@
+package com.oracle.travel_history_service.repository;
+
+import com.oracle.travel_history_service.entity.ArchivedTravelHistory;
+import com.oracle.travel_history_service.entity.TravelHistory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Implementation of the two-tier travel history queries. Hot records are queried with
+ * JPQL, archived ones through TravelHistoryArchiveRepository.
+ *
+ * The archiver only moves records that travelled before the horizon, so a query whose
+ * earliest travel date is on or after today's horizon cannot match an archived record
+ * and skips the archive. Records are never moved back, so lengthening the horizon
+ * leaves the records archived under the shorter one where they are.
+ */
+public class TravelHistoryRepositoryImpl implements TravelHistoryRepositoryCustom {
+
+    /**
+     * Grouped select shared by the travel statistics queries: one row per passenger,
+     * status, fare class, route and year, with trip count, distance, duration and dates.
+     * The entity is TravelHistory or ArchivedTravelHistory.
+     */
+    private static final String STATS_SELECT = "SELECT new com.oracle.travel_history_service.repository.TravelStatsRow(" +
+            "th.passengerId, th.status, th.fareClass, th.origin, th.destination, YEAR(th.travelDate), " +
+            "COUNT(th), SUM(th.distanceKm), SUM(th.durationMin), MIN(th.travelDate), MAX(th.travelDate)) " +
+            "FROM %s th ";
+    private static final String STATS_GROUP_BY = " GROUP BY th.passengerId, th.status, th.fareClass, th.origin, " +
+            "th.destination, YEAR(th.travelDate) ORDER BY th.passengerId";
+    /**
+     * Version fingerprint select shared by the findVersion* queries; the joins pick up
+     * changes to the passenger and flight summaries embedded in each record. The entity
+     * is TravelHistory or ArchivedTravelHistory, and the two tiers' fingerprints are
+     * added together, so a summary change moves the fingerprint whichever tier holds
+     * the records that embed it.
+     */
+    private static final String VERSION_SELECT = "SELECT new com.oracle.travel_history_service.repository.ResourceVersion(" +
+            "COUNT(th), MAX(th.createdAt), MAX(p.updatedAt), MAX(f.updatedAt)) FROM %s th " +
+            "LEFT JOIN Passenger p ON p.passengerId = th.passengerId " +
+            "LEFT JOIN Flight f ON f.flightId = th.flightId ";
+    private static final Comparator<TravelHistory> BY_TRAVEL_DATE_DESC = Comparator.comparing(
+            TravelHistory::getTravelDate, Comparator.nullsLast(Comparator.reverseOrder()));
+    private static final Comparator<TravelHistory> NEWEST_FIRST = BY_TRAVEL_DATE_DESC.thenComparing(
+            TravelHistory::getHistoryId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final EntityManager entityManager;
+    private final TravelHistoryArchiveRepository archiveRepository;
+    private final Clock clock;
+    private final int horizonDays;
+
+    @Autowired
+    public TravelHistoryRepositoryImpl(EntityManager entityManager,
+                                       TravelHistoryArchiveRepository archiveRepository,
+                                       @Value("${app.archive.horizon-days:365}") int horizonDays) {
+        this.entityManager = entityManager;
+        this.archiveRepository = archiveRepository;
+        this.clock = Clock.systemDefaultZone();
+        this.horizonDays = horizonDays;
+    }
+
+    @Override
+    public List<TravelHistory> findByPassengerIdOrderByTravelDateDesc(Long passengerId) {
+        List<TravelHistory> hot = entityManager.createQuery("SELECT th FROM TravelHistory th " +
+                        "WHERE th.passengerId = :passengerId ORDER BY th.travelDate DESC", TravelHistory.class)
+                .setParameter("passengerId", passengerId)
+                .getResultList();
+        return merge(hot, archiveRepository.findByPassengerIdOrderByTravelDateDesc(passengerId));
+    }
+
+    @Override
+    public Optional<TravelHistory> findByBookingReference(String bookingReference) {
+        List<TravelHistory> hot = entityManager.createQuery("SELECT th FROM TravelHistory th " +
+                        "WHERE th.bookingReference = :bookingReference", TravelHistory.class)
+                .setParameter("bookingReference", bookingReference)
+                .getResultList();
+        if (!hot.isEmpty()) {
+            return Optional.of(hot.get(0));
+        }
+        return archiveRepository.findByBookingReference(bookingReference).map(ArchivedTravelHistory::toTravelHistory);
+    }
+
+    @Override
+    public List<TravelHistory> findByFlightIdOrderByTravelDateDesc(Long flightId) {
+        List<TravelHistory> hot = entityManager.createQuery("SELECT th FROM TravelHistory th " +
+                        "WHERE th.flightId = :flightId ORDER BY th.travelDate DESC", TravelHistory.class)
+                .setParameter("flightId", flightId)
+                .getResultList();
+        return merge(hot, archiveRepository.findByFlightIdOrderByTravelDateDesc(flightId));
+    }
+
+    @Override
+    public List<TravelHistory> findByPassengerIdAndStatusOrderByTravelDateDesc(Long passengerId, String status) {
+        List<TravelHistory> hot = entityManager.createQuery("SELECT th FROM TravelHistory th " +
+                        "WHERE th.passengerId = :passengerId AND th.status = :status " +
+                        "ORDER BY th.travelDate DESC", TravelHistory.class)
+                .setParameter("passengerId", passengerId)
+                .setParameter("status", status)
+                .getResultList();
+        if (!ArchivedTravelHistory.STATUSES.contains(status)) {
+            return hot;
+        }
+        return merge(hot, archiveRepository.findByPassengerIdAndStatusOrderByTravelDateDesc(passengerId, status));
+    }
+
+    @Override
+    public List<TravelHistory> findByPassengerIdAndDateRange(Long passengerId, LocalDate startDate,
+                                                             LocalDate endDate) {
+        List<TravelHistory> hot = entityManager.createQuery("SELECT th FROM TravelHistory th " +
+                        "WHERE th.passengerId = :passengerId AND th.travelDate BETWEEN :startDate AND :endDate " +
+                        "ORDER BY th.travelDate DESC", TravelHistory.class)
+                .setParameter("passengerId", passengerId)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+        if (!reachesArchive(startDate)) {
+            return hot;
+        }
+        return merge(hot, archiveRepository.findByPassengerIdAndDateRange(passengerId, startDate, endDate));
+    }
+
+    @Override
+    public List<TravelHistory> findRecentTravelHistory(Long passengerId, LocalDate cutoffDate) {
+        List<TravelHistory> hot = entityManager.createQuery("SELECT th FROM TravelHistory th " +
+                        "WHERE th.passengerId = :passengerId AND th.travelDate >= :cutoffDate " +
+                        "ORDER BY th.travelDate DESC", TravelHistory.class)
+                .setParameter("passengerId", passengerId)
+                .setParameter("cutoffDate", cutoffDate)
+                .getResultList();
+        if (!reachesArchive(cutoffDate)) {
+            return hot;
+        }
+        return merge(hot, archiveRepository
+                .findByPassengerIdAndTravelDateGreaterThanEqualOrderByTravelDateDesc(passengerId, cutoffDate));
+    }
+
+    @Override
+    public List<TravelHistory> findRecentByPassengerId(Long passengerId, int limit) {
+        List<TravelHistory> hot = entityManager.createQuery("SELECT th FROM TravelHistory th " +
+                        "WHERE th.passengerId = :passengerId ORDER BY th.travelDate DESC, th.historyId DESC",
+                        TravelHistory.class)
+                .setParameter("passengerId", passengerId)
+                .setMaxResults(limit)
+                .getResultList();
+        // Archived records are older than the horizon, so they only make the cut if hot ones run out before it
+        if (hot.size() == limit && !reachesArchive(hot.get(hot.size() - 1).getTravelDate())) {
+            return hot;
+        }
+        List<ArchivedTravelHistory> archived = archiveRepository
+                .findByPassengerIdOrderByTravelDateDescHistoryIdDesc(passengerId, Limit.of(limit));
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<TravelHistory> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        archived.forEach(record -> merged.add(record.toTravelHistory()));
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    @Override
+    public List<TravelHistory> findAll() {
+        List<TravelHistory> hot = entityManager.createQuery("SELECT th FROM TravelHistory th", TravelHistory.class)
+                .getResultList();
+        List<ArchivedTravelHistory> archived = archiveRepository.findAll();
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<TravelHistory> all = new ArrayList<>(hot.size() + archived.size());
+        all.addAll(hot);
+        archived.forEach(record -> all.add(record.toTravelHistory()));
+        return all;
+    }
+
+    @Override
+    public List<String> findExistingBookingReferences(Collection<String> bookingReferences) {
+        List<String> existing = new ArrayList<>(entityManager.createQuery("SELECT th.bookingReference " +
+                        "FROM TravelHistory th WHERE th.bookingReference IN :bookingReferences", String.class)
+                .setParameter("bookingReferences", bookingReferences)
+                .getResultList());
+        Set<String> remaining = new HashSet<>(bookingReferences);
+        existing.forEach(remaining::remove);
+        if (!remaining.isEmpty()) {
+            existing.addAll(archiveRepository.findExistingBookingReferences(remaining));
+        }
+        return existing;
+    }
+
+    @Override
+    public Stream<TravelStatsRow> streamStatsRowsByPartition(int partitions, int partition) {
+        String where = "WHERE MOD(th.passengerId, :partitions) = :partition";
+        Stream<TravelStatsRow> hot = streamStatsRows(TravelHistory.class, where, partitions, partition);
+        Stream<TravelStatsRow> archived;
+        try {
+            archived = streamStatsRows(ArchivedTravelHistory.class, where, partitions, partition);
+        } catch (RuntimeException e) {
+            hot.close();
+            throw e;
+        }
+        Iterator<TravelStatsRow> merged = new MergingIterator(hot.iterator(), archived.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(hot::close)
+                .onClose(archived::close);
+    }
+
+    @Override
+    public List<TravelStatsRow> findStatsRowsByPassengerIdIn(Collection<Long> passengerIds) {
+        List<TravelStatsRow> rows = new ArrayList<>(findStatsRows(TravelHistory.class, passengerIds));
+        rows.addAll(findStatsRows(ArchivedTravelHistory.class, passengerIds));
+        rows.sort(Comparator.comparing(TravelStatsRow::getPassengerId));
+        return rows;
+    }
+
+    @Override
+    public ResourceVersion findVersion() {
+        return findVersion(TravelHistory.class, "", Map.of())
+                .plus(findVersion(ArchivedTravelHistory.class, "", Map.of()));
+    }
+
+    @Override
+    public ResourceVersion findVersionByPassengerId(Long passengerId) {
+        Map<String, Object> parameters = Map.of("passengerId", passengerId);
+        String where = "WHERE th.passengerId = :passengerId";
+        return findVersion(TravelHistory.class, where, parameters)
+                .plus(findVersion(ArchivedTravelHistory.class, where, parameters));
+    }
+
+    @Override
+    public ResourceVersion findRecentVersionByPassengerId(Long passengerId, LocalDate cutoffDate) {
+        Map<String, Object> parameters = Map.of("passengerId", passengerId, "cutoffDate", cutoffDate);
+        String where = "WHERE th.passengerId = :passengerId AND th.travelDate >= :cutoffDate";
+        ResourceVersion hot = findVersion(TravelHistory.class, where, parameters);
+        if (!reachesArchive(cutoffDate)) {
+            return hot;
+        }
+        return hot.plus(findVersion(ArchivedTravelHistory.class, where, parameters));
+    }
+
+    @Override
+    public ResourceVersion findVersionByFlightId(Long flightId) {
+        Map<String, Object> parameters = Map.of("flightId", flightId);
+        String where = "WHERE th.flightId = :flightId";
+        return findVersion(TravelHistory.class, where, parameters)
+                .plus(findVersion(ArchivedTravelHistory.class, where, parameters));
+    }
+
+    @Override
+    public ResourceVersion findVersionByBookingReference(String bookingReference) {
+        Map<String, Object> parameters = Map.of("bookingReference", bookingReference);
+        String where = "WHERE th.bookingReference = :bookingReference";
+        return findVersion(TravelHistory.class, where, parameters)
+                .plus(findVersion(ArchivedTravelHistory.class, where, parameters));
+    }
+
+    private ResourceVersion findVersion(Class<?> entity, String where, Map<String, Object> parameters) {
+        TypedQuery<ResourceVersion> query = entityManager.createQuery(
+                String.format(VERSION_SELECT, entity.getSimpleName()) + where, ResourceVersion.class);
+        parameters.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    private List<TravelStatsRow> findStatsRows(Class<?> entity, Collection<Long> passengerIds) {
+        return entityManager.createQuery(String.format(STATS_SELECT, entity.getSimpleName()) +
+                        "WHERE th.passengerId IN :passengerIds" + STATS_GROUP_BY, TravelStatsRow.class)
+                .setParameter("passengerIds", passengerIds)
+                .getResultList();
+    }
+
+    private Stream<TravelStatsRow> streamStatsRows(Class<?> entity, String where, int partitions, int partition) {
+        return entityManager.createQuery(String.format(STATS_SELECT, entity.getSimpleName()) + where +
+                        STATS_GROUP_BY, TravelStatsRow.class)
+                .setParameter("partitions", partitions)
+                .setParameter("partition", partition)
+                .setHint(HINT_FETCH_SIZE, 1000)
+                .getResultStream();
+    }
+
+    /**
+     * @param earliest the earliest travel date a query matches
+     * @return true if archived records can travel on or after it
+     */
+    private boolean reachesArchive(LocalDate earliest) {
+        return earliest == null || earliest.isBefore(LocalDate.now(clock).minusDays(horizonDays));
+    }
+
+    private static List<TravelHistory> merge(List<TravelHistory> hot, List<ArchivedTravelHistory> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<TravelHistory> merged = new ArrayList<>(hot.size() + archived.size());
+        merged.addAll(hot);
+        archived.forEach(record -> merged.add(record.toTravelHistory()));
+        merged.sort(BY_TRAVEL_DATE_DESC);
+        return merged;
+    }
+
+    /**
+     * Merges two streams of statistics rows that are each ordered by passenger
+     */
+    private static final class MergingIterator implements Iterator<TravelStatsRow> {
+
+        private final Iterator<TravelStatsRow> first;
+        private final Iterator<TravelStatsRow> second;
+        private TravelStatsRow nextFirst;
+        private TravelStatsRow nextSecond;
+
+        MergingIterator(Iterator<TravelStatsRow> first, Iterator<TravelStatsRow> second) {
+            this.first = first;
+            this.second = second;
+            this.nextFirst = first.hasNext() ? first.next() : null;
+            this.nextSecond = second.hasNext() ? second.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextFirst != null || nextSecond != null;
+        }
+
+        @Override
+        public TravelStatsRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TravelStatsRow row;
+            if (nextSecond == null
+                    || (nextFirst != null && nextFirst.getPassengerId() <= nextSecond.getPassengerId())) {
+                row = nextFirst;
+                nextFirst = first.hasNext() ? first.next() : null;
+            } else {
+                row = nextSecond;
+                nextSecond = second.hasNext() ? second.next() : null;
+            }
+            return row;
+        }
+    }
+}
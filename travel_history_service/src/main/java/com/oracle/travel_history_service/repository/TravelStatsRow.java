@@ -0,0 +1,83 @@
+package com.oracle.travel_history_service.repository;
+
+import java.time.LocalDate;
+
+/**
+ * One group of a passenger's travel history rolled up by status, fare class, route and
+ * year, selected with a constructor expression. A passenger's statistics are summed from
+ * their groups, so a rebuild never loads the history rows themselves.
+ */
+public class TravelStatsRow {
+
+    private final Long passengerId;
+    private final String status;
+    private final String fareClass;
+    private final String origin;
+    private final String destination;
+    private final Integer year;
+    private final long trips;
+    private final long distanceKm;
+    private final long durationMin;
+    private final LocalDate firstTravelDate;
+    private final LocalDate lastTravelDate;
+
+    public TravelStatsRow(Long passengerId, String status, String fareClass, String origin, String destination,
+                          Integer year, Long trips, Long distanceKm, Long durationMin,
+                          LocalDate firstTravelDate, LocalDate lastTravelDate) {
+        this.passengerId = passengerId;
+        this.status = status;
+        this.fareClass = fareClass;
+        this.origin = origin;
+        this.destination = destination;
+        this.year = year;
+        this.trips = trips == null ? 0 : trips;
+        this.distanceKm = distanceKm == null ? 0 : distanceKm;
+        this.durationMin = durationMin == null ? 0 : durationMin;
+        this.firstTravelDate = firstTravelDate;
+        this.lastTravelDate = lastTravelDate;
+    }
+
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getFareClass() {
+        return fareClass;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public Integer getYear() {
+        return year;
+    }
+
+    public long getTrips() {
+        return trips;
+    }
+
+    public long getDistanceKm() {
+        return distanceKm;
+    }
+
+    public long getDurationMin() {
+        return durationMin;
+    }
+
+    public LocalDate getFirstTravelDate() {
+        return firstTravelDate;
+    }
+
+    public LocalDate getLastTravelDate() {
+        return lastTravelDate;
+    }
+}
@@ -0,0 +1,67 @@
+package com.oracle.travel_history_service.service;
+
+import com.oracle.travel_history_service.exception.TravelHistoryException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sections that can be embedded in each travel history record, selected with the
+ * include request parameter. A section that is not requested is not looked up at all.
+ */
+public enum Enrichment {
+
+    PASSENGER,
+    FLIGHT;
+
+    /**
+     * Every section, embedded when the request does not say otherwise
+     */
+    public static final Set<Enrichment> ALL = Collections.unmodifiableSet(EnumSet.allOf(Enrichment.class));
+
+    private static final String NONE = "none";
+
+    /**
+     * Parse an include parameter such as "passenger,flight"
+     * @param include comma-separated section names; null for every section, empty or "none" for none
+     * @return the requested sections
+     * @throws TravelHistoryException if a name is not a section
+     */
+    public static Set<Enrichment> parse(String include) {
+        if (include == null) {
+            return ALL;
+        }
+        Set<Enrichment> sections = EnumSet.noneOf(Enrichment.class);
+        for (String name : include.split(",")) {
+            String section = name.trim().toUpperCase(Locale.ROOT);
+            if (section.isEmpty() || section.equalsIgnoreCase(NONE)) {
+                continue;
+            }
+            try {
+                sections.add(valueOf(section));
+            } catch (IllegalArgumentException e) {
+                throw TravelHistoryException.validationError("include must list passenger, flight or none, not: "
+                        + name.trim());
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * @param sections the requested sections
+     * @return a short name for the representation, or null when every section is embedded
+     */
+    public static String variant(Set<Enrichment> sections) {
+        if (sections.containsAll(ALL)) {
+            return null;
+        }
+        if (sections.isEmpty()) {
+            return NONE;
+        }
+        return sections.stream().map(section -> section.name().toLowerCase(Locale.ROOT))
+                .sorted().collect(Collectors.joining("+"));
+    }
+}
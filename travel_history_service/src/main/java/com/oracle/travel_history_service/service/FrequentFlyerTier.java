@@ -0,0 +1,54 @@
+package com.oracle.travel_history_service.service;
+
+/**
+ * Frequent-flyer tiers, earned by completed trips or distance flown over the qualifying
+ * period: the current and the previous calendar year. A tier is reached by meeting
+ * either of its thresholds.
+ */
+public enum FrequentFlyerTier {
+
+    BLUE(0, 0),
+    SILVER(10, 25_000),
+    GOLD(25, 50_000),
+    PLATINUM(50, 100_000);
+
+    private final long qualifyingTrips;
+    private final long qualifyingDistanceKm;
+
+    FrequentFlyerTier(long qualifyingTrips, long qualifyingDistanceKm) {
+        this.qualifyingTrips = qualifyingTrips;
+        this.qualifyingDistanceKm = qualifyingDistanceKm;
+    }
+
+    public long getQualifyingTrips() {
+        return qualifyingTrips;
+    }
+
+    public long getQualifyingDistanceKm() {
+        return qualifyingDistanceKm;
+    }
+
+    /**
+     * Get the highest tier earned in a qualifying period
+     * @param trips completed trips in the period
+     * @param distanceKm distance flown in the period
+     * @return the tier
+     */
+    public static FrequentFlyerTier of(long trips, long distanceKm) {
+        FrequentFlyerTier earned = BLUE;
+        for (FrequentFlyerTier tier : values()) {
+            if (trips >= tier.qualifyingTrips || distanceKm >= tier.qualifyingDistanceKm) {
+                earned = tier;
+            }
+        }
+        return earned;
+    }
+
+    /**
+     * @return the tier above this one, or null for the top tier
+     */
+    public FrequentFlyerTier next() {
+        FrequentFlyerTier[] tiers = values();
+        return ordinal() + 1 < tiers.length ? tiers[ordinal() + 1] : null;
+    }
+}
@@ -0,0 +1,529 @@
+package com.oracle.travel_history_service.service;
+
+import com.oracle.travel_history_service.dto.HistoryCacheStatsDto;
+import com.oracle.travel_history_service.dto.TravelHistoryDto;
+import com.oracle.travel_history_service.repository.FlightRepository;
+import com.oracle.travel_history_service.repository.PassengerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of each passenger's most recent trips, kept as the DTOs the history
+ * endpoints return, so the busiest reads need neither the history query nor the
+ * passenger and flight summary lookups.
+ *
+ * An entry holds up to app.history-cache.trips-per-passenger trips, newest first, and
+ * knows whether they are the passenger's whole history. The cache is bounded by the
+ * total number of trips held, app.history-cache.max-weight. Eviction follows W-TinyLFU:
+ * new entries go to a small LRU window; an entry leaving the window only displaces the
+ * least recently used entry of the main area if the passenger has been read more often,
+ * as estimated by a count-min sketch of recent reads that is halved as it fills up. A
+ * burst of one-off reads therefore cannot flush the passengers that are read all the time.
+ *
+ * Trips ingested by this instance are merged into cached entries as they commit. The
+ * passengers and flights embedded in the trips belong to other services, so every
+ * app.history-cache.refresh-seconds the ones updated since the last poll are read
+ * through their updated_at indexes and the entries that embed them dropped, looking
+ * back a little further than the newest update seen. Entries also expire after
+ * app.history-cache.ttl-seconds whatever happens, which bounds how long trips recorded
+ * by another instance, or a missed change, can go unseen.
+ */
+@Component
+public class RecentHistoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecentHistoryCache.class);
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+    private static final Comparator<TravelHistoryDto> NEWEST_FIRST = Comparator
+            .comparing(TravelHistoryDto::getTravelDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(TravelHistoryDto::getHistoryId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final PassengerRepository passengerRepository;
+    private final FlightRepository flightRepository;
+    private final Clock clock;
+    private final int tripsPerPassenger;
+    private final long maxWeight;
+    private final long windowMaxWeight;
+    private final Duration ttl;
+    private final Duration refreshInterval;
+    private final FrequencySketch sketch;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    // Both in access order, least recently used first; guarded by this
+    private final LinkedHashMap<Long, Node> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, Node> main = new LinkedHashMap<>(16, 0.75f, true);
+    private long windowWeight;
+    private long mainWeight;
+    // Bumped by every write or invalidation, so a load that raced with one is not cached
+    private long generation;
+
+    private volatile LocalDateTime lastSeenPassengerUpdate;
+    private volatile LocalDateTime lastSeenFlightUpdate;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public RecentHistoryCache(PassengerRepository passengerRepository,
+                              FlightRepository flightRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.history-cache.max-weight:200000}") long maxWeight,
+                              @Value("${app.history-cache.trips-per-passenger:20}") int tripsPerPassenger,
+                              @Value("${app.history-cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${app.history-cache.refresh-seconds:10}") long refreshSeconds) {
+        this(passengerRepository, flightRepository, meterRegistry, Clock.systemDefaultZone(), maxWeight,
+                tripsPerPassenger, Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(refreshSeconds));
+    }
+
+    RecentHistoryCache(PassengerRepository passengerRepository, FlightRepository flightRepository,
+                       MeterRegistry meterRegistry, Clock clock, long maxWeight, int tripsPerPassenger,
+                       Duration ttl, Duration refreshInterval) {
+        this.passengerRepository = passengerRepository;
+        this.flightRepository = flightRepository;
+        this.clock = clock;
+        this.tripsPerPassenger = Math.max(1, tripsPerPassenger);
+        this.maxWeight = Math.max(0, maxWeight);
+        // The window holds 1% of the weight, as in Caffeine
+        this.windowMaxWeight = Math.max(1, this.maxWeight / 100);
+        this.ttl = ttl;
+        this.refreshInterval = refreshInterval;
+        this.sketch = new FrequencySketch(this.maxWeight / this.tripsPerPassenger);
+        this.hits = Counter.builder("travel_history.cache.requests").tag("result", "hit")
+                .description("Recent history cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("travel_history.cache.requests").tag("result", "miss")
+                .description("Recent history cache lookups").register(meterRegistry);
+        this.evictions = Counter.builder("travel_history.cache.evictions")
+                .description("Recent history cache entries evicted or refused for lack of room")
+                .register(meterRegistry);
+        Gauge.builder("travel_history.cache.size", this, RecentHistoryCache::size)
+                .description("Passengers in the recent history cache").register(meterRegistry);
+        Gauge.builder("travel_history.cache.weight", this, RecentHistoryCache::weight)
+                .description("Trips held by the recent history cache").register(meterRegistry);
+    }
+
+    /**
+     * Start polling for changed passengers and flights (a refresh interval of 0 leaves only the TTL)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (refreshInterval.isZero() || poller != null) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recent-history-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollChanges, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the most trips kept per passenger
+     */
+    public int getTripsPerPassenger() {
+        return tripsPerPassenger;
+    }
+
+    /**
+     * Get a passenger's cached trips, counting the lookup as a hit or a miss
+     * @param passengerId the passenger ID
+     * @param usable whether the cached trips answer the request
+     * @return the cached trips, or empty if they have to be loaded
+     */
+    public synchronized Optional<RecentTrips> get(Long passengerId, Predicate<RecentTrips> usable) {
+        sketch.increment(passengerId);
+        Node node = window.get(passengerId);
+        if (node == null) {
+            node = main.get(passengerId);
+        }
+        if (node != null && !clock.instant().isBefore(node.expiresAt)) {
+            remove(passengerId);
+            node = null;
+        }
+        if (node == null || !usable.test(node.trips)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(node.trips);
+    }
+
+    /**
+     * @return a token to take before loading trips and hand to put()
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Cache a passenger's trips as loaded from the database. Nothing is cached if the
+     * cache was written or invalidated since the generation was taken, as the trips may
+     * already be stale.
+     * @param passengerId the passenger ID
+     * @param trips the passenger's most recent trips, newest first, at most getTripsPerPassenger()
+     * @param complete true if these are all of the passenger's trips
+     * @param loadedGeneration the generation taken before the trips were loaded
+     * @return the trips as cached
+     */
+    public synchronized RecentTrips put(Long passengerId, List<TravelHistoryDto> trips, boolean complete,
+                                        long loadedGeneration) {
+        RecentTrips recentTrips = new RecentTrips(trips, complete);
+        if (loadedGeneration != generation || recentTrips.weight() > maxWeight - windowMaxWeight) {
+            return recentTrips;
+        }
+        remove(passengerId);
+        Node node = new Node(passengerId, recentTrips, clock.instant().plus(ttl));
+        window.put(passengerId, node);
+        windowWeight += node.weight();
+        while (windowWeight > windowMaxWeight && !window.isEmpty()) {
+            Node candidate = removeEldest(window);
+            windowWeight -= candidate.weight();
+            admit(candidate);
+        }
+        return recentTrips;
+    }
+
+    /**
+     * Start a write of some passengers' trips: loads that are already under way will not
+     * be cached
+     * @param passengerIds the passengers being written
+     * @return those of them that are cached, whose entries should be updated with merge()
+     */
+    public synchronized Set<Long> beginWrite(Collection<Long> passengerIds) {
+        generation++;
+        Set<Long> cached = new HashSet<>();
+        for (Long passengerId : passengerIds) {
+            if (window.containsKey(passengerId) || main.containsKey(passengerId)) {
+                cached.add(passengerId);
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Merge newly recorded trips into a passenger's cached entry, if there still is one
+     * @param passengerId the passenger ID
+     * @param newTrips the trips recorded
+     */
+    public synchronized void merge(Long passengerId, List<TravelHistoryDto> newTrips) {
+        generation++;
+        LinkedHashMap<Long, Node> area = window.containsKey(passengerId) ? window : main;
+        Node node = area.get(passengerId);
+        if (node == null) {
+            return;
+        }
+        Map<Long, TravelHistoryDto> byId = new LinkedHashMap<>();
+        node.trips.trips().forEach(trip -> byId.put(trip.getHistoryId(), trip));
+        newTrips.forEach(trip -> byId.put(trip.getHistoryId(), trip));
+        List<TravelHistoryDto> merged = new ArrayList<>(byId.values());
+        merged.sort(NEWEST_FIRST);
+        boolean trimmed = merged.size() > tripsPerPassenger;
+        RecentTrips trips = new RecentTrips(trimmed ? merged.subList(0, tripsPerPassenger) : merged,
+                node.trips.complete() && !trimmed);
+
+        Node updated = new Node(passengerId, trips, node.expiresAt);
+        area.put(passengerId, updated);
+        if (area == window) {
+            windowWeight += updated.weight() - node.weight();
+        } else {
+            mainWeight += updated.weight() - node.weight();
+            while (mainWeight > maxWeight - windowMaxWeight && !main.isEmpty()) {
+                mainWeight -= removeEldest(main).weight();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Drop the cached trips of some passengers
+     * @param passengerIds the passenger IDs
+     */
+    public synchronized void invalidatePassengers(Collection<Long> passengerIds) {
+        generation++;
+        passengerIds.forEach(this::remove);
+    }
+
+    /**
+     * Drop the cached trips that embed any of some flights
+     * @param flightIds the flight IDs
+     */
+    public synchronized void invalidateFlights(Collection<Long> flightIds) {
+        generation++;
+        Set<Long> flights = new HashSet<>(flightIds);
+        List<Long> affected = new ArrayList<>();
+        for (Map<Long, Node> area : List.of(window, main)) {
+            area.forEach((passengerId, node) -> {
+                if (node.trips.trips().stream().anyMatch(trip -> flights.contains(trip.getFlightId()))) {
+                    affected.add(passengerId);
+                }
+            });
+        }
+        affected.forEach(this::remove);
+    }
+
+    /**
+     * Drop every cached entry
+     */
+    public synchronized void clear() {
+        generation++;
+        window.clear();
+        main.clear();
+        windowWeight = 0;
+        mainWeight = 0;
+    }
+
+    /**
+     * @return the number of cached passengers
+     */
+    public synchronized int size() {
+        return window.size() + main.size();
+    }
+
+    /**
+     * @return the number of cached trips, plus one per passenger
+     */
+    public synchronized long weight() {
+        return windowWeight + mainWeight;
+    }
+
+    /**
+     * Get the cache's counters
+     * @return lookups, evictions and size
+     */
+    public HistoryCacheStatsDto getStats() {
+        HistoryCacheStatsDto stats = new HistoryCacheStatsDto();
+        long hitCount = (long) hits.count();
+        long missCount = (long) misses.count();
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        stats.setEvictions((long) evictions.count());
+        synchronized (this) {
+            stats.setEntries(size());
+            stats.setWeight(weight());
+        }
+        stats.setMaxWeight(maxWeight);
+        stats.setTripsPerPassenger(tripsPerPassenger);
+        return stats;
+    }
+
+    /**
+     * Drop the cached trips that embed the passengers and flights updated since the previous poll
+     */
+    void pollChanges() {
+        try {
+            lastSeenPassengerUpdate = poll(lastSeenPassengerUpdate, passengerRepository::findIdsUpdatedAfter,
+                    passengerRepository::findLastUpdated, this::invalidatePassengers);
+            lastSeenFlightUpdate = poll(lastSeenFlightUpdate, flightRepository::findIdsUpdatedAfter,
+                    flightRepository::findLastUpdated, this::invalidateFlights);
+        } catch (DataAccessException e) {
+            // Keep serving; entries still expire after the TTL
+            logger.warn("Could not poll for changed passengers and flights: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime poll(LocalDateTime since,
+                                      Function<LocalDateTime, List<Long>> findIdsUpdatedAfter,
+                                      Supplier<LocalDateTime> findLastUpdated, Consumer<List<Long>> invalidate) {
+        if (since != null) {
+            List<Long> changed = findIdsUpdatedAfter.apply(since.minus(POLL_OVERLAP));
+            if (!changed.isEmpty()) {
+                invalidate.accept(changed);
+            }
+        }
+        LocalDateTime newest = findLastUpdated.get();
+        return newest != null && (since == null || newest.isAfter(since)) ? newest : since;
+    }
+
+    // Caller holds the lock
+    private void admit(Node candidate) {
+        long room = maxWeight - windowMaxWeight;
+        if (mainWeight + candidate.weight() <= room) {
+            main.put(candidate.passengerId, candidate);
+            mainWeight += candidate.weight();
+            return;
+        }
+        int candidateFrequency = sketch.frequency(candidate.passengerId);
+        Iterator<Node> victims = main.values().iterator();
+        while (mainWeight + candidate.weight() > room && victims.hasNext()) {
+            Node victim = victims.next();
+            if (sketch.frequency(victim.passengerId) >= candidateFrequency) {
+                // The victim is read at least as often, so the candidate is the one to go
+                evictions.increment();
+                return;
+            }
+            victims.remove();
+            mainWeight -= victim.weight();
+            evictions.increment();
+        }
+        main.put(candidate.passengerId, candidate);
+        mainWeight += candidate.weight();
+    }
+
+    // Caller holds the lock
+    private void remove(Long passengerId) {
+        Node node = window.remove(passengerId);
+        if (node != null) {
+            windowWeight -= node.weight();
+        }
+        node = main.remove(passengerId);
+        if (node != null) {
+            mainWeight -= node.weight();
+        }
+    }
+
+    private static Node removeEldest(LinkedHashMap<Long, Node> area) {
+        Iterator<Node> eldest = area.values().iterator();
+        Node node = eldest.next();
+        eldest.remove();
+        return node;
+    }
+
+    private record Node(Long passengerId, RecentTrips trips, Instant expiresAt) {
+        long weight() {
+            return trips.weight();
+        }
+    }
+
+    /**
+     * A passenger's most recent trips, newest first. The DTOs are shared between requests
+     * and must not be modified.
+     * @param trips the trips
+     * @param complete true if these are all of the passenger's trips
+     */
+    public record RecentTrips(List<TravelHistoryDto> trips, boolean complete) {
+
+        public RecentTrips {
+            trips = List.copyOf(trips);
+        }
+
+        /**
+         * @param cutoffDate the earliest travel date wanted
+         * @return true if every trip on or after the date is held here
+         */
+        public boolean covers(LocalDate cutoffDate) {
+            if (complete) {
+                return true;
+            }
+            LocalDate oldest = trips.isEmpty() ? null : trips.get(trips.size() - 1).getTravelDate();
+            return oldest != null && oldest.isBefore(cutoffDate);
+        }
+
+        /**
+         * @param cutoffDate the earliest travel date wanted
+         * @return the trips on or after the date
+         */
+        public List<TravelHistoryDto> since(LocalDate cutoffDate) {
+            return trips.stream()
+                    .filter(trip -> trip.getTravelDate() != null && !trip.getTravelDate().isBefore(cutoffDate))
+                    .toList();
+        }
+
+        long weight() {
+            return trips.size() + 1L;
+        }
+    }
+
+    /**
+     * Count-min sketch of how often each passenger was looked up recently, four 4-bit
+     * counters per passenger, all halved once the sample fills so old popularity fades
+     */
+    private static final class FrequencySketch {
+
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97cb3127, 0xb1a1c5f9, 0x6c8e9cf5, 0xdb5ee0b3};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(long expectedEntries) {
+            int width = Integer.highestOneBit((int) Math.min(1 << 24, Math.max(64, expectedEntries)) * 2 - 1);
+            this.counters = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = width * 10;
+        }
+
+        void increment(Long key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (byte[] row : counters) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] >>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(Long key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, counters[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            return spread(hash * SEEDS[row]) & mask;
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 17;
+            hash *= 0xed5ad4bb;
+            hash ^= hash >>> 11;
+            hash *= 0xac4c1b51;
+            return hash ^ (hash >>> 15);
+        }
+    }
+}
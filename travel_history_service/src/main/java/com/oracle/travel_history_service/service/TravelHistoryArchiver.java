@@ -0,0 +1,231 @@
+package com.oracle.travel_history_service.service;
+
+import com.oracle.travel_history_service.dto.ArchiveStatusDto;
+import com.oracle.travel_history_service.entity.ArchivedTravelHistory;
+import com.oracle.travel_history_service.exception.TravelHistoryException;
+import com.oracle.travel_history_service.repository.TravelHistoryArchiveRepository;
+import com.oracle.travel_history_service.repository.TravelHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class that moves old travel history into the archive tier.
+ *
+ * Completed and cancelled trips that travelled more than app.archive.horizon-days ago
+ * never change again, so every app.archive.interval-minutes they are copied into
+ * travel_history_archive and deleted from travel_history, app.archive.chunk-size records
+ * per transaction. A run that fails part way keeps the chunks it committed and the next
+ * run carries on from there. The hot table stays small for the writes and recent reads;
+ * TravelHistoryRepository merges the archive back into the reads that reach past the
+ * horizon. Travel statistics already count both tiers, so moving records leaves them as
+ * they are.
+ *
+ * The tier sizes, the records due for the archive and the records moved are published
+ * as travel_history.rows, travel_history.archive.pending and travel_history.archive.moved.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TravelHistoryArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravelHistoryArchiver.class);
+    // Keeps IN lists under Oracle's 1000
+    private static final int MAX_CHUNK_SIZE = 1000;
+
+    private final TravelHistoryRepository travelHistoryRepository;
+    private final TravelHistoryArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int horizonDays;
+    private final int chunkSize;
+    private final Duration interval;
+    private final Counter movedCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong hotRows = new AtomicLong();
+    private final AtomicLong archivedRows = new AtomicLong();
+    private final AtomicLong pendingRows = new AtomicLong();
+    private volatile LocalDateTime lastRunStarted;
+    private volatile LocalDateTime lastRunFinished;
+    private volatile long lastRunMoved;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public TravelHistoryArchiver(TravelHistoryRepository travelHistoryRepository,
+                                 TravelHistoryArchiveRepository archiveRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.archive.horizon-days:365}") int horizonDays,
+                                 @Value("${app.archive.chunk-size:500}") int chunkSize,
+                                 @Value("${app.archive.interval-minutes:60}") long intervalMinutes) {
+        this(travelHistoryRepository, archiveRepository, transactionManager, meterRegistry,
+                Clock.systemDefaultZone(), horizonDays, chunkSize, Duration.ofMinutes(intervalMinutes));
+    }
+
+    TravelHistoryArchiver(TravelHistoryRepository travelHistoryRepository,
+                          TravelHistoryArchiveRepository archiveRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          Clock clock, int horizonDays, int chunkSize, Duration interval) {
+        this.travelHistoryRepository = travelHistoryRepository;
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.horizonDays = Math.max(0, horizonDays);
+        this.chunkSize = Math.min(Math.max(1, chunkSize), MAX_CHUNK_SIZE);
+        this.interval = interval;
+        Gauge.builder("travel_history.rows", hotRows, AtomicLong::get)
+                .description("Travel history records per tier").tag("tier", "hot").register(meterRegistry);
+        Gauge.builder("travel_history.rows", archivedRows, AtomicLong::get)
+                .description("Travel history records per tier").tag("tier", "archive").register(meterRegistry);
+        Gauge.builder("travel_history.archive.pending", pendingRows, AtomicLong::get)
+                .description("Travel history records due for the archive").register(meterRegistry);
+        this.movedCounter = Counter.builder("travel_history.archive.moved")
+                .description("Travel history records moved to the archive").register(meterRegistry);
+    }
+
+    /**
+     * Start archiving every interval, beginning now (an interval of 0 disables archiving)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (scheduler != null || interval.isZero()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "travel-history-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::archiveQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Move the completed and cancelled records that travelled before the horizon into the
+     * archive, one chunk per transaction
+     * @return the number of records moved
+     * @throws TravelHistoryException if a run is already in progress
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long archive() {
+        if (!running.compareAndSet(false, true)) {
+            throw TravelHistoryException.businessRuleViolation("An archive run is already in progress");
+        }
+        LocalDate horizon = horizon();
+        long moved = 0;
+        long started = System.nanoTime();
+        lastRunStarted = LocalDateTime.now(clock);
+        lastRunMoved = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Integer chunk = transactionTemplate.execute(status -> moveChunk(horizon));
+                if (chunk == null || chunk == 0) {
+                    break;
+                }
+                moved += chunk;
+                lastRunMoved = moved;
+                movedCounter.increment(chunk);
+            }
+            if (moved > 0) {
+                logger.info("Archived {} travel history records before {} in {} ms", moved, horizon,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+            return moved;
+        } finally {
+            lastRunFinished = LocalDateTime.now(clock);
+            running.set(false);
+            try {
+                updateSizes(horizon);
+            } catch (DataAccessException e) {
+                logger.warn("Could not count travel history tiers: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the state of the archive
+     * @return tier sizes and archiver progress
+     */
+    public ArchiveStatusDto getStatus() {
+        LocalDate horizon = horizon();
+        updateSizes(horizon);
+
+        ArchiveStatusDto status = new ArchiveStatusDto();
+        status.setHorizon(horizon);
+        status.setHotRows(hotRows.get());
+        status.setArchivedRows(archivedRows.get());
+        status.setPendingRows(pendingRows.get());
+        status.setMovedTotal((long) movedCounter.count());
+        status.setRunning(running.get());
+        status.setLastRunStarted(lastRunStarted);
+        status.setLastRunFinished(lastRunFinished);
+        status.setLastRunMoved(lastRunMoved);
+        return status;
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (DataAccessException | TravelHistoryException e) {
+            // Committed chunks stay archived; the rest is picked up by the next run
+            logger.warn("Could not archive travel history: {}", e.getMessage());
+        }
+    }
+
+    private int moveChunk(LocalDate horizon) {
+        List<Long> ids = travelHistoryRepository.findArchivableIds(horizon, ArchivedTravelHistory.STATUSES,
+                Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = archiveRepository.copyFromHistory(ids);
+        int deleted = travelHistoryRepository.deleteByHistoryIdIn(ids);
+        if (copied != ids.size() || deleted != ids.size()) {
+            // Rolls the chunk back rather than lose or duplicate a record
+            throw TravelHistoryException.internalError("Archived " + copied + " and deleted " + deleted +
+                    " of " + ids.size() + " travel history records", null);
+        }
+        return ids.size();
+    }
+
+    private void updateSizes(LocalDate horizon) {
+        hotRows.set(travelHistoryRepository.count());
+        archivedRows.set(archiveRepository.count());
+        pendingRows.set(travelHistoryRepository.countArchivable(horizon, ArchivedTravelHistory.STATUSES));
+    }
+
+    private LocalDate horizon() {
+        return LocalDate.now(clock).minusDays(horizonDays);
+    }
+}
@@ -0,0 +1,307 @@
+package com.oracle.travel_history_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.oracle.travel_history_service.dto.BatchIngestResultDto;
+import com.oracle.travel_history_service.dto.TravelHistoryDto;
+import com.oracle.travel_history_service.entity.TravelHistory;
+import com.oracle.travel_history_service.exception.TravelHistoryException;
+import com.oracle.travel_history_service.repository.FlightRepository;
+import com.oracle.travel_history_service.repository.PassengerRepository;
+import com.oracle.travel_history_service.repository.TravelHistoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for ingesting travel history in bulk.
+ *
+ * The request body is newline-delimited JSON, one travel history record per line, and is
+ * read as a stream, so a batch never has to fit in memory. Records are checked on their
+ * own first, then written in chunks of app.ingest.chunk-size, each in a transaction of its
+ * own: one query per chunk finds the booking references already recorded, one the
+ * passengers and one the flights that exist, and the remaining records are inserted with
+ * JDBC batching and IDs from the pooled sequence. A booking reference that is already
+ * recorded counts as a duplicate rather than an error, so a client can safely send a
+ * batch again after a failure. A chunk that collides with a concurrent request on a
+ * booking reference is retried once, and then sees that request's rows as duplicates.
+ */
+@Service
+public class TravelHistoryIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravelHistoryIngestService.class);
+    private static final Set<String> STATUSES = Set.of("Completed", "Checked-in", "Cancelled", "Pending", "Booked");
+    private static final String DEFAULT_STATUS = "Completed";
+
+    private final TravelHistoryRepository travelHistoryRepository;
+    private final PassengerRepository passengerRepository;
+    private final FlightRepository flightRepository;
+    private final TravelStatsService travelStatsService;
+    private final TravelHistoryService travelHistoryService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader recordReader;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @Autowired
+    public TravelHistoryIngestService(TravelHistoryRepository travelHistoryRepository,
+                                      PassengerRepository passengerRepository,
+                                      FlightRepository flightRepository,
+                                      TravelStatsService travelStatsService,
+                                      TravelHistoryService travelHistoryService,
+                                      EntityManager entityManager,
+                                      PlatformTransactionManager transactionManager,
+                                      ObjectMapper objectMapper,
+                                      Validator validator,
+                                      @Value("${app.ingest.chunk-size:500}") int chunkSize,
+                                      @Value("${app.ingest.max-errors:1000}") int maxErrors) {
+        this.travelHistoryRepository = travelHistoryRepository;
+        this.passengerRepository = passengerRepository;
+        this.flightRepository = flightRepository;
+        this.travelStatsService = travelStatsService;
+        this.travelHistoryService = travelHistoryService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recordReader = objectMapper.readerFor(TravelHistoryDto.class);
+        this.validator = validator;
+        // Oracle accepts at most 1000 values in an IN list
+        this.chunkSize = Math.max(1, Math.min(chunkSize, 1000));
+        this.maxErrors = Math.max(0, maxErrors);
+    }
+
+    /**
+     * Ingest a batch of travel history records
+     * @param body newline-delimited JSON, one record per line; blank lines are skipped
+     * @return counts of the records inserted, skipped as duplicates and rejected
+     * @throws TravelHistoryException if the body holds no records or cannot be read
+     */
+    public BatchIngestResultDto ingest(InputStream body) {
+        long started = System.nanoTime();
+        BatchIngestResultDto result = new BatchIngestResultDto();
+        // Booking references seen earlier in this batch
+        Set<String> seen = new HashSet<>();
+        List<Candidate> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                result.setReceived(result.getReceived() + 1);
+                Candidate candidate = parse(line, text, result);
+                if (candidate == null) {
+                    continue;
+                }
+                if (!seen.add(candidate.record().getBookingReference())) {
+                    result.setDuplicates(result.getDuplicates() + 1);
+                    continue;
+                }
+                chunk.add(candidate);
+                if (chunk.size() >= chunkSize) {
+                    write(chunk, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                write(chunk, result);
+            }
+        } catch (IOException e) {
+            // Chunks already written stay; sending the batch again skips them as duplicates
+            throw TravelHistoryException.validationError("Could not read the request body: " + e.getMessage());
+        }
+
+        if (result.getReceived() == 0) {
+            throw TravelHistoryException.validationError("Request body contains no travel history records");
+        }
+        // Parse errors are recorded before chunk errors; report them in line order
+        result.getErrors().sort(Comparator.comparingLong(BatchIngestResultDto.RecordError::getLine));
+        result.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        logger.info("Ingested travel history batch: {} received, {} inserted, {} duplicates, {} rejected in {} ms",
+                result.getReceived(), result.getInserted(), result.getDuplicates(), result.getRejected(),
+                result.getElapsedMs());
+        return result;
+    }
+
+    private Candidate parse(long line, String text, BatchIngestResultDto result) {
+        TravelHistoryDto dto;
+        try {
+            dto = recordReader.readValue(text);
+        } catch (JsonProcessingException e) {
+            reject(result, line, null, "Invalid JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (dto == null) {
+            reject(result, line, null, "Record is not a JSON object");
+            return null;
+        }
+
+        TravelHistory record = new TravelHistory();
+        record.setPassengerId(dto.getPassengerId());
+        record.setFlightId(dto.getFlightId());
+        record.setTravelDate(dto.getTravelDate());
+        record.setOrigin(trim(dto.getOrigin()));
+        record.setDestination(trim(dto.getDestination()));
+        record.setSeat(trim(dto.getSeat()));
+        record.setBookingReference(trim(dto.getBookingReference()));
+        record.setFareClass(trim(dto.getFareClass()));
+        record.setStatus(dto.getStatus() != null ? dto.getStatus().trim() : DEFAULT_STATUS);
+        record.setDistanceKm(dto.getDistanceKm());
+        record.setDurationMin(dto.getDurationMin());
+        record.setNotes(dto.getNotes());
+
+        List<String> problems = validator.validate(record).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (!STATUSES.contains(record.getStatus())) {
+            problems.add("status must be one of " + STATUSES.stream().sorted().toList());
+        }
+        if (isNegative(record.getDistanceKm()) || isNegative(record.getDurationMin())) {
+            problems.add("distanceKm and durationMin must not be negative");
+        }
+        if (!problems.isEmpty()) {
+            reject(result, line, record.getBookingReference(), String.join(", ", problems));
+            return null;
+        }
+        return new Candidate(line, record);
+    }
+
+    private void write(List<Candidate> chunk, BatchIngestResultDto result) {
+        ChunkOutcome outcome;
+        try {
+            outcome = insertChunk(chunk);
+        } catch (DataIntegrityViolationException first) {
+            logger.debug("Travel history chunk collided with a concurrent write, retrying: {}", first.getMessage());
+            try {
+                outcome = insertChunk(chunk);
+            } catch (DataAccessException e) {
+                logger.warn("Could not insert travel history chunk: {}", e.getMessage());
+                chunk.forEach(candidate -> reject(result, candidate.line(), candidate.record().getBookingReference(),
+                        "Could not be inserted; send the batch again"));
+                return;
+            }
+        }
+
+        result.setInserted(result.getInserted() + outcome.inserted);
+        result.setDuplicates(result.getDuplicates() + outcome.duplicates);
+        outcome.errors.forEach(error -> reject(result, error.getLine(), error.getBookingReference(), error.getMessage()));
+        if (!outcome.passengerIds.isEmpty()) {
+            try {
+                travelStatsService.refresh(outcome.passengerIds);
+            } catch (DataAccessException e) {
+                // The history is stored; the stats poll picks these passengers up
+                logger.warn("Could not refresh travel statistics after ingestion: {}", e.getMessage());
+            }
+            try {
+                travelHistoryService.cacheInserted(outcome.records);
+            } catch (DataAccessException e) {
+                // The passengers' cached entries were dropped, so their next read loads them
+                logger.warn("Could not update the recent history cache after ingestion: {}", e.getMessage());
+            }
+        }
+    }
+
+    private ChunkOutcome insertChunk(List<Candidate> chunk) {
+        return transactionTemplate.execute(status -> {
+            Set<String> references = new HashSet<>();
+            Set<Long> passengerIds = new HashSet<>();
+            Set<Long> flightIds = new HashSet<>();
+            for (Candidate candidate : chunk) {
+                references.add(candidate.record().getBookingReference());
+                passengerIds.add(candidate.record().getPassengerId());
+                flightIds.add(candidate.record().getFlightId());
+            }
+            Set<String> recorded = new HashSet<>(travelHistoryRepository.findExistingBookingReferences(references));
+            Set<Long> passengers = new HashSet<>(passengerRepository.findExistingIds(passengerIds));
+            Set<Long> flights = new HashSet<>(flightRepository.findExistingIds(flightIds));
+
+            ChunkOutcome outcome = new ChunkOutcome();
+            for (Candidate candidate : chunk) {
+                TravelHistory record = candidate.record();
+                if (recorded.contains(record.getBookingReference())) {
+                    outcome.duplicates++;
+                } else if (!passengers.contains(record.getPassengerId())) {
+                    outcome.errors.add(new BatchIngestResultDto.RecordError(candidate.line(),
+                            record.getBookingReference(), "Passenger not found with ID: " + record.getPassengerId()));
+                } else if (!flights.contains(record.getFlightId())) {
+                    outcome.errors.add(new BatchIngestResultDto.RecordError(candidate.line(),
+                            record.getBookingReference(), "Flight not found with ID: " + record.getFlightId()));
+                } else {
+                    // A fresh copy, so a retried chunk never persists an entity that already holds an ID
+                    TravelHistory copy = copyOf(record);
+                    entityManager.persist(copy);
+                    outcome.records.add(copy);
+                    outcome.inserted++;
+                    outcome.passengerIds.add(record.getPassengerId());
+                }
+            }
+            // Sent in JDBC batches as the transaction commits
+            return outcome;
+        });
+    }
+
+    private void reject(BatchIngestResultDto result, long line, String bookingReference, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new BatchIngestResultDto.RecordError(line, bookingReference, message));
+        }
+    }
+
+    private static TravelHistory copyOf(TravelHistory record) {
+        TravelHistory copy = new TravelHistory(record.getPassengerId(), record.getFlightId(), record.getTravelDate(),
+                record.getOrigin(), record.getDestination(), record.getBookingReference());
+        copy.setSeat(record.getSeat());
+        copy.setFareClass(record.getFareClass());
+        copy.setStatus(record.getStatus());
+        copy.setDistanceKm(record.getDistanceKm());
+        copy.setDurationMin(record.getDurationMin());
+        copy.setNotes(record.getNotes());
+        return copy;
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : null;
+    }
+
+    private static boolean isNegative(Integer value) {
+        return value != null && value < 0;
+    }
+
+    private record Candidate(long line, TravelHistory record) {}
+
+    private static final class ChunkOutcome {
+        private long inserted;
+        private long duplicates;
+        private final List<BatchIngestResultDto.RecordError> errors = new ArrayList<>();
+        private final Set<Long> passengerIds = new LinkedHashSet<>();
+        private final List<TravelHistory> records = new ArrayList<>();
+    }
+}
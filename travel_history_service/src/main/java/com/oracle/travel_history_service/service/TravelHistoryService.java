@@ -1,11 +1,10 @@
 package com.oracle.travel_history_service.service;
 
 import com.oracle.travel_history_service.dto.*;
-import com.oracle.travel_history_service.entity.Flight;
-import com.oracle.travel_history_service.entity.Passenger;
 import com.oracle.travel_history_service.entity.TravelHistory;
 import com.oracle.travel_history_service.repository.FlightRepository;
 import com.oracle.travel_history_service.repository.PassengerRepository;
+import com.oracle.travel_history_service.repository.ResourceVersion;
 import com.oracle.travel_history_service.repository.TravelHistoryRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,30 +13,52 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * Service class for travel history operations
+ * Service class for travel history operations.
+ *
+ * Every method runs in a read-only transaction, so the Hibernate session is read-only
+ * with manual flushing. Passengers and flights belong to other services and are only
+ * read here, as summary projections rather than entities.
+ *
+ * The passenger and recent history reads are served from RecentHistoryCache where it
+ * holds the trips they need. Entries are cached with every section embedded and copied
+ * without the sections a request leaves out, so one entry serves every include. Only
+ * requests for every section fill the cache, so the others still never look up the
+ * sections they leave out.
  */
 @Service
 @Transactional(readOnly = true)
 public class TravelHistoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(TravelHistoryService.class);
+    private static final int RECENT_TRAVEL_DAYS = 30;
+    private static final int SUMMARY_BATCH_SIZE = 500;
 
     private final TravelHistoryRepository travelHistoryRepository;
     private final PassengerRepository passengerRepository;
     private final FlightRepository flightRepository;
+    private final RecentHistoryCache recentHistoryCache;
 
     @Autowired
     public TravelHistoryService(TravelHistoryRepository travelHistoryRepository,
                                PassengerRepository passengerRepository,
-                               FlightRepository flightRepository) {
+                               FlightRepository flightRepository,
+                               RecentHistoryCache recentHistoryCache) {
         this.travelHistoryRepository = travelHistoryRepository;
         this.passengerRepository = passengerRepository;
         this.flightRepository = flightRepository;
+        this.recentHistoryCache = recentHistoryCache;
     }
 
     /**
@@ -46,29 +67,51 @@ public class TravelHistoryService {
      * @return travel history response
      */
     public TravelHistoryResponseDto getTravelHistoryByPassenger(Long passengerId) {
+        return getTravelHistoryByPassenger(passengerId, Enrichment.ALL);
+    }
+
+    /**
+     * Get travel history by passenger ID
+     * @param passengerId the passenger ID
+     * @param include the sections to embed in each record
+     * @return travel history response
+     */
+    public TravelHistoryResponseDto getTravelHistoryByPassenger(Long passengerId, Set<Enrichment> include) {
         logger.info("Fetching travel history for passenger ID: {}", passengerId);
 
         try {
-            // Check if passenger exists
-            Optional<Passenger> passengerOpt = passengerRepository.findById(passengerId);
-            if (passengerOpt.isEmpty()) {
-                logger.warn("Passenger not found with ID: {}", passengerId);
-                return TravelHistoryResponseDto.notFound("Passenger not found with ID: " + passengerId);
+            List<TravelHistoryDto> travelHistoryDtos;
+            Optional<RecentHistoryCache.RecentTrips> cached = recentHistoryCache.get(passengerId,
+                    RecentHistoryCache.RecentTrips::complete);
+            if (cached.isPresent()) {
+                travelHistoryDtos = withSections(cached.get().trips(), include);
+            } else {
+                long generation = recentHistoryCache.generation();
+
+                // Check if passenger exists
+                if (!passengerRepository.existsById(passengerId)) {
+                    logger.warn("Passenger not found with ID: {}", passengerId);
+                    return TravelHistoryResponseDto.notFound("Passenger not found with ID: " + passengerId);
+                }
+
+                List<TravelHistory> travelHistoryList = travelHistoryRepository
+                        .findByPassengerIdOrderByTravelDateDesc(passengerId);
+
+                if (include.containsAll(Enrichment.ALL)
+                        && travelHistoryList.size() <= recentHistoryCache.getTripsPerPassenger()) {
+                    travelHistoryDtos = convertToDtos(travelHistoryList, Enrichment.ALL);
+                    recentHistoryCache.put(passengerId, travelHistoryDtos, true, generation);
+                } else {
+                    travelHistoryDtos = convertToDtos(travelHistoryList, include);
+                }
             }
 
-            List<TravelHistory> travelHistoryList = travelHistoryRepository
-                    .findByPassengerIdOrderByTravelDateDesc(passengerId);
-
-            if (travelHistoryList.isEmpty()) {
+            if (travelHistoryDtos.isEmpty()) {
                 logger.info("No travel history found for passenger ID: {}", passengerId);
                 return TravelHistoryResponseDto.success("No travel history found for passenger", 
                         List.of(), "passenger", passengerId.toString());
             }
 
-            List<TravelHistoryDto> travelHistoryDtos = travelHistoryList.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
-
             logger.info("Found {} travel history records for passenger ID: {}", 
                     travelHistoryDtos.size(), passengerId);
 
@@ -91,6 +134,17 @@ public class TravelHistoryService {
      * @return travel history response
      */
     public TravelHistoryResponseDto getTravelHistoryByBookingReference(String bookingReference) {
+        return getTravelHistoryByBookingReference(bookingReference, Enrichment.ALL);
+    }
+
+    /**
+     * Get travel history by booking reference
+     * @param bookingReference the booking reference
+     * @param include the sections to embed in each record
+     * @return travel history response
+     */
+    public TravelHistoryResponseDto getTravelHistoryByBookingReference(String bookingReference,
+                                                                       Set<Enrichment> include) {
         logger.info("Fetching travel history for booking reference: {}", bookingReference);
 
         try {
@@ -102,7 +156,7 @@ public class TravelHistoryService {
                 return TravelHistoryResponseDto.notFound("Travel history not found for booking reference: " + bookingReference);
             }
 
-            TravelHistoryDto travelHistoryDto = convertToDto(travelHistoryOpt.get());
+            TravelHistoryDto travelHistoryDto = convertToDtos(List.of(travelHistoryOpt.get()), include).get(0);
 
             logger.info("Found travel history for booking reference: {}", bookingReference);
 
@@ -125,12 +179,21 @@ public class TravelHistoryService {
      * @return travel history response
      */
     public TravelHistoryResponseDto getTravelHistoryByFlight(Long flightId) {
+        return getTravelHistoryByFlight(flightId, Enrichment.ALL);
+    }
+
+    /**
+     * Get travel history by flight ID
+     * @param flightId the flight ID
+     * @param include the sections to embed in each record
+     * @return travel history response
+     */
+    public TravelHistoryResponseDto getTravelHistoryByFlight(Long flightId, Set<Enrichment> include) {
         logger.info("Fetching travel history for flight ID: {}", flightId);
 
         try {
             // Check if flight exists
-            Optional<Flight> flightOpt = flightRepository.findById(flightId);
-            if (flightOpt.isEmpty()) {
+            if (!flightRepository.existsById(flightId)) {
                 logger.warn("Flight not found with ID: {}", flightId);
                 return TravelHistoryResponseDto.notFound("Flight not found with ID: " + flightId);
             }
@@ -144,9 +207,7 @@ public class TravelHistoryService {
                         List.of(), "flight", flightId.toString());
             }
 
-            List<TravelHistoryDto> travelHistoryDtos = travelHistoryList.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            List<TravelHistoryDto> travelHistoryDtos = convertToDtos(travelHistoryList, include);
 
             logger.info("Found {} travel history records for flight ID: {}", 
                     travelHistoryDtos.size(), flightId);
@@ -170,16 +231,35 @@ public class TravelHistoryService {
      * @return travel history response
      */
     public TravelHistoryResponseDto getRecentTravelHistory(Long passengerId) {
+        return getRecentTravelHistory(passengerId, Enrichment.ALL);
+    }
+
+    /**
+     * Get recent travel history for a passenger (last 30 days)
+     * @param passengerId the passenger ID
+     * @param include the sections to embed in each record
+     * @return travel history response
+     */
+    public TravelHistoryResponseDto getRecentTravelHistory(Long passengerId, Set<Enrichment> include) {
         logger.info("Fetching recent travel history for passenger ID: {}", passengerId);
 
         try {
-            LocalDate cutoffDate = LocalDate.now().minusDays(30);
-            List<TravelHistory> travelHistoryList = travelHistoryRepository
-                    .findRecentTravelHistory(passengerId, cutoffDate);
+            LocalDate cutoffDate = LocalDate.now().minusDays(RECENT_TRAVEL_DAYS);
+            Optional<RecentHistoryCache.RecentTrips> cached = recentHistoryCache.get(passengerId,
+                    trips -> trips.covers(cutoffDate));
+            RecentHistoryCache.RecentTrips recentTrips = cached.orElse(null);
+            if (recentTrips == null && include.containsAll(Enrichment.ALL)) {
+                recentTrips = loadRecentTrips(passengerId);
+            }
 
-            List<TravelHistoryDto> travelHistoryDtos = travelHistoryList.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            List<TravelHistoryDto> travelHistoryDtos;
+            if (recentTrips != null && recentTrips.covers(cutoffDate)) {
+                travelHistoryDtos = withSections(recentTrips.since(cutoffDate), include);
+            } else {
+                // Not cached, or more trips in the window than the cache keeps per passenger
+                travelHistoryDtos = convertToDtos(travelHistoryRepository
+                        .findRecentTravelHistory(passengerId, cutoffDate), include);
+            }
 
             return TravelHistoryResponseDto.success(
                     "Recent travel history retrieved successfully", 
@@ -201,15 +281,25 @@ public class TravelHistoryService {
      * @return travel history response
      */
     public TravelHistoryResponseDto getTravelHistoryByStatus(Long passengerId, String status) {
+        return getTravelHistoryByStatus(passengerId, status, Enrichment.ALL);
+    }
+
+    /**
+     * Get travel history by passenger ID and status
+     * @param passengerId the passenger ID
+     * @param status the status
+     * @param include the sections to embed in each record
+     * @return travel history response
+     */
+    public TravelHistoryResponseDto getTravelHistoryByStatus(Long passengerId, String status,
+                                                             Set<Enrichment> include) {
         logger.info("Fetching travel history for passenger ID: {} with status: {}", passengerId, status);
 
         try {
             List<TravelHistory> travelHistoryList = travelHistoryRepository
                     .findByPassengerIdAndStatusOrderByTravelDateDesc(passengerId, status);
 
-            List<TravelHistoryDto> travelHistoryDtos = travelHistoryList.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            List<TravelHistoryDto> travelHistoryDtos = convertToDtos(travelHistoryList, include);
 
             TravelHistoryResponseDto response = TravelHistoryResponseDto.success(
                     "Travel history retrieved successfully", 
@@ -233,6 +323,15 @@ public class TravelHistoryService {
      * @return travel history response with all records
      */
     public TravelHistoryResponseDto getAllTravelHistory() {
+        return getAllTravelHistory(Enrichment.ALL);
+    }
+
+    /**
+     * Get all travel history records (for admin dashboard)
+     * @param include the sections to embed in each record
+     * @return travel history response with all records
+     */
+    public TravelHistoryResponseDto getAllTravelHistory(Set<Enrichment> include) {
         logger.info("Fetching all travel history records");
 
         try {
@@ -254,9 +353,7 @@ public class TravelHistoryService {
             });
 
             logger.info("Converting {} records to DTOs", travelHistoryList.size());
-            List<TravelHistoryDto> travelHistoryDtos = travelHistoryList.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+            List<TravelHistoryDto> travelHistoryDtos = convertToDtos(travelHistoryList, include);
 
             logger.info("Successfully converted {} travel history records to DTOs", travelHistoryDtos.size());
 
@@ -273,12 +370,185 @@ public class TravelHistoryService {
         }
     }
 
+    /**
+     * Get the version fingerprint of all travel history records
+     * @return count and newest change time
+     */
+    public ResourceVersion getAllTravelHistoryVersion() {
+        return travelHistoryRepository.findVersion();
+    }
+
+    /**
+     * Get the version fingerprint of a passenger's travel history
+     * @param passengerId the passenger ID
+     * @return count and newest change time
+     */
+    public ResourceVersion getTravelHistoryVersionByPassenger(Long passengerId) {
+        return travelHistoryRepository.findVersionByPassengerId(passengerId);
+    }
+
+    /**
+     * Get the version fingerprint of a passenger's recent travel history.
+     * Records leaving the window lower the count, so the tag moves as days pass.
+     * @param passengerId the passenger ID
+     * @return count and newest change time
+     */
+    public ResourceVersion getRecentTravelHistoryVersion(Long passengerId) {
+        LocalDate cutoffDate = LocalDate.now().minusDays(RECENT_TRAVEL_DAYS);
+        return travelHistoryRepository.findRecentVersionByPassengerId(passengerId, cutoffDate);
+    }
+
+    /**
+     * Get the version fingerprint of a flight's travel history
+     * @param flightId the flight ID
+     * @return count and newest change time
+     */
+    public ResourceVersion getTravelHistoryVersionByFlight(Long flightId) {
+        return travelHistoryRepository.findVersionByFlightId(flightId);
+    }
+
+    /**
+     * Get the version fingerprint of a booking
+     * @param bookingReference the booking reference
+     * @return count and newest change time
+     */
+    public ResourceVersion getTravelHistoryVersionByBookingReference(String bookingReference) {
+        return travelHistoryRepository.findVersionByBookingReference(bookingReference);
+    }
+
+    /**
+     * Update the recent history cache with newly recorded trips. Only passengers that are
+     * cached are converted; if that fails their entries are dropped instead.
+     * @param records the trips, as persisted
+     */
+    public void cacheInserted(List<TravelHistory> records) {
+        Set<Long> cached = recentHistoryCache.beginWrite(records.stream()
+                .map(TravelHistory::getPassengerId).collect(Collectors.toSet()));
+        if (cached.isEmpty()) {
+            return;
+        }
+        try {
+            List<TravelHistory> cachedRecords = records.stream()
+                    .filter(record -> cached.contains(record.getPassengerId()))
+                    .toList();
+            convertToDtos(cachedRecords, Enrichment.ALL).stream()
+                    .collect(Collectors.groupingBy(TravelHistoryDto::getPassengerId))
+                    .forEach(recentHistoryCache::merge);
+        } catch (RuntimeException e) {
+            recentHistoryCache.invalidatePassengers(cached);
+            throw e;
+        }
+    }
+
+    /**
+     * Load a passenger's most recent trips and cache them. One trip more than the cache
+     * keeps is read to tell whether the rest is the whole history.
+     * @param passengerId the passenger ID
+     * @return the trips, whether or not they could be cached
+     */
+    private RecentHistoryCache.RecentTrips loadRecentTrips(Long passengerId) {
+        long generation = recentHistoryCache.generation();
+        int limit = recentHistoryCache.getTripsPerPassenger();
+        List<TravelHistory> travelHistoryList = travelHistoryRepository.findRecentByPassengerId(passengerId, limit + 1);
+        boolean complete = travelHistoryList.size() <= limit;
+        List<TravelHistoryDto> trips = convertToDtos(complete ? travelHistoryList
+                : travelHistoryList.subList(0, limit), Enrichment.ALL);
+        if (trips.isEmpty()) {
+            // Not cached, as the passenger may not exist and the passenger endpoint answers 404 for those
+            return new RecentHistoryCache.RecentTrips(trips, true);
+        }
+        return recentHistoryCache.put(passengerId, trips, complete, generation);
+    }
+
+    /**
+     * Copy cached DTOs without the sections a request leaves out. The cached DTOs are
+     * shared and returned as they are when every section is wanted.
+     * @param trips the cached DTOs, with every section embedded
+     * @param include the sections to embed
+     * @return the DTOs to return
+     */
+    private static List<TravelHistoryDto> withSections(List<TravelHistoryDto> trips, Set<Enrichment> include) {
+        if (include.containsAll(Enrichment.ALL)) {
+            return trips;
+        }
+        return trips.stream().map(trip -> {
+            TravelHistoryDto copy = new TravelHistoryDto(trip.getHistoryId(), trip.getPassengerId(),
+                    trip.getFlightId(), trip.getTravelDate(), trip.getOrigin(), trip.getDestination(),
+                    trip.getBookingReference(), trip.getStatus());
+            copy.setSeat(trip.getSeat());
+            copy.setFareClass(trip.getFareClass());
+            copy.setDistanceKm(trip.getDistanceKm());
+            copy.setDurationMin(trip.getDurationMin());
+            copy.setNotes(trip.getNotes());
+            copy.setCreatedAt(trip.getCreatedAt());
+            copy.setPassenger(include.contains(Enrichment.PASSENGER) ? trip.getPassenger() : null);
+            copy.setFlight(include.contains(Enrichment.FLIGHT) ? trip.getFlight() : null);
+            return copy;
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Convert TravelHistory entities to DTOs. The embedded passenger and flight summaries
+     * are loaded with one projection query each per batch of IDs, rather than two lookups
+     * per record, and only for the sections requested.
+     * @param travelHistoryList the travel history entities
+     * @param include the sections to embed
+     * @return travel history DTOs, in the same order
+     */
+    private List<TravelHistoryDto> convertToDtos(List<TravelHistory> travelHistoryList, Set<Enrichment> include) {
+        if (travelHistoryList.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> passengerIds = new HashSet<>();
+        Set<Long> flightIds = new HashSet<>();
+        for (TravelHistory travelHistory : travelHistoryList) {
+            passengerIds.add(travelHistory.getPassengerId());
+            flightIds.add(travelHistory.getFlightId());
+        }
+        passengerIds.remove(null);
+        flightIds.remove(null);
+
+        Map<Long, PassengerSummaryDto> passengers = passengerIds.isEmpty() || !include.contains(Enrichment.PASSENGER)
+                ? Collections.emptyMap()
+                : findInBatches(passengerIds, passengerRepository::findSummariesByIdIn).stream()
+                .collect(Collectors.toMap(PassengerSummaryDto::getPassengerId, Function.identity()));
+        Map<Long, FlightSummaryDto> flights = flightIds.isEmpty() || !include.contains(Enrichment.FLIGHT)
+                ? Collections.emptyMap()
+                : findInBatches(flightIds, flightRepository::findSummariesByIdIn).stream()
+                .collect(Collectors.toMap(FlightSummaryDto::getFlightId, Function.identity()));
+
+        return travelHistoryList.stream()
+                .map(travelHistory -> convertToDto(travelHistory, passengers, flights))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Run an IN-list lookup in batches small enough for Oracle's 1000-expression limit
+     * @param ids the IDs to look up
+     * @param finder the lookup
+     * @return the results of every batch
+     */
+    private static <T> List<T> findInBatches(Set<Long> ids, Function<Collection<Long>, List<T>> finder) {
+        if (ids.size() <= SUMMARY_BATCH_SIZE) {
+            return finder.apply(ids);
+        }
+        List<Long> idList = List.copyOf(ids);
+        List<T> results = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += SUMMARY_BATCH_SIZE) {
+            results.addAll(finder.apply(idList.subList(from, Math.min(from + SUMMARY_BATCH_SIZE, idList.size()))));
+        }
+        return results;
+    }
+
     /**
      * Convert TravelHistory entity to DTO
      * @param travelHistory the travel history entity
+     * @param passengers passenger summaries by ID
+     * @param flights flight summaries by ID
      * @return travel history DTO
      */
-    private TravelHistoryDto convertToDto(TravelHistory travelHistory) {
+    private TravelHistoryDto convertToDto(TravelHistory travelHistory, Map<Long, PassengerSummaryDto> passengers,
+                                          Map<Long, FlightSummaryDto> flights) {
         TravelHistoryDto dto = new TravelHistoryDto();
         dto.setHistoryId(travelHistory.getHistoryId());
         dto.setPassengerId(travelHistory.getPassengerId());
@@ -295,50 +565,10 @@ public class TravelHistoryService {
         dto.setNotes(travelHistory.getNotes());
         dto.setCreatedAt(travelHistory.getCreatedAt());
 
-        // Add passenger details if available
-        passengerRepository.findById(travelHistory.getPassengerId())
-                .ifPresent(passenger -> dto.setPassenger(convertToPassengerSummary(passenger)));
-
-        // Add flight details if available
-        flightRepository.findById(travelHistory.getFlightId())
-                .ifPresent(flight -> dto.setFlight(convertToFlightSummary(flight)));
-
-        return dto;
-    }
-
-    /**
-     * Convert Passenger entity to summary DTO
-     * @param passenger the passenger entity
-     * @return passenger summary DTO
-     */
-    private PassengerSummaryDto convertToPassengerSummary(Passenger passenger) {
-        PassengerSummaryDto dto = new PassengerSummaryDto();
-        dto.setPassengerId(passenger.getPassengerId());
-        dto.setName(passenger.getName());
-        dto.setPhoneNumber(passenger.getPhoneNumber());
-        dto.setPassportNumber(passenger.getPassportNumber());
-        dto.setDateOfBirth(passenger.getDateOfBirth());
-        dto.setSeat(passenger.getSeat());
-        dto.setCheckedIn(passenger.getCheckedIn());
-        return dto;
-    }
+        // Add passenger and flight details if available
+        dto.setPassenger(passengers.get(travelHistory.getPassengerId()));
+        dto.setFlight(flights.get(travelHistory.getFlightId()));
 
-    /**
-     * Convert Flight entity to summary DTO
-     * @param flight the flight entity
-     * @return flight summary DTO
-     */
-    private FlightSummaryDto convertToFlightSummary(Flight flight) {
-        FlightSummaryDto dto = new FlightSummaryDto();
-        dto.setFlightId(flight.getFlightId());
-        dto.setFlightName(flight.getFlightName());
-        dto.setFlightDate(flight.getFlightDate());
-        dto.setRoute(flight.getRoute());
-        dto.setDepartureTime(flight.getDepartureTime());
-        dto.setArrivalTime(flight.getArrivalTime());
-        dto.setAircraftType(flight.getAircraftType());
-        dto.setTotalSeats(flight.getTotalSeats());
-        dto.setAvailableSeats(flight.getAvailableSeats());
         return dto;
     }
 }
@@ -0,0 +1,413 @@
+package com.oracle.travel_history_service.service;
+
+import com.oracle.travel_history_service.dto.TravelStatsDto;
+import com.oracle.travel_history_service.entity.PassengerTravelStats;
+import com.oracle.travel_history_service.exception.TravelHistoryException;
+import com.oracle.travel_history_service.repository.PassengerRepository;
+import com.oracle.travel_history_service.repository.PassengerTravelStatsRepository;
+import com.oracle.travel_history_service.repository.TravelHistoryRepository;
+import com.oracle.travel_history_service.repository.TravelStatsRow;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Service class for passenger travel statistics and frequent-flyer tiers.
+ *
+ * Statistics are kept one row per passenger in passenger_travel_stats, so reading them
+ * is a primary-key lookup whatever the length of the history. A row is recomputed from a
+ * grouped query over the passenger's history rather than adjusted by deltas, so
+ * recomputing it again is always safe.
+ *
+ * The table is filled by rebuild(), which splits passengers into app.stats.partitions
+ * partitions by ID and rebuilds them on app.stats.threads threads, each partition in a
+ * transaction of its own that streams its grouped history and inserts in JDBC batches.
+ * It runs at startup when the table is empty. After that, every app.stats.refresh-seconds
+ * the passengers with history recorded since the last poll are recomputed; the poll looks
+ * back a little further than the newest record it saw, so a transaction that commits with
+ * a slightly older timestamp is not missed. Writers in this service call refresh()
+ * directly. Tiers depend on the date, so they are worked out when the row is read.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TravelStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravelStatsService.class);
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(30);
+    private static final String COMPLETED = "Completed";
+    private static final String UNKNOWN = "Unknown";
+    // Matches the JDBC batch size; also keeps IN lists well under Oracle's 1000
+    private static final int BATCH_SIZE = 50;
+
+    private final TravelHistoryRepository travelHistoryRepository;
+    private final PassengerTravelStatsRepository statsRepository;
+    private final PassengerRepository passengerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int partitions;
+    private final int threads;
+    private final int topRoutes;
+    private final boolean rebuildOnStart;
+    private final Duration refreshInterval;
+    private volatile LocalDateTime lastSeenCreated;
+    private ScheduledExecutorService poller;
+
+    @Autowired
+    public TravelStatsService(TravelHistoryRepository travelHistoryRepository,
+                              PassengerTravelStatsRepository statsRepository,
+                              PassengerRepository passengerRepository,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.stats.partitions:8}") int partitions,
+                              @Value("${app.stats.threads:4}") int threads,
+                              @Value("${app.stats.top-routes:5}") int topRoutes,
+                              @Value("${app.stats.rebuild-on-start:true}") boolean rebuildOnStart,
+                              @Value("${app.stats.refresh-seconds:30}") long refreshSeconds) {
+        this(travelHistoryRepository, statsRepository, passengerRepository, entityManager, transactionManager,
+                Clock.systemDefaultZone(), partitions, threads, topRoutes, rebuildOnStart,
+                Duration.ofSeconds(refreshSeconds));
+    }
+
+    TravelStatsService(TravelHistoryRepository travelHistoryRepository,
+                       PassengerTravelStatsRepository statsRepository,
+                       PassengerRepository passengerRepository,
+                       EntityManager entityManager,
+                       PlatformTransactionManager transactionManager,
+                       Clock clock, int partitions, int threads, int topRoutes,
+                       boolean rebuildOnStart, Duration refreshInterval) {
+        this.travelHistoryRepository = travelHistoryRepository;
+        this.statsRepository = statsRepository;
+        this.passengerRepository = passengerRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.partitions = Math.max(1, partitions);
+        this.threads = Math.max(1, threads);
+        this.topRoutes = Math.max(0, topRoutes);
+        this.rebuildOnStart = rebuildOnStart;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Rebuild the statistics if the table is empty, then start polling for new history
+     * (a refresh interval of 0 disables polling)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (poller != null) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "travel-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.execute(() -> {
+            try {
+                // Taken before the rebuild, so history recorded while it runs is polled afterwards
+                LocalDateTime newest = travelHistoryRepository.findLastCreated();
+                lastSeenCreated = newest != null ? newest : LocalDate.EPOCH.atStartOfDay();
+                if (rebuildOnStart && statsRepository.count() == 0) {
+                    rebuild();
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Could not build travel statistics: {}", e.getMessage());
+            }
+        });
+        if (!refreshInterval.isZero()) {
+            poller.scheduleWithFixedDelay(this::pollChanges, refreshInterval.toMillis(),
+                    refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * Get a passenger's travel statistics and frequent-flyer tier
+     * @param passengerId the passenger ID
+     * @return the statistics; computed from the history if they have not been stored yet
+     * @throws TravelHistoryException if the passenger does not exist
+     */
+    public TravelStatsDto getStats(Long passengerId) {
+        logger.info("Fetching travel statistics for passenger ID: {}", passengerId);
+
+        PassengerTravelStats stats = statsRepository.findById(passengerId).orElse(null);
+        if (stats == null) {
+            if (!passengerRepository.existsById(passengerId)) {
+                throw TravelHistoryException.notFound("Passenger not found with ID: " + passengerId);
+            }
+            stats = compute(List.of(passengerId)).getOrDefault(passengerId, new PassengerTravelStats(passengerId));
+        }
+        return toDto(stats);
+    }
+
+    /**
+     * Recompute the statistics of some passengers from their history
+     * @param passengerIds the passenger IDs
+     */
+    @Transactional
+    public void refresh(Collection<Long> passengerIds) {
+        List<Long> ids = List.copyOf(new HashSet<>(passengerIds));
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            Map<Long, PassengerTravelStats> computed = compute(batch);
+            statsRepository.deleteByPassengerIdIn(batch);
+            computed.values().forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Rebuild the statistics of every passenger, one partition per transaction
+     * @return the number of passengers with statistics
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long rebuild() {
+        logger.info("Rebuilding travel statistics in {} partitions on {} threads", partitions, threads);
+        long started = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, partitions));
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int partition = 0; partition < partitions; partition++) {
+                int current = partition;
+                results.add(pool.submit(() -> transactionTemplate.execute(status -> rebuildPartition(current))));
+            }
+            long passengers = 0;
+            for (Future<Long> result : results) {
+                passengers += result.get();
+            }
+            logger.info("Rebuilt travel statistics of {} passengers in {} ms", passengers,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return passengers;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TravelHistoryException.internalError("Interrupted while rebuilding travel statistics", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw TravelHistoryException.internalError("Could not rebuild travel statistics", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Recompute the statistics of the passengers with history recorded since the previous poll
+     */
+    void pollChanges() {
+        try {
+            LocalDateTime since = lastSeenCreated;
+            if (since == null) {
+                return;
+            }
+            LocalDateTime newest = travelHistoryRepository.findLastCreated();
+            if (newest == null || !newest.isAfter(since)) {
+                return;
+            }
+            List<Long> changed = travelHistoryRepository.findPassengerIdsCreatedAfter(since.minus(POLL_OVERLAP));
+            if (!changed.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> refresh(changed));
+                logger.debug("Refreshed travel statistics of {} passengers", changed.size());
+            }
+            lastSeenCreated = newest;
+        } catch (DataAccessException e) {
+            // Keep serving; the same passengers are picked up by the next poll
+            logger.warn("Could not refresh travel statistics: {}", e.getMessage());
+        }
+    }
+
+    private long rebuildPartition(int partition) {
+        statsRepository.deleteByPartition(partitions, partition);
+        long passengers = 0;
+        try (Stream<TravelStatsRow> rows = travelHistoryRepository.streamStatsRowsByPartition(partitions, partition)) {
+            Iterator<TravelStatsRow> iterator = rows.iterator();
+            Accumulator current = null;
+            while (iterator.hasNext()) {
+                TravelStatsRow row = iterator.next();
+                if (current != null && !current.passengerId.equals(row.getPassengerId())) {
+                    entityManager.persist(current.toEntity(now()));
+                    if (++passengers % BATCH_SIZE == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                    current = null;
+                }
+                if (current == null) {
+                    current = new Accumulator(row.getPassengerId());
+                }
+                current.add(row);
+            }
+            if (current != null) {
+                entityManager.persist(current.toEntity(now()));
+                passengers++;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return passengers;
+    }
+
+    private Map<Long, PassengerTravelStats> compute(Collection<Long> passengerIds) {
+        Map<Long, Accumulator> accumulators = new LinkedHashMap<>();
+        for (TravelStatsRow row : travelHistoryRepository.findStatsRowsByPassengerIdIn(passengerIds)) {
+            accumulators.computeIfAbsent(row.getPassengerId(), Accumulator::new).add(row);
+        }
+        Map<Long, PassengerTravelStats> stats = new LinkedHashMap<>();
+        LocalDateTime now = now();
+        accumulators.forEach((passengerId, accumulator) -> stats.put(passengerId, accumulator.toEntity(now)));
+        return stats;
+    }
+
+    private TravelStatsDto toDto(PassengerTravelStats stats) {
+        TravelStatsDto dto = new TravelStatsDto(stats.getPassengerId());
+        dto.setTotalTrips(stats.getTotalTrips());
+        dto.setCompletedTrips(stats.getCompletedTrips());
+        dto.setTotalDistanceKm(stats.getDistanceKm());
+        dto.setTotalDurationMin(stats.getDurationMin());
+        dto.setFirstTravelDate(stats.getFirstTravelDate());
+        dto.setLastTravelDate(stats.getLastTravelDate());
+        dto.setTripsByStatus(stats.getTripsByStatus());
+        dto.setTripsByFareClass(stats.getTripsByFareClass());
+        dto.setTripsByYear(stats.getTripsByYear());
+        dto.setDistanceByYear(stats.getDistanceByYear());
+        dto.setTopRoutes(stats.getTripsByRoute().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(topRoutes)
+                .map(route -> new TravelStatsDto.RouteCount(route.getKey(), route.getValue()))
+                .toList());
+
+        // Qualifying period: the current and the previous calendar year
+        int year = LocalDate.now(clock).getYear();
+        long trips = qualifying(dto.getTripsByYear(), year);
+        long distanceKm = qualifying(dto.getDistanceByYear(), year);
+        FrequentFlyerTier tier = FrequentFlyerTier.of(trips, distanceKm);
+        FrequentFlyerTier nextTier = tier.next();
+        dto.setTier(tier.name());
+        dto.setNextTier(nextTier != null ? nextTier.name() : null);
+        dto.setQualifyingTrips(trips);
+        dto.setQualifyingDistanceKm(distanceKm);
+        dto.setUpdatedAt(stats.getUpdatedAt());
+        return dto;
+    }
+
+    private static long qualifying(Map<String, Long> byYear, int year) {
+        return byYear.getOrDefault(String.valueOf(year), 0L) + byYear.getOrDefault(String.valueOf(year - 1), 0L);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * Sums one passenger's grouped history rows into their statistics
+     */
+    private static final class Accumulator {
+
+        private final Long passengerId;
+        private long totalTrips;
+        private long completedTrips;
+        private long distanceKm;
+        private long durationMin;
+        private LocalDate firstTravelDate;
+        private LocalDate lastTravelDate;
+        private final Map<String, Long> tripsByStatus = new TreeMap<>();
+        private final Map<String, Long> tripsByFareClass = new TreeMap<>();
+        private final Map<String, Long> tripsByYear = new TreeMap<>();
+        private final Map<String, Long> distanceByYear = new TreeMap<>();
+        private final Map<String, Long> tripsByRoute = new TreeMap<>();
+
+        Accumulator(Long passengerId) {
+            this.passengerId = passengerId;
+        }
+
+        void add(TravelStatsRow row) {
+            long trips = row.getTrips();
+            totalTrips += trips;
+            tripsByStatus.merge(orUnknown(row.getStatus()), trips, Long::sum);
+            tripsByFareClass.merge(orUnknown(row.getFareClass()), trips, Long::sum);
+            if (firstTravelDate == null
+                    || (row.getFirstTravelDate() != null && row.getFirstTravelDate().isBefore(firstTravelDate))) {
+                firstTravelDate = row.getFirstTravelDate();
+            }
+            if (lastTravelDate == null
+                    || (row.getLastTravelDate() != null && row.getLastTravelDate().isAfter(lastTravelDate))) {
+                lastTravelDate = row.getLastTravelDate();
+            }
+            if (!COMPLETED.equals(row.getStatus())) {
+                return;
+            }
+            completedTrips += trips;
+            distanceKm += row.getDistanceKm();
+            durationMin += row.getDurationMin();
+            if (row.getYear() != null) {
+                tripsByYear.merge(row.getYear().toString(), trips, Long::sum);
+                distanceByYear.merge(row.getYear().toString(), row.getDistanceKm(), Long::sum);
+            }
+            if (row.getOrigin() != null && row.getDestination() != null) {
+                tripsByRoute.merge(row.getOrigin() + "-" + row.getDestination(), trips, Long::sum);
+            }
+        }
+
+        PassengerTravelStats toEntity(LocalDateTime updatedAt) {
+            PassengerTravelStats stats = new PassengerTravelStats(passengerId);
+            stats.setTotalTrips(totalTrips);
+            stats.setCompletedTrips(completedTrips);
+            stats.setDistanceKm(distanceKm);
+            stats.setDurationMin(durationMin);
+            stats.setFirstTravelDate(firstTravelDate);
+            stats.setLastTravelDate(lastTravelDate);
+            stats.setTripsByStatus(tripsByStatus);
+            stats.setTripsByFareClass(tripsByFareClass);
+            stats.setTripsByYear(tripsByYear);
+            stats.setDistanceByYear(distanceByYear);
+            stats.setTripsByRoute(tripsByRoute);
+            stats.setUpdatedAt(updatedAt);
+            return stats;
+        }
+
+        private static String orUnknown(String value) {
+            return value != null ? value : UNKNOWN;
+        }
+    }
+}
@@ -2,22 +2,32 @@ package com.oracle.travel_history_service.controller;
 
 import com.oracle.travel_history_service.dto.TravelHistoryDto;
 import com.oracle.travel_history_service.dto.TravelHistoryResponseDto;
+import com.oracle.travel_history_service.repository.ResourceVersion;
+import com.oracle.travel_history_service.service.Enrichment;
+import com.oracle.travel_history_service.service.RecentHistoryCache;
+import com.oracle.travel_history_service.service.TravelHistoryArchiver;
+import com.oracle.travel_history_service.service.TravelHistoryIngestService;
 import com.oracle.travel_history_service.service.TravelHistoryService;
+import com.oracle.travel_history_service.service.TravelStatsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,9 +45,22 @@ class TravelHistoryControllerTest {
     @MockBean
     private TravelHistoryService travelHistoryService;
 
+    @MockBean
+    private TravelStatsService travelStatsService;
+
+    @MockBean
+    private TravelHistoryIngestService travelHistoryIngestService;
+
+    @MockBean
+    private TravelHistoryArchiver travelHistoryArchiver;
+
+    @MockBean
+    private RecentHistoryCache recentHistoryCache;
+
     private TravelHistoryDto sampleTravelHistoryDto;
     private TravelHistoryResponseDto successResponse;
     private TravelHistoryResponseDto notFoundResponse;
+    private ResourceVersion sampleVersion;
 
     @BeforeEach
     void setUp() {
@@ -60,11 +83,21 @@ class TravelHistoryControllerTest {
                 travelHistoryList, "passenger", "1");
 
         notFoundResponse = TravelHistoryResponseDto.notFound("Passenger not found with ID: 999");
+
+        sampleVersion = new ResourceVersion(1L, LocalDateTime.of(2024, 12, 1, 10, 0));
+        ResourceVersion emptyVersion = new ResourceVersion(0L, null);
+        when(travelHistoryService.getAllTravelHistoryVersion()).thenReturn(sampleVersion);
+        when(travelHistoryService.getTravelHistoryVersionByPassenger(anyLong())).thenReturn(emptyVersion);
+        when(travelHistoryService.getTravelHistoryVersionByPassenger(1L)).thenReturn(sampleVersion);
+        when(travelHistoryService.getRecentTravelHistoryVersion(anyLong())).thenReturn(sampleVersion);
+        when(travelHistoryService.getTravelHistoryVersionByFlight(anyLong())).thenReturn(sampleVersion);
+        when(travelHistoryService.getTravelHistoryVersionByBookingReference(anyString())).thenReturn(emptyVersion);
+        when(travelHistoryService.getTravelHistoryVersionByBookingReference("ABC123")).thenReturn(sampleVersion);
     }
 
     @Test
     void testGetTravelHistoryByPassenger_Success() throws Exception {
-        when(travelHistoryService.getTravelHistoryByPassenger(1L)).thenReturn(successResponse);
+        when(travelHistoryService.getTravelHistoryByPassenger(1L, Enrichment.ALL)).thenReturn(successResponse);
 
         mockMvc.perform(get("/history/passenger/1")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -87,7 +120,7 @@ class TravelHistoryControllerTest {
 
     @Test
     void testGetTravelHistoryByPassenger_NotFound() throws Exception {
-        when(travelHistoryService.getTravelHistoryByPassenger(999L)).thenReturn(notFoundResponse);
+        when(travelHistoryService.getTravelHistoryByPassenger(999L, Enrichment.ALL)).thenReturn(notFoundResponse);
 
         mockMvc.perform(get("/history/passenger/999")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -115,7 +148,8 @@ class TravelHistoryControllerTest {
                 Arrays.asList(sampleTravelHistoryDto), 
                 "booking", 
                 "ABC123");
-        when(travelHistoryService.getTravelHistoryByBookingReference("ABC123")).thenReturn(bookingResponse);
+        when(travelHistoryService.getTravelHistoryByBookingReference("ABC123", Enrichment.ALL))
+                .thenReturn(bookingResponse);
 
         mockMvc.perform(get("/history/booking/ABC123")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -133,7 +167,7 @@ class TravelHistoryControllerTest {
     void testGetTravelHistoryByBookingReference_NotFound() throws Exception {
         TravelHistoryResponseDto notFoundBookingResponse = TravelHistoryResponseDto.notFound(
                 "Travel history not found for booking reference: INVALID123");
-        when(travelHistoryService.getTravelHistoryByBookingReference("INVALID123"))
+        when(travelHistoryService.getTravelHistoryByBookingReference("INVALID123", Enrichment.ALL))
                 .thenReturn(notFoundBookingResponse);
 
         mockMvc.perform(get("/history/booking/INVALID123")
@@ -151,7 +185,7 @@ class TravelHistoryControllerTest {
                 Arrays.asList(sampleTravelHistoryDto), 
                 "flight", 
                 "1");
-        when(travelHistoryService.getTravelHistoryByFlight(1L)).thenReturn(flightResponse);
+        when(travelHistoryService.getTravelHistoryByFlight(1L, Enrichment.ALL)).thenReturn(flightResponse);
 
         mockMvc.perform(get("/history/flight/1")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -172,7 +206,7 @@ class TravelHistoryControllerTest {
                 Arrays.asList(sampleTravelHistoryDto), 
                 "passenger", 
                 "1");
-        when(travelHistoryService.getRecentTravelHistory(1L)).thenReturn(recentResponse);
+        when(travelHistoryService.getRecentTravelHistory(1L, Enrichment.ALL)).thenReturn(recentResponse);
 
         mockMvc.perform(get("/history/passenger/1/recent")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -191,7 +225,8 @@ class TravelHistoryControllerTest {
                 "passenger", 
                 "1");
         statusResponse.setStatus("Completed");
-        when(travelHistoryService.getTravelHistoryByStatus(1L, "Completed")).thenReturn(statusResponse);
+        when(travelHistoryService.getTravelHistoryByStatus(1L, "Completed", Enrichment.ALL))
+                .thenReturn(statusResponse);
 
         mockMvc.perform(get("/history/passenger/1/status/Completed")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -224,7 +259,7 @@ class TravelHistoryControllerTest {
     @Test
     void testGetTravelHistoryByPassenger_InternalServerError() throws Exception {
         TravelHistoryResponseDto errorResponse = TravelHistoryResponseDto.error("Database connection failed");
-        when(travelHistoryService.getTravelHistoryByPassenger(anyLong())).thenReturn(errorResponse);
+        when(travelHistoryService.getTravelHistoryByPassenger(anyLong(), any())).thenReturn(errorResponse);
 
         mockMvc.perform(get("/history/passenger/1")
                 .contentType(MediaType.APPLICATION_JSON))
@@ -236,7 +271,7 @@ class TravelHistoryControllerTest {
 
     @Test
     void testGetTravelHistoryByPassenger_ServiceException() throws Exception {
-        when(travelHistoryService.getTravelHistoryByPassenger(anyLong()))
+        when(travelHistoryService.getTravelHistoryByPassenger(anyLong(), any()))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         mockMvc.perform(get("/history/passenger/1")
@@ -246,4 +281,23 @@ class TravelHistoryControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value(containsString("Internal server error"))); // ✅ fixed
     }
+
+    @Test
+    void testGetTravelHistoryByPassenger_SetsETag() throws Exception {
+        when(travelHistoryService.getTravelHistoryByPassenger(1L, Enrichment.ALL)).thenReturn(successResponse);
+
+        mockMvc.perform(get("/history/passenger/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, sampleVersion.getETag()));
+    }
+
+    @Test
+    void testGetTravelHistoryByPassenger_NotModified() throws Exception {
+        mockMvc.perform(get("/history/passenger/1")
+                .header(HttpHeaders.IF_NONE_MATCH, sampleVersion.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(travelHistoryService, never()).getTravelHistoryByPassenger(1L);
+    }
 }
@@ -0,0 +1,141 @@
+package com.oracle.travel_history_service.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.travel_history_service.dto.TravelHistoryResponseDto;
+import com.oracle.travel_history_service.entity.Flight;
+import com.oracle.travel_history_service.entity.Passenger;
+import com.oracle.travel_history_service.entity.TravelHistory;
+import com.oracle.travel_history_service.repository.FlightRepository;
+import com.oracle.travel_history_service.repository.PassengerRepository;
+import com.oracle.travel_history_service.repository.TravelHistoryRepository;
+import com.oracle.travel_history_service.service.Enrichment;
+import com.oracle.travel_history_service.service.TravelHistoryService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares a flight's travel history with the passenger and flight summaries embedded,
+ * the default, against the same listing with include=none. Summary queries come from
+ * Hibernate statistics and are asserted along with the payload sizes; the timings on H2
+ * are logged for comparison.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class SparseFieldsetBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SparseFieldsetBenchmarkTest.class);
+    private static final int PASSENGERS = 1000;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private TravelHistoryService travelHistoryService;
+
+    @Autowired
+    private TravelHistoryRepository travelHistoryRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private Long flightId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        flightId = flightRepository.save(new Flight("Flight 101", LocalDate.of(2026, 5, 1), "NYC-LON",
+                "08:00 AM", "04:00 PM", PASSENGERS, 0)).getFlightId();
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 1; i <= PASSENGERS; i++) {
+            passengers.add(new Passenger(flightId, String.format("Passenger %04d", i), "NYC", "LON"));
+        }
+        List<TravelHistory> trips = new ArrayList<>();
+        for (Passenger passenger : passengerRepository.saveAll(passengers)) {
+            TravelHistory trip = new TravelHistory(passenger.getPassengerId(), flightId, LocalDate.of(2026, 5, 1),
+                    "NYC", "LON", "SPF" + passenger.getPassengerId());
+            trip.setStatus("Completed");
+            trip.setFareClass("Economy");
+            trip.setDistanceKm(5567);
+            trip.setDurationMin(420);
+            trips.add(trip);
+        }
+        travelHistoryRepository.saveAll(trips);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Passengers and flights are mapped read-only, so rows are removed with plain SQL
+        jdbcTemplate.update("DELETE FROM travel_history");
+        jdbcTemplate.update("DELETE FROM passengers");
+        jdbcTemplate.update("DELETE FROM flights");
+    }
+
+    @Test
+    void includeNone_ShouldSkipTheSummaryQueries_AndShrinkThePayload() throws Exception {
+        // Warm up both paths so class loading and JIT do not count against the first one
+        byte[] full = serialize(Enrichment.ALL);
+        byte[] sparse = serialize(Enrichment.parse("none"));
+
+        Measurement enriched = measure(Enrichment.ALL);
+        Measurement bare = measure(Enrichment.parse("none"));
+
+        // Passenger summaries in two batches of IDs plus one flight summary query per round
+        assertEquals(3L * ROUNDS, enriched.queries - bare.queries);
+        assertTrue(new String(full, StandardCharsets.UTF_8).contains("\"passengerDetails\""));
+        assertFalse(new String(sparse, StandardCharsets.UTF_8).contains("\"passengerDetails\""));
+        assertFalse(new String(sparse, StandardCharsets.UTF_8).contains("\"flightDetails\""));
+        assertTrue(sparse.length < full.length, sparse.length + " >= " + full.length);
+
+        logger.info("{} records x {} rounds: embedded sections {} KB / {} ms / {} queries, include=none {} KB / {} ms / " +
+                        "{} queries (payload per response / total time / total queries)",
+                PASSENGERS, ROUNDS, full.length / 1024, enriched.nanos / 1_000_000, enriched.queries,
+                sparse.length / 1024, bare.nanos / 1_000_000, bare.queries);
+    }
+
+    private byte[] serialize(Set<Enrichment> include) throws Exception {
+        TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByFlight(flightId, include);
+        assertEquals(PASSENGERS, response.getTotalRecords());
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private Measurement measure(Set<Enrichment> include) throws Exception {
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            serialize(include);
+        }
+        return new Measurement(System.nanoTime() - start, statistics.getQueryExecutionCount());
+    }
+
+    private record Measurement(long nanos, long queries) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.oracle.travel_history_service.integration;
+
+import com.oracle.travel_history_service.dto.ArchiveStatusDto;
+import com.oracle.travel_history_service.entity.Flight;
+import com.oracle.travel_history_service.entity.Passenger;
+import com.oracle.travel_history_service.entity.TravelHistory;
+import com.oracle.travel_history_service.repository.FlightRepository;
+import com.oracle.travel_history_service.repository.PassengerRepository;
+import com.oracle.travel_history_service.repository.PassengerTravelStatsRepository;
+import com.oracle.travel_history_service.repository.ResourceVersion;
+import com.oracle.travel_history_service.repository.TravelHistoryArchiveRepository;
+import com.oracle.travel_history_service.repository.TravelHistoryRepository;
+import com.oracle.travel_history_service.service.TravelHistoryArchiver;
+import com.oracle.travel_history_service.service.TravelHistoryIngestService;
+import com.oracle.travel_history_service.service.TravelStatsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archives old travel history in H2 and checks that reads merge the archive back in.
+ */
+@SpringBootTest(properties = {"app.archive.horizon-days=365", "app.archive.chunk-size=2"})
+@ActiveProfiles("test")
+class TravelHistoryArchiveTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private TravelHistoryArchiver archiver;
+
+    @Autowired
+    private TravelHistoryRepository travelHistoryRepository;
+
+    @Autowired
+    private TravelHistoryArchiveRepository archiveRepository;
+
+    @Autowired
+    private PassengerTravelStatsRepository statsRepository;
+
+    @Autowired
+    private TravelStatsService travelStatsService;
+
+    @Autowired
+    private TravelHistoryIngestService ingestService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long flightId;
+    private Long passengerId;
+
+    @BeforeEach
+    void setUp() {
+        flightId = flightRepository.save(new Flight("Flight 101", LocalDate.of(2025, 8, 20), "NYC-LON",
+                "08:00 AM", "04:00 PM", 300, 300)).getFlightId();
+        passengerId = passengerRepository.save(new Passenger(flightId, "Ada Lovelace", "NYC", "LON")).getPassengerId();
+        travelHistoryRepository.saveAll(List.of(
+                trip("ARC001", TODAY.minusYears(3), "Completed"),
+                trip("ARC002", TODAY.minusYears(2), "Completed"),
+                trip("ARC003", TODAY.minusDays(400), "Cancelled"),
+                trip("ARC004", TODAY.minusDays(380), "Completed"),
+                trip("ARC005", TODAY.minusDays(500), "Booked"),
+                trip("ARC006", TODAY.minusDays(100), "Completed"),
+                trip("ARC007", TODAY.minusDays(10), "Completed")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Passengers and flights are mapped read-only, so rows are removed with plain SQL
+        jdbcTemplate.update("DELETE FROM passenger_travel_stats");
+        jdbcTemplate.update("DELETE FROM travel_history_archive");
+        jdbcTemplate.update("DELETE FROM travel_history");
+        jdbcTemplate.update("DELETE FROM passengers");
+        jdbcTemplate.update("DELETE FROM flights");
+    }
+
+    @Test
+    void archive_ShouldMoveOldCompletedAndCancelledTripsInChunks() {
+        Long historyId = travelHistoryRepository.findByBookingReference("ARC001").orElseThrow().getHistoryId();
+        double movedBefore = meterRegistry.get("travel_history.archive.moved").counter().count();
+
+        assertEquals(4, archiver.archive());
+
+        assertEquals(3, travelHistoryRepository.count());
+        assertEquals(4, archiveRepository.count());
+        assertEquals(historyId, archiveRepository.findByBookingReference("ARC001").orElseThrow().getHistoryId());
+        assertNotNull(archiveRepository.findByBookingReference("ARC001").orElseThrow().getArchivedAt());
+        // Trips that are not over stay hot whatever their date
+        assertEquals(0, archiveRepository.findByPassengerIdAndStatusOrderByTravelDateDesc(passengerId, "Booked").size());
+        assertEquals(0, archiver.archive());
+
+        ArchiveStatusDto status = archiver.getStatus();
+        assertEquals(TODAY.minusDays(365), status.getHorizon());
+        assertEquals(3, status.getHotRows());
+        assertEquals(4, status.getArchivedRows());
+        assertEquals(0, status.getPendingRows());
+        assertEquals(0, status.getLastRunMoved());
+        assertFalse(status.isRunning());
+        assertEquals(4, meterRegistry.get("travel_history.archive.moved").counter().count() - movedBefore);
+        assertEquals(3, meterRegistry.get("travel_history.rows").tag("tier", "hot").gauge().value());
+        assertEquals(4, meterRegistry.get("travel_history.rows").tag("tier", "archive").gauge().value());
+    }
+
+    @Test
+    void reads_ShouldMergeArchivedRecordsInTravelDateOrder() {
+        archiver.archive();
+
+        assertEquals(List.of("ARC007", "ARC006", "ARC004", "ARC003", "ARC005", "ARC002", "ARC001"),
+                references(travelHistoryRepository.findByPassengerIdOrderByTravelDateDesc(passengerId)));
+        assertEquals(7, travelHistoryRepository.findByFlightIdOrderByTravelDateDesc(flightId).size());
+        assertEquals(7, travelHistoryRepository.findAll().size());
+        assertEquals(List.of("ARC007", "ARC006", "ARC004", "ARC002", "ARC001"),
+                references(travelHistoryRepository.findByPassengerIdAndStatusOrderByTravelDateDesc(passengerId, "Completed")));
+        assertEquals(List.of("ARC006", "ARC004", "ARC003"), references(travelHistoryRepository
+                .findByPassengerIdAndDateRange(passengerId, TODAY.minusDays(450), TODAY.minusDays(50))));
+
+        TravelHistory archived = travelHistoryRepository.findByBookingReference("ARC003").orElseThrow();
+        assertEquals("Cancelled", archived.getStatus());
+        assertEquals(TODAY.minusDays(400), archived.getTravelDate());
+        assertNotNull(archived.getCreatedAt());
+    }
+
+    @Test
+    void reads_WithinTheHorizon_ShouldNotReadTheArchive() {
+        archiver.archive();
+        // Planted behind the archiver's back: only reads that reach past the horizon can see it
+        jdbcTemplate.update("INSERT INTO travel_history_archive (history_id, passenger_id, flight_id, travel_date, " +
+                "origin, destination, booking_reference, status, archived_at) " +
+                "VALUES (999999, ?, ?, ?, 'NYC', 'LON', 'ARC999', 'Completed', CURRENT_TIMESTAMP)",
+                passengerId, flightId, TODAY.minusDays(5));
+
+        assertEquals(List.of("ARC007"),
+                references(travelHistoryRepository.findRecentTravelHistory(passengerId, TODAY.minusDays(30))));
+        assertEquals(List.of("ARC999", "ARC007"),
+                references(travelHistoryRepository.findRecentTravelHistory(passengerId, TODAY.minusDays(400))).subList(0, 2));
+    }
+
+    @Test
+    void versions_ShouldCoverArchivedRecords() {
+        ResourceVersion before = travelHistoryRepository.findVersionByPassengerId(passengerId);
+        archiver.archive();
+        assertEquals(7, travelHistoryRepository.findVersionByPassengerId(passengerId).getCount());
+        assertEquals(7, travelHistoryRepository.findVersionByFlightId(flightId).getCount());
+        assertEquals(before.getETag(), travelHistoryRepository.findVersionByPassengerId(passengerId).getETag());
+
+        // ARC001 is archived, so only the archive tier embeds the passenger summary it reads
+        ResourceVersion booking = travelHistoryRepository.findVersionByBookingReference("ARC001");
+        assertEquals(1, booking.getCount());
+        jdbcTemplate.update("UPDATE passengers SET updated_at = ? WHERE passenger_id = ?",
+                booking.getLastUpdated().plusMinutes(1), passengerId);
+        assertNotEquals(booking.getETag(), travelHistoryRepository.findVersionByBookingReference("ARC001").getETag());
+    }
+
+    @Test
+    void archivedRecords_ShouldStillCountForStatisticsAndDuplicates() {
+        archiver.archive();
+
+        assertEquals(1, travelStatsService.rebuild());
+        assertEquals(5, statsRepository.findById(passengerId).orElseThrow().getCompletedTrips());
+        travelStatsService.refresh(List.of(passengerId));
+        assertEquals(7, statsRepository.findById(passengerId).orElseThrow().getTotalTrips());
+
+        String record = "{\"passengerId\": " + passengerId + ", \"flightId\": " + flightId +
+                ", \"travelDate\": \"" + TODAY.minusYears(3) + "\", \"origin\": \"NYC\", \"destination\": \"LON\"" +
+                ", \"bookingReference\": \"ARC001\", \"status\": \"Completed\"}";
+        assertEquals(1, ingestService.ingest(new ByteArrayInputStream(record.getBytes(StandardCharsets.UTF_8)))
+                .getDuplicates());
+    }
+
+    private TravelHistory trip(String bookingReference, LocalDate travelDate, String status) {
+        TravelHistory travelHistory = new TravelHistory(passengerId, flightId, travelDate, "NYC", "LON",
+                bookingReference);
+        travelHistory.setStatus(status);
+        travelHistory.setDistanceKm(5567);
+        travelHistory.setDurationMin(420);
+        return travelHistory;
+    }
+
+    private static List<String> references(List<TravelHistory> records) {
+        return records.stream().map(TravelHistory::getBookingReference).toList();
+    }
+}
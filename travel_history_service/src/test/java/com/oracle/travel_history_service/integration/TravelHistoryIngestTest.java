@@ -0,0 +1,200 @@
+package com.oracle.travel_history_service.integration;
+
+import com.oracle.travel_history_service.dto.BatchIngestResultDto;
+import com.oracle.travel_history_service.dto.HistoryCacheStatsDto;
+import com.oracle.travel_history_service.dto.TravelHistoryDto;
+import com.oracle.travel_history_service.entity.Flight;
+import com.oracle.travel_history_service.entity.Passenger;
+import com.oracle.travel_history_service.entity.PassengerTravelStats;
+import com.oracle.travel_history_service.exception.TravelHistoryException;
+import com.oracle.travel_history_service.repository.FlightRepository;
+import com.oracle.travel_history_service.repository.PassengerRepository;
+import com.oracle.travel_history_service.repository.PassengerTravelStatsRepository;
+import com.oracle.travel_history_service.repository.TravelHistoryRepository;
+import com.oracle.travel_history_service.service.RecentHistoryCache;
+import com.oracle.travel_history_service.service.TravelHistoryIngestService;
+import com.oracle.travel_history_service.service.TravelHistoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ingests NDJSON batches of travel history into H2 and checks the per-record outcomes,
+ * retries and stats; the throughput of a large batch is logged.
+ */
+@SpringBootTest(properties = "app.ingest.chunk-size=500")
+@ActiveProfiles("test")
+class TravelHistoryIngestTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravelHistoryIngestTest.class);
+    private static final int PASSENGERS = 100;
+
+    @Autowired
+    private TravelHistoryIngestService ingestService;
+
+    @Autowired
+    private TravelHistoryService travelHistoryService;
+
+    @Autowired
+    private RecentHistoryCache recentHistoryCache;
+
+    @Autowired
+    private TravelHistoryRepository travelHistoryRepository;
+
+    @Autowired
+    private PassengerTravelStatsRepository statsRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long flightId;
+    private List<Long> passengerIds;
+
+    @BeforeEach
+    void setUp() {
+        flightId = flightRepository.save(new Flight("Flight 101", LocalDate.of(2025, 8, 20), "NYC-LON",
+                "08:00 AM", "04:00 PM", 300, 300)).getFlightId();
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 1; i <= PASSENGERS; i++) {
+            passengers.add(new Passenger(flightId, String.format("Passenger %03d", i), "NYC", "LON"));
+        }
+        passengerIds = passengerRepository.saveAll(passengers).stream().map(Passenger::getPassengerId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Passengers and flights are mapped read-only, so rows are removed with plain SQL
+        jdbcTemplate.update("DELETE FROM passenger_travel_stats");
+        jdbcTemplate.update("DELETE FROM travel_history");
+        jdbcTemplate.update("DELETE FROM passengers");
+        jdbcTemplate.update("DELETE FROM flights");
+    }
+
+    @Test
+    void ingest_ShouldInsertValidRecordsAndReportEachRejectedLine() {
+        Long passengerId = passengerIds.get(0);
+        String batch = String.join("\n",
+                record(passengerId, flightId, "ING001", "Completed"),
+                record(passengerId, flightId, "ING002", null),
+                "",
+                record(-1L, flightId, "ING003", "Completed"),
+                record(passengerId, -1L, "ING004", "Completed"),
+                "{\"passengerId\": 1, ",
+                "{\"passengerId\": " + passengerId + ", \"flightId\": " + flightId + ", \"bookingReference\": \"ING005\"}",
+                record(passengerId, flightId, "ING006", "Lost"),
+                record(passengerId, flightId, "ING001", "Completed"));
+
+        BatchIngestResultDto result = ingest(batch);
+
+        assertEquals(8, result.getReceived());
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(5, result.getRejected());
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L),
+                result.getErrors().stream().map(BatchIngestResultDto.RecordError::getLine).toList());
+        assertTrue(result.getErrors().get(0).getMessage().contains("Passenger not found"));
+        assertTrue(result.getErrors().get(1).getMessage().contains("Flight not found"));
+        assertTrue(result.getErrors().get(2).getMessage().startsWith("Invalid JSON"));
+        assertTrue(result.getErrors().get(3).getMessage().contains("origin"));
+        assertTrue(result.getErrors().get(4).getMessage().contains("status"));
+
+        // A record without a status is a completed trip
+        assertEquals("Completed", travelHistoryRepository.findByBookingReference("ING002").orElseThrow().getStatus());
+        PassengerTravelStats stats = statsRepository.findById(passengerId).orElseThrow();
+        assertEquals(2, stats.getCompletedTrips());
+        assertEquals(11_134, stats.getDistanceKm());
+    }
+
+    @Test
+    void ingest_SentAgain_ShouldSkipEveryRecordedReference() {
+        String batch = batch(1_200);
+        assertEquals(1_200, ingest(batch).getInserted());
+
+        BatchIngestResultDto retry = ingest(batch);
+
+        assertEquals(0, retry.getInserted());
+        assertEquals(1_200, retry.getDuplicates());
+        assertEquals(0, retry.getRejected());
+        assertEquals(1_200, travelHistoryRepository.count());
+    }
+
+    @Test
+    void ingest_LargeBatch_ShouldInsertEveryNewRecord() {
+        int records = 20_000;
+        String batch = batch(records);
+        ingest(batch(500)); // warm up
+
+        BatchIngestResultDto result = ingest(batch);
+
+        assertEquals(records - 500, result.getInserted());
+        assertEquals(500, result.getDuplicates());
+        assertEquals(records / PASSENGERS, statsRepository.findById(passengerIds.get(0)).orElseThrow().getTotalTrips());
+        logger.info("Ingested {} records in {} ms ({} rows/s)", result.getInserted(), result.getElapsedMs(),
+                result.getInserted() * 1000 / Math.max(1, result.getElapsedMs()));
+    }
+
+    @Test
+    void ingest_ShouldUpdateCachedPassengersInPlace() {
+        Long passengerId = passengerIds.get(1);
+        ingest(record(passengerId, flightId, "CACHE1", "Completed"));
+        assertEquals(1, travelHistoryService.getTravelHistoryByPassenger(passengerId).getTotalRecords());
+        HistoryCacheStatsDto before = recentHistoryCache.getStats();
+
+        ingest(record(passengerId, flightId, "CACHE2", "Completed"));
+        List<TravelHistoryDto> trips = travelHistoryService.getTravelHistoryByPassenger(passengerId)
+                .getTravelHistoryList();
+
+        assertEquals(List.of("CACHE1", "CACHE2"),
+                trips.stream().map(TravelHistoryDto::getBookingReference).sorted().toList());
+        assertEquals("Passenger 002", trips.get(0).getPassenger().getName());
+        HistoryCacheStatsDto after = recentHistoryCache.getStats();
+        assertEquals(before.getHits() + 1, after.getHits());
+        assertEquals(before.getMisses(), after.getMisses());
+    }
+
+    @Test
+    void ingest_EmptyBody_ShouldBeRejected() {
+        TravelHistoryException ex = assertThrows(TravelHistoryException.class, () -> ingest("\n\n"));
+        assertEquals(TravelHistoryException.ErrorType.VALIDATION_ERROR, ex.getErrorType());
+    }
+
+    private BatchIngestResultDto ingest(String ndjson) {
+        return ingestService.ingest(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String batch(int records) {
+        return IntStream.range(0, records)
+                .mapToObj(i -> record(passengerIds.get(i % PASSENGERS), flightId, String.format("BULK%06d", i), "Completed"))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String record(Long passengerId, Long flightId, String bookingReference, String status) {
+        return "{\"passengerId\": " + passengerId + ", \"flightId\": " + flightId +
+                ", \"travelDate\": \"2025-08-20\", \"origin\": \"NYC\", \"destination\": \"LON\"" +
+                ", \"seat\": \"12A\", \"bookingReference\": \"" + bookingReference + "\", \"fareClass\": \"Economy\"" +
+                (status != null ? ", \"status\": \"" + status + "\"" : "") +
+                ", \"distanceKm\": 5567, \"durationMin\": 420}";
+    }
+}
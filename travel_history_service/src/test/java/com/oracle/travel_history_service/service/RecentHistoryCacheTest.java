@@ -0,0 +1,214 @@
+package com.oracle.travel_history_service.service;
+
+import com.oracle.travel_history_service.dto.HistoryCacheStatsDto;
+import com.oracle.travel_history_service.dto.TravelHistoryDto;
+import com.oracle.travel_history_service.repository.FlightRepository;
+import com.oracle.travel_history_service.repository.PassengerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RecentHistoryCache
+ */
+@ExtendWith(MockitoExtension.class)
+class RecentHistoryCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 1);
+
+    @Mock
+    private PassengerRepository passengerRepository;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private MutableClock clock;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-06-01T12:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void put_OverTheWeight_ShouldKeepTheMostFrequentlyReadPassengers() {
+        // Four trips per passenger weigh five, so 19 passengers fill the main area
+        RecentHistoryCache cache = cache(100, 4);
+        for (long passengerId = 1; passengerId <= 19; passengerId++) {
+            for (int read = 0; read < 3; read++) {
+                cache.get(passengerId, trips -> true);
+            }
+            cache.put(passengerId, trips(passengerId, 10, 4), true, cache.generation());
+        }
+        assertEquals(95, cache.weight());
+
+        // Read once: not worth any of the passengers read three times
+        cache.get(100L, trips -> true);
+        cache.put(100L, trips(100L, 10, 4), true, cache.generation());
+        assertTrue(cache.get(100L, trips -> true).isEmpty());
+        assertEquals(19, cache.size());
+
+        // Read more often than the least recently used passenger, which makes way for it
+        for (int read = 0; read < 5; read++) {
+            cache.get(200L, trips -> true);
+        }
+        cache.put(200L, trips(200L, 10, 4), true, cache.generation());
+        assertTrue(cache.get(200L, trips -> true).isPresent());
+        assertTrue(cache.get(1L, trips -> true).isEmpty());
+        assertEquals(95, cache.weight());
+
+        HistoryCacheStatsDto stats = cache.getStats();
+        assertEquals(2, stats.getEvictions());
+        assertEquals(19, stats.getEntries());
+        assertEquals(2, meterRegistry.get("travel_history.cache.evictions").counter().count());
+        assertEquals(95, meterRegistry.get("travel_history.cache.weight").gauge().value());
+    }
+
+    @Test
+    void put_AfterAWriteSinceTheLoadStarted_ShouldNotCache() {
+        RecentHistoryCache cache = cache(1000, 20);
+        long generation = cache.generation();
+
+        assertTrue(cache.beginWrite(List.of(1L)).isEmpty());
+        cache.put(1L, trips(1L, 10, 2), true, generation);
+
+        assertTrue(cache.get(1L, trips -> true).isEmpty());
+        assertEquals(1, meterRegistry.get("travel_history.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void merge_ShouldKeepTheNewestTripsOnce() {
+        RecentHistoryCache cache = cache(1000, 4);
+        cache.put(1L, trips(1L, 10, 3), true, cache.generation());
+        assertEquals(List.of(1L), List.copyOf(cache.beginWrite(List.of(1L, 2L))));
+
+        // Two new trips, and one that is already cached
+        List<TravelHistoryDto> newTrips = new ArrayList<>(trips(1L, 20, 2));
+        TravelHistoryDto cancelled = trip(1L, 12);
+        cancelled.setStatus("Cancelled");
+        newTrips.add(cancelled);
+        cache.merge(1L, newTrips);
+        cache.merge(2L, trips(2L, 30, 1));
+
+        RecentHistoryCache.RecentTrips trips = cache.get(1L, cached -> true).orElseThrow();
+        assertEquals(List.of(21L, 20L, 12L, 11L), trips.trips().stream().map(TravelHistoryDto::getHistoryId).toList());
+        assertEquals("Cancelled", trips.trips().get(2).getStatus());
+        assertFalse(trips.complete());
+        assertTrue(trips.covers(TODAY.minusDays(25)));
+        assertFalse(trips.covers(TODAY.minusDays(40)));
+        assertEquals(2, trips.since(TODAY.minusDays(25)).size());
+        assertTrue(cache.get(2L, cached -> true).isEmpty());
+        assertEquals(5, cache.weight());
+    }
+
+    @Test
+    void invalidateFlights_ShouldDropThePassengersWhoTookThem() {
+        RecentHistoryCache cache = cache(1000, 20);
+        cache.put(1L, trips(1L, 10, 2), true, cache.generation());
+        List<TravelHistoryDto> otherFlight = trips(2L, 20, 2);
+        otherFlight.forEach(trip -> trip.setFlightId(99L));
+        cache.put(2L, otherFlight, true, cache.generation());
+
+        cache.invalidateFlights(List.of(99L));
+
+        assertTrue(cache.get(1L, trips -> true).isPresent());
+        assertTrue(cache.get(2L, trips -> true).isEmpty());
+    }
+
+    @Test
+    void get_AfterTheTtl_ShouldMiss() {
+        RecentHistoryCache cache = cache(1000, 20);
+        cache.put(1L, trips(1L, 10, 2), true, cache.generation());
+
+        clock.advance(Duration.ofMinutes(4));
+        assertTrue(cache.get(1L, trips -> true).isPresent());
+        clock.advance(Duration.ofMinutes(1));
+        assertTrue(cache.get(1L, trips -> true).isEmpty());
+
+        assertEquals(0, cache.size());
+        assertEquals(0.5, cache.getStats().getHitRate());
+    }
+
+    @Test
+    void pollChanges_ShouldDropPassengersUpdatedSinceTheLastPoll() {
+        RecentHistoryCache cache = cache(1000, 20);
+        LocalDateTime updated = LocalDateTime.of(2026, 6, 1, 11, 0);
+        when(passengerRepository.findLastUpdated()).thenReturn(updated);
+        when(flightRepository.findLastUpdated()).thenReturn(updated);
+        cache.pollChanges();
+
+        cache.put(1L, trips(1L, 10, 2), true, cache.generation());
+        cache.put(2L, trips(2L, 20, 2), true, cache.generation());
+        when(passengerRepository.findIdsUpdatedAfter(updated.minusSeconds(30))).thenReturn(List.of(2L));
+        when(flightRepository.findIdsUpdatedAfter(updated.minusSeconds(30))).thenReturn(List.of());
+        cache.pollChanges();
+
+        assertTrue(cache.get(1L, trips -> true).isPresent());
+        assertTrue(cache.get(2L, trips -> true).isEmpty());
+    }
+
+    private RecentHistoryCache cache(long maxWeight, int tripsPerPassenger) {
+        return new RecentHistoryCache(passengerRepository, flightRepository, meterRegistry, clock, maxWeight,
+                tripsPerPassenger, Duration.ofMinutes(5), Duration.ZERO);
+    }
+
+    private static List<TravelHistoryDto> trips(Long passengerId, long firstHistoryId, int count) {
+        List<TravelHistoryDto> trips = new ArrayList<>();
+        for (long historyId = firstHistoryId + count - 1; historyId >= firstHistoryId; historyId--) {
+            trips.add(trip(passengerId, historyId));
+        }
+        return trips;
+    }
+
+    // Higher history IDs travelled later
+    private static TravelHistoryDto trip(Long passengerId, long historyId) {
+        return new TravelHistoryDto(historyId, passengerId, 1L, TODAY.minusDays(40 - historyId), "NYC", "LON",
+                "REF" + historyId, "Completed");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,28 +1,34 @@
 package com.oracle.travel_history_service.service;
 
+import com.oracle.travel_history_service.dto.FlightSummaryDto;
+import com.oracle.travel_history_service.dto.PassengerSummaryDto;
 import com.oracle.travel_history_service.dto.TravelHistoryResponseDto;
-import com.oracle.travel_history_service.entity.Flight;
-import com.oracle.travel_history_service.entity.Passenger;
 import com.oracle.travel_history_service.entity.TravelHistory;
+import com.oracle.travel_history_service.exception.TravelHistoryException;
 import com.oracle.travel_history_service.repository.FlightRepository;
 import com.oracle.travel_history_service.repository.PassengerRepository;
 import com.oracle.travel_history_service.repository.TravelHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 /**
@@ -40,15 +46,20 @@ class TravelHistoryServiceTest {
     @Mock
     private FlightRepository flightRepository;
 
-    @InjectMocks
+    private RecentHistoryCache recentHistoryCache;
     private TravelHistoryService travelHistoryService;
 
     private TravelHistory sampleTravelHistory;
-    private Passenger samplePassenger;
-    private Flight sampleFlight;
+    private PassengerSummaryDto samplePassengerSummary;
+    private FlightSummaryDto sampleFlightSummary;
 
     @BeforeEach
     void setUp() {
+        recentHistoryCache = new RecentHistoryCache(passengerRepository, flightRepository, new SimpleMeterRegistry(),
+                Clock.systemDefaultZone(), 1000, 20, Duration.ofMinutes(5), Duration.ZERO);
+        travelHistoryService = new TravelHistoryService(travelHistoryRepository, passengerRepository,
+                flightRepository, recentHistoryCache);
+
         // Sample TravelHistory
         sampleTravelHistory = new TravelHistory();
         sampleTravelHistory.setHistoryId(1L);
@@ -66,28 +77,10 @@ class TravelHistoryServiceTest {
         sampleTravelHistory.setNotes("On-time arrival");
         sampleTravelHistory.setCreatedAt(LocalDateTime.now());
 
-        // Sample Passenger
-        samplePassenger = new Passenger();
-        samplePassenger.setPassengerId(1L);
-        samplePassenger.setFlightId(1L);
-        samplePassenger.setName("Alice Johnson");
-        samplePassenger.setPhoneNumber("123-456-7890");
-        samplePassenger.setOrigin("NYC");
-        samplePassenger.setDestination("LON");
-        samplePassenger.setSeat("1");
-        samplePassenger.setCheckedIn("Y");
-
-        // Sample Flight
-        sampleFlight = new Flight();
-        sampleFlight.setFlightId(1L);
-        sampleFlight.setFlightName("Flight 101");
-        sampleFlight.setFlightDate(LocalDate.of(2025, 8, 20));
-        sampleFlight.setRoute("NYC-LON");
-        sampleFlight.setDepartureTime("08:00 AM");
-        sampleFlight.setArrivalTime("04:00 PM");
-        sampleFlight.setAircraftType("Boeing 747");
-        sampleFlight.setTotalSeats(20);
-        sampleFlight.setAvailableSeats(17);
+        // Sample passenger and flight summaries, as the projection queries return them
+        samplePassengerSummary = new PassengerSummaryDto(1L, "Alice Johnson", "123-456-7890", null, null, "1", "Y");
+        sampleFlightSummary = new FlightSummaryDto(1L, "Flight 101", LocalDate.of(2025, 8, 20), "NYC-LON",
+                "08:00 AM", "04:00 PM", "Boeing 747", 20, 17);
     }
 
     @Test
@@ -95,10 +88,11 @@ class TravelHistoryServiceTest {
         Long passengerId = 1L;
         List<TravelHistory> travelHistoryList = Arrays.asList(sampleTravelHistory);
 
-        when(passengerRepository.findById(passengerId)).thenReturn(Optional.of(samplePassenger));
+        when(passengerRepository.existsById(passengerId)).thenReturn(true);
         when(travelHistoryRepository.findByPassengerIdOrderByTravelDateDesc(passengerId))
                 .thenReturn(travelHistoryList);
-        when(flightRepository.findById(anyLong())).thenReturn(Optional.of(sampleFlight));
+        when(passengerRepository.findSummariesByIdIn(Set.of(passengerId))).thenReturn(List.of(samplePassengerSummary));
+        when(flightRepository.findSummariesByIdIn(Set.of(1L))).thenReturn(List.of(sampleFlightSummary));
 
         TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByPassenger(passengerId);
 
@@ -109,15 +103,20 @@ class TravelHistoryServiceTest {
         assertEquals(passengerId.toString(), response.getFilterValue());
         assertNotNull(response.getTravelHistoryList());
         assertEquals(1, response.getTravelHistoryList().size());
+        assertEquals("Alice Johnson", response.getTravelHistoryList().get(0).getPassenger().getName());
+        assertEquals("Flight 101", response.getTravelHistoryList().get(0).getFlight().getFlightName());
 
-        verify(passengerRepository, times(2)).findById(passengerId); // called twice due to convertToDto
+        // Summaries come from one projection query each, never from entity lookups
+        verify(passengerRepository).existsById(passengerId);
+        verify(passengerRepository, never()).findById(any());
+        verify(flightRepository, never()).findById(any());
         verify(travelHistoryRepository).findByPassengerIdOrderByTravelDateDesc(passengerId);
     }
 
     @Test
     void testGetTravelHistoryByPassenger_PassengerNotFound() {
         Long passengerId = 999L;
-        when(passengerRepository.findById(passengerId)).thenReturn(Optional.empty());
+        when(passengerRepository.existsById(passengerId)).thenReturn(false);
 
         TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByPassenger(passengerId);
 
@@ -125,7 +124,7 @@ class TravelHistoryServiceTest {
         assertTrue(response.getMessage().contains("Passenger not found"));
         assertEquals(0, response.getTotalRecords());
 
-        verify(passengerRepository).findById(passengerId);
+        verify(passengerRepository).existsById(passengerId);
         verify(travelHistoryRepository, never()).findByPassengerIdOrderByTravelDateDesc(any());
     }
 
@@ -134,8 +133,8 @@ class TravelHistoryServiceTest {
         String bookingReference = "ABC123";
         when(travelHistoryRepository.findByBookingReference(bookingReference))
                 .thenReturn(Optional.of(sampleTravelHistory));
-        when(passengerRepository.findById(anyLong())).thenReturn(Optional.of(samplePassenger));
-        when(flightRepository.findById(anyLong())).thenReturn(Optional.of(sampleFlight));
+        when(passengerRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(samplePassengerSummary));
+        when(flightRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(sampleFlightSummary));
 
         TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByBookingReference(bookingReference);
 
@@ -170,10 +169,11 @@ class TravelHistoryServiceTest {
         Long flightId = 1L;
         List<TravelHistory> travelHistoryList = Arrays.asList(sampleTravelHistory);
 
-        when(flightRepository.findById(flightId)).thenReturn(Optional.of(sampleFlight));
+        when(flightRepository.existsById(flightId)).thenReturn(true);
         when(travelHistoryRepository.findByFlightIdOrderByTravelDateDesc(flightId))
                 .thenReturn(travelHistoryList);
-        when(passengerRepository.findById(anyLong())).thenReturn(Optional.of(samplePassenger));
+        when(passengerRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(samplePassengerSummary));
+        when(flightRepository.findSummariesByIdIn(Set.of(flightId))).thenReturn(List.of(sampleFlightSummary));
 
         TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByFlight(flightId);
 
@@ -185,14 +185,15 @@ class TravelHistoryServiceTest {
         assertNotNull(response.getTravelHistoryList());
         assertEquals(1, response.getTravelHistoryList().size());
 
-        verify(flightRepository, times(2)).findById(flightId); // called twice due to convertToDto
+        verify(flightRepository).existsById(flightId);
+        verify(flightRepository).findSummariesByIdIn(Set.of(flightId));
         verify(travelHistoryRepository).findByFlightIdOrderByTravelDateDesc(flightId);
     }
 
     @Test
     void testGetTravelHistoryByFlight_FlightNotFound() {
         Long flightId = 999L;
-        when(flightRepository.findById(flightId)).thenReturn(Optional.empty());
+        when(flightRepository.existsById(flightId)).thenReturn(false);
 
         TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByFlight(flightId);
 
@@ -200,19 +201,22 @@ class TravelHistoryServiceTest {
         assertTrue(response.getMessage().contains("Flight not found"));
         assertEquals(0, response.getTotalRecords());
 
-        verify(flightRepository).findById(flightId);
+        verify(flightRepository).existsById(flightId);
         verify(travelHistoryRepository, never()).findByFlightIdOrderByTravelDateDesc(any());
     }
 
     @Test
     void testGetRecentTravelHistory_Success() {
         Long passengerId = 1L;
-        List<TravelHistory> travelHistoryList = Arrays.asList(sampleTravelHistory);
+        sampleTravelHistory.setTravelDate(LocalDate.now().minusDays(5));
+        TravelHistory olderTrip = new TravelHistory(passengerId, 1L, LocalDate.now().minusDays(90), "LON", "NYC",
+                "ABC122");
+        olderTrip.setHistoryId(2L);
+        List<TravelHistory> travelHistoryList = Arrays.asList(sampleTravelHistory, olderTrip);
 
-        when(travelHistoryRepository.findRecentTravelHistory(eq(passengerId), any(LocalDate.class)))
-                .thenReturn(travelHistoryList);
-        when(passengerRepository.findById(anyLong())).thenReturn(Optional.of(samplePassenger));
-        when(flightRepository.findById(anyLong())).thenReturn(Optional.of(sampleFlight));
+        when(travelHistoryRepository.findRecentByPassengerId(passengerId, 21)).thenReturn(travelHistoryList);
+        when(passengerRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(samplePassengerSummary));
+        when(flightRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(sampleFlightSummary));
 
         TravelHistoryResponseDto response = travelHistoryService.getRecentTravelHistory(passengerId);
 
@@ -222,7 +226,12 @@ class TravelHistoryServiceTest {
         assertEquals("passenger", response.getFilterType());
         assertEquals(passengerId.toString(), response.getFilterValue());
 
-        verify(travelHistoryRepository).findRecentTravelHistory(eq(passengerId), any(LocalDate.class));
+        // The passenger's whole history is cached, so it answers the next request without queries
+        assertEquals("ABC123", travelHistoryService.getRecentTravelHistory(passengerId)
+                .getTravelHistoryList().get(0).getBookingReference());
+        verify(travelHistoryRepository, times(1)).findRecentByPassengerId(passengerId, 21);
+        verify(travelHistoryRepository, never()).findRecentTravelHistory(any(), any());
+        verify(passengerRepository, times(1)).findSummariesByIdIn(anyCollection());
     }
 
     @Test
@@ -233,8 +242,8 @@ class TravelHistoryServiceTest {
 
         when(travelHistoryRepository.findByPassengerIdAndStatusOrderByTravelDateDesc(passengerId, status))
                 .thenReturn(travelHistoryList);
-        when(passengerRepository.findById(anyLong())).thenReturn(Optional.of(samplePassenger));
-        when(flightRepository.findById(anyLong())).thenReturn(Optional.of(sampleFlight));
+        when(passengerRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(samplePassengerSummary));
+        when(flightRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(sampleFlightSummary));
 
         TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByStatus(passengerId, status);
 
@@ -248,16 +257,127 @@ class TravelHistoryServiceTest {
         verify(travelHistoryRepository).findByPassengerIdAndStatusOrderByTravelDateDesc(passengerId, status);
     }
 
+    @Test
+    void testGetTravelHistoryByPassenger_WithoutSections_ShouldSkipTheSummaryLookups() {
+        Long passengerId = 1L;
+        when(passengerRepository.existsById(passengerId)).thenReturn(true);
+        when(travelHistoryRepository.findByPassengerIdOrderByTravelDateDesc(passengerId))
+                .thenReturn(List.of(sampleTravelHistory));
+        when(flightRepository.findSummariesByIdIn(Set.of(1L))).thenReturn(List.of(sampleFlightSummary));
+
+        TravelHistoryResponseDto none = travelHistoryService.getTravelHistoryByPassenger(passengerId,
+                Enrichment.parse("none"));
+        TravelHistoryResponseDto flightOnly = travelHistoryService.getTravelHistoryByPassenger(passengerId,
+                Enrichment.parse("flight"));
+
+        assertEquals("ABC123", none.getTravelHistoryList().get(0).getBookingReference());
+        assertNull(none.getTravelHistoryList().get(0).getPassenger());
+        assertNull(none.getTravelHistoryList().get(0).getFlight());
+        assertNull(flightOnly.getTravelHistoryList().get(0).getPassenger());
+        assertEquals("Flight 101", flightOnly.getTravelHistoryList().get(0).getFlight().getFlightName());
+        verify(passengerRepository, never()).findSummariesByIdIn(anyCollection());
+        verify(flightRepository, times(1)).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    void testGetTravelHistoryByFlight_ManyPassengers_ShouldLookUpSummariesInBatches() {
+        Long flightId = 1L;
+        List<TravelHistory> travelHistoryList = new ArrayList<>();
+        for (long passengerId = 1; passengerId <= 1200; passengerId++) {
+            TravelHistory travelHistory = new TravelHistory(passengerId, flightId, LocalDate.of(2024, 12, 15),
+                    "NYC", "LON", "REF" + passengerId);
+            travelHistoryList.add(travelHistory);
+        }
+        when(flightRepository.existsById(flightId)).thenReturn(true);
+        when(travelHistoryRepository.findByFlightIdOrderByTravelDateDesc(flightId)).thenReturn(travelHistoryList);
+        when(passengerRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new PassengerSummaryDto(id, "Passenger " + id, null, null, null, null, "N"))
+                    .toList();
+        });
+        when(flightRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(sampleFlightSummary));
+
+        TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByFlight(flightId,
+                Enrichment.parse("passenger,flight"));
+
+        assertEquals(1200, response.getTotalRecords());
+        assertEquals("Passenger 1200", response.getTravelHistoryList().get(1199).getPassenger().getName());
+        verify(passengerRepository, times(3)).findSummariesByIdIn(argThat(ids -> ids.size() <= 500));
+        verify(flightRepository, times(1)).findSummariesByIdIn(Set.of(flightId));
+    }
+
+    @Test
+    void testEnrichment_ShouldParseTheIncludeParameter() {
+        assertEquals(Enrichment.ALL, Enrichment.parse(null));
+        assertEquals(Set.of(), Enrichment.parse(""));
+        assertEquals(Set.of(Enrichment.PASSENGER), Enrichment.parse(" Passenger "));
+        assertEquals(Enrichment.ALL, Enrichment.parse("flight,passenger"));
+        assertNull(Enrichment.variant(Enrichment.ALL));
+        assertEquals("none", Enrichment.variant(Enrichment.parse("none")));
+        assertThrows(TravelHistoryException.class,
+                () -> Enrichment.parse("passenger,seat"));
+    }
+
+    @Test
+    void testGetTravelHistoryByPassenger_Cached_ShouldServeEveryIncludeWithoutQueries() {
+        Long passengerId = 1L;
+        when(passengerRepository.existsById(passengerId)).thenReturn(true);
+        when(travelHistoryRepository.findByPassengerIdOrderByTravelDateDesc(passengerId))
+                .thenReturn(List.of(sampleTravelHistory));
+        when(passengerRepository.findSummariesByIdIn(Set.of(passengerId))).thenReturn(List.of(samplePassengerSummary));
+        when(flightRepository.findSummariesByIdIn(Set.of(1L))).thenReturn(List.of(sampleFlightSummary));
+
+        travelHistoryService.getTravelHistoryByPassenger(passengerId);
+        TravelHistoryResponseDto none = travelHistoryService.getTravelHistoryByPassenger(passengerId,
+                Enrichment.parse("none"));
+        TravelHistoryResponseDto all = travelHistoryService.getTravelHistoryByPassenger(passengerId);
+
+        assertNull(none.getTravelHistoryList().get(0).getPassenger());
+        assertEquals("12A", none.getTravelHistoryList().get(0).getSeat());
+        // Leaving sections out copies the cached records rather than changing them
+        assertEquals("Alice Johnson", all.getTravelHistoryList().get(0).getPassenger().getName());
+        verify(passengerRepository, times(1)).existsById(passengerId);
+        verify(travelHistoryRepository, times(1)).findByPassengerIdOrderByTravelDateDesc(passengerId);
+        assertEquals(2, recentHistoryCache.getStats().getHits());
+    }
+
+    @Test
+    void testCacheInserted_ShouldMergeNewTripsIntoCachedPassengersOnly() {
+        Long passengerId = 1L;
+        when(passengerRepository.existsById(passengerId)).thenReturn(true);
+        when(travelHistoryRepository.findByPassengerIdOrderByTravelDateDesc(passengerId))
+                .thenReturn(List.of(sampleTravelHistory));
+        when(passengerRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(samplePassengerSummary));
+        when(flightRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(sampleFlightSummary));
+        travelHistoryService.getTravelHistoryByPassenger(passengerId);
+
+        TravelHistory newTrip = new TravelHistory(passengerId, 1L, LocalDate.of(2025, 1, 10), "LON", "NYC", "ABC124");
+        newTrip.setHistoryId(3L);
+        TravelHistory otherPassenger = new TravelHistory(2L, 1L, LocalDate.of(2025, 1, 10), "LON", "NYC", "XYZ999");
+        otherPassenger.setHistoryId(4L);
+        travelHistoryService.cacheInserted(List.of(newTrip, otherPassenger));
+
+        TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByPassenger(passengerId);
+
+        assertEquals(2, response.getTotalRecords());
+        assertEquals("ABC124", response.getTravelHistoryList().get(0).getBookingReference());
+        assertEquals("Alice Johnson", response.getTravelHistoryList().get(0).getPassenger().getName());
+        verify(travelHistoryRepository, times(1)).findByPassengerIdOrderByTravelDateDesc(passengerId);
+        // Only the cached passenger's trip is converted
+        verify(passengerRepository, times(2)).findSummariesByIdIn(Set.of(passengerId));
+        verify(passengerRepository, never()).findSummariesByIdIn(Set.of(2L));
+    }
+
     @Test
     void testGetTravelHistoryByPassenger_ExceptionHandling() {
         Long passengerId = 1L;
-        when(passengerRepository.findById(passengerId)).thenThrow(new RuntimeException("Database error"));
+        when(passengerRepository.existsById(passengerId)).thenThrow(new RuntimeException("Database error"));
 
         TravelHistoryResponseDto response = travelHistoryService.getTravelHistoryByPassenger(passengerId);
 
         assertFalse(response.isSuccess());
         assertTrue(response.getMessage().contains("Error retrieving travel history"));
 
-        verify(passengerRepository).findById(passengerId);
+        verify(passengerRepository).existsById(passengerId);
     }
 }
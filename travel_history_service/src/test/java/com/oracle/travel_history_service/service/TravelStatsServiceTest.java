@@ -0,0 +1,178 @@
+package com.oracle.travel_history_service.service;
+
+import com.oracle.travel_history_service.dto.TravelStatsDto;
+import com.oracle.travel_history_service.entity.PassengerTravelStats;
+import com.oracle.travel_history_service.exception.TravelHistoryException;
+import com.oracle.travel_history_service.repository.PassengerRepository;
+import com.oracle.travel_history_service.repository.PassengerTravelStatsRepository;
+import com.oracle.travel_history_service.repository.TravelHistoryRepository;
+import com.oracle.travel_history_service.repository.TravelStatsRow;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TravelStatsService
+ */
+@ExtendWith(MockitoExtension.class)
+class TravelStatsServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-06-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Mock
+    private TravelHistoryRepository travelHistoryRepository;
+
+    @Mock
+    private PassengerTravelStatsRepository statsRepository;
+
+    @Mock
+    private PassengerRepository passengerRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TravelStatsService travelStatsService;
+
+    @BeforeEach
+    void setUp() {
+        travelStatsService = new TravelStatsService(travelHistoryRepository, statsRepository, passengerRepository,
+                entityManager, transactionManager, CLOCK, 2, 2, 2, false, Duration.ZERO);
+    }
+
+    @Test
+    void getStats_WithStoredStats_ShouldReadOneRowAndWorkOutTheTier() {
+        PassengerTravelStats stats = new PassengerTravelStats(1L);
+        stats.setTotalTrips(14);
+        stats.setCompletedTrips(12);
+        stats.setDistanceKm(30_000);
+        stats.setTripsByYear(Map.of("2024", 5L, "2025", 4L, "2026", 3L));
+        stats.setDistanceByYear(Map.of("2024", 12_000L, "2025", 9_000L, "2026", 9_000L));
+        stats.setTripsByRoute(Map.of("NYC-LON", 6L, "LON-PAR", 2L, "NYC-SFO", 4L));
+        when(statsRepository.findById(1L)).thenReturn(Optional.of(stats));
+
+        TravelStatsDto result = travelStatsService.getStats(1L);
+
+        assertEquals(12, result.getCompletedTrips());
+        assertEquals(30_000, result.getTotalDistanceKm());
+        // 2025 and 2026 qualify: 7 trips, 18,000 km
+        assertEquals(7, result.getQualifyingTrips());
+        assertEquals(18_000, result.getQualifyingDistanceKm());
+        assertEquals("BLUE", result.getTier());
+        assertEquals("SILVER", result.getNextTier());
+        assertEquals(List.of("NYC-LON", "NYC-SFO"),
+                result.getTopRoutes().stream().map(TravelStatsDto.RouteCount::getRoute).toList());
+        verifyNoInteractions(travelHistoryRepository, passengerRepository);
+    }
+
+    @Test
+    void getStats_WithoutStoredStats_ShouldComputeThemFromHistory() {
+        when(statsRepository.findById(1L)).thenReturn(Optional.empty());
+        when(passengerRepository.existsById(1L)).thenReturn(true);
+        when(travelHistoryRepository.findStatsRowsByPassengerIdIn(List.of(1L))).thenReturn(List.of(
+                row(1L, "Completed", "Economy", "NYC", "LON", 2026, 20, 30_000, 2_400, "2026-01-10", "2026-05-02"),
+                row(1L, "Cancelled", "Business", "NYC", "LON", 2026, 1, 5_500, 420, "2026-03-01", "2026-03-01"),
+                row(1L, "Completed", "Business", "LON", "PAR", 2025, 6, 2_000, 420, "2025-04-01", "2025-09-15")));
+
+        TravelStatsDto result = travelStatsService.getStats(1L);
+
+        assertEquals(27, result.getTotalTrips());
+        assertEquals(26, result.getCompletedTrips());
+        assertEquals(32_000, result.getTotalDistanceKm());
+        assertEquals(2_820, result.getTotalDurationMin());
+        assertEquals(Map.of("Completed", 26L, "Cancelled", 1L), result.getTripsByStatus());
+        assertEquals(Map.of("Economy", 20L, "Business", 7L), result.getTripsByFareClass());
+        assertEquals(LocalDate.of(2025, 4, 1), result.getFirstTravelDate());
+        assertEquals(LocalDate.of(2026, 5, 2), result.getLastTravelDate());
+        assertEquals("GOLD", result.getTier());
+        assertEquals("PLATINUM", result.getNextTier());
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void getStats_WithUnknownPassenger_ShouldThrowNotFound() {
+        when(statsRepository.findById(999L)).thenReturn(Optional.empty());
+        when(passengerRepository.existsById(999L)).thenReturn(false);
+
+        TravelHistoryException ex = assertThrows(TravelHistoryException.class,
+                () -> travelStatsService.getStats(999L));
+
+        assertEquals(TravelHistoryException.ErrorType.NOT_FOUND, ex.getErrorType());
+    }
+
+    @Test
+    void refresh_ShouldReplaceTheStatsOfEachPassenger() {
+        when(travelHistoryRepository.findStatsRowsByPassengerIdIn(any())).thenReturn(List.of(
+                row(1L, "Completed", "Economy", "NYC", "LON", 2026, 2, 11_000, 840, "2026-02-01", "2026-02-08")));
+
+        travelStatsService.refresh(List.of(1L, 2L, 1L));
+
+        // Passenger 2 has no history left, so only their old row is deleted
+        ArgumentCaptor<PassengerTravelStats> saved = ArgumentCaptor.forClass(PassengerTravelStats.class);
+        verify(statsRepository).deleteByPassengerIdIn(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+        verify(entityManager).persist(saved.capture());
+        assertEquals(1L, saved.getValue().getPassengerId());
+        assertEquals(Map.of("NYC-LON", 2L), saved.getValue().getTripsByRoute());
+        assertEquals(Map.of("2026", 11_000L), saved.getValue().getDistanceByYear());
+    }
+
+    @Test
+    void rebuild_ShouldRebuildEveryPartitionInItsOwnTransaction() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        when(travelHistoryRepository.streamStatsRowsByPartition(2, 0)).thenAnswer(invocation -> Stream.of(
+                row(2L, "Completed", "Economy", "NYC", "LON", 2026, 1, 5_500, 420, "2026-01-01", "2026-01-01"),
+                row(2L, "Booked", "Economy", "LON", "NYC", 2026, 1, 5_500, 450, "2026-07-01", "2026-07-01"),
+                row(4L, "Completed", "First", "SFO", "NRT", 2025, 1, 8_300, 660, "2025-05-05", "2025-05-05")));
+        when(travelHistoryRepository.streamStatsRowsByPartition(2, 1)).thenAnswer(invocation -> Stream.of(
+                row(3L, "Completed", "Economy", "NYC", "MIA", 2026, 3, 5_200, 540, "2026-02-01", "2026-04-01")));
+
+        assertEquals(3, travelStatsService.rebuild());
+
+        verify(statsRepository).deleteByPartition(2, 0);
+        verify(statsRepository).deleteByPartition(2, 1);
+        verify(statsRepository, never()).deleteByPartition(eq(2), intThat(partition -> partition > 1));
+        verify(entityManager, times(3)).persist(any(PassengerTravelStats.class));
+        verify(transactionManager, times(2)).commit(any());
+        verify(travelHistoryRepository, times(2)).streamStatsRowsByPartition(eq(2), anyInt());
+    }
+
+    @Test
+    void frequentFlyerTier_ShouldBeEarnedByTripsOrDistance() {
+        assertEquals(FrequentFlyerTier.BLUE, FrequentFlyerTier.of(9, 24_999));
+        assertEquals(FrequentFlyerTier.SILVER, FrequentFlyerTier.of(10, 0));
+        assertEquals(FrequentFlyerTier.GOLD, FrequentFlyerTier.of(3, 50_000));
+        assertEquals(FrequentFlyerTier.PLATINUM, FrequentFlyerTier.of(50, 0));
+        assertNull(FrequentFlyerTier.PLATINUM.next());
+    }
+
+    private static TravelStatsRow row(Long passengerId, String status, String fareClass, String origin,
+                                      String destination, int year, long trips, long distanceKm, long durationMin,
+                                      String firstTravelDate, String lastTravelDate) {
+        return new TravelStatsRow(passengerId, status, fareClass, origin, destination, year, trips, distanceKm,
+                durationMin, LocalDate.parse(firstTravelDate), LocalDate.parse(lastTravelDate));
+    }
+}